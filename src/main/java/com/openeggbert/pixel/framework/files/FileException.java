@@ -37,5 +37,16 @@ public class FileException extends PixelException {
     public FileException(String string) {
         super(string);
     }
+
+    /**
+     * Constructs a new FileException with the specified detail message and
+     * cause.
+     *
+     * @param string the detail message for this exception.
+     * @param e the cause of this exception.
+     */
+    public FileException(String string, Exception e) {
+        super(string, e);
+    }
     
 }
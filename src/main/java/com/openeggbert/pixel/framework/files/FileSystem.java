@@ -286,6 +286,28 @@ public interface FileSystem {
         return file(printWorkingDirectory());
     }
 
+    /**
+     * Returns the size of the file in bytes, if it can be found out without
+     * reading the file. Otherwise, returns -1.
+     *
+     * @param path the path of the file
+     * @return the size in bytes, or -1 if it is not known
+     */
+    default long getSize(String path) {
+        return -1;
+    }
+
+    /**
+     * Returns the time of the last modification of the file in milliseconds
+     * since the epoch. If the file system does not track it, returns 0.
+     *
+     * @param path the path of the file
+     * @return the time of the last modification, or 0 if it is not known
+     */
+    default long lastModified(String path) {
+        return 0;
+    }
+
     FileType type(String path);
 
     RegularFileType getRegularFileType(String path);
@@ -0,0 +1,307 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// Pixel: Game library.
+// Copyright (C) 2024 the original author or authors.
+//
+// This program is free software: you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation, either version 3
+// of the License, or (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program. If not, see
+// <https://www.gnu.org/licenses/> or write to the Free Software
+// Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+///////////////////////////////////////////////////////////////////////////////////////////////
+package com.openeggbert.pixel.framework.files.async;
+
+import com.openeggbert.pixel.framework.Disposable;
+import com.openeggbert.pixel.framework.Pixel;
+import com.openeggbert.pixel.framework.files.FileException;
+import com.openeggbert.pixel.framework.files.FileSystem;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Asynchronous facade of a {@link FileSystem}. The operations are executed by
+ * a bounded pool of I/O threads and their results are returned as
+ * {@link CompletableFuture}s, so that for example reading a big texture does
+ * not stall the render thread.
+ *
+ * <p>
+ * Concurrent reads of the same file are coalesced: while a read of a path is
+ * in flight, further reads of this path get the result of the first read
+ * (including the same byte array, which must not be modified). Reads
+ * submitted after a write of the path are not coalesced with earlier reads and
+ * are executed after the write, writes of a path keep their order. Paths are
+ * converted to absolute paths at the time of the call, so changing the
+ * working directory of the wrapped file system later does not affect pending
+ * operations.
+ * </p>
+ *
+ * <p>
+ * The futures can be completed on the game thread using
+ * {@link com.openeggbert.pixel.framework.interfaces.App#runLater(Runnable)}.
+ * When the queue of the I/O executor is full, the returned future fails with
+ * a {@link FileException} instead of blocking the caller.
+ * </p>
+ *
+ * <p>
+ * If more than one I/O thread is used, the wrapped file system must support
+ * concurrent calls. This class is not part of the GWT module.
+ * </p>
+ *
+ * @author robertvokac
+ */
+public class AsyncFileSystem implements Disposable {
+
+    public static final int DEFAULT_THREAD_COUNT = 1;
+    public static final int DEFAULT_QUEUE_CAPACITY = 256;
+
+    private static final AtomicInteger POOL_NUMBER = new AtomicInteger();
+
+    private final FileSystem fileSystem;
+    private final ThreadPoolExecutor ioExecutor;
+    private final Executor completionExecutor;
+    private final ConcurrentMap<String, CompletableFuture<byte[]>> inFlightReads = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, CompletableFuture<String>> pendingWrites = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs an AsyncFileSystem with one I/O thread. The futures are
+     * completed on the I/O thread.
+     *
+     * @param fileSystem the wrapped file system
+     */
+    public AsyncFileSystem(FileSystem fileSystem) {
+        this(fileSystem, DEFAULT_THREAD_COUNT, DEFAULT_QUEUE_CAPACITY, false);
+    }
+
+    /**
+     * Constructs an AsyncFileSystem.
+     *
+     * @param fileSystem the wrapped file system
+     * @param threadCount the count of I/O threads
+     * @param queueCapacity the maximum count of waiting operations
+     * @param completeOnGameThread if true, then the futures are completed on
+     * the game thread via App.runLater, otherwise on the I/O thread
+     */
+    public AsyncFileSystem(FileSystem fileSystem, int threadCount, int queueCapacity, boolean completeOnGameThread) {
+        this(fileSystem, threadCount, queueCapacity, completeOnGameThread ? r -> Pixel.app().runLater(r) : null);
+    }
+
+    /**
+     * Constructs an AsyncFileSystem.
+     *
+     * @param fileSystem the wrapped file system
+     * @param threadCount the count of I/O threads
+     * @param queueCapacity the maximum count of waiting operations
+     * @param completionExecutor the executor completing the returned futures,
+     * or null to complete them on the I/O thread
+     */
+    public AsyncFileSystem(FileSystem fileSystem, int threadCount, int queueCapacity, Executor completionExecutor) {
+        if (threadCount < 1) {
+            throw new FileException("Thread count must be positive: " + threadCount);
+        }
+        this.fileSystem = fileSystem;
+        this.completionExecutor = completionExecutor;
+        String namePrefix = "pixel-io-" + POOL_NUMBER.incrementAndGet() + "-";
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.ioExecutor = new ThreadPoolExecutor(
+                threadCount,
+                threadCount,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, namePrefix + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public FileSystem getFileSystem() {
+        return fileSystem;
+    }
+
+    /**
+     * Reads the content of a binary file. Reads of the same path, which are in
+     * flight at the same time, are executed only once.
+     *
+     * @param name the path of the file
+     * @return the future with the content, or with null if the file could not
+     * be read
+     */
+    public CompletableFuture<byte[]> readBytes(String name) {
+        String absolutePath = fileSystem.convertToAbsolutePathIfNeeded(name);
+        CompletableFuture<byte[]> created = new CompletableFuture<>();
+        CompletableFuture<byte[]> existing = inFlightReads.putIfAbsent(absolutePath, created);
+        if (existing != null) {
+            return complete(existing);
+        }
+        created.whenComplete((r, e) -> inFlightReads.remove(absolutePath, created));
+        runAfterWrite(absolutePath, () -> fileSystem.readBytes(absolutePath), created);
+        return complete(created);
+    }
+
+    /**
+     * Reads the content of a text file.
+     *
+     * @param name the path of the file
+     * @return the future with the text, or with null if the file could not be
+     * read
+     */
+    public CompletableFuture<String> readString(String name) {
+        String absolutePath = fileSystem.convertToAbsolutePathIfNeeded(name);
+        CompletableFuture<String> future = new CompletableFuture<>();
+        runAfterWrite(absolutePath, () -> fileSystem.readString(absolutePath), future);
+        return complete(future);
+    }
+
+    /**
+     * Saves binary data to a file.
+     *
+     * @param name the path of the file
+     * @param data the data to save
+     * @return the future with the result message, empty if successful
+     */
+    public CompletableFuture<String> writeBytes(String name, byte[] data) {
+        String absolutePath = fileSystem.convertToAbsolutePathIfNeeded(name);
+        return write(absolutePath, () -> fileSystem.writeBytes(absolutePath, data));
+    }
+
+    /**
+     * Saves text to a file.
+     *
+     * @param name the path of the file
+     * @param text the text to save
+     * @return the future with the result message, empty if successful
+     */
+    public CompletableFuture<String> writeString(String name, String text) {
+        String absolutePath = fileSystem.convertToAbsolutePathIfNeeded(name);
+        return write(absolutePath, () -> fileSystem.writeString(absolutePath, text));
+    }
+
+    /**
+     * Lists the content of a directory.
+     *
+     * @param workingDirectory the directory to list
+     * @return the future with the list
+     */
+    public CompletableFuture<List<String>> list(String workingDirectory) {
+        String absolutePath = fileSystem.convertToAbsolutePathIfNeeded(workingDirectory);
+        return submit(() -> fileSystem.list(absolutePath));
+    }
+
+    /**
+     * Checks whether a file or directory exists.
+     *
+     * @param name the path to check
+     * @return the future with the result
+     */
+    public CompletableFuture<Boolean> exists(String name) {
+        String absolutePath = fileSystem.convertToAbsolutePathIfNeeded(name);
+        CompletableFuture<Boolean> future = new CompletableFuture<>();
+        runAfterWrite(absolutePath, () -> fileSystem.exists(absolutePath), future);
+        return complete(future);
+    }
+
+    /**
+     * Returns the count of reads, which are in flight now.
+     *
+     * @return the count of distinct paths being read
+     */
+    public int getInFlightReadCount() {
+        return inFlightReads.size();
+    }
+
+    /**
+     * Submits a write. Reads of the path submitted later are neither coalesced
+     * with reads submitted before nor executed before this write. Writes of the
+     * same path are executed in the order of submission.
+     */
+    private CompletableFuture<String> write(String absolutePath, Supplier<String> operation) {
+        CompletableFuture<String> future = new CompletableFuture<>();
+        //registered before the in-flight read is removed,
+        //so a read submitted in between still runs after this write
+        CompletableFuture<String> previous = pendingWrites.put(absolutePath, future);
+        inFlightReads.remove(absolutePath);
+        future.whenComplete((r, e) -> pendingWrites.remove(absolutePath, future));
+        runAfter(previous, absolutePath, operation, future);
+        return complete(future);
+    }
+
+    private <T> void runAfterWrite(String absolutePath, Supplier<T> operation, CompletableFuture<T> future) {
+        runAfter(pendingWrites.get(absolutePath), absolutePath, operation, future);
+    }
+
+    private <T> void runAfter(CompletableFuture<?> previous, String absolutePath, Supplier<T> operation, CompletableFuture<T> future) {
+        if (previous == null) {
+            execute(absolutePath, operation, future);
+        } else {
+            previous.whenComplete((r, e) -> execute(absolutePath, operation, future));
+        }
+    }
+
+    private <T> void execute(String absolutePath, Supplier<T> operation, CompletableFuture<T> future) {
+        try {
+            ioExecutor.execute(() -> {
+                try {
+                    future.complete(operation.get());
+                } catch (RuntimeException e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(rejected(absolutePath));
+        }
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> operation) {
+        CompletableFuture<T> future;
+        try {
+            future = CompletableFuture.supplyAsync(operation, ioExecutor);
+        } catch (RejectedExecutionException e) {
+            future = new CompletableFuture<>();
+            future.completeExceptionally(rejected(null));
+        }
+        return complete(future);
+    }
+
+    private FileException rejected(String absolutePath) {
+        String reason = ioExecutor.isShutdown() ? "File system is disposed" : "I/O queue is full";
+        return new FileException(absolutePath == null ? reason : reason + ", could not access: " + absolutePath);
+    }
+
+    private <T> CompletableFuture<T> complete(CompletableFuture<T> future) {
+        if (completionExecutor == null) {
+            //a dependent future, so that callers cannot complete the shared one
+            return future.thenApply(r -> r);
+        }
+        return future.whenCompleteAsync((r, e) -> {
+        }, completionExecutor);
+    }
+
+    @Override
+    public void dispose() {
+        ioExecutor.shutdown();
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return ioExecutor.isShutdown();
+    }
+}
@@ -0,0 +1,57 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// Pixel: Game library.
+// Copyright (C) 2024 the original author or authors.
+//
+// This program is free software: you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation, either version 3
+// of the License, or (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program. If not, see
+// <https://www.gnu.org/licenses/> or write to the Free Software
+// Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+///////////////////////////////////////////////////////////////////////////////////////////////
+package com.openeggbert.pixel.framework.files.host;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Result of a bulk import or export of files.
+ *
+ * @author robertvokac
+ */
+@AllArgsConstructor
+@Getter
+public class BulkTransferReport {
+
+    private final int fileCount;
+    private final int directoryCount;
+    private final long byteCount;
+    private final long elapsedNanos;
+
+    /**
+     * Returns the throughput.
+     *
+     * @return transferred bytes per second
+     */
+    public double getBytesPerSecond() {
+        return elapsedNanos == 0 ? 0 : byteCount * 1_000_000_000d / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "BulkTransferReport{files=" + fileCount
+                + ", directories=" + directoryCount
+                + ", bytes=" + byteCount
+                + ", ms=" + (elapsedNanos / 1_000_000)
+                + ", MB/s=" + String.format("%.2f", getBytesPerSecond() / (1024 * 1024))
+                + "}";
+    }
+}
@@ -0,0 +1,106 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// Pixel: Game library.
+// Copyright (C) 2024 the original author or authors.
+//
+// This program is free software: you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation, either version 3
+// of the License, or (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program. If not, see
+// <https://www.gnu.org/licenses/> or write to the Free Software
+// Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+///////////////////////////////////////////////////////////////////////////////////////////////
+package com.openeggbert.pixel.framework.files.host;
+
+import com.openeggbert.pixel.framework.files.FileException;
+import com.openeggbert.pixel.framework.files.FileSystem;
+import com.openeggbert.pixel.framework.files.map.MapFileSystem;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+/**
+ * Exports a directory of a {@link MapFileSystem} into a directory tree of the
+ * host file system. The files are read and decompressed on the calling
+ * thread, because the {@link com.openeggbert.pixel.framework.interfaces.Utils}
+ * of a backend is not required to be thread-safe, and written in parallel.
+ *
+ * <p>
+ * This class uses java.nio.file and is not part of the GWT module.
+ * </p>
+ *
+ * @author robertvokac
+ */
+public class MapFileSystemExporter {
+
+    private MapFileSystemExporter() {
+        //Not meant to be instantiated.
+    }
+
+    /**
+     * Exports a directory.
+     *
+     * @param fileSystem the source file system
+     * @param sourceDirectory the directory in the source file system
+     * @param hostDirectory the target directory, it is created if it does not
+     * exist, existing files are overwritten
+     * @return the report
+     * @throws FileException if writing failed
+     */
+    public static BulkTransferReport exportDirectory(MapFileSystem fileSystem, String sourceDirectory, Path hostDirectory) {
+        long start = System.nanoTime();
+        String absoluteSource = fileSystem.convertToAbsolutePathIfNeeded(sourceDirectory);
+        if (!fileSystem.exists(absoluteSource) || !fileSystem.isDirectory(absoluteSource)) {
+            throw new FileException("Path is not directory: " + absoluteSource);
+        }
+        int prefixLength = absoluteSource.equals(FileSystem.SLASH) ? 1 : absoluteSource.length() + 1;
+
+        List<String> files = new ArrayList<>();
+        List<byte[]> contents = new ArrayList<>();
+        int directoryCount = 0;
+        try {
+            Files.createDirectories(hostDirectory);
+            //sorted, so parents come before their children
+            for (String path : fileSystem.listRecursively(absoluteSource)) {
+                if (fileSystem.isDirectory(path)) {
+                    Files.createDirectories(hostDirectory.resolve(path.substring(prefixLength)));
+                    directoryCount++;
+                } else {
+                    files.add(path);
+                    contents.add(fileSystem.readBytes(path));
+                }
+            }
+        } catch (IOException e) {
+            throw new FileException("Exporting directory failed: " + hostDirectory, e);
+        }
+
+        LongAdder byteCount = new LongAdder();
+        try {
+            IntStream.range(0, files.size()).parallel().forEach(i -> {
+                String path = files.get(i);
+                byte[] data = contents.get(i);
+                try {
+                    Files.write(hostDirectory.resolve(path.substring(prefixLength)), data);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                byteCount.add(data.length);
+            });
+        } catch (UncheckedIOException e) {
+            throw new FileException("Exporting directory failed: " + hostDirectory, e.getCause());
+        }
+        return new BulkTransferReport(files.size(), directoryCount, byteCount.sum(), System.nanoTime() - start);
+    }
+}
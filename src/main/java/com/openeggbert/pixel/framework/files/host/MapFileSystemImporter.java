@@ -0,0 +1,167 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// Pixel: Game library.
+// Copyright (C) 2024 the original author or authors.
+//
+// This program is free software: you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation, either version 3
+// of the License, or (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program. If not, see
+// <https://www.gnu.org/licenses/> or write to the Free Software
+// Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+///////////////////////////////////////////////////////////////////////////////////////////////
+package com.openeggbert.pixel.framework.files.host;
+
+import com.openeggbert.pixel.framework.files.FileException;
+import com.openeggbert.pixel.framework.files.FileSystem;
+import com.openeggbert.pixel.framework.files.map.MapFileSystem;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Imports a directory tree of the host file system into a
+ * {@link MapFileSystem}.
+ *
+ * <p>
+ * The tree is walked in parallel, the files are read and text files are
+ * detected and encoded in parallel on all cores and the result is inserted
+ * into the map with one call of
+ * {@link com.openeggbert.pixel.framework.files.map.SimpleMap#put(Map)}. Files
+ * containing valid UTF-8 text are stored as text files, other files as binary
+ * files.
+ * </p>
+ *
+ * <p>
+ * Binary files are compressed and encoded to base64 on the calling thread,
+ * because the {@link com.openeggbert.pixel.framework.interfaces.Utils} of a
+ * backend is not required to be thread-safe.
+ * </p>
+ *
+ * <p>
+ * This class uses java.nio.file and is not part of the GWT module.
+ * </p>
+ *
+ * @author robertvokac
+ */
+public class MapFileSystemImporter {
+
+    private MapFileSystemImporter() {
+        //Not meant to be instantiated.
+    }
+
+    /**
+     * Imports a host directory, text files are detected.
+     *
+     * @param hostDirectory the directory to import
+     * @param fileSystem the target file system
+     * @param targetDirectory the directory in the target file system, it is
+     * created if it does not exist
+     * @return the report
+     */
+    public static BulkTransferReport importDirectory(Path hostDirectory, MapFileSystem fileSystem, String targetDirectory) {
+        return importDirectory(hostDirectory, fileSystem, targetDirectory, true);
+    }
+
+    /**
+     * Imports a host directory.
+     *
+     * @param hostDirectory the directory to import
+     * @param fileSystem the target file system
+     * @param targetDirectory the directory in the target file system, it is
+     * created if it does not exist
+     * @param detectTextFiles if true, then files with UTF-8 text are stored as
+     * text files, otherwise all files are stored as binary files
+     * @return the report
+     * @throws FileException if reading failed or a target path already exists
+     */
+    public static BulkTransferReport importDirectory(Path hostDirectory, MapFileSystem fileSystem, String targetDirectory, boolean detectTextFiles) {
+        long start = System.nanoTime();
+        String absoluteTarget = fileSystem.convertToAbsolutePathIfNeeded(targetDirectory);
+        String prefix = absoluteTarget.equals(FileSystem.SLASH) ? FileSystem.SLASH : absoluteTarget + FileSystem.SLASH;
+
+        ParallelDirectoryWalker walker = new ParallelDirectoryWalker(hostDirectory);
+        List<Path> files = walker.getFiles();
+        List<Path> directories = walker.getDirectories();
+        LongAdder byteCount = new LongAdder();
+        Map<String, byte[]> binaryFiles = new ConcurrentHashMap<>();
+        Map<String, String> encodedFiles;
+        try {
+            encodedFiles = files
+                    .parallelStream()
+                    .map(file -> {
+                        String path = toMapPath(hostDirectory, file, prefix);
+                        byte[] data = readAllBytes(file);
+                        byteCount.add(data.length);
+                        String text = detectTextFiles ? decodeUtf8(data) : null;
+                        if (text != null && fileSystem.isStorableAsText(text)) {
+                            return new SimpleImmutableEntry<>(path, fileSystem.encodeFile(text));
+                        }
+                        binaryFiles.put(path, data);
+                        return null;
+                    })
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toConcurrentMap(Map.Entry::getKey, Map.Entry::getValue));
+        } catch (UncheckedIOException e) {
+            throw new FileException("Importing directory failed: " + hostDirectory, e.getCause());
+        }
+        for (Map.Entry<String, byte[]> entry : binaryFiles.entrySet()) {
+            encodedFiles.put(entry.getKey(), fileSystem.encodeFile(entry.getValue()));
+        }
+        if (!absoluteTarget.equals(FileSystem.SLASH) && !fileSystem.exists(absoluteTarget)) {
+            encodedFiles.put(absoluteTarget, fileSystem.encodeDirectory());
+        }
+        for (Path directory : directories) {
+            encodedFiles.put(toMapPath(hostDirectory, directory, prefix), fileSystem.encodeDirectory());
+        }
+        String result = fileSystem.putEncodedFiles(encodedFiles);
+        if (!result.isEmpty()) {
+            throw new FileException(result);
+        }
+        return new BulkTransferReport(files.size(), directories.size(), byteCount.sum(), System.nanoTime() - start);
+    }
+
+    private static String toMapPath(Path hostDirectory, Path path, String prefix) {
+        return prefix + hostDirectory.relativize(path).toString().replace('\\', '/');
+    }
+
+    private static byte[] readAllBytes(Path file) {
+        try {
+            return Files.readAllBytes(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String decodeUtf8(byte[] data) {
+        try {
+            return StandardCharsets.UTF_8
+                    .newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPORT)
+                    .onUnmappableCharacter(CodingErrorAction.REPORT)
+                    .decode(ByteBuffer.wrap(data))
+                    .toString();
+        } catch (CharacterCodingException e) {
+            return null;
+        }
+    }
+}
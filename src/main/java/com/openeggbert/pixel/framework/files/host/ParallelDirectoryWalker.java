@@ -0,0 +1,104 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// Pixel: Game library.
+// Copyright (C) 2024 the original author or authors.
+//
+// This program is free software: you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation, either version 3
+// of the License, or (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program. If not, see
+// <https://www.gnu.org/licenses/> or write to the Free Software
+// Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+///////////////////////////////////////////////////////////////////////////////////////////////
+package com.openeggbert.pixel.framework.files.host;
+
+import com.openeggbert.pixel.framework.files.FileException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Walks a directory tree of the host file system, subdirectories are listed in
+ * parallel using the common fork join pool. Symbolic links are not followed.
+ *
+ * @author robertvokac
+ */
+class ParallelDirectoryWalker {
+
+    private final Queue<Path> files = new ConcurrentLinkedQueue<>();
+    private final Queue<Path> directories = new ConcurrentLinkedQueue<>();
+
+    ParallelDirectoryWalker(Path root) {
+        if (!Files.isDirectory(root)) {
+            throw new FileException("Path is not directory: " + root);
+        }
+        try {
+            ForkJoinPool.commonPool().invoke(new WalkAction(root));
+        } catch (UncheckedIOException e) {
+            throw new FileException("Walking directory failed: " + root, e.getCause());
+        }
+    }
+
+    /**
+     * Returns all regular files found.
+     *
+     * @return the files
+     */
+    List<Path> getFiles() {
+        return new ArrayList<>(files);
+    }
+
+    /**
+     * Returns all directories found, except the root.
+     *
+     * @return the directories
+     */
+    List<Path> getDirectories() {
+        return new ArrayList<>(directories);
+    }
+
+    private class WalkAction extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Path directory;
+
+        WalkAction(Path directory) {
+            this.directory = directory;
+        }
+
+        @Override
+        protected void compute() {
+            List<WalkAction> subdirectories = new ArrayList<>();
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+                for (Path path : stream) {
+                    if (Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+                        directories.add(path);
+                        subdirectories.add(new WalkAction(path));
+                    } else if (Files.isRegularFile(path, LinkOption.NOFOLLOW_LINKS)) {
+                        files.add(path);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            invokeAll(subdirectories);
+        }
+    }
+}
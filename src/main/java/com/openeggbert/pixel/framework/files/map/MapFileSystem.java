@@ -25,7 +25,10 @@ import com.openeggbert.pixel.framework.files.FileType;
 import com.openeggbert.pixel.framework.files.RegularFileType;
 import com.openeggbert.pixel.framework.files.FileException;
 import com.openeggbert.pixel.framework.files.FileSystemType;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 import com.openeggbert.pixel.framework.files.FileSystem;
 
@@ -39,6 +42,8 @@ public class MapFileSystem implements FileSystem {
 
     private final SimpleMap map;
     private final MapFileSystemCompression mapFileSystemCompression;
+    private final Map<String, Long> lastModifiedTimes = new HashMap<>();
+    private long lastModificationTime;
 
     /**
      * Constructs a MapFileSystem instance with the specified map and default
@@ -170,11 +175,13 @@ public class MapFileSystem implements FileSystem {
     @Override
     public List<String> list(String path) {
         // List all files and directories at the specified path
-        int currentDepth = depth(path);
+        String absolutePath = convertToAbsolutePathIfNeeded(path);
+        String prefix = absolutePath.equals(SLASH) ? SLASH : absolutePath + SLASH;
+        int currentDepth = depth(absolutePath);
         return map
                 .keyList()
                 .stream()
-                .filter(key -> key.startsWith(workingDirectory))
+                .filter(key -> key.startsWith(prefix))
                 .filter(key -> depth(key) == (currentDepth + 1))
                 .collect(Collectors.toList());
     }
@@ -204,6 +211,7 @@ public class MapFileSystem implements FileSystem {
             return msg;
         }
         map.putString(absolutePath, FileType.FILE + EIGHT_COLONS + content);
+        modified(absolutePath);
         return "";
     }
 
@@ -223,6 +231,7 @@ public class MapFileSystem implements FileSystem {
             return false;
         }
         map.remove(absolutePath);
+        lastModifiedTimes.remove(absolutePath);
         return true;
     }
 
@@ -285,8 +294,10 @@ public class MapFileSystem implements FileSystem {
         }
         map.remove(absolutePathTarget);
         map.putString(absolutePathTarget, contentOfSourceFile);
+        modified(absolutePathTarget);
         if (move) {
             map.remove(absolutePathSource);
+            lastModifiedTimes.remove(absolutePathSource);
         }
         return "";
     }
@@ -304,18 +315,20 @@ public class MapFileSystem implements FileSystem {
             return null;
         }
         String value = map.getString(absolutePath);
-        return value.split(EIGHT_COLONS)[1];
+        return value.split(EIGHT_COLONS, 2)[1];
     }
 
     @Override
     public byte[] readBytes(String path) {
-        // Read binary data from a file at the specified path
+        // Read binary data from a file at the specified path, text files are returned as UTF-8
         String absolutePath = convertToAbsolutePathIfNeeded(path);
         String text = readString(absolutePath);
-        if (!text.startsWith(BINARYFILE)) {
-            logError("File is not binary: " + absolutePath);
+        if (text == null) {
             return null;
         }
+        if (!text.startsWith(BINARYFILE)) {
+            return text.getBytes(StandardCharsets.UTF_8);
+        }
         text = text.substring(BINARYFILE.length());
         byte[] data = Pixel.utils().decodeBase64AsByteArray(text);
         if (this.mapFileSystemCompression != MapFileSystemCompression.NONE) {
@@ -337,6 +350,120 @@ public class MapFileSystem implements FileSystem {
         return writeString(name, BINARYFILE + Pixel.utils().encodeToBase64(data));
     }
 
+    /**
+     * Returns the value stored in the map for a text file with the given
+     * content. Together with {@link #putEncodedFiles(Map)} it allows to import
+     * many files at once, the encoding may be done in parallel.
+     *
+     * @param text the content of the file
+     * @return the encoded value
+     */
+    public String encodeFile(String text) {
+        return FileType.FILE + EIGHT_COLONS + text;
+    }
+
+    /**
+     * Checks whether the text can be stored as a text file. Otherwise it has to
+     * be stored as a binary file. Text starting with the binary marker is
+     * rejected, because it would be read back as a binary file.
+     *
+     * @param text the content of the file
+     * @return true if the text can be stored as a text file
+     */
+    public boolean isStorableAsText(String text) {
+        return !text.isEmpty() && !text.startsWith(BINARYFILE) && isTextFile(text) && !text.contains(EIGHT_COLONS);
+    }
+
+    /**
+     * Returns the value stored in the map for a binary file with the given
+     * content. The data is compressed by the compression of this file system.
+     *
+     * @param data the content of the file
+     * @return the encoded value
+     */
+    public String encodeFile(byte[] data) {
+        if (this.mapFileSystemCompression != MapFileSystemCompression.NONE) {
+            data = Pixel.utils().compress(data, mapFileSystemCompression.name());
+        }
+        return encodeFile(BINARYFILE + Pixel.utils().encodeToBase64(data));
+    }
+
+    /**
+     * Returns the value stored in the map for a directory.
+     *
+     * @return the encoded value
+     */
+    public String encodeDirectory() {
+        return FileType.DIRECTORY + EIGHT_COLONS;
+    }
+
+    /**
+     * Adds many files and directories with one call of
+     * {@link SimpleMap#put(Map)}. Missing parent directories are created. No
+     * path may exist yet.
+     *
+     * @param encodedFiles paths and values created by the encode methods
+     * @return an empty string if successful or an error message, in which case
+     * nothing was added
+     */
+    public String putEncodedFiles(Map<String, String> encodedFiles) {
+        Map<String, String> entries = new HashMap<>(encodedFiles.size() * 2);
+        for (Map.Entry<String, String> entry : encodedFiles.entrySet()) {
+            String absolutePath = convertToAbsolutePathIfNeeded(entry.getKey());
+            String existing = entries.get(absolutePath);
+            boolean isDirectory = entry.getValue().startsWith(FileType.DIRECTORY.name());
+            if (existing != null && !(isDirectory && existing.startsWith(FileType.DIRECTORY.name()))) {
+                var msg = "Path was passed more than once: " + absolutePath;
+                logError(msg);
+                return msg;
+            }
+            if (exists(absolutePath)) {
+                var msg = "Cannot import, because path already exists: " + absolutePath;
+                logError(msg);
+                return msg;
+            }
+            entries.put(absolutePath, entry.getValue());
+            String parentPath = getParentPath(absolutePath);
+            while (!parentPath.equals(SLASH)) {
+                String parent = entries.get(parentPath);
+                if (parent == null && exists(parentPath)) {
+                    parent = map.getString(parentPath);
+                }
+                if (parent != null) {
+                    if (!parent.startsWith(FileType.DIRECTORY.name())) {
+                        var msg = "Cannot import, because parent path is not directory: " + parentPath;
+                        logError(msg);
+                        return msg;
+                    }
+                    break;
+                }
+                entries.put(parentPath, encodeDirectory());
+                parentPath = getParentPath(parentPath);
+            }
+        }
+        map.put(entries);
+        entries.keySet().forEach(this::modified);
+        return "";
+    }
+
+    /**
+     * Lists all files and directories in the given directory and in all its
+     * subdirectories.
+     *
+     * @param directory the directory to list
+     * @return the absolute paths, sorted
+     */
+    public List<String> listRecursively(String directory) {
+        String absolutePath = convertToAbsolutePathIfNeeded(directory);
+        String prefix = absolutePath.equals(SLASH) ? SLASH : absolutePath + SLASH;
+        return map
+                .keyList()
+                .stream()
+                .filter(key -> key.startsWith(prefix))
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
     @Override
     public boolean exists(String name) {
         // Check if the path exists in the map
@@ -386,8 +513,38 @@ public class MapFileSystem implements FileSystem {
 
     @Override
     public boolean removeDirectory(String dirname) {
-        // Remove directory is not supported
-        throw new UnsupportedOperationException("Not supported yet.");
+        // Only empty directories can be removed
+        String absolutePath = convertToAbsolutePathIfNeeded(dirname);
+        if (absolutePath.equals(SLASH) || !map.contains(absolutePath) || !isDirectory(absolutePath)) {
+            logError("Cannot remove directory, because it does not exist: " + absolutePath);
+            return false;
+        }
+        if (!list(absolutePath).isEmpty()) {
+            logError("Cannot remove directory, because it is not empty: " + absolutePath);
+            return false;
+        }
+        map.remove(absolutePath);
+        return true;
+    }
+
+    /**
+     * Returns the time of the last modification of the file done by this
+     * instance. Every modification gets a new time, even if it happened in the
+     * same millisecond as the previous one.
+     *
+     * @param path the path of the file
+     * @return the time of the last modification, or 0 if the file was not
+     * modified since this instance was created
+     */
+    @Override
+    public long lastModified(String path) {
+        Long time = lastModifiedTimes.get(convertToAbsolutePathIfNeeded(path));
+        return time == null ? 0 : time;
+    }
+
+    private void modified(String absolutePath) {
+        lastModificationTime = Math.max(System.currentTimeMillis(), lastModificationTime + 1);
+        lastModifiedTimes.put(absolutePath, lastModificationTime);
     }
 
     /**
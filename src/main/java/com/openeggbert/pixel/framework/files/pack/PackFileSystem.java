@@ -0,0 +1,396 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// Pixel: Game library.
+// Copyright (C) 2024 the original author or authors.
+//
+// This program is free software: you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation, either version 3
+// of the License, or (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program. If not, see
+// <https://www.gnu.org/licenses/> or write to the Free Software
+// Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+///////////////////////////////////////////////////////////////////////////////////////////////
+package com.openeggbert.pixel.framework.files.pack;
+
+import com.openeggbert.pixel.framework.Pixel;
+import com.openeggbert.pixel.framework.Platform;
+import com.openeggbert.pixel.framework.files.FileException;
+import com.openeggbert.pixel.framework.files.FileSystem;
+import com.openeggbert.pixel.framework.files.FileSystemType;
+import com.openeggbert.pixel.framework.files.FileType;
+import com.openeggbert.pixel.framework.files.RegularFileType;
+import com.openeggbert.pixel.framework.utils.BinaryUtils;
+import com.openeggbert.pixel.framework.utils.BinaryUtilsImpl;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-only implementation of the FileSystem interface backed by one pack file
+ * created by {@link PackFileWriter}.
+ *
+ * <p>
+ * The whole pack is read with one bulk read (or handed over by the backend,
+ * for example from a memory-mapped file) and every file is served as a slice
+ * of this buffer. The table of contents is parsed only once, in the
+ * constructor. All the methods changing the content fail.
+ * </p>
+ *
+ * @author robertvokac
+ */
+public class PackFileSystem implements FileSystem {
+
+    static final int MAGIC = 0x5058504B;//PXPK
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 5 * 4;
+    static final int TOC_RECORD_SIZE = 5 * 4;
+
+    private static final String TWO_DOTS = "..";
+    private static final String READ_ONLY = "Pack file system is read only";
+
+    private final byte[] data;
+    private final FileSystemType fileSystemType;
+
+    private final String[] paths;
+    private final int[] offsets;
+    private final int[] storedSizes;
+    private final int[] sizes;
+    private final PackCompression[] compressions;
+
+    private final Map<String, Integer> entryIndexes;
+    private final Map<String, List<String>> directories;
+    private final long loadTime = System.currentTimeMillis();
+
+    private String workingDirectory = SLASH;
+
+    /**
+     * Reads the pack file from another file system with one bulk read.
+     *
+     * @param fileSystem the file system containing the pack file
+     * @param path the path of the pack file
+     * @return the new pack file system
+     */
+    public static PackFileSystem open(FileSystem fileSystem, String path) {
+        byte[] bytes = fileSystem.readBytes(path);
+        if (bytes == null) {
+            throw new FileException("Could not read pack file: " + path);
+        }
+        return new PackFileSystem(bytes);
+    }
+
+    /**
+     * Constructs a PackFileSystem of type ASSETS.
+     *
+     * @param data the content of the pack file, it is not copied
+     */
+    public PackFileSystem(byte[] data) {
+        this(data, FileSystemType.ASSETS);
+    }
+
+    /**
+     * Constructs a PackFileSystem.
+     *
+     * @param data the content of the pack file, it is not copied
+     * @param fileSystemType the type returned by getFileSystemType()
+     */
+    public PackFileSystem(byte[] data, FileSystemType fileSystemType) {
+        this.data = data;
+        this.fileSystemType = fileSystemType;
+        BinaryUtils bu = BinaryUtilsImpl.INSTANCE;
+        if (data.length < HEADER_SIZE || bu.readInt(data, 0) != MAGIC) {
+            throw new FileException("This is not a pack file.");
+        }
+        int version = bu.readInt(data, 4);
+        if (version != VERSION) {
+            throw new FileException("Unsupported version of pack file: " + version);
+        }
+        int entryCount = bu.readInt(data, 12);
+        int tocLength = bu.readInt(data, 16);
+        if (tocLength < 0 || (long) HEADER_SIZE + tocLength > data.length) {
+            throw new FileException("Pack file is corrupted, table of contents is too long: " + tocLength);
+        }
+        int tocEnd = HEADER_SIZE + tocLength;
+        //every record has at least the path length and 4 ints
+        if (entryCount < 0 || (long) entryCount * TOC_RECORD_SIZE > tocLength) {
+            throw new FileException("Pack file is corrupted, invalid entry count: " + entryCount);
+        }
+
+        paths = new String[entryCount];
+        offsets = new int[entryCount];
+        storedSizes = new int[entryCount];
+        sizes = new int[entryCount];
+        compressions = new PackCompression[entryCount];
+        entryIndexes = new HashMap<>(entryCount * 2);
+        directories = new LinkedHashMap<>();
+        directories.put(SLASH, new ArrayList<>());
+
+        PackCompression[] allCompressions = PackCompression.values();
+        int tocOffset = HEADER_SIZE;
+        for (int i = 0; i < entryCount; i++) {
+            int pathLength = bu.readInt(data, tocOffset);
+            if (pathLength < 0 || pathLength > tocEnd - tocOffset - TOC_RECORD_SIZE) {
+                throw new FileException("Pack file is corrupted, invalid path length of entry " + i + ": " + pathLength);
+            }
+            String path = SLASH + new String(data, tocOffset + 4, pathLength, StandardCharsets.UTF_8);
+            tocOffset += 4 + pathLength;
+            paths[i] = path;
+            offsets[i] = bu.readInt(data, tocOffset);
+            storedSizes[i] = bu.readInt(data, tocOffset + 4);
+            sizes[i] = bu.readInt(data, tocOffset + 8);
+            int compression = bu.readInt(data, tocOffset + 12);
+            if (compression < 0 || compression >= allCompressions.length) {
+                throw new FileException("Pack file is corrupted, unknown compression of entry " + path + ": " + compression);
+            }
+            compressions[i] = allCompressions[compression];
+            tocOffset += 16;
+            if (offsets[i] < 0 || storedSizes[i] < 0 || sizes[i] < 0
+                    || (long) offsets[i] + storedSizes[i] > data.length) {
+                throw new FileException("Pack file is corrupted, entry is out of bounds: " + path);
+            }
+            entryIndexes.put(path, i);
+            addToParentDirectory(path);
+        }
+    }
+
+    private void addToParentDirectory(String path) {
+        String parent = getParentPath(path);
+        List<String> children = directories.get(parent);
+        if (children == null) {
+            children = new ArrayList<>();
+            directories.put(parent, children);
+            addToParentDirectory(parent);
+        }
+        children.add(path);
+    }
+
+    private static String getParentPath(String path) {
+        int lastSlash = path.lastIndexOf('/');
+        return lastSlash <= 0 ? SLASH : path.substring(0, lastSlash);
+    }
+
+    @Override
+    public Platform getPlatform() {
+        // Returns null as this implementation does not specify a platform
+        return null;
+    }
+
+    @Override
+    public String changeDirectory(String path) {
+        String absolutePath = path.equals(TWO_DOTS) ? getParentPath(workingDirectory) : convertToAbsolutePathIfNeeded(path);
+        if (!exists(absolutePath)) {
+            return "Path does not exist: " + absolutePath;
+        }
+        if (!isDirectory(absolutePath)) {
+            return "Path is not directory: " + absolutePath;
+        }
+        workingDirectory = absolutePath;
+        return "";
+    }
+
+    @Override
+    public String createDirectory(String argument) {
+        return READ_ONLY;
+    }
+
+    @Override
+    public String printWorkingDirectory() {
+        return workingDirectory;
+    }
+
+    @Override
+    public List<String> list(String path) {
+        List<String> children = directories.get(convertToAbsolutePathIfNeeded(path));
+        return children == null ? Collections.emptyList() : Collections.unmodifiableList(children);
+    }
+
+    @Override
+    public String touch(String name) {
+        return READ_ONLY;
+    }
+
+    @Override
+    public boolean remove(String name) {
+        return false;
+    }
+
+    @Override
+    public boolean removeDirectory(String dirname) {
+        return false;
+    }
+
+    @Override
+    public String copy(String source, String target) {
+        return READ_ONLY;
+    }
+
+    @Override
+    public String move(String source, String target) {
+        return READ_ONLY;
+    }
+
+    @Override
+    public String readString(String name) {
+        byte[] bytes = readBytes(name);
+        return bytes == null ? null : new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public byte[] readBytes(String name) {
+        Integer index = entryIndexes.get(convertToAbsolutePathIfNeeded(name));
+        if (index == null) {
+            return null;
+        }
+        int offset = offsets[index];
+        byte[] bytes = Arrays.copyOfRange(data, offset, offset + storedSizes[index]);
+        PackCompression compression = compressions[index];
+        return compression == PackCompression.NONE ? bytes : Pixel.utils().decompress(bytes, compression.name());
+    }
+
+    /**
+     * Returns the uncompressed size of the file.
+     *
+     * @param name the path of the file
+     * @return the size in bytes
+     * @throws FileException if there is no such file
+     */
+    @Override
+    public long getSize(String name) {
+        String absolutePath = convertToAbsolutePathIfNeeded(name);
+        Integer index = entryIndexes.get(absolutePath);
+        if (index == null) {
+            throw new FileException("There is no such file in pack: " + absolutePath);
+        }
+        return sizes[index];
+    }
+
+    /**
+     * Returns the time, when this pack file system was created. The pack is
+     * read only, so no file changes afterwards.
+     *
+     * @param name the path of the file
+     * @return the time of the creation of this file system
+     * @throws FileException if there is no such file
+     */
+    @Override
+    public long lastModified(String name) {
+        String absolutePath = convertToAbsolutePathIfNeeded(name);
+        if (!entryIndexes.containsKey(absolutePath)) {
+            throw new FileException("There is no such file in pack: " + absolutePath);
+        }
+        return loadTime;
+    }
+
+    @Override
+    public String writeString(String name, String text) {
+        return READ_ONLY;
+    }
+
+    @Override
+    public String writeBytes(String name, byte[] data) {
+        return READ_ONLY;
+    }
+
+    @Override
+    public boolean exists(String name) {
+        String absolutePath = convertToAbsolutePathIfNeeded(name);
+        return entryIndexes.containsKey(absolutePath) || directories.containsKey(absolutePath);
+    }
+
+    @Override
+    public boolean isFile(String name) {
+        return entryIndexes.containsKey(convertToAbsolutePathIfNeeded(name));
+    }
+
+    @Override
+    public boolean isDirectory(String name) {
+        return directories.containsKey(convertToAbsolutePathIfNeeded(name));
+    }
+
+    @Override
+    public FileType type(String path) {
+        String absolutePath = convertToAbsolutePathIfNeeded(path);
+        if (entryIndexes.containsKey(absolutePath)) {
+            return FileType.FILE;
+        }
+        if (directories.containsKey(absolutePath)) {
+            return FileType.DIRECTORY;
+        }
+        throw new FileException("Pack does not contain path: " + absolutePath);
+    }
+
+    @Override
+    public RegularFileType getRegularFileType(String path) {
+        if (isDirectory(path)) {
+            throw new UnsupportedOperationException("Cannot find out RegularFileType, because this is a directory: " + path);
+        }
+        return isTextFile(readString(path)) ? RegularFileType.TEXT : RegularFileType.BINARY;
+    }
+
+    @Override
+    public String debug() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < paths.length; i++) {
+            sb
+                    .append(paths[i])
+                    .append(" offset=").append(offsets[i])
+                    .append(" stored=").append(storedSizes[i])
+                    .append(" size=").append(sizes[i])
+                    .append(" compression=").append(compressions[i])
+                    .append("\n");
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public void flush() {
+        //nothing to do
+    }
+
+    @Override
+    public byte[] backup(String methodName) {
+        //the pack file is the only format of the backup
+        return Arrays.copyOf(data, data.length);
+    }
+
+    @Override
+    public void restore(String methodName, byte[] data) {
+        throw new FileException(READ_ONLY);
+    }
+
+    @Override
+    public boolean isReadonly() {
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        throw new FileException(READ_ONLY);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return paths.length == 0;
+    }
+
+    @Override
+    public long size() {
+        return data.length;
+    }
+
+    @Override
+    public FileSystemType getFileSystemType() {
+        return fileSystemType;
+    }
+}
@@ -0,0 +1,165 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// Pixel: Game library.
+// Copyright (C) 2024 the original author or authors.
+//
+// This program is free software: you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation, either version 3
+// of the License, or (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program. If not, see
+// <https://www.gnu.org/licenses/> or write to the Free Software
+// Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+///////////////////////////////////////////////////////////////////////////////////////////////
+package com.openeggbert.pixel.framework.files.pack;
+
+import com.openeggbert.pixel.framework.Pixel;
+import com.openeggbert.pixel.framework.files.FileException;
+import com.openeggbert.pixel.framework.utils.BinaryUtils;
+import com.openeggbert.pixel.framework.utils.BinaryUtilsImpl;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Creates pack files, which are read by {@link PackFileSystem}.
+ *
+ * <p>
+ * Layout (all numbers are big-endian):
+ * </p>
+ * <ul>
+ * <li>header: magic, version, alignment, entry count, length of the table of
+ * contents (5 ints)</li>
+ * <li>table of contents: for every entry the length of the path, the UTF-8
+ * path relative to the root, the offset of the data, the stored size, the
+ * original size and the ordinal of the {@link PackCompression} (5 ints plus the
+ * path)</li>
+ * <li>data: the stored bytes of every entry, each entry starts at an offset
+ * divisible by the alignment</li>
+ * </ul>
+ *
+ * @author robertvokac
+ */
+public class PackFileWriter {
+
+    public static final int DEFAULT_ALIGNMENT = 16;
+
+    private final int alignment;
+    private final Map<String, Entry> entries = new TreeMap<>();
+
+    public PackFileWriter() {
+        this(DEFAULT_ALIGNMENT);
+    }
+
+    /**
+     * Constructs a PackFileWriter.
+     *
+     * @param alignment the data of every entry starts at an offset divisible by
+     * this number
+     */
+    public PackFileWriter(int alignment) {
+        if (alignment < 1) {
+            throw new FileException("Alignment must be positive: " + alignment);
+        }
+        this.alignment = alignment;
+    }
+
+    /**
+     * Adds an uncompressed entry.
+     *
+     * @param path the path of the file, relative to the root of the pack
+     * @param data the content of the file
+     * @return this writer for method chaining
+     */
+    public PackFileWriter add(String path, byte[] data) {
+        return add(path, data, PackCompression.NONE);
+    }
+
+    /**
+     * Adds an entry.
+     *
+     * @param path the path of the file, relative to the root of the pack
+     * @param data the content of the file
+     * @param compression the compression used to store the file
+     * @return this writer for method chaining
+     */
+    public PackFileWriter add(String path, byte[] data, PackCompression compression) {
+        if (path.startsWith("/")) {
+            path = path.substring(1);
+        }
+        if (path.isEmpty() || path.endsWith("/")) {
+            throw new FileException("Invalid path of pack entry: " + path);
+        }
+        if (entries.containsKey(path)) {
+            throw new FileException("Pack entry was already added: " + path);
+        }
+        byte[] stored = compression == PackCompression.NONE ? data : Pixel.utils().compress(data, compression.name());
+        entries.put(path, new Entry(path.getBytes(StandardCharsets.UTF_8), stored, data.length, compression));
+        return this;
+    }
+
+    /**
+     * Serializes the added entries.
+     *
+     * @return the content of the pack file
+     */
+    public byte[] toByteArray() {
+        int tocLength = 0;
+        for (Entry entry : entries.values()) {
+            tocLength += PackFileSystem.TOC_RECORD_SIZE + entry.path.length;
+        }
+        int offset = align(PackFileSystem.HEADER_SIZE + tocLength);
+        for (Entry entry : entries.values()) {
+            entry.offset = offset;
+            offset = align(offset + entry.stored.length);
+        }
+        byte[] data = new byte[offset];
+
+        BinaryUtils bu = BinaryUtilsImpl.INSTANCE;
+        bu.writeInt(data, 0, PackFileSystem.MAGIC);
+        bu.writeInt(data, 4, PackFileSystem.VERSION);
+        bu.writeInt(data, 8, alignment);
+        bu.writeInt(data, 12, entries.size());
+        bu.writeInt(data, 16, tocLength);
+        int tocOffset = PackFileSystem.HEADER_SIZE;
+        for (Entry entry : entries.values()) {
+            bu.writeInt(data, tocOffset, entry.path.length);
+            System.arraycopy(entry.path, 0, data, tocOffset + 4, entry.path.length);
+            tocOffset += 4 + entry.path.length;
+            bu.writeInt(data, tocOffset, entry.offset);
+            bu.writeInt(data, tocOffset + 4, entry.stored.length);
+            bu.writeInt(data, tocOffset + 8, entry.size);
+            bu.writeInt(data, tocOffset + 12, entry.compression.ordinal());
+            tocOffset += 16;
+            System.arraycopy(entry.stored, 0, data, entry.offset, entry.stored.length);
+        }
+        return data;
+    }
+
+    private int align(int offset) {
+        int remainder = offset % alignment;
+        return remainder == 0 ? offset : offset + alignment - remainder;
+    }
+
+    private static class Entry {
+
+        private final byte[] path;
+        private final byte[] stored;
+        private final int size;
+        private final PackCompression compression;
+        private int offset;
+
+        Entry(byte[] path, byte[] stored, int size, PackCompression compression) {
+            this.path = path;
+            this.stored = stored;
+            this.size = size;
+            this.compression = compression;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// Pixel: Game library.
+// Copyright (C) 2024 the original author or authors.
+//
+// This program is free software: you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation, either version 3
+// of the License, or (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program. If not, see
+// <https://www.gnu.org/licenses/> or write to the Free Software
+// Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+///////////////////////////////////////////////////////////////////////////////////////////////
+package com.openeggbert.pixel.framework.files.sync;
+
+import com.openeggbert.pixel.framework.files.FileException;
+import com.openeggbert.pixel.framework.files.FileSystem;
+import com.openeggbert.pixel.framework.files.RegularFileType;
+import com.openeggbert.pixel.framework.utils.BinaryUtilsImpl;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Caches the content hashes of the files of one file system.
+ *
+ * <p>
+ * An entry is reused only, if the time of the last modification of the file is
+ * known and did not change and the size did not change either, if it is known.
+ * Otherwise the file is read and hashed again, so the cache helps only for file
+ * systems implementing {@link FileSystem#lastModified(String)}, like
+ * {@link com.openeggbert.pixel.framework.files.map.MapFileSystem} and
+ * {@link com.openeggbert.pixel.framework.files.pack.PackFileSystem}.
+ * </p>
+ *
+ * @author robertvokac
+ */
+public class FileHashCache {
+
+    private static final int SIZE = 0;
+    private static final int LAST_MODIFIED = 1;
+    private static final int HASH = 2;
+
+    private final Map<String, long[]> entries = new HashMap<>();
+    private int hitCount;
+    private int missCount;
+
+    /**
+     * Returns the hash of the content of the file, as computed by
+     * {@link com.openeggbert.pixel.framework.utils.BinaryUtils#hash64(byte[])}.
+     *
+     * @param fileSystem the file system, always the same one for this cache
+     * @param path the absolute path of the file
+     * @return the hash
+     * @throws FileException if the file cannot be read
+     */
+    public long hash(FileSystem fileSystem, String path) {
+        long size = fileSystem.getSize(path);
+        long lastModified = fileSystem.lastModified(path);
+        long[] entry = entries.get(path);
+        if (entry != null && lastModified != 0 && entry[LAST_MODIFIED] == lastModified
+                && (size < 0 || entry[SIZE] == size)) {
+            hitCount++;
+            return entry[HASH];
+        }
+        missCount++;
+        byte[] content = readContent(fileSystem, path);
+        long hash = BinaryUtilsImpl.INSTANCE.hash64(content);
+        entries.put(path, new long[]{content.length, lastModified, hash});
+        return hash;
+    }
+
+    /**
+     * Stores the hash of a file, whose content is known, for example after the
+     * file was written.
+     *
+     * @param fileSystem the file system, always the same one for this cache
+     * @param path the absolute path of the file
+     * @param hash the hash of the content of the file
+     */
+    public void put(FileSystem fileSystem, String path, long hash) {
+        entries.put(path, new long[]{fileSystem.getSize(path), fileSystem.lastModified(path), hash});
+    }
+
+    public void invalidate(String path) {
+        entries.remove(path);
+    }
+
+    public void clear() {
+        entries.clear();
+        hitCount = 0;
+        missCount = 0;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public int getHitCount() {
+        return hitCount;
+    }
+
+    public int getMissCount() {
+        return missCount;
+    }
+
+    static byte[] readContent(FileSystem fileSystem, String path) {
+        byte[] content;
+        if (fileSystem.getRegularFileType(path) == RegularFileType.TEXT) {
+            String text = fileSystem.readString(path);
+            content = text == null ? null : text.getBytes(StandardCharsets.UTF_8);
+        } else {
+            content = fileSystem.readBytes(path);
+        }
+        if (content == null) {
+            throw new FileException("Could not read file: " + path);
+        }
+        return content;
+    }
+}
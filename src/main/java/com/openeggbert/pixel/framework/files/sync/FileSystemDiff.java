@@ -0,0 +1,90 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// Pixel: Game library.
+// Copyright (C) 2024 the original author or authors.
+//
+// This program is free software: you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation, either version 3
+// of the License, or (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program. If not, see
+// <https://www.gnu.org/licenses/> or write to the Free Software
+// Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+///////////////////////////////////////////////////////////////////////////////////////////////
+package com.openeggbert.pixel.framework.files.sync;
+
+import java.util.Collections;
+import java.util.List;
+import lombok.Getter;
+
+/**
+ * Differences between a source directory and a target directory, as computed
+ * by {@link FileSystemSync#diff}. All paths are relative to the compared
+ * directories and use slashes as separators.
+ *
+ * @author robertvokac
+ */
+@Getter
+public class FileSystemDiff {
+
+    private final String sourceDirectory;
+    private final String targetDirectory;
+    /**
+     * Directories missing in the target, parents before children.
+     */
+    private final List<String> addedDirectories;
+    /**
+     * Files missing in the target.
+     */
+    private final List<String> addedFiles;
+    /**
+     * Files with a different content in the target.
+     */
+    private final List<String> changedFiles;
+    /**
+     * Files existing only in the target.
+     */
+    private final List<String> removedFiles;
+    /**
+     * Directories existing only in the target, children before parents.
+     */
+    private final List<String> removedDirectories;
+
+    FileSystemDiff(String sourceDirectory, String targetDirectory,
+            List<String> addedDirectories, List<String> addedFiles, List<String> changedFiles,
+            List<String> removedFiles, List<String> removedDirectories) {
+        this.sourceDirectory = sourceDirectory;
+        this.targetDirectory = targetDirectory;
+        this.addedDirectories = Collections.unmodifiableList(addedDirectories);
+        this.addedFiles = Collections.unmodifiableList(addedFiles);
+        this.changedFiles = Collections.unmodifiableList(changedFiles);
+        this.removedFiles = Collections.unmodifiableList(removedFiles);
+        this.removedDirectories = Collections.unmodifiableList(removedDirectories);
+    }
+
+    /**
+     * Checks whether the directories are equal.
+     *
+     * @return true, if there are no differences
+     */
+    public boolean isEmpty() {
+        return addedDirectories.isEmpty() && addedFiles.isEmpty() && changedFiles.isEmpty()
+                && removedFiles.isEmpty() && removedDirectories.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "FileSystemDiff{" + sourceDirectory + " -> " + targetDirectory
+                + ", addedDirectories=" + addedDirectories
+                + ", addedFiles=" + addedFiles
+                + ", changedFiles=" + changedFiles
+                + ", removedFiles=" + removedFiles
+                + ", removedDirectories=" + removedDirectories + '}';
+    }
+}
@@ -0,0 +1,282 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// Pixel: Game library.
+// Copyright (C) 2024 the original author or authors.
+//
+// This program is free software: you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation, either version 3
+// of the License, or (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program. If not, see
+// <https://www.gnu.org/licenses/> or write to the Free Software
+// Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+///////////////////////////////////////////////////////////////////////////////////////////////
+package com.openeggbert.pixel.framework.files.sync;
+
+import com.openeggbert.pixel.framework.files.FileException;
+import com.openeggbert.pixel.framework.files.FileSystem;
+import com.openeggbert.pixel.framework.files.RegularFileType;
+import com.openeggbert.pixel.framework.utils.BinaryUtilsImpl;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Synchronizes a directory of one file system into a directory of another file
+ * system, for example to deploy an updated asset tree or to sync saved games.
+ *
+ * <p>
+ * The files are compared by their size, if both file systems know it, and by
+ * the hash of their content. The hashes are cached in a {@link FileHashCache}
+ * per file system. Only the differences are applied, so unchanged files are
+ * neither read again (if the cache is valid) nor written.
+ * </p>
+ *
+ * @author robertvokac
+ */
+public class FileSystemSync {
+
+    private final FileHashCache sourceCache;
+    private final FileHashCache targetCache;
+    private long transferredByteCount;
+
+    public FileSystemSync() {
+        this(new FileHashCache(), new FileHashCache());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param sourceCache the cache for the source file system
+     * @param targetCache the cache for the target file system
+     */
+    public FileSystemSync(FileHashCache sourceCache, FileHashCache targetCache) {
+        this.sourceCache = sourceCache;
+        this.targetCache = targetCache;
+    }
+
+    /**
+     * Computes the differences. A target directory, which does not exist, is
+     * handled as an empty one.
+     *
+     * @param source the source file system
+     * @param sourceDirectory the source directory
+     * @param target the target file system
+     * @param targetDirectory the target directory
+     * @return the differences
+     * @throws FileException if the source directory does not exist
+     */
+    public FileSystemDiff diff(FileSystem source, String sourceDirectory, FileSystem target, String targetDirectory) {
+        String sourceRoot = source.convertToAbsolutePathIfNeeded(sourceDirectory);
+        String targetRoot = target.convertToAbsolutePathIfNeeded(targetDirectory);
+        if (!source.exists(sourceRoot) || !source.isDirectory(sourceRoot)) {
+            throw new FileException("Source directory does not exist: " + sourceRoot);
+        }
+        Map<String, Boolean> sourceEntries = new TreeMap<>();
+        walk(source, sourceRoot, "", sourceEntries);
+        Map<String, Boolean> targetEntries = new TreeMap<>();
+        if (target.exists(targetRoot) && target.isDirectory(targetRoot)) {
+            walk(target, targetRoot, "", targetEntries);
+        }
+
+        List<String> addedDirectories = new ArrayList<>();
+        List<String> addedFiles = new ArrayList<>();
+        List<String> changedFiles = new ArrayList<>();
+        List<String> removedFiles = new ArrayList<>();
+        List<String> removedDirectories = new ArrayList<>();
+        for (Map.Entry<String, Boolean> entry : sourceEntries.entrySet()) {
+            String path = entry.getKey();
+            boolean directory = entry.getValue();
+            Boolean targetDirectoryType = targetEntries.get(path);
+            if (targetDirectoryType != null && targetDirectoryType != directory) {
+                //the type differs, so the target is replaced
+                (targetDirectoryType ? removedDirectories : removedFiles).add(path);
+                targetDirectoryType = null;
+            }
+            if (targetDirectoryType == null) {
+                (directory ? addedDirectories : addedFiles).add(path);
+            } else if (!directory && !hasSameContent(source, join(sourceRoot, path), target, join(targetRoot, path))) {
+                changedFiles.add(path);
+            }
+        }
+        for (Map.Entry<String, Boolean> entry : targetEntries.entrySet()) {
+            if (!sourceEntries.containsKey(entry.getKey())) {
+                (entry.getValue() ? removedDirectories : removedFiles).add(entry.getKey());
+            }
+        }
+        //sorted paths have parents before children
+        Collections.sort(removedDirectories, Collections.reverseOrder());
+        return new FileSystemDiff(sourceRoot, targetRoot,
+                addedDirectories, addedFiles, changedFiles, removedFiles, removedDirectories);
+    }
+
+    /**
+     * Applies the differences to the target file system.
+     *
+     * @param diff the differences computed for the given file systems
+     * @param source the source file system
+     * @param target the target file system
+     * @return a result message or an empty string if successful.
+     */
+    public String apply(FileSystemDiff diff, FileSystem source, FileSystem target) {
+        String sourceRoot = diff.getSourceDirectory();
+        String targetRoot = diff.getTargetDirectory();
+        for (String path : diff.getRemovedFiles()) {
+            String targetPath = join(targetRoot, path);
+            if (!target.remove(targetPath)) {
+                return "Could not remove file: " + targetPath;
+            }
+            targetCache.invalidate(targetPath);
+        }
+        for (String path : diff.getRemovedDirectories()) {
+            String targetPath = join(targetRoot, path);
+            if (!target.removeDirectory(targetPath)) {
+                return "Could not remove directory: " + targetPath;
+            }
+        }
+        if (!target.exists(targetRoot)) {
+            String result = createDirectoryWithParents(target, targetRoot);
+            if (!result.isEmpty()) {
+                return result;
+            }
+        }
+        for (String path : diff.getAddedDirectories()) {
+            String result = target.createDirectory(join(targetRoot, path));
+            if (!result.isEmpty()) {
+                return result;
+            }
+        }
+        for (String path : diff.getChangedFiles()) {
+            String targetPath = join(targetRoot, path);
+            if (!target.remove(targetPath)) {
+                return "Could not remove file: " + targetPath;
+            }
+            String result = copyFile(source, join(sourceRoot, path), target, targetPath);
+            if (!result.isEmpty()) {
+                return result;
+            }
+        }
+        for (String path : diff.getAddedFiles()) {
+            String result = copyFile(source, join(sourceRoot, path), target, join(targetRoot, path));
+            if (!result.isEmpty()) {
+                return result;
+            }
+        }
+        return "";
+    }
+
+    /**
+     * Computes and applies the differences.
+     *
+     * @param source the source file system
+     * @param sourceDirectory the source directory
+     * @param target the target file system
+     * @param targetDirectory the target directory
+     * @return the applied differences
+     * @throws FileException if the differences could not be applied
+     */
+    public FileSystemDiff sync(FileSystem source, String sourceDirectory, FileSystem target, String targetDirectory) {
+        FileSystemDiff diff = diff(source, sourceDirectory, target, targetDirectory);
+        String result = apply(diff, source, target);
+        if (!result.isEmpty()) {
+            throw new FileException(result);
+        }
+        return diff;
+    }
+
+    /**
+     * Returns the count of bytes written to the target file systems since this
+     * instance was created.
+     *
+     * @return the count of bytes
+     */
+    public long getTransferredByteCount() {
+        return transferredByteCount;
+    }
+
+    public FileHashCache getSourceCache() {
+        return sourceCache;
+    }
+
+    public FileHashCache getTargetCache() {
+        return targetCache;
+    }
+
+    private boolean hasSameContent(FileSystem source, String sourcePath, FileSystem target, String targetPath) {
+        long sourceSize = source.getSize(sourcePath);
+        long targetSize = target.getSize(targetPath);
+        if (sourceSize >= 0 && targetSize >= 0 && sourceSize != targetSize) {
+            return false;
+        }
+        return sourceCache.hash(source, sourcePath) == targetCache.hash(target, targetPath);
+    }
+
+    private String copyFile(FileSystem source, String sourcePath, FileSystem target, String targetPath) {
+        byte[] content;
+        String result;
+        if (source.getRegularFileType(sourcePath) == RegularFileType.TEXT) {
+            String text = source.readString(sourcePath);
+            if (text == null) {
+                return "Could not read file: " + sourcePath;
+            }
+            content = text.getBytes(StandardCharsets.UTF_8);
+            result = target.writeString(targetPath, text);
+        } else {
+            content = source.readBytes(sourcePath);
+            if (content == null) {
+                return "Could not read file: " + sourcePath;
+            }
+            result = target.writeBytes(targetPath, content);
+        }
+        if (result.isEmpty()) {
+            transferredByteCount += content.length;
+            targetCache.put(target, targetPath, BinaryUtilsImpl.INSTANCE.hash64(content));
+        }
+        return result;
+    }
+
+    private static String createDirectoryWithParents(FileSystem fileSystem, String absolutePath) {
+        if (absolutePath.equals(FileSystem.SLASH)) {
+            return "";
+        }
+        int slash = absolutePath.lastIndexOf('/');
+        String parent = slash <= 0 ? FileSystem.SLASH : absolutePath.substring(0, slash);
+        if (!fileSystem.exists(parent)) {
+            String result = createDirectoryWithParents(fileSystem, parent);
+            if (!result.isEmpty()) {
+                return result;
+            }
+        }
+        return fileSystem.createDirectory(absolutePath);
+    }
+
+    private static void walk(FileSystem fileSystem, String directory, String relativeDirectory, Map<String, Boolean> result) {
+        for (String entry : fileSystem.list(directory)) {
+            //some file systems list absolute paths, others only names
+            String path = entry.startsWith(FileSystem.SLASH) ? entry : join(directory, entry);
+            String name = path.substring(path.lastIndexOf('/') + 1);
+            String relativePath = relativeDirectory.isEmpty() ? name : relativeDirectory + FileSystem.SLASH + name;
+            boolean isDirectory = fileSystem.isDirectory(path);
+            result.put(relativePath, isDirectory);
+            if (isDirectory) {
+                walk(fileSystem, path, relativePath, result);
+            }
+        }
+    }
+
+    private static String join(String directory, String relativePath) {
+        if (relativePath.isEmpty()) {
+            return directory;
+        }
+        return directory.equals(FileSystem.SLASH) ? FileSystem.SLASH + relativePath : directory + FileSystem.SLASH + relativePath;
+    }
+}
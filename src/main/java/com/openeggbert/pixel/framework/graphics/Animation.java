@@ -19,65 +19,277 @@
 ///////////////////////////////////////////////////////////////////////////////////////////////
 package com.openeggbert.pixel.framework.graphics;
 
+import com.openeggbert.pixel.framework.PixelException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import lombok.Getter;
 import lombok.Setter;
 
 /**
+ * Sequence of key frames shown one after another. The game time is in
+ * milliseconds, counted from the start of the animation.
+ *
+ * <p>
+ * All frames have the same duration, or every frame has its own duration.
+ * With the same durations, the key frame is found by a division in O(1);
+ * with different durations, the frame end times are summed up once and
+ * searched with binary search. No objects are created per call, so
+ * thousands of animations can be ticked every frame.
+ * </p>
+ *
+ * <p>
+ * {@link AnimationMode#LOOP_RANDOM} is deterministic: the frame shown in every
+ * step is derived from the seed and the number of the step, so the same time
+ * always gives the same frame.
+ * </p>
  *
  * @author robertvokac
  * @param <T>
  */
 public class Animation<T> {
 
-    T[] keyFrames;
+    /**
+     * The key frames, stored as objects, because an array of the type T
+     * cannot be created from an Iterable.
+     */
+    private Object[] keyFrames;
+    private List<T> keyFrameList;
 
     private float frameDuration;
+    /**
+     * The end time of every frame, null if all frames have the same duration.
+     */
+    private long[] frameEnds;
     @Getter
     @Setter
     private AnimationMode animationMode = AnimationMode.NORMAL;
+    /**
+     * The seed of {@link AnimationMode#LOOP_RANDOM}.
+     */
+    @Getter
+    @Setter
+    private long seed;
 
     public Animation(int frameDuration, Iterable<T> keyFrames) {
-
+        this(frameDuration, keyFrames, AnimationMode.NORMAL);
     }
 
     public Animation(int frameDuration, Iterable<T> keyFrames, AnimationMode animationMode) {
-
+        init(toArray(keyFrames), frameDuration, animationMode);
     }
 
+    @SafeVarargs
     public Animation(int frameDuration, T... keyFrames) {
-
+        this(frameDuration, AnimationMode.NORMAL, keyFrames);
     }
 
+    @SafeVarargs
     public Animation(int frameDuration, AnimationMode animationMode, T... keyFrames) {
+        //copied element by element, the array itself does not escape
+        Object[] copy = new Object[keyFrames.length];
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = keyFrames[i];
+        }
+        init(copy, frameDuration, animationMode);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void init(Object[] frames, int frameDuration, AnimationMode mode) {
+        if (frames.length == 0) {
+            throw new PixelException("Animation must have at least one key frame.");
+        }
+        this.keyFrames = frames;
+        //the list is only read, so a list of the objects is a list of T
+        this.keyFrameList = Collections.unmodifiableList((List<T>) Arrays.asList(frames));
+        this.animationMode = mode;
+        setFrameDuration(frameDuration);
+    }
+
+    /**
+     * Creates an animation with its own duration of every frame.
+     *
+     * @param frameDurations the durations of the frames in milliseconds
+     * @param animationMode the mode
+     * @param keyFrames the key frames
+     */
+    @SafeVarargs
+    public Animation(int[] frameDurations, AnimationMode animationMode, T... keyFrames) {
+        this(1, animationMode, keyFrames);
+        setFrameDurations(frameDurations);
+    }
 
+    private static Object[] toArray(Iterable<?> keyFrames) {
+        List<Object> list = new ArrayList<>();
+        for (Object keyFrame : keyFrames) {
+            list.add(keyFrame);
+        }
+        return list.toArray();
     }
 
     public T getKeyFrame(long gameTime) {
-        return null;//todo
+        return keyFrameList.get(getKeyFrameIndex(gameTime));
     }
 
     public int getKeyFrameIndex(long gameTime) {
+        return getKeyFrameIndex(gameTime, animationMode);
+    }
+
+    /**
+     * Returns the index of the key frame shown at the time in the given mode,
+     * instead of the mode of this animation.
+     *
+     * @param gameTime the time since the start of the animation
+     * @param mode the mode
+     * @return the index of the key frame
+     */
+    public int getKeyFrameIndex(long gameTime, AnimationMode mode) {
+        int frameCount = keyFrames.length;
+        if (frameCount == 1) {
+            return 0;
+        }
+        long time = Math.max(gameTime, 0);
+        switch (mode) {
+            case NORMAL:
+                return time >= getDurationMillis() ? frameCount - 1 : frameAt(time);
+            case REVERSED:
+                return time >= getDurationMillis() ? 0 : frameCount - 1 - frameAt(time);
+            case LOOP:
+                return frameAt(time % getDurationMillis());
+            case LOOP_REVERSED:
+                return frameCount - 1 - frameAt(time % getDurationMillis());
+            case LOOP_PINGPONG: {
+                //forwards through all frames, then backwards without the last and the first one
+                long duration = getDurationMillis();
+                long firstAndLast = frameEnd(0) + duration - frameEnd(frameCount - 2);
+                long timeInCycle = time % (2 * duration - firstAndLast);
+                if (timeInCycle < duration) {
+                    return frameAt(timeInCycle);
+                }
+                return frameAt(frameEnd(frameCount - 2) - 1 - (timeInCycle - duration));
+            }
+            case LOOP_RANDOM: {
+                long step = frameEnds == null
+                        ? (long) (time / (double) frameDuration)
+                        : time / getDurationMillis() * frameCount + frameAt(time % getDurationMillis());
+                return randomFrame(step, frameCount);
+            }
+            default:
+                throw new PixelException("Unsupported animation mode: " + mode);
+        }
+    }
 
-        return 0;//todo
+    /**
+     * Returns the frame shown at the time within the first run of the
+     * animation.
+     */
+    private int frameAt(long time) {
+        if (frameEnds == null) {
+            return (int) Math.min(keyFrames.length - 1, (long) (time / (double) frameDuration));
+        }
+        int low = 0;
+        int high = frameEnds.length - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (frameEnds[middle] <= time) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
     }
 
-    public T[] getKeyFrames() {
-        return null;//
+    private long frameEnd(int frame) {
+        return frameEnds == null ? (long) ((frame + 1) * (double) frameDuration) : frameEnds[frame];
     }
 
+    private long getDurationMillis() {
+        return Math.max(1, frameEnd(keyFrames.length - 1));
+    }
+
+    private int randomFrame(long step, int frameCount) {
+        long z = seed + step * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z ^= z >>> 31;
+        return (int) ((z >>> 1) % frameCount);
+    }
+
+    /**
+     * Returns the key frames.
+     *
+     * @return the unmodifiable list of the key frames
+     */
+    public List<T> getKeyFrames() {
+        return keyFrameList;
+    }
+
+    /**
+     * Returns true, if the animation played once reached its end. Looping
+     * animations never finish.
+     *
+     * @param gameTime the time since the start of the animation
+     * @return true, if finished
+     */
     public boolean isAnimationFinished(float gameTime) {
-        return true;//todo
+        switch (animationMode) {
+            case NORMAL:
+            case REVERSED:
+                return gameTime >= getAnimationDuration();
+            default:
+                return false;
+        }
     }
 
+    /**
+     * Sets the same duration of all frames.
+     *
+     * @param frameDuration the duration in milliseconds
+     */
     public void setFrameDuration(float frameDuration) {
+        if (!(frameDuration > 0)) {
+            throw new PixelException("Frame duration must be positive: " + frameDuration);
+        }
+        this.frameDuration = frameDuration;
+        this.frameEnds = null;
+    }
+
+    /**
+     * Sets the duration of every frame.
+     *
+     * @param frameDurations the durations in milliseconds, one per key frame
+     */
+    public void setFrameDurations(int[] frameDurations) {
+        if (frameDurations.length != keyFrames.length) {
+            throw new PixelException("Expected " + keyFrames.length + " frame durations, but got " + frameDurations.length);
+        }
+        long[] ends = new long[frameDurations.length];
+        long end = 0;
+        for (int i = 0; i < frameDurations.length; i++) {
+            if (frameDurations[i] <= 0) {
+                throw new PixelException("Frame duration must be positive: " + frameDurations[i]);
+            }
+            end += frameDurations[i];
+            ends[i] = end;
+        }
+        this.frameEnds = ends;
+        this.frameDuration = (float) end / ends.length;
     }
 
+    /**
+     * Returns the duration of a frame, the average one if the frames have
+     * different durations.
+     *
+     * @return the duration in milliseconds
+     */
     public float getFrameDuration() {
-        return 0;//todo
+        return frameDuration;
     }
 
     public float getAnimationDuration() {
-        return 0;//todo
+        return frameEnds == null ? keyFrames.length * frameDuration : frameEnds[frameEnds.length - 1];
     }
 
 }
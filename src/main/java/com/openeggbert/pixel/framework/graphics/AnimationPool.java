@@ -0,0 +1,279 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// Pixel: Game library.
+// Copyright (C) 2024 the original author or authors.
+//
+// This program is free software: you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation, either version 3
+// of the License, or (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program. If not, see
+// <https://www.gnu.org/licenses/> or write to the Free Software
+// Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+///////////////////////////////////////////////////////////////////////////////////////////////
+package com.openeggbert.pixel.framework.graphics;
+
+import com.openeggbert.pixel.framework.PixelException;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Animation state of many instances kept in parallel primitive arrays, instead
+ * of one object per animated entity.
+ *
+ * <p>
+ * The animations are registered once and referenced by their ids. Every
+ * instance has its animation, start time, speed and an optional mode
+ * overriding the mode of the animation; it is referenced by the handle
+ * returned by {@link #add}. {@link #update(long)} resolves the key frame
+ * indexes of all instances in one loop, in parallel chunks for large pools,
+ * into the array returned by {@link #getFrames()}, indexed by the handles.
+ * </p>
+ *
+ * @author robertvokac
+ */
+public class AnimationPool {
+
+    /**
+     * Pools with fewer instances are updated in the calling thread.
+     */
+    public static final int PARALLEL_THRESHOLD = 8 * 1024;
+    private static final int INSTANCES_PER_TASK = 2 * 1024;
+    private static final int FREE = -1;
+    private static final byte ANIMATION_MODE = -1;
+    private static final AnimationMode[] MODES = AnimationMode.values();
+
+    private Animation<?>[] animations = new Animation<?>[8];
+    @Getter
+    private int animationCount;
+
+    private int[] animationIds;
+    private long[] startTimes;
+    private float[] speeds;
+    private byte[] modes;
+    private int[] frames;
+    /**
+     * The free handles are chained through animationIds, as -2 - next.
+     */
+    private int firstFree = -1;
+    private int handleCount;
+    @Getter
+    private int instanceCount;
+    @Getter
+    @Setter
+    private boolean parallel = true;
+
+    public AnimationPool() {
+        this(64);
+    }
+
+    public AnimationPool(int initialCapacity) {
+        int capacity = Math.max(1, initialCapacity);
+        animationIds = new int[capacity];
+        startTimes = new long[capacity];
+        speeds = new float[capacity];
+        modes = new byte[capacity];
+        frames = new int[capacity];
+    }
+
+    /**
+     * Registers an animation.
+     *
+     * @param animation the animation
+     * @return the id of the animation
+     */
+    public int register(Animation<?> animation) {
+        if (animationCount == animations.length) {
+            animations = Arrays.copyOf(animations, animations.length * 2);
+        }
+        animations[animationCount] = animation;
+        return animationCount++;
+    }
+
+    public Animation<?> getAnimation(int animationId) {
+        if (animationId < 0 || animationId >= animationCount) {
+            throw new PixelException("There is no such animation: " + animationId);
+        }
+        return animations[animationId];
+    }
+
+    /**
+     * Adds an instance played with the mode of its animation.
+     *
+     * @param animationId the id of the animation
+     * @param startTime the game time the instance starts at
+     * @return the handle of the instance
+     */
+    public int add(int animationId, long startTime) {
+        return add(animationId, startTime, 1f, null);
+    }
+
+    /**
+     * Adds an instance.
+     *
+     * @param animationId the id of the animation
+     * @param startTime the game time the instance starts at
+     * @param speed the speed, 1 is the normal speed
+     * @param mode the mode, or null for the mode of the animation
+     * @return the handle of the instance
+     */
+    public int add(int animationId, long startTime, float speed, AnimationMode mode) {
+        getAnimation(animationId);
+        int handle;
+        if (firstFree >= 0) {
+            handle = firstFree;
+            firstFree = -2 - animationIds[handle];
+        } else {
+            if (handleCount == animationIds.length) {
+                grow();
+            }
+            handle = handleCount++;
+        }
+        animationIds[handle] = animationId;
+        startTimes[handle] = startTime;
+        speeds[handle] = speed;
+        modes[handle] = mode == null ? ANIMATION_MODE : (byte) mode.ordinal();
+        frames[handle] = 0;
+        instanceCount++;
+        return handle;
+    }
+
+    /**
+     * Removes the instance, its handle may be reused.
+     *
+     * @param handle the handle
+     */
+    public void remove(int handle) {
+        checkHandle(handle);
+        animationIds[handle] = -2 - firstFree;
+        frames[handle] = FREE;
+        firstFree = handle;
+        instanceCount--;
+    }
+
+    public boolean contains(int handle) {
+        return handle >= 0 && handle < handleCount && animationIds[handle] >= 0;
+    }
+
+    public void restart(int handle, long startTime) {
+        checkHandle(handle);
+        startTimes[handle] = startTime;
+    }
+
+    public void setSpeed(int handle, float speed) {
+        checkHandle(handle);
+        speeds[handle] = speed;
+    }
+
+    public void setAnimation(int handle, int animationId) {
+        checkHandle(handle);
+        getAnimation(animationId);
+        animationIds[handle] = animationId;
+    }
+
+    public int getAnimationId(int handle) {
+        checkHandle(handle);
+        return animationIds[handle];
+    }
+
+    /**
+     * Returns the key frame index of the instance computed by the last update.
+     *
+     * @param handle the handle
+     * @return the index of the key frame
+     */
+    public int getFrame(int handle) {
+        checkHandle(handle);
+        return frames[handle];
+    }
+
+    /**
+     * Returns the key frame of the instance computed by the last update.
+     *
+     * @param <T> the type of the key frames
+     * @param handle the handle
+     * @return the key frame
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getKeyFrame(int handle) {
+        return (T) animations[getAnimationId(handle)].getKeyFrames().get(frames[handle]);
+    }
+
+    /**
+     * Returns the key frame indexes of all instances, indexed by the handles.
+     * Removed instances have the index -1. The array is updated in place and
+     * replaced when the pool grows.
+     *
+     * @return the key frame indexes
+     */
+    public int[] getFrames() {
+        return frames;
+    }
+
+    /**
+     * Returns the count of handles in use or freed, the length of the valid
+     * part of {@link #getFrames()}.
+     *
+     * @return the count of handles
+     */
+    public int getHandleCount() {
+        return handleCount;
+    }
+
+    /**
+     * Computes the key frame indexes of all instances.
+     *
+     * @param gameTime the current game time
+     */
+    public void update(long gameTime) {
+        int count = handleCount;
+        if (!parallel || count < PARALLEL_THRESHOLD) {
+            update(gameTime, 0, count);
+            return;
+        }
+        int taskCount = (count + INSTANCES_PER_TASK - 1) / INSTANCES_PER_TASK;
+        IntStream.range(0, taskCount).parallel().forEach(task -> update(gameTime,
+                task * INSTANCES_PER_TASK, Math.min(count, (task + 1) * INSTANCES_PER_TASK)));
+    }
+
+    private void update(long gameTime, int from, int to) {
+        Animation<?>[] registered = animations;
+        for (int i = from; i < to; i++) {
+            int animationId = animationIds[i];
+            if (animationId < 0) {
+                continue;
+            }
+            Animation<?> animation = registered[animationId];
+            long elapsed = gameTime - startTimes[i];
+            float speed = speeds[i];
+            long time = speed == 1f ? elapsed : (long) (elapsed * (double) speed);
+            byte mode = modes[i];
+            frames[i] = mode == ANIMATION_MODE
+                    ? animation.getKeyFrameIndex(time)
+                    : animation.getKeyFrameIndex(time, MODES[mode]);
+        }
+    }
+
+    private void grow() {
+        int capacity = animationIds.length * 2;
+        animationIds = Arrays.copyOf(animationIds, capacity);
+        startTimes = Arrays.copyOf(startTimes, capacity);
+        speeds = Arrays.copyOf(speeds, capacity);
+        modes = Arrays.copyOf(modes, capacity);
+        frames = Arrays.copyOf(frames, capacity);
+    }
+
+    private void checkHandle(int handle) {
+        if (!contains(handle)) {
+            throw new PixelException("There is no such animation instance: " + handle);
+        }
+    }
+}
@@ -29,7 +29,18 @@ public interface BitmapFont extends Disposable {
     void setScale(float f);
     void setColor(Color color);
     default void setColor(float r, float g, float b, float a) {
-        setColor(new Color(0f, 0f, 1f, 1f));
+        setColor(new Color(r, g, b, a));
+    }
+
+    /**
+     * Sets the color packed as ARGB8888, see {@link PackedColor}.
+     * Implementations should override this method to avoid the allocation of a
+     * new color.
+     *
+     * @param argb the color
+     */
+    default void setColor(int argb) {
+        setColor(PackedColor.toColor(argb, new Color()));
     }
     void draw(SpriteBatch batch, String text, float x, float y);
 }
@@ -19,6 +19,7 @@
 ///////////////////////////////////////////////////////////////////////////////////////////////
 package com.openeggbert.pixel.framework.graphics;
 
+import com.openeggbert.pixel.framework.math.Vec2;
 import com.openeggbert.pixel.framework.math.Vector2;
 
 /**
@@ -34,4 +35,8 @@ public interface Camera {
     void translate(float x, float y);
 
     void translate(Vector2 vector);
+
+    default void translate(Vec2 vector) {
+        translate(vector.getX(), vector.getY());
+    }
 }
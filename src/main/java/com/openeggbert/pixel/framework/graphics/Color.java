@@ -648,6 +648,15 @@ public final class Color {
         return getByteRepresentation(ColorMode.BLACK_AND_WHITE, 1);
     }
 
+    /**
+     * Returns the bits of this color reduced to the color mode and the bit
+     * count. Meant for single colors, whole images should be encoded with
+     * {@link PixelFormatCodec}.
+     *
+     * @param colorMode the color mode
+     * @param bitCount the bit count
+     * @return the bits
+     */
     public BitSet getByteRepresentation(ColorMode colorMode, int bitCount) {
         if (colorMode == ColorMode.COLOR) {
             Color colorClone = this.copy();
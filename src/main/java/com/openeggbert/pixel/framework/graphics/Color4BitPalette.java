@@ -65,6 +65,55 @@ public class Color4BitPalette {
         Color4BitPalette.LIGHT_GRAY
     };
 
+    /**
+     * Returns the colors of the palette.
+     *
+     * @return the colors as ARGB8888, the index of a color is its 4-bit value
+     */
+    public static int[] toArgbArray() {
+        int[] result = new int[COLORS_4BIT_PALETTE.length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = COLORS_4BIT_PALETTE[i].toInt();
+        }
+        return result;
+    }
+
+    private static final int[] ARGB_PALETTE = toArgbArray();
+
+    /**
+     * Creates the lookup cube on the first use, the initialization of the
+     * class publishes it safely to all threads.
+     */
+    private static final class LookupCubeHolder {
+
+        private static final PaletteLookupCube LOOKUP_CUBE = new PaletteLookupCube(toArgbArray());
+    }
+
+    /**
+     * Returns the lookup cube of this palette, it is created on the first call.
+     * It is approximate, meant for converting many pixels.
+     *
+     * @return the lookup cube
+     */
+    public static PaletteLookupCube getLookupCube() {
+        return LookupCubeHolder.LOOKUP_CUBE;
+    }
+
+    /**
+     * Returns the 4-bit value of the closest color, compared with every color
+     * of the palette. For many pixels use {@link #getLookupCube()}.
+     *
+     * @param argb the color as ARGB8888
+     * @return the index to this palette
+     */
+    public static int findClosestIndex(int argb) {
+        return PaletteLookupCube.findClosestIndex(ARGB_PALETTE, (argb >> 16) & 0xFF, (argb >> 8) & 0xFF, argb & 0xFF);
+    }
+
+    public static Color getColor(int index) {
+        return COLORS_4BIT_PALETTE[index];
+    }
+
     public static Color findClosestColor(Color color) {
         Color closestColor = null;
         double minDistance = Double.MAX_VALUE;
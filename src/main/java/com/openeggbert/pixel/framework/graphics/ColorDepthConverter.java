@@ -0,0 +1,338 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// Pixel: Game library.
+// Copyright (C) 2024 the original author or authors.
+//
+// This program is free software: you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation, either version 3
+// of the License, or (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program. If not, see
+// <https://www.gnu.org/licenses/> or write to the Free Software
+// Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+///////////////////////////////////////////////////////////////////////////////////////////////
+package com.openeggbert.pixel.framework.graphics;
+
+import com.openeggbert.pixel.framework.PixelException;
+
+/**
+ * Converts whole pixel buffers to a reduced color depth, the bulk counterpart
+ * of {@link Color#convertTo(ColorMode, int)}.
+ *
+ * <p>
+ * All per channel work is precomputed in lookup tables when the converter is
+ * created, so the conversion of one pixel is a few table lookups. Large
+ * buffers are converted in parallel, in bands of rows.
+ * </p>
+ *
+ * <p>
+ * Two outputs are supported: {@link #convert} returns ARGB8888 colors reduced
+ * to the target depth and expanded back to 8 bits per channel, ready to be
+ * displayed. {@link #encode} returns the raw values of the target depth, for
+ * example the 16-bit value of RGB565 or the index to the 4-bit palette. Alpha
+ * is kept by {@link #convert} and dropped by {@link #encode}.
+ * </p>
+ *
+ * @author robertvokac
+ */
+public final class ColorDepthConverter implements ColorQuantizer {
+
+    /**
+     * Buffers with fewer pixels are converted in the calling thread.
+     */
+    public static final int PARALLEL_THRESHOLD = PixelBands.PARALLEL_THRESHOLD;
+
+    private enum Kind {
+        NONE, RGB, GRAY, PALETTE
+    }
+
+    private final Kind kind;
+    private final ColorMode colorMode;
+    private final int bitCount;
+    private int quantizationStep = 1;
+
+    //RGB: the contributions of a channel value to the encoded value and to the reduced color
+    //GRAY: the weighted channel values, their sum shifted right by 8 is the average
+    private final int[] redEncoded = new int[256];
+    private final int[] greenEncoded = new int[256];
+    private final int[] blueEncoded = new int[256];
+    private final int[] redReduced = new int[256];
+    private final int[] greenReduced = new int[256];
+    private final int[] blueReduced = new int[256];
+    //GRAY: the level and the reduced color per average
+    private final int[] grayEncoded = new int[256];
+    private final int[] grayReduced = new int[256];
+    //PALETTE: the palette
+    private final PaletteLookupCube lookupCube;
+
+    private ColorDepthConverter(ColorMode colorMode, int bitCount) {
+        this.colorMode = colorMode;
+        this.bitCount = bitCount;
+        PaletteLookupCube cube = null;
+        if (colorMode == ColorMode.BLACK_AND_WHITE) {
+            if (bitCount != 1 && bitCount != 2 && bitCount != 4 && bitCount != 8) {
+                throw new PixelException("Unsupported bit count: " + bitCount);
+            }
+            kind = Kind.GRAY;
+            initGray(bitCount);
+        } else if (colorMode == ColorMode.COLOR) {
+            ColorDepth colorDepth = ColorDepth.from(bitCount);
+            switch (colorDepth) {
+                case BITS_32:
+                case BITS_24:
+                    kind = Kind.NONE;
+                    break;
+                case BITS_16:
+                case BITS_8:
+                    kind = Kind.RGB;
+                    initRgb(colorDepth.getRedBitCount(), colorDepth.getGreenBitCount(), colorDepth.getBlueBitCount());
+                    break;
+                case BITS_4:
+                    kind = Kind.PALETTE;
+                    cube = Color4BitPalette.getLookupCube();
+                    break;
+                default:
+                    throw new PixelException("Unsupported color depth: " + bitCount);
+            }
+        } else {
+            throw new PixelException("Unsupported ColorMode: " + colorMode);
+        }
+        this.lookupCube = cube;
+        if (cube != null) {
+            quantizationStep = cube.getQuantizationStep();
+        }
+    }
+
+    private ColorDepthConverter(PaletteLookupCube lookupCube) {
+        this.kind = Kind.PALETTE;
+        this.colorMode = ColorMode.COLOR;
+        this.bitCount = 32 - Integer.numberOfLeadingZeros(lookupCube.getPaletteSize() - 1);
+        this.lookupCube = lookupCube;
+        this.quantizationStep = lookupCube.getQuantizationStep();
+    }
+
+    /**
+     * Creates a converter.
+     *
+     * @param colorMode the color mode
+     * @param bitCount 32, 24, 16, 8 or 4 for {@link ColorMode#COLOR}, 8, 4, 2
+     * or 1 for {@link ColorMode#BLACK_AND_WHITE}
+     * @return the converter
+     * @throws PixelException if the combination is not supported
+     */
+    public static ColorDepthConverter of(ColorMode colorMode, int bitCount) {
+        return new ColorDepthConverter(colorMode, bitCount);
+    }
+
+    /**
+     * Creates a converter to an arbitrary palette.
+     *
+     * @param lookupCube the lookup cube of the palette
+     * @return the converter, {@link #encode} returns the indexes to the
+     * palette
+     */
+    public static ColorDepthConverter of(PaletteLookupCube lookupCube) {
+        return new ColorDepthConverter(lookupCube);
+    }
+
+    public ColorMode getColorMode() {
+        return colorMode;
+    }
+
+    public int getBitCount() {
+        return bitCount;
+    }
+
+    private void initRgb(int redBits, int greenBits, int blueBits) {
+        quantizationStep = 255 / ((1 << Math.min(redBits, Math.min(greenBits, blueBits))) - 1);
+        for (int i = 0; i < 256; i++) {
+            int red = i >> (8 - redBits);
+            int green = i >> (8 - greenBits);
+            int blue = i >> (8 - blueBits);
+            redEncoded[i] = red << (greenBits + blueBits);
+            greenEncoded[i] = green << blueBits;
+            blueEncoded[i] = blue;
+            redReduced[i] = expand(red, redBits) << 16;
+            greenReduced[i] = expand(green, greenBits) << 8;
+            blueReduced[i] = expand(blue, blueBits);
+        }
+    }
+
+    private void initGray(int bits) {
+        quantizationStep = 255 / ((1 << bits) - 1);
+        for (int i = 0; i < 256; i++) {
+            //the weights 85 + 86 + 85 = 256 give the average of the channels
+            redEncoded[i] = i * 85;
+            greenEncoded[i] = i * 86;
+            blueEncoded[i] = i * 85;
+            int level = i >> (8 - bits);
+            int gray = expand(level, bits);
+            grayEncoded[i] = level;
+            grayReduced[i] = (gray << 16) | (gray << 8) | gray;
+        }
+    }
+
+    /**
+     * Expands a value with the given count of bits to 8 bits, so that the
+     * maximum is mapped to 255.
+     */
+    static int expand(int value, int bits) {
+        int max = (1 << bits) - 1;
+        return (value * 255 + max / 2) / max;
+    }
+
+    /**
+     * Converts one color.
+     *
+     * @param argb the color as ARGB8888
+     * @return the reduced color as ARGB8888, with the alpha unchanged
+     */
+    public int convert(int argb) {
+        int alpha = argb & 0xFF000000;
+        int red = (argb >> 16) & 0xFF;
+        int green = (argb >> 8) & 0xFF;
+        int blue = argb & 0xFF;
+        switch (kind) {
+            case RGB:
+                return alpha | redReduced[red] | greenReduced[green] | blueReduced[blue];
+            case GRAY:
+                return alpha | grayReduced[(redEncoded[red] + greenEncoded[green] + blueEncoded[blue]) >> 8];
+            case PALETTE:
+                return lookupCube.closestColor(argb);
+            default:
+                return argb;
+        }
+    }
+
+    @Override
+    public int quantize(int argb) {
+        return convert(argb);
+    }
+
+    @Override
+    public int getQuantizationStep() {
+        return quantizationStep;
+    }
+
+    /**
+     * Encodes one color.
+     *
+     * @param argb the color as ARGB8888
+     * @return the value in the target depth: RGB565 or RGB332, the index to
+     * the palette, the gray level, or RGB888 for 24 and 32 bits
+     */
+    public int encode(int argb) {
+        int red = (argb >> 16) & 0xFF;
+        int green = (argb >> 8) & 0xFF;
+        int blue = argb & 0xFF;
+        switch (kind) {
+            case RGB:
+                return redEncoded[red] | greenEncoded[green] | blueEncoded[blue];
+            case GRAY:
+                return grayEncoded[(redEncoded[red] + greenEncoded[green] + blueEncoded[blue]) >> 8];
+            case PALETTE:
+                return lookupCube.indexOf(argb);
+            default:
+                return argb & 0x00FFFFFF;
+        }
+    }
+
+    /**
+     * Converts the pixels, see {@link #convert(int)}. The source and the
+     * target may be the same array.
+     *
+     * @param source the pixels as ARGB8888
+     * @param target the reduced pixels as ARGB8888
+     * @param width the width of the image
+     * @param height the height of the image
+     */
+    public void convert(int[] source, int[] target, int width, int height) {
+        checkLength(source, target, width * height);
+        PixelBands.forEach(width, height, (from, to) -> {
+            switch (kind) {
+                case RGB:
+                    for (int i = from; i < to; i++) {
+                        int argb = source[i];
+                        target[i] = (argb & 0xFF000000)
+                                | redReduced[(argb >> 16) & 0xFF]
+                                | greenReduced[(argb >> 8) & 0xFF]
+                                | blueReduced[argb & 0xFF];
+                    }
+                    break;
+                case GRAY:
+                    for (int i = from; i < to; i++) {
+                        int argb = source[i];
+                        target[i] = (argb & 0xFF000000) | grayReduced[(redEncoded[(argb >> 16) & 0xFF]
+                                + greenEncoded[(argb >> 8) & 0xFF]
+                                + blueEncoded[argb & 0xFF]) >> 8];
+                    }
+                    break;
+                case PALETTE:
+                    for (int i = from; i < to; i++) {
+                        target[i] = lookupCube.closestColor(source[i]);
+                    }
+                    break;
+                default:
+                    if (source != target) {
+                        System.arraycopy(source, from, target, from, to - from);
+                    }
+            }
+        });
+    }
+
+    /**
+     * Encodes the pixels, see {@link #encode(int)}.
+     *
+     * @param source the pixels as ARGB8888
+     * @param target the encoded values
+     * @param width the width of the image
+     * @param height the height of the image
+     */
+    public void encode(int[] source, int[] target, int width, int height) {
+        checkLength(source, target, width * height);
+        PixelBands.forEach(width, height, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                target[i] = encode(source[i]);
+            }
+        });
+    }
+
+    /**
+     * Converts the pixels stored as RGBA8888 bytes, see {@link #convert(int)}.
+     * The source and the target may be the same array.
+     *
+     * @param source the pixels as RGBA8888
+     * @param target the reduced pixels as RGBA8888
+     * @param width the width of the image
+     * @param height the height of the image
+     */
+    public void convertRgba(byte[] source, byte[] target, int width, int height) {
+        if (source.length != width * height * 4 || target.length != source.length) {
+            throw new PixelException("Expected " + (width * height * 4) + " bytes, but got " + source.length + " and " + target.length);
+        }
+        PixelBands.forEach(width, height, (from, to) -> {
+            for (int i = from * 4, end = to * 4; i < end; i += 4) {
+                int argb = convert(((source[i + 3] & 0xFF) << 24)
+                        | ((source[i] & 0xFF) << 16)
+                        | ((source[i + 1] & 0xFF) << 8)
+                        | (source[i + 2] & 0xFF));
+                target[i] = (byte) (argb >> 16);
+                target[i + 1] = (byte) (argb >> 8);
+                target[i + 2] = (byte) argb;
+                target[i + 3] = (byte) (argb >>> 24);
+            }
+        });
+    }
+
+    private static void checkLength(int[] source, int[] target, int length) {
+        if (source.length != length || target.length != length) {
+            throw new PixelException("Expected " + length + " pixels, but got " + source.length + " and " + target.length);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// Pixel: Game library.
+// Copyright (C) 2024 the original author or authors.
+//
+// This program is free software: you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation, either version 3
+// of the License, or (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program. If not, see
+// <https://www.gnu.org/licenses/> or write to the Free Software
+// Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+///////////////////////////////////////////////////////////////////////////////////////////////
+package com.openeggbert.pixel.framework.graphics;
+
+/**
+ * Maps colors to the closest color, which can be represented in a reduced
+ * color depth or palette.
+ *
+ * @author robertvokac
+ */
+public interface ColorQuantizer {
+
+    /**
+     * Returns the closest representable color.
+     *
+     * @param argb the color as ARGB8888
+     * @return the representable color as ARGB8888, with the alpha unchanged
+     */
+    int quantize(int argb);
+
+    /**
+     * Returns the typical distance between two neighbouring representable
+     * values of a channel, in the range 1 to 255. It is used as the amplitude
+     * of the ordered dithering.
+     *
+     * @return the step
+     */
+    default int getQuantizationStep() {
+        return 32;
+    }
+}
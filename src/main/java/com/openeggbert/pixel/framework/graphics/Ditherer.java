@@ -0,0 +1,282 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// Pixel: Game library.
+// Copyright (C) 2024 the original author or authors.
+//
+// This program is free software: you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation, either version 3
+// of the License, or (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program. If not, see
+// <https://www.gnu.org/licenses/> or write to the Free Software
+// Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+///////////////////////////////////////////////////////////////////////////////////////////////
+package com.openeggbert.pixel.framework.graphics;
+
+import com.openeggbert.pixel.framework.PixelException;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Dithers whole images while reducing them with a {@link ColorQuantizer}, so
+ * reduced color depths and palettes do not show banding.
+ *
+ * <p>
+ * The ordered dithering adds an 8 x 8 Bayer threshold pattern, every pixel is
+ * independent, so bands of rows are processed in parallel.
+ * </p>
+ *
+ * <p>
+ * The error diffusion (Floyd-Steinberg, Atkinson) pushes the error of a pixel
+ * to the following pixels, so it cannot be split into independent bands.
+ * Instead every row is split into blocks and the blocks are processed in
+ * waves: the block in row y and column bx belongs to the wave bx + 2y. All
+ * pixels a block depends on (the previous block of the row and the blocks
+ * above it up to the next column) belong to earlier waves and the blocks of one
+ * wave do not write to the same pixels, so every wave is processed in
+ * parallel. The result is the same as of the sequential processing.
+ * </p>
+ *
+ * @author robertvokac
+ */
+public final class Ditherer {
+
+    private static final int[] BAYER_8X8 = {
+        0, 32, 8, 40, 2, 34, 10, 42,
+        48, 16, 56, 24, 50, 18, 58, 26,
+        12, 44, 4, 36, 14, 46, 6, 38,
+        60, 28, 52, 20, 62, 30, 54, 22,
+        3, 35, 11, 43, 1, 33, 9, 41,
+        51, 19, 59, 27, 49, 17, 57, 25,
+        15, 47, 7, 39, 13, 45, 5, 37,
+        63, 31, 55, 23, 61, 29, 53, 21
+    };
+
+    //error diffusion kernels: x offset, y offset and weight of every neighbour
+    private static final int[] FLOYD_STEINBERG_DX = {1, -1, 0, 1};
+    private static final int[] FLOYD_STEINBERG_DY = {0, 1, 1, 1};
+    private static final int[] FLOYD_STEINBERG_WEIGHT = {7, 3, 5, 1};
+    private static final int FLOYD_STEINBERG_DIVISOR = 16;
+    private static final int[] ATKINSON_DX = {1, 2, -1, 0, 1, 0};
+    private static final int[] ATKINSON_DY = {0, 0, 1, 1, 1, 2};
+    private static final int[] ATKINSON_WEIGHT = {1, 1, 1, 1, 1, 1};
+    private static final int ATKINSON_DIVISOR = 8;
+
+    /**
+     * The count of blocks per row for the error diffusion. Blocks have at
+     * least {@link #MIN_BLOCK_WIDTH} pixels, the kernels reach at most 2
+     * pixels to the right.
+     */
+    private static final int BLOCKS_PER_ROW = 16;
+    private static final int MIN_BLOCK_WIDTH = 4;
+
+    private Ditherer() {
+        //Not meant to be instantiated.
+    }
+
+    /**
+     * Reduces and dithers the pixels. The source and the target may be the
+     * same array.
+     *
+     * @param source the pixels as ARGB8888
+     * @param target the result as ARGB8888
+     * @param width the width of the image
+     * @param height the height of the image
+     * @param quantizer the quantizer
+     * @param method the dithering method
+     */
+    public static void dither(int[] source, int[] target, int width, int height, ColorQuantizer quantizer, DitherMethod method) {
+        switch (method) {
+            case NONE:
+                checkLength(source, target, width * height);
+                PixelBands.forEach(width, height, (from, to) -> {
+                    for (int i = from; i < to; i++) {
+                        target[i] = quantizer.quantize(source[i]);
+                    }
+                });
+                break;
+            case ORDERED:
+                orderedDither(source, target, width, height, quantizer, quantizer.getQuantizationStep());
+                break;
+            case FLOYD_STEINBERG:
+                diffuseError(source, target, width, height, quantizer,
+                        FLOYD_STEINBERG_DX, FLOYD_STEINBERG_DY, FLOYD_STEINBERG_WEIGHT, FLOYD_STEINBERG_DIVISOR);
+                break;
+            case ATKINSON:
+                diffuseError(source, target, width, height, quantizer,
+                        ATKINSON_DX, ATKINSON_DY, ATKINSON_WEIGHT, ATKINSON_DIVISOR);
+                break;
+            default:
+                throw new PixelException("Unsupported dither method: " + method);
+        }
+    }
+
+    /**
+     * Reduces the pixels with the ordered dithering.
+     *
+     * @param source the pixels as ARGB8888
+     * @param target the result as ARGB8888
+     * @param width the width of the image
+     * @param height the height of the image
+     * @param quantizer the quantizer
+     * @param amplitude the range of the added threshold per channel, usually
+     * the quantization step
+     */
+    public static void orderedDither(int[] source, int[] target, int width, int height, ColorQuantizer quantizer, int amplitude) {
+        checkLength(source, target, width * height);
+        int[] offsets = new int[BAYER_8X8.length];
+        for (int i = 0; i < offsets.length; i++) {
+            offsets[i] = (2 * BAYER_8X8[i] + 1) * amplitude / 128 - amplitude / 2;
+        }
+        PixelBands.forEach(width, height, (from, to) -> {
+            for (int rowStart = from; rowStart < to; rowStart += width) {
+                int matrixRow = ((rowStart / width) & 7) << 3;
+                for (int x = 0; x < width; x++) {
+                    int argb = source[rowStart + x];
+                    int offset = offsets[matrixRow | (x & 7)];
+                    target[rowStart + x] = quantizer.quantize((argb & 0xFF000000)
+                            | (clamp(((argb >> 16) & 0xFF) + offset) << 16)
+                            | (clamp(((argb >> 8) & 0xFF) + offset) << 8)
+                            | clamp((argb & 0xFF) + offset));
+                }
+            }
+        });
+    }
+
+    private static void diffuseError(int[] source, int[] target, int width, int height, ColorQuantizer quantizer,
+            int[] dx, int[] dy, int[] weight, int divisor) {
+        checkLength(source, target, width * height);
+        int pixelCount = width * height;
+        int maxDy = 0;
+        for (int d : dy) {
+            maxDy = Math.max(maxDy, d);
+        }
+        int blockWidth = Math.max(MIN_BLOCK_WIDTH, (width + BLOCKS_PER_ROW - 1) / BLOCKS_PER_ROW);
+        if (pixelCount < PixelBands.PARALLEL_THRESHOLD || blockWidth >= width) {
+            ErrorDiffusion diffusion = new ErrorDiffusion(source, target, width, height, quantizer,
+                    Math.min(height, maxDy + 1), dx, dy, weight, divisor);
+            for (int y = 0; y < height; y++) {
+                diffusion.run(0, width, y);
+                diffusion.finishRow(y);
+            }
+            return;
+        }
+        int blockCount = (width + blockWidth - 1) / blockWidth;
+        //the last block of row y is in the wave blockCount - 1 + 2y, the row y + rows - maxDy
+        //receives its first error in the wave 2 * (y + rows - maxDy), which has to be later
+        ErrorDiffusion diffusion = new ErrorDiffusion(source, target, width, height, quantizer,
+                Math.min(height, blockCount / 2 + maxDy + 1), dx, dy, weight, divisor);
+        int waveCount = blockCount + 2 * (height - 1);
+        for (int wave = 0; wave < waveCount; wave++) {
+            //the blocks with blockX + 2 * y == wave
+            int firstY = Math.max(0, (wave - blockCount + 2) / 2);
+            int lastY = Math.min(height - 1, wave / 2);
+            int currentWave = wave;
+            IntStream.rangeClosed(firstY, lastY).parallel().forEach(y -> {
+                int blockX = currentWave - 2 * y;
+                int from = blockX * blockWidth;
+                diffusion.run(from, Math.min(width, from + blockWidth), y);
+                if (blockX == blockCount - 1) {
+                    diffusion.finishRow(y);
+                }
+            });
+        }
+    }
+
+    /**
+     * The errors are kept only for the rows being processed, in a ring buffer
+     * of rows, not for the whole image.
+     */
+    private static final class ErrorDiffusion {
+
+        private final int[] source;
+        private final int[] target;
+        private final int width;
+        private final int height;
+        private final ColorQuantizer quantizer;
+        private final int rows;
+        private final int[] redError;
+        private final int[] greenError;
+        private final int[] blueError;
+        private final int[] dx;
+        private final int[] dy;
+        private final int[] weight;
+        private final int divisor;
+
+        ErrorDiffusion(int[] source, int[] target, int width, int height, ColorQuantizer quantizer,
+                int rows, int[] dx, int[] dy, int[] weight, int divisor) {
+            this.source = source;
+            this.target = target;
+            this.width = width;
+            this.height = height;
+            this.quantizer = quantizer;
+            this.rows = rows;
+            this.redError = new int[rows * width];
+            this.greenError = new int[rows * width];
+            this.blueError = new int[rows * width];
+            this.dx = dx;
+            this.dy = dy;
+            this.weight = weight;
+            this.divisor = divisor;
+        }
+
+        /**
+         * Processes the pixels from x (inclusive) to x2 (exclusive) of the row.
+         */
+        void run(int x, int x2, int y) {
+            int e = (y % rows) * width + x;
+            for (int i = y * width + x; x < x2; x++, i++, e++) {
+                int argb = source[i];
+                int red = clamp(((argb >> 16) & 0xFF) + redError[e]);
+                int green = clamp(((argb >> 8) & 0xFF) + greenError[e]);
+                int blue = clamp((argb & 0xFF) + blueError[e]);
+                int quantized = quantizer.quantize((argb & 0xFF000000) | (red << 16) | (green << 8) | blue);
+                target[i] = quantized;
+                int errorRed = red - ((quantized >> 16) & 0xFF);
+                int errorGreen = green - ((quantized >> 8) & 0xFF);
+                int errorBlue = blue - (quantized & 0xFF);
+                if (errorRed == 0 && errorGreen == 0 && errorBlue == 0) {
+                    continue;
+                }
+                for (int k = 0; k < dx.length; k++) {
+                    int nx = x + dx[k];
+                    int ny = y + dy[k];
+                    if (nx < 0 || nx >= width || ny >= height) {
+                        continue;
+                    }
+                    int n = (ny % rows) * width + nx;
+                    redError[n] += errorRed * weight[k] / divisor;
+                    greenError[n] += errorGreen * weight[k] / divisor;
+                    blueError[n] += errorBlue * weight[k] / divisor;
+                }
+            }
+        }
+
+        /**
+         * Clears the errors of the processed row, so its buffer row can be
+         * reused by a following row.
+         */
+        void finishRow(int y) {
+            int from = (y % rows) * width;
+            Arrays.fill(redError, from, from + width, 0);
+            Arrays.fill(greenError, from, from + width, 0);
+            Arrays.fill(blueError, from, from + width, 0);
+        }
+    }
+
+    private static void checkLength(int[] source, int[] target, int length) {
+        if (source.length != length || target.length != length) {
+            throw new PixelException("Expected " + length + " pixels, but got " + source.length + " and " + target.length);
+        }
+    }
+
+    private static int clamp(int component) {
+        return component < 0 ? 0 : (component > 255 ? 255 : component);
+    }
+}
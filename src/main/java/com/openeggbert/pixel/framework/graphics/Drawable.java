@@ -42,6 +42,11 @@ public interface Drawable {
     // Set the color using integer values for red, green, and blue
     void setColor(int red, int green, int blue);
 
+    // Set the color packed as ARGB8888, see PackedColor
+    default void setColor(int argb) {
+        setColor(PackedColor.red(argb), PackedColor.green(argb), PackedColor.blue(argb), PackedColor.alpha(argb));
+    }
+
     // Fill the current shape with the set color
     void fill();
 
@@ -0,0 +1,183 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// Pixel: Game library.
+// Copyright (C) 2024 the original author or authors.
+//
+// This program is free software: you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation, either version 3
+// of the License, or (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program. If not, see
+// <https://www.gnu.org/licenses/> or write to the Free Software
+// Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+///////////////////////////////////////////////////////////////////////////////////////////////
+package com.openeggbert.pixel.framework.graphics;
+
+import java.util.Arrays;
+
+/**
+ * Packs rectangles into one larger rectangle with the MaxRects algorithm. All
+ * maximal free rectangles are tracked, every rectangle is placed into the free
+ * one with the smallest leftover on its shorter side (best short side fit).
+ * Rectangles are not rotated.
+ *
+ * @author robertvokac
+ */
+public class MaxRectsPacker {
+
+    private final int width;
+    private final int height;
+    private int[] free = new int[4 * 16];
+    private int freeCount;
+    private int[] splits = new int[4 * 16];
+    private long usedArea;
+
+    public MaxRectsPacker(int width, int height) {
+        this.width = width;
+        this.height = height;
+        addFree(0, 0, width, height);
+    }
+
+    /**
+     * Finds a place for the rectangle and marks it as used.
+     *
+     * @param rectangleWidth the width
+     * @param rectangleHeight the height
+     * @param position the array receiving the x and the y coordinate
+     * @return false, if the rectangle does not fit anymore
+     */
+    public boolean insert(int rectangleWidth, int rectangleHeight, int[] position) {
+        int best = -1;
+        int bestShortSide = Integer.MAX_VALUE;
+        int bestLongSide = Integer.MAX_VALUE;
+        for (int i = 0; i < freeCount; i++) {
+            int leftoverX = free[i * 4 + 2] - rectangleWidth;
+            int leftoverY = free[i * 4 + 3] - rectangleHeight;
+            if (leftoverX < 0 || leftoverY < 0) {
+                continue;
+            }
+            int shortSide = Math.min(leftoverX, leftoverY);
+            int longSide = Math.max(leftoverX, leftoverY);
+            if (shortSide < bestShortSide || shortSide == bestShortSide && longSide < bestLongSide) {
+                best = i;
+                bestShortSide = shortSide;
+                bestLongSide = longSide;
+            }
+        }
+        if (best < 0) {
+            return false;
+        }
+        int x = free[best * 4];
+        int y = free[best * 4 + 1];
+        place(x, y, rectangleWidth, rectangleHeight);
+        usedArea += (long) rectangleWidth * rectangleHeight;
+        position[0] = x;
+        position[1] = y;
+        return true;
+    }
+
+    /**
+     * Returns the used part of the area.
+     *
+     * @return the ratio between 0 and 1
+     */
+    public float getOccupancy() {
+        return (float) ((double) usedArea / ((long) width * height));
+    }
+
+    private void place(int x, int y, int placedWidth, int placedHeight) {
+        int right = x + placedWidth;
+        int bottom = y + placedHeight;
+        int splitCount = 0;
+        for (int i = 0; i < freeCount;) {
+            int freeX = free[i * 4];
+            int freeY = free[i * 4 + 1];
+            int freeRight = freeX + free[i * 4 + 2];
+            int freeBottom = freeY + free[i * 4 + 3];
+            if (x >= freeRight || right <= freeX || y >= freeBottom || bottom <= freeY) {
+                i++;
+                continue;
+            }
+            //replace the intersected rectangle by its parts around the placed one
+            removeFree(i);
+            if (splits.length < (splitCount + 4) * 4) {
+                splits = Arrays.copyOf(splits, splits.length * 2);
+            }
+            if (x > freeX) {
+                splitCount = addSplit(splitCount, freeX, freeY, x - freeX, freeBottom - freeY);
+            }
+            if (right < freeRight) {
+                splitCount = addSplit(splitCount, right, freeY, freeRight - right, freeBottom - freeY);
+            }
+            if (y > freeY) {
+                splitCount = addSplit(splitCount, freeX, freeY, freeRight - freeX, y - freeY);
+            }
+            if (bottom < freeBottom) {
+                splitCount = addSplit(splitCount, freeX, bottom, freeRight - freeX, freeBottom - bottom);
+            }
+        }
+        for (int i = 0; i < splitCount; i++) {
+            addFree(splits[i * 4], splits[i * 4 + 1], splits[i * 4 + 2], splits[i * 4 + 3]);
+        }
+        pruneContained();
+    }
+
+    private int addSplit(int splitCount, int x, int y, int splitWidth, int splitHeight) {
+        int i = splitCount * 4;
+        splits[i] = x;
+        splits[i + 1] = y;
+        splits[i + 2] = splitWidth;
+        splits[i + 3] = splitHeight;
+        return splitCount + 1;
+    }
+
+    private void pruneContained() {
+        for (int i = 0; i < freeCount; i++) {
+            for (int j = i + 1; j < freeCount; j++) {
+                if (contains(j, i)) {
+                    removeFree(i);
+                    i--;
+                    break;
+                }
+                if (contains(i, j)) {
+                    removeFree(j);
+                    j--;
+                }
+            }
+        }
+    }
+
+    private boolean contains(int outer, int inner) {
+        int o = outer * 4;
+        int n = inner * 4;
+        return free[n] >= free[o] && free[n + 1] >= free[o + 1]
+                && free[n] + free[n + 2] <= free[o] + free[o + 2]
+                && free[n + 1] + free[n + 3] <= free[o + 1] + free[o + 3];
+    }
+
+    private void addFree(int x, int y, int freeWidth, int freeHeight) {
+        if (freeCount * 4 == free.length) {
+            free = Arrays.copyOf(free, free.length * 2);
+        }
+        int i = freeCount * 4;
+        free[i] = x;
+        free[i + 1] = y;
+        free[i + 2] = freeWidth;
+        free[i + 3] = freeHeight;
+        freeCount++;
+    }
+
+    /**
+     * Removes the free rectangle by moving the last one to its place.
+     */
+    private void removeFree(int index) {
+        freeCount--;
+        System.arraycopy(free, freeCount * 4, free, index * 4, 4);
+    }
+}
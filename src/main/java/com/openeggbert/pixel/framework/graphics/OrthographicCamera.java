@@ -0,0 +1,304 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// Pixel: Game library.
+// Copyright (C) 2024 the original author or authors.
+//
+// This program is free software: you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation, either version 3
+// of the License, or (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program. If not, see
+// <https://www.gnu.org/licenses/> or write to the Free Software
+// Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+///////////////////////////////////////////////////////////////////////////////////////////////
+package com.openeggbert.pixel.framework.graphics;
+
+import com.openeggbert.pixel.framework.PixelException;
+import com.openeggbert.pixel.framework.math.Affine2;
+import com.openeggbert.pixel.framework.math.FastMath;
+import com.openeggbert.pixel.framework.math.Rectangle;
+import com.openeggbert.pixel.framework.math.Vec2;
+import com.openeggbert.pixel.framework.math.Vector2;
+import lombok.Getter;
+
+/**
+ * Camera with an orthographic projection, looking at a position in the world.
+ *
+ * <p>
+ * The combined matrix transforms world coordinates into normalized device
+ * coordinates from -1 to 1, with y pointing up. It is recomputed lazily, only
+ * when the camera was changed since the last use, together with its inverse
+ * and the bounds of the visible area of the world.
+ * </p>
+ *
+ * <p>
+ * The visibility tests use the axis-aligned bounds of the visible area. If
+ * the camera is rotated, they are conservative, a rectangle near a corner can
+ * be reported visible, although it is not.
+ * </p>
+ *
+ * @author robertvokac
+ */
+public class OrthographicCamera implements Camera {
+
+    /**
+     * Position of the center of the view in the world.
+     */
+    @Getter
+    private float x, y;
+    /**
+     * Size of the visible area of the world with zoom 1.
+     */
+    @Getter
+    private float viewportWidth, viewportHeight;
+    /**
+     * Values greater than 1 show a larger part of the world.
+     */
+    @Getter
+    private float zoom = 1f;
+    /**
+     * Rotation of the camera in degrees.
+     */
+    @Getter
+    private float rotation;
+    /**
+     * If true, the y axis of the world points down, as on the screen.
+     */
+    @Getter
+    private boolean yDown;
+
+    private final Affine2 combined = new Affine2();
+    private final Affine2 inverseCombined = new Affine2();
+    private float minX, minY, maxX, maxY;
+    private boolean dirty = true;
+
+    public OrthographicCamera() {
+        this(1f, 1f);
+    }
+
+    public OrthographicCamera(float viewportWidth, float viewportHeight) {
+        setViewport(viewportWidth, viewportHeight);
+        setPosition(viewportWidth / 2f, viewportHeight / 2f);
+    }
+
+    /**
+     * Sets the viewport size and centers the camera on it, so that the world
+     * area from 0 to width and from 0 to height is visible.
+     *
+     * @param yDown true, if the y axis of the world points down
+     * @param viewportWidth the width of the visible area
+     * @param viewportHeight the height of the visible area
+     */
+    public void setToOrtho(boolean yDown, float viewportWidth, float viewportHeight) {
+        this.yDown = yDown;
+        this.zoom = 1f;
+        this.rotation = 0f;
+        setViewport(viewportWidth, viewportHeight);
+        setPosition(viewportWidth / 2f, viewportHeight / 2f);
+    }
+
+    public void setViewport(float viewportWidth, float viewportHeight) {
+        if (viewportWidth <= 0f || viewportHeight <= 0f) {
+            throw new PixelException("Viewport size must be positive: " + viewportWidth + "x" + viewportHeight);
+        }
+        this.viewportWidth = viewportWidth;
+        this.viewportHeight = viewportHeight;
+        dirty = true;
+    }
+
+    public void setPosition(float x, float y) {
+        this.x = x;
+        this.y = y;
+        dirty = true;
+    }
+
+    public void setZoom(float zoom) {
+        if (zoom <= 0f) {
+            throw new PixelException("Zoom must be positive: " + zoom);
+        }
+        this.zoom = zoom;
+        dirty = true;
+    }
+
+    public void setRotation(float degrees) {
+        this.rotation = degrees;
+        dirty = true;
+    }
+
+    public void setYDown(boolean yDown) {
+        this.yDown = yDown;
+        dirty = true;
+    }
+
+    /**
+     * Multiplies the current zoom.
+     *
+     * @param zoom the factor
+     */
+    @Override
+    public void zoom(float zoom) {
+        setZoom(this.zoom * zoom);
+    }
+
+    @Override
+    public void rotate(float angle) {
+        setRotation(rotation + angle);
+    }
+
+    @Override
+    public void translate(float x, float y) {
+        setPosition(this.x + x, this.y + y);
+    }
+
+    @Override
+    public void translate(Vector2 vector) {
+        translate(vector.getX(), vector.getY());
+    }
+
+    /**
+     * Returns the transformation of the world coordinates into normalized
+     * device coordinates. The returned matrix is owned by this camera and must
+     * not be changed.
+     *
+     * @return the combined view and projection matrix
+     */
+    public Affine2 getCombined() {
+        update();
+        return combined;
+    }
+
+    /**
+     * Returns the transformation of normalized device coordinates into the
+     * world coordinates. The returned matrix is owned by this camera and must
+     * not be changed.
+     *
+     * @return the inverse of the combined matrix
+     */
+    public Affine2 getInverseCombined() {
+        update();
+        return inverseCombined;
+    }
+
+    /**
+     * Recomputes the matrices and the visible bounds, if the camera was
+     * changed. Called by all methods depending on them.
+     */
+    public void update() {
+        if (!dirty) {
+            return;
+        }
+        float halfWidth = viewportWidth * zoom / 2f;
+        float halfHeight = viewportHeight * zoom / 2f;
+        combined.setToScaling(1f / halfWidth, (yDown ? -1f : 1f) / halfHeight)
+                .rotate(-rotation)
+                .translate(-x, -y);
+        inverseCombined.set(combined).inv();
+
+        float extentX = halfWidth;
+        float extentY = halfHeight;
+        if (rotation != 0f) {
+            float cos = Math.abs(FastMath.cosDeg(rotation));
+            float sin = Math.abs(FastMath.sinDeg(rotation));
+            extentX = cos * halfWidth + sin * halfHeight;
+            extentY = sin * halfWidth + cos * halfHeight;
+        }
+        minX = x - extentX;
+        maxX = x + extentX;
+        minY = y - extentY;
+        maxY = y + extentY;
+        dirty = false;
+    }
+
+    /**
+     * Writes the axis-aligned bounds of the visible area of the world into
+     * the rectangle.
+     *
+     * @param bounds the rectangle to be set
+     * @return the given rectangle
+     */
+    public Rectangle getVisibleBounds(Rectangle bounds) {
+        update();
+        bounds.setX(minX);
+        bounds.setY(minY);
+        bounds.setWidth(maxX - minX);
+        bounds.setHeight(maxY - minY);
+        return bounds;
+    }
+
+    public boolean isVisible(Rectangle rectangle) {
+        return isVisible(rectangle.getX(), rectangle.getY(), rectangle.getWidth(), rectangle.getHeight());
+    }
+
+    public boolean isVisible(float x, float y, float width, float height) {
+        update();
+        return x < maxX && x + width > minX && y < maxY && y + height > minY;
+    }
+
+    /**
+     * Finds the visible rectangles.
+     *
+     * @param boxes x, y, width and height of every rectangle
+     * @param outVisibleIndices the array for the indexes of the visible
+     * rectangles, with the length of at least boxes.length / 4
+     * @return the count of visible rectangles written
+     * @see #cullRectangles(float[], int, int, int[])
+     */
+    public int cullRectangles(float[] boxes, int[] outVisibleIndices) {
+        return cullRectangles(boxes, 0, boxes.length / 4, outVisibleIndices);
+    }
+
+    /**
+     * Finds the visible rectangles and writes their indexes, in ascending
+     * order, into the array. Indexes are counted from the offset.
+     *
+     * @param boxes x, y, width and height of every rectangle
+     * @param offset the index of the first value of the first rectangle
+     * @param count the count of rectangles
+     * @param outVisibleIndices the array for the indexes of the visible
+     * rectangles, with the length of at least count
+     * @return the count of visible rectangles written
+     */
+    public int cullRectangles(float[] boxes, int offset, int count, int[] outVisibleIndices) {
+        if (outVisibleIndices.length < count) {
+            throw new PixelException("Array for visible indices is too small: " + outVisibleIndices.length + " < " + count);
+        }
+        update();
+        float left = minX, right = maxX, top = minY, bottom = maxY;
+        int visible = 0;
+        for (int i = 0, j = offset; i < count; i++, j += 4) {
+            float boxX = boxes[j];
+            float boxY = boxes[j + 1];
+            if (boxX < right && boxX + boxes[j + 2] > left && boxY < bottom && boxY + boxes[j + 3] > top) {
+                outVisibleIndices[visible++] = i;
+            }
+        }
+        return visible;
+    }
+
+    /**
+     * Transforms the world coordinates into normalized device coordinates.
+     *
+     * @param vector the world coordinates, overwritten by the result
+     * @return the given vector
+     */
+    public Vec2 project(Vec2 vector) {
+        return vector.mul(getCombined());
+    }
+
+    /**
+     * Transforms normalized device coordinates into the world coordinates.
+     *
+     * @param vector the normalized device coordinates, overwritten by the
+     * result
+     * @return the given vector
+     */
+    public Vec2 unproject(Vec2 vector) {
+        return vector.mul(getInverseCombined());
+    }
+}
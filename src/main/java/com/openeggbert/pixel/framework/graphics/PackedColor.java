@@ -0,0 +1,281 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// Pixel: Game library.
+// Copyright (C) 2024 the original author or authors.
+//
+// This program is free software: you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation, either version 3
+// of the License, or (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program. If not, see
+// <https://www.gnu.org/licenses/> or write to the Free Software
+// Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+///////////////////////////////////////////////////////////////////////////////////////////////
+package com.openeggbert.pixel.framework.graphics;
+
+/**
+ * Static operations on colors packed in one int as ARGB8888 (0xAARRGGBB), the
+ * format returned by {@link Color#toInt()}.
+ *
+ * <p>
+ * Unlike {@link Color} nothing is allocated and no floats are involved, so the
+ * methods are meant to be used per pixel and in other hot paths. The
+ * components are ints in the range 0 to 255.
+ * </p>
+ *
+ * @author robertvokac
+ */
+public final class PackedColor {
+
+    public static final int TRANSPARENT = 0x00000000;
+    public static final int BLACK = 0xFF000000;
+    public static final int WHITE = 0xFFFFFFFF;
+
+    private PackedColor() {
+        //Not meant to be instantiated.
+    }
+
+    /**
+     * Packs the components, which are clamped to the range 0 to 255.
+     *
+     * @param red the red component
+     * @param green the green component
+     * @param blue the blue component
+     * @param alpha the alpha component
+     * @return the packed color
+     */
+    public static int pack(int red, int green, int blue, int alpha) {
+        return (clamp(alpha) << 24) | (clamp(red) << 16) | (clamp(green) << 8) | clamp(blue);
+    }
+
+    public static int pack(int red, int green, int blue) {
+        return pack(red, green, blue, 255);
+    }
+
+    /**
+     * Packs the components, which are clamped to the range 0 to 1.
+     *
+     * @param red the red component
+     * @param green the green component
+     * @param blue the blue component
+     * @param alpha the alpha component
+     * @return the packed color
+     */
+    public static int pack(float red, float green, float blue, float alpha) {
+        return (toInt(alpha) << 24) | (toInt(red) << 16) | (toInt(green) << 8) | toInt(blue);
+    }
+
+    public static int pack(float red, float green, float blue) {
+        return pack(red, green, blue, 1f);
+    }
+
+    public static int alpha(int argb) {
+        return argb >>> 24;
+    }
+
+    public static int red(int argb) {
+        return (argb >> 16) & 0xFF;
+    }
+
+    public static int green(int argb) {
+        return (argb >> 8) & 0xFF;
+    }
+
+    public static int blue(int argb) {
+        return argb & 0xFF;
+    }
+
+    public static int withAlpha(int argb, int alpha) {
+        return (argb & 0x00FFFFFF) | (clamp(alpha) << 24);
+    }
+
+    /**
+     * Sets the components of the given color, without allocating a new one.
+     *
+     * @param argb the packed color
+     * @param result the color to be set
+     * @return the result
+     */
+    public static Color toColor(int argb, Color result) {
+        return result.set(red(argb), green(argb), blue(argb), alpha(argb));
+    }
+
+    /**
+     * Multiplies the colors component by component, including alpha.
+     *
+     * @param argb1 the first color
+     * @param argb2 the second color
+     * @return the product
+     */
+    public static int multiply(int argb1, int argb2) {
+        return (multiplyComponent(alpha(argb1), alpha(argb2)) << 24)
+                | (multiplyComponent(red(argb1), red(argb2)) << 16)
+                | (multiplyComponent(green(argb1), green(argb2)) << 8)
+                | multiplyComponent(blue(argb1), blue(argb2));
+    }
+
+    /**
+     * Scales all components, including alpha.
+     *
+     * @param argb the color
+     * @param factor the factor in the range 0 to 255, 255 means 1
+     * @return the scaled color
+     */
+    public static int scale(int argb, int factor) {
+        return multiply(argb, factor * 0x01010101);
+    }
+
+    /**
+     * Interpolates between two colors.
+     *
+     * @param from the color for the weight 0
+     * @param to the color for the weight 256
+     * @param weight the weight in the range 0 to 256
+     * @return the interpolated color
+     */
+    public static int lerp(int from, int to, int weight) {
+        int inverse = 256 - weight;
+        //red and blue, then alpha and green, two components per multiplication
+        int redBlue = (((from & 0x00FF00FF) * inverse + (to & 0x00FF00FF) * weight) >>> 8) & 0x00FF00FF;
+        int alphaGreen = (((from >>> 8) & 0x00FF00FF) * inverse + ((to >>> 8) & 0x00FF00FF) * weight) & 0xFF00FF00;
+        return alphaGreen | redBlue;
+    }
+
+    /**
+     * Interpolates between two colors.
+     *
+     * @param from the color for the weight 0
+     * @param to the color for the weight 1
+     * @param weight the weight in the range 0 to 1
+     * @return the interpolated color
+     */
+    public static int lerp(int from, int to, float weight) {
+        return lerp(from, to, (int) (Math.max(0f, Math.min(weight, 1f)) * 256));
+    }
+
+    /**
+     * Multiplies the red, green and blue components by alpha.
+     *
+     * @param argb the straight color
+     * @return the premultiplied color
+     */
+    public static int premultiply(int argb) {
+        int alpha = alpha(argb);
+        if (alpha == 255) {
+            return argb;
+        }
+        return (alpha << 24)
+                | (multiplyComponent(red(argb), alpha) << 16)
+                | (multiplyComponent(green(argb), alpha) << 8)
+                | multiplyComponent(blue(argb), alpha);
+    }
+
+    /**
+     * Reverts {@link #premultiply(int)}, as far as the precision allows.
+     *
+     * @param argb the premultiplied color
+     * @return the straight color
+     */
+    public static int unpremultiply(int argb) {
+        int alpha = alpha(argb);
+        if (alpha == 255) {
+            return argb;
+        }
+        if (alpha == 0) {
+            return TRANSPARENT;
+        }
+        int half = alpha / 2;
+        return (alpha << 24)
+                | (Math.min(255, (red(argb) * 255 + half) / alpha) << 16)
+                | (Math.min(255, (green(argb) * 255 + half) / alpha) << 8)
+                | Math.min(255, (blue(argb) * 255 + half) / alpha);
+    }
+
+    /**
+     * Draws the source color over the destination color (the "source over"
+     * operation), both with straight alpha.
+     *
+     * @param source the source color
+     * @param destination the destination color
+     * @return the blended color
+     */
+    public static int blend(int source, int destination) {
+        int sourceAlpha = alpha(source);
+        if (sourceAlpha == 255) {
+            return source;
+        }
+        if (sourceAlpha == 0) {
+            return destination;
+        }
+        int destinationAlpha = alpha(destination);
+        if (destinationAlpha == 255) {
+            int inverseAlpha = 255 - sourceAlpha;
+            return 0xFF000000
+                    | ((multiplyComponent(red(source), sourceAlpha) + multiplyComponent(red(destination), inverseAlpha)) << 16)
+                    | ((multiplyComponent(green(source), sourceAlpha) + multiplyComponent(green(destination), inverseAlpha)) << 8)
+                    | (multiplyComponent(blue(source), sourceAlpha) + multiplyComponent(blue(destination), inverseAlpha));
+        }
+        return unpremultiply(blendPremultiplied(premultiply(source), premultiply(destination)));
+    }
+
+    /**
+     * Draws the source color over the destination color (the "source over"
+     * operation), both with premultiplied alpha.
+     *
+     * @param source the source color
+     * @param destination the destination color
+     * @return the blended color
+     */
+    public static int blendPremultiplied(int source, int destination) {
+        int inverseAlpha = 255 - alpha(source);
+        if (inverseAlpha == 0) {
+            return source;
+        }
+        return (Math.min(255, alpha(source) + multiplyComponent(alpha(destination), inverseAlpha)) << 24)
+                | (Math.min(255, red(source) + multiplyComponent(red(destination), inverseAlpha)) << 16)
+                | (Math.min(255, green(source) + multiplyComponent(green(destination), inverseAlpha)) << 8)
+                | Math.min(255, blue(source) + multiplyComponent(blue(destination), inverseAlpha));
+    }
+
+    /**
+     * Converts ARGB8888 to RGBA8888.
+     *
+     * @param argb the color as ARGB8888
+     * @return the color as RGBA8888
+     */
+    public static int toRgba(int argb) {
+        return (argb << 8) | (argb >>> 24);
+    }
+
+    /**
+     * Converts RGBA8888 to ARGB8888.
+     *
+     * @param rgba the color as RGBA8888
+     * @return the color as ARGB8888
+     */
+    public static int fromRgba(int rgba) {
+        return (rgba >>> 8) | (rgba << 24);
+    }
+
+    /**
+     * Multiplies two components, the result is x * y / 255 rounded.
+     */
+    static int multiplyComponent(int x, int y) {
+        int product = x * y + 128;
+        return (product + (product >> 8)) >> 8;
+    }
+
+    private static int clamp(int component) {
+        return component < 0 ? 0 : (component > 255 ? 255 : component);
+    }
+
+    private static int toInt(float component) {
+        return Math.round((component < 0f ? 0f : (component > 1f ? 1f : component)) * 255);
+    }
+}
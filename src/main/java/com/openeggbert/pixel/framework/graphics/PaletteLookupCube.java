@@ -0,0 +1,170 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// Pixel: Game library.
+// Copyright (C) 2024 the original author or authors.
+//
+// This program is free software: you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation, either version 3
+// of the License, or (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program. If not, see
+// <https://www.gnu.org/licenses/> or write to the Free Software
+// Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+///////////////////////////////////////////////////////////////////////////////////////////////
+package com.openeggbert.pixel.framework.graphics;
+
+import com.openeggbert.pixel.framework.PixelException;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Maps colors to the closest entries of a palette in constant time.
+ *
+ * <p>
+ * The RGB space is divided into 32 x 32 x 32 cells (5 bits per channel). For
+ * every cell the index of the palette entry closest to its center is
+ * precomputed, so a lookup is one table access. The result may differ from an
+ * exact search for colors close to the border between two entries, by at most
+ * the size of a cell. Alpha is ignored.
+ * </p>
+ *
+ * @author robertvokac
+ */
+public final class PaletteLookupCube implements ColorQuantizer {
+
+    public static final int BITS_PER_CHANNEL = 5;
+    public static final int MAX_PALETTE_SIZE = 256;
+    private static final int CELLS_PER_CHANNEL = 1 << BITS_PER_CHANNEL;
+    private static final int SHIFT = 8 - BITS_PER_CHANNEL;
+
+    private final int[] palette;
+    private final byte[] cube = new byte[CELLS_PER_CHANNEL * CELLS_PER_CHANNEL * CELLS_PER_CHANNEL];
+
+    /**
+     * Creates the cube, in parallel on all available cores.
+     *
+     * @param palette the colors of the palette as ARGB8888, 1 to 256 entries
+     * @throws PixelException if the palette is empty or too large
+     */
+    public PaletteLookupCube(int[] palette) {
+        if (palette.length == 0 || palette.length > MAX_PALETTE_SIZE) {
+            throw new PixelException("Palette must have 1 to " + MAX_PALETTE_SIZE + " entries, but has " + palette.length);
+        }
+        this.palette = Arrays.copyOf(palette, palette.length);
+        IntStream.range(0, CELLS_PER_CHANNEL).parallel().forEach(this::fillRedSlice);
+    }
+
+    private void fillRedSlice(int redCell) {
+        int red = cellCenter(redCell);
+        for (int greenCell = 0; greenCell < CELLS_PER_CHANNEL; greenCell++) {
+            int green = cellCenter(greenCell);
+            int offset = (redCell << (2 * BITS_PER_CHANNEL)) | (greenCell << BITS_PER_CHANNEL);
+            for (int blueCell = 0; blueCell < CELLS_PER_CHANNEL; blueCell++) {
+                cube[offset | blueCell] = (byte) findClosestIndex(palette, red, green, cellCenter(blueCell));
+            }
+        }
+    }
+
+    private static int cellCenter(int cell) {
+        return (cell << SHIFT) | (1 << (SHIFT - 1));
+    }
+
+    /**
+     * Finds the closest entry by comparing with every entry of the palette.
+     *
+     * @param palette the colors of the palette as ARGB8888
+     * @param red the red component
+     * @param green the green component
+     * @param blue the blue component
+     * @return the index of the closest entry
+     */
+    public static int findClosestIndex(int[] palette, int red, int green, int blue) {
+        int closest = 0;
+        int minDistance = Integer.MAX_VALUE;
+        for (int i = 0; i < palette.length; i++) {
+            int dr = ((palette[i] >> 16) & 0xFF) - red;
+            int dg = ((palette[i] >> 8) & 0xFF) - green;
+            int db = (palette[i] & 0xFF) - blue;
+            int distance = dr * dr + dg * dg + db * db;
+            if (distance < minDistance) {
+                minDistance = distance;
+                closest = i;
+            }
+        }
+        return closest;
+    }
+
+    /**
+     * Returns the index of the closest palette entry.
+     *
+     * @param argb the color as ARGB8888
+     * @return the index
+     */
+    public int indexOf(int argb) {
+        return cube[((argb >> 9) & 0x7C00) | ((argb >> 6) & 0x03E0) | ((argb >> 3) & 0x001F)] & 0xFF;
+    }
+
+    /**
+     * Returns the closest palette entry, with the alpha of the given color.
+     *
+     * @param argb the color as ARGB8888
+     * @return the palette color as ARGB8888
+     */
+    public int closestColor(int argb) {
+        return (argb & 0xFF000000) | (palette[indexOf(argb)] & 0x00FFFFFF);
+    }
+
+    @Override
+    public int quantize(int argb) {
+        return closestColor(argb);
+    }
+
+    /**
+     * Estimates the step as if the palette was a regular grid in the RGB space.
+     *
+     * @return the estimated step
+     */
+    @Override
+    public int getQuantizationStep() {
+        long levelsPerChannel = Math.round(Math.cbrt(palette.length));
+        return (int) (255 / Math.max(1, levelsPerChannel - 1));
+    }
+
+    /**
+     * Maps a range of colors to palette indexes.
+     *
+     * @param source the colors as ARGB8888
+     * @param target the indexes
+     * @param from the first index to the arrays, inclusive
+     * @param to the last index to the arrays, exclusive
+     */
+    public void indexOf(int[] source, byte[] target, int from, int to) {
+        for (int i = from; i < to; i++) {
+            int argb = source[i];
+            target[i] = cube[((argb >> 9) & 0x7C00) | ((argb >> 6) & 0x03E0) | ((argb >> 3) & 0x001F)];
+        }
+    }
+
+    public int getPaletteSize() {
+        return palette.length;
+    }
+
+    public int getColor(int index) {
+        return palette[index];
+    }
+
+    /**
+     * Returns the palette.
+     *
+     * @return a copy of the colors of the palette as ARGB8888
+     */
+    public int[] getPalette() {
+        return Arrays.copyOf(palette, palette.length);
+    }
+}
@@ -29,5 +29,16 @@ import com.openeggbert.pixel.framework.files.File;
 public interface PixMapFactory {
     Pixmap create(int width, int height);
     Pixmap create(File fileHandle);
+
+    /**
+     * Creates a pixmap storing its pixels in the format, for example RGB565
+     * needs half of the memory of RGBA8888.
+     *
+     * @param width the width
+     * @param height the height
+     * @param format the format
+     * @return the pixmap
+     */
+    Pixmap create(int width, int height, PixelFormat format);
     
 }
@@ -0,0 +1,72 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// Pixel: Game library.
+// Copyright (C) 2024 the original author or authors.
+//
+// This program is free software: you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation, either version 3
+// of the License, or (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program. If not, see
+// <https://www.gnu.org/licenses/> or write to the Free Software
+// Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+///////////////////////////////////////////////////////////////////////////////////////////////
+package com.openeggbert.pixel.framework.graphics;
+
+import java.util.stream.IntStream;
+
+/**
+ * Splits images into bands of whole rows processed in parallel.
+ *
+ * @author robertvokac
+ */
+final class PixelBands {
+
+    /**
+     * Images with fewer pixels are processed in the calling thread.
+     */
+    static final int PARALLEL_THRESHOLD = 64 * 1024;
+    private static final int PIXELS_PER_TASK = 16 * 1024;
+
+    private PixelBands() {
+        //Not meant to be instantiated.
+    }
+
+    /**
+     * Runs the action for bands of whole rows, in parallel for large images.
+     *
+     * @param width the width of the image
+     * @param height the height of the image
+     * @param action the action receiving the range of pixel indexes
+     */
+    static void forEach(int width, int height, PixelRange action) {
+        int pixelCount = width * height;
+        if (pixelCount < PARALLEL_THRESHOLD) {
+            action.run(0, pixelCount);
+            return;
+        }
+        int rowsPerBand = Math.max(1, PIXELS_PER_TASK / width);
+        int bandCount = (height + rowsPerBand - 1) / rowsPerBand;
+        IntStream.range(0, bandCount).parallel().forEach(band -> action.run(
+                band * rowsPerBand * width,
+                Math.min(height, (band + 1) * rowsPerBand) * width));
+    }
+
+    @FunctionalInterface
+    interface PixelRange {
+
+        /**
+         * Processes the pixels.
+         *
+         * @param from the first pixel index, inclusive, at the start of a row
+         * @param to the last pixel index, exclusive, at the end of a row
+         */
+        void run(int from, int to);
+    }
+}
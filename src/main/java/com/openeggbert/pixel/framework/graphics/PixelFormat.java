@@ -0,0 +1,122 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// Pixel: Game library.
+// Copyright (C) 2024 the original author or authors.
+//
+// This program is free software: you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation, either version 3
+// of the License, or (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program. If not, see
+// <https://www.gnu.org/licenses/> or write to the Free Software
+// Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+///////////////////////////////////////////////////////////////////////////////////////////////
+package com.openeggbert.pixel.framework.graphics;
+
+import com.openeggbert.pixel.framework.PixelException;
+import lombok.Getter;
+
+/**
+ * Formats of pixels stored in memory or in files. Rows are stored one after
+ * another, every row starts at a byte boundary, the pixels of formats with
+ * less than 8 bits per pixel are packed starting with the most significant
+ * bits of a byte and values with more bytes are big-endian.
+ *
+ * @author robertvokac
+ */
+public enum PixelFormat {
+    RGBA8888(32, ColorMode.COLOR, 32),
+    RGB888(24, ColorMode.COLOR, 24),
+    RGB565(16, ColorMode.COLOR, 16),
+    RGB332(8, ColorMode.COLOR, 8),
+    /**
+     * Indexes to a palette of up to 16 colors, {@link Color4BitPalette} by
+     * default.
+     */
+    INDEXED4(4, ColorMode.COLOR, 4),
+    GRAY1(1, ColorMode.BLACK_AND_WHITE, 1),
+    GRAY2(2, ColorMode.BLACK_AND_WHITE, 2),
+    GRAY4(4, ColorMode.BLACK_AND_WHITE, 4),
+    GRAY8(8, ColorMode.BLACK_AND_WHITE, 8);
+
+    @Getter
+    private final int bitsPerPixel;
+    @Getter
+    private final ColorMode colorMode;
+    /**
+     * The bit count as used by {@link Color#convertTo(ColorMode, int)}.
+     */
+    @Getter
+    private final int bitCount;
+
+    PixelFormat(int bitsPerPixel, ColorMode colorMode, int bitCount) {
+        this.bitsPerPixel = bitsPerPixel;
+        this.colorMode = colorMode;
+        this.bitCount = bitCount;
+    }
+
+    public boolean hasAlpha() {
+        return this == RGBA8888;
+    }
+
+    public boolean isIndexed() {
+        return this == INDEXED4;
+    }
+
+    /**
+     * Returns the count of bytes of one row.
+     *
+     * @param width the width of the image
+     * @return the count of bytes
+     */
+    public int getRowByteCount(int width) {
+        return (int) (((long) width * bitsPerPixel + 7) / 8);
+    }
+
+    /**
+     * Returns the count of bytes of an image.
+     *
+     * @param width the width of the image
+     * @param height the height of the image
+     * @return the count of bytes
+     */
+    public int getByteCount(int width, int height) {
+        return getRowByteCount(width) * height;
+    }
+
+    /**
+     * Returns the format for the color mode and the bit count.
+     *
+     * @param colorMode the color mode
+     * @param bitCount the bit count
+     * @return the format
+     * @throws PixelException if there is no such format
+     */
+    public static PixelFormat from(ColorMode colorMode, int bitCount) {
+        for (PixelFormat format : values()) {
+            if (format.colorMode == colorMode && format.bitCount == bitCount) {
+                return format;
+            }
+        }
+        throw new PixelException("Unsupported pixel format: " + colorMode + " " + bitCount);
+    }
+
+    /**
+     * Returns the format for the color mode and the color depth, for example
+     * {@link #INDEXED4} for a colorful 4-bit mode.
+     *
+     * @param colorMode the color mode
+     * @param colorDepth the color depth
+     * @return the format
+     * @throws PixelException if there is no such format
+     */
+    public static PixelFormat from(ColorMode colorMode, ColorDepth colorDepth) {
+        return from(colorMode, colorDepth.getBitCount());
+    }
+}
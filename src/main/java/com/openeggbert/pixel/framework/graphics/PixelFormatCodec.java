@@ -0,0 +1,335 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// Pixel: Game library.
+// Copyright (C) 2024 the original author or authors.
+//
+// This program is free software: you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation, either version 3
+// of the License, or (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program. If not, see
+// <https://www.gnu.org/licenses/> or write to the Free Software
+// Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+///////////////////////////////////////////////////////////////////////////////////////////////
+package com.openeggbert.pixel.framework.graphics;
+
+import com.openeggbert.pixel.framework.PixelException;
+
+/**
+ * Encodes whole images from ARGB8888 ints to tightly packed bytes in a
+ * {@link PixelFormat} and decodes them back. It is the bulk counterpart of
+ * {@link Color#getByteRepresentation(ColorMode, int)}.
+ *
+ * <p>
+ * The colors are reduced with the lookup tables of {@link ColorDepthConverter}
+ * and the pixels with less than 8 bits are packed into a 32-bit word, which is
+ * written at once, not bit by bit. Large images are processed in parallel, in
+ * bands of rows.
+ * </p>
+ *
+ * @author robertvokac
+ */
+public final class PixelFormatCodec {
+
+    private PixelFormatCodec() {
+        //Not meant to be instantiated.
+    }
+
+    /**
+     * Encodes the pixels, indexed pixels use {@link Color4BitPalette}.
+     *
+     * @param pixels the pixels as ARGB8888
+     * @param width the width of the image
+     * @param height the height of the image
+     * @param format the format
+     * @return the encoded image
+     */
+    public static byte[] encode(int[] pixels, int width, int height, PixelFormat format) {
+        return encode(pixels, width, height, format, null);
+    }
+
+    /**
+     * Encodes the pixels.
+     *
+     * @param pixels the pixels as ARGB8888
+     * @param width the width of the image
+     * @param height the height of the image
+     * @param format the format
+     * @param palette the palette of indexed pixels, null for
+     * {@link Color4BitPalette}
+     * @return the encoded image
+     */
+    public static byte[] encode(int[] pixels, int width, int height, PixelFormat format, PaletteLookupCube palette) {
+        byte[] result = new byte[format.getByteCount(width, height)];
+        encode(pixels, width, height, format, palette, result);
+        return result;
+    }
+
+    /**
+     * Encodes the pixels into the given array.
+     *
+     * @param pixels the pixels as ARGB8888
+     * @param width the width of the image
+     * @param height the height of the image
+     * @param format the format
+     * @param palette the palette of indexed pixels, null for
+     * {@link Color4BitPalette}
+     * @param target the array of {@link PixelFormat#getByteCount(int, int)}
+     * bytes
+     */
+    public static void encode(int[] pixels, int width, int height, PixelFormat format, PaletteLookupCube palette, byte[] target) {
+        checkLengths(pixels.length, target.length, width, height, format);
+        ColorDepthConverter converter = createConverter(format, palette);
+        int stride = format.getRowByteCount(width);
+        int bitsPerPixel = format.getBitsPerPixel();
+        PixelBands.forEach(width, height, (from, to) -> {
+            for (int rowStart = from; rowStart < to; rowStart += width) {
+                int out = rowStart / width * stride;
+                int rowEnd = rowStart + width;
+                switch (format) {
+                    case RGBA8888:
+                        for (int i = rowStart; i < rowEnd; i++, out += 4) {
+                            int argb = pixels[i];
+                            target[out] = (byte) (argb >> 16);
+                            target[out + 1] = (byte) (argb >> 8);
+                            target[out + 2] = (byte) argb;
+                            target[out + 3] = (byte) (argb >>> 24);
+                        }
+                        break;
+                    case RGB888:
+                        for (int i = rowStart; i < rowEnd; i++, out += 3) {
+                            int argb = pixels[i];
+                            target[out] = (byte) (argb >> 16);
+                            target[out + 1] = (byte) (argb >> 8);
+                            target[out + 2] = (byte) argb;
+                        }
+                        break;
+                    case RGB565:
+                        for (int i = rowStart; i < rowEnd; i++, out += 2) {
+                            int value = converter.encode(pixels[i]);
+                            target[out] = (byte) (value >> 8);
+                            target[out + 1] = (byte) value;
+                        }
+                        break;
+                    case RGB332:
+                    case GRAY8:
+                        for (int i = rowStart; i < rowEnd; i++, out++) {
+                            target[out] = (byte) converter.encode(pixels[i]);
+                        }
+                        break;
+                    default:
+                        packRow(pixels, rowStart, rowEnd, converter, bitsPerPixel, target, out);
+                }
+            }
+        });
+    }
+
+    /**
+     * Packs the values of pixels with 1, 2 or 4 bits into words of 32 bits.
+     */
+    private static void packRow(int[] pixels, int from, int to, ColorDepthConverter converter, int bitsPerPixel, byte[] target, int out) {
+        int word = 0;
+        int bits = 0;
+        for (int i = from; i < to; i++) {
+            word = (word << bitsPerPixel) | converter.encode(pixels[i]);
+            bits += bitsPerPixel;
+            if (bits == 32) {
+                target[out] = (byte) (word >>> 24);
+                target[out + 1] = (byte) (word >>> 16);
+                target[out + 2] = (byte) (word >>> 8);
+                target[out + 3] = (byte) word;
+                out += 4;
+                word = 0;
+                bits = 0;
+            }
+        }
+        if (bits > 0) {
+            word <<= 32 - bits;
+            for (int shift = 24; bits > 0; shift -= 8, bits -= 8) {
+                target[out++] = (byte) (word >>> shift);
+            }
+        }
+    }
+
+    /**
+     * Decodes the pixels, indexed pixels use {@link Color4BitPalette}.
+     *
+     * @param data the encoded image
+     * @param width the width of the image
+     * @param height the height of the image
+     * @param format the format
+     * @return the pixels as ARGB8888
+     */
+    public static int[] decode(byte[] data, int width, int height, PixelFormat format) {
+        return decode(data, width, height, format, null);
+    }
+
+    /**
+     * Decodes the pixels.
+     *
+     * @param data the encoded image
+     * @param width the width of the image
+     * @param height the height of the image
+     * @param format the format
+     * @param palette the palette of indexed pixels as ARGB8888, null for
+     * {@link Color4BitPalette}
+     * @return the pixels as ARGB8888
+     */
+    public static int[] decode(byte[] data, int width, int height, PixelFormat format, int[] palette) {
+        int[] result = new int[width * height];
+        decode(data, width, height, format, palette, result);
+        return result;
+    }
+
+    /**
+     * Decodes the pixels into the given array.
+     *
+     * @param data the encoded image
+     * @param width the width of the image
+     * @param height the height of the image
+     * @param format the format
+     * @param palette the palette of indexed pixels as ARGB8888, null for
+     * {@link Color4BitPalette}
+     * @param target the pixels as ARGB8888
+     */
+    public static void decode(byte[] data, int width, int height, PixelFormat format, int[] palette, int[] target) {
+        checkLengths(target.length, data.length, width, height, format);
+        int[] table = createDecodingTable(format, palette);
+        int stride = format.getRowByteCount(width);
+        int bitsPerPixel = format.getBitsPerPixel();
+        PixelBands.forEach(width, height, (from, to) -> {
+            for (int rowStart = from; rowStart < to; rowStart += width) {
+                int in = rowStart / width * stride;
+                int rowEnd = rowStart + width;
+                switch (format) {
+                    case RGBA8888:
+                        for (int i = rowStart; i < rowEnd; i++, in += 4) {
+                            target[i] = ((data[in + 3] & 0xFF) << 24)
+                                    | ((data[in] & 0xFF) << 16)
+                                    | ((data[in + 1] & 0xFF) << 8)
+                                    | (data[in + 2] & 0xFF);
+                        }
+                        break;
+                    case RGB888:
+                        for (int i = rowStart; i < rowEnd; i++, in += 3) {
+                            target[i] = 0xFF000000
+                                    | ((data[in] & 0xFF) << 16)
+                                    | ((data[in + 1] & 0xFF) << 8)
+                                    | (data[in + 2] & 0xFF);
+                        }
+                        break;
+                    case RGB565:
+                        for (int i = rowStart; i < rowEnd; i++, in += 2) {
+                            target[i] = decodeRgb565(((data[in] & 0xFF) << 8) | (data[in + 1] & 0xFF));
+                        }
+                        break;
+                    case RGB332:
+                    case GRAY8:
+                        for (int i = rowStart; i < rowEnd; i++, in++) {
+                            target[i] = table[data[in] & 0xFF];
+                        }
+                        break;
+                    default:
+                        unpackRow(data, in, stride, table, bitsPerPixel, target, rowStart, rowEnd);
+                }
+            }
+        });
+    }
+
+    private static void unpackRow(byte[] data, int in, int stride, int[] table, int bitsPerPixel, int[] target, int from, int to) {
+        int rowEnd = in + stride;
+        int word = 0;
+        int bits = 0;
+        for (int i = from; i < to; i++) {
+            if (bits == 0) {
+                //the last word of a row may be shorter
+                for (int shift = 24; shift >= 0; shift -= 8) {
+                    word |= (in < rowEnd ? data[in++] & 0xFF : 0) << shift;
+                }
+                bits = 32;
+            }
+            target[i] = table[word >>> (32 - bitsPerPixel)];
+            word <<= bitsPerPixel;
+            bits -= bitsPerPixel;
+        }
+    }
+
+    /**
+     * Decodes one RGB565 value.
+     *
+     * @param value the 16-bit value
+     * @return the color as ARGB8888
+     */
+    public static int decodeRgb565(int value) {
+        return 0xFF000000
+                | (ColorDepthConverter.expand((value >> 11) & 0x1F, 5) << 16)
+                | (ColorDepthConverter.expand((value >> 5) & 0x3F, 6) << 8)
+                | ColorDepthConverter.expand(value & 0x1F, 5);
+    }
+
+    /**
+     * Creates the table mapping the values of formats with up to 8 bits per
+     * pixel to ARGB8888 colors.
+     *
+     * @param format the format
+     * @param palette the palette of indexed pixels, null for
+     * {@link Color4BitPalette}
+     * @return the table, or null for formats with more than 8 bits per pixel
+     */
+    public static int[] createDecodingTable(PixelFormat format, int[] palette) {
+        int bits = format.getBitsPerPixel();
+        if (bits > 8) {
+            return null;
+        }
+        int[] table = new int[1 << bits];
+        if (format.isIndexed()) {
+            int[] colors = palette == null ? Color4BitPalette.toArgbArray() : palette;
+            System.arraycopy(colors, 0, table, 0, Math.min(colors.length, table.length));
+            return table;
+        }
+        for (int value = 0; value < table.length; value++) {
+            if (format == PixelFormat.RGB332) {
+                table[value] = 0xFF000000
+                        | (ColorDepthConverter.expand(value >> 5, 3) << 16)
+                        | (ColorDepthConverter.expand((value >> 2) & 0x07, 3) << 8)
+                        | ColorDepthConverter.expand(value & 0x03, 2);
+            } else {
+                int gray = ColorDepthConverter.expand(value, bits);
+                table[value] = 0xFF000000 | (gray << 16) | (gray << 8) | gray;
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Creates the converter encoding ARGB8888 colors to the values of the
+     * format.
+     *
+     * @param format the format
+     * @param palette the palette of indexed pixels, null for
+     * {@link Color4BitPalette}
+     * @return the converter
+     */
+    public static ColorDepthConverter createConverter(PixelFormat format, PaletteLookupCube palette) {
+        if (format.isIndexed() && palette != null) {
+            if (palette.getPaletteSize() > (1 << format.getBitsPerPixel())) {
+                throw new PixelException("Palette is too large for " + format + ": " + palette.getPaletteSize());
+            }
+            return ColorDepthConverter.of(palette);
+        }
+        return ColorDepthConverter.of(format.getColorMode(), format.getBitCount());
+    }
+
+    private static void checkLengths(int pixelCount, int byteCount, int width, int height, PixelFormat format) {
+        if (pixelCount != width * height || byteCount != format.getByteCount(width, height)) {
+            throw new PixelException("Expected " + (width * height) + " pixels and " + format.getByteCount(width, height)
+                    + " bytes, but got " + pixelCount + " and " + byteCount);
+        }
+    }
+}
@@ -32,31 +32,52 @@ public interface ShapeRenderer extends Disposable {
     void setColor(Color color);
 
     default void setColor(float r, float g, float b) {
-        setColor(new Color(r, g, b));
+        setColor(PackedColor.pack(r, g, b));
     }
 
     default void setColor(float r, float g, float b, float a) {
-        setColor(new Color(r, g, b, a));
+        setColor(PackedColor.pack(r, g, b, a));
     }
 
+    /**
+     * Sets the color packed as ARGB8888, see {@link PackedColor}.
+     *
+     * @param argb the color
+     */
+    void setColor(int argb);
+
     Color getColor();
 
     void filledRectangle(float x, float y, float width, float height, Angle rotation, Color color);
     
     default void filledRectangle(float x, float y, float width, float height, float rotation, Color color) {
-        filledRectangle(x, y, width, height, Angle.ofDegrees(rotation), color);
+        filledRectangle(x, y, width, height, rotation, color.toInt());
     }
 
+    /**
+     * Draws a filled rectangle rotated around its center. Implementations
+     * should draw it without creating any objects, the other overloads
+     * delegate to this one.
+     *
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @param width the width
+     * @param height the height
+     * @param rotation the rotation in degrees
+     * @param argb the color as ARGB8888, see {@link PackedColor}
+     */
+    void filledRectangle(float x, float y, float width, float height, float rotation, int argb);
+
     default void filledRectangle(float x, float y, float width, float height, Color color) {
-        filledRectangle(x, y, width, height, Angle.DEFAULT_ROTATION_IN_ANGLES, color);
+        filledRectangle(x, y, width, height, Angle.DEFAULT_ROTATION_IN_ANGLES, color.toInt());
     }
 
     default void filledRectangle(float x, float y, float width, float height, float rotation) {
-        filledRectangle(x, y, width, height, rotation, getColor());
+        filledRectangle(x, y, width, height, rotation, getColor().toInt());
     }
 
     default void filledRectangle(float x, float y, float width, float height) {
-        filledRectangle(x, y, width, height, Angle.DEFAULT_ROTATION_IN_ANGLES, getColor());
+        filledRectangle(x, y, width, height, Angle.DEFAULT_ROTATION_IN_ANGLES, getColor().toInt());
     }
 
     default void filledRectangle(Rectangle rectangle, Color color) {
@@ -17,13 +17,100 @@
 // <https://www.gnu.org/licenses/> or write to the Free Software
 // Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
 ///////////////////////////////////////////////////////////////////////////////////////////////
-
 package com.openeggbert.pixel.framework.graphics;
 
+import com.openeggbert.pixel.framework.math.Angle;
+
 /**
+ * Texture region with a position, a size, an origin, a scale, a rotation and
+ * a color. The rotation and the scale are applied around the origin, which is
+ * relative to the position.
  *
  * @author robertvokac
  */
 public interface Sprite {
-    
+
+    /**
+     * The count of floats of the vertices: x, y, u and v of the 4 corners.
+     */
+    int VERTEX_COUNT = 16;
+
+    TextureRegion getRegion();
+
+    void setRegion(TextureRegion region);
+
+    float getX();
+
+    float getY();
+
+    void setPosition(float x, float y);
+
+    void translate(float x, float y);
+
+    float getWidth();
+
+    float getHeight();
+
+    void setSize(float width, float height);
+
+    float getOriginX();
+
+    float getOriginY();
+
+    void setOrigin(float originX, float originY);
+
+    /**
+     * Sets the origin to the center of the sprite.
+     */
+    void setOriginCenter();
+
+    float getScaleX();
+
+    float getScaleY();
+
+    void setScale(float scaleX, float scaleY);
+
+    /**
+     * Returns the rotation. The returned angle must not be modified.
+     *
+     * @return the rotation
+     */
+    Angle getRotation();
+
+    void setRotation(Angle rotation);
+
+    void setRotation(float degrees);
+
+    void rotate(float degrees);
+
+    /**
+     * Returns the color the texture is multiplied by.
+     *
+     * @return the color as ARGB8888
+     */
+    int getColor();
+
+    void setColor(int argb);
+
+    default void setColor(Color color) {
+        setColor(color.toInt());
+    }
+
+    /**
+     * Returns the transformed corners: x, y, u and v of the corner at the
+     * origin of the region, then the next corners going clockwise on the
+     * screen (with y growing downwards). The array is reused.
+     *
+     * @return the vertices, {@link #VERTEX_COUNT} floats
+     */
+    float[] getVertices();
+
+    /**
+     * Submits this sprite to the batch.
+     *
+     * @param batch the batch
+     */
+    default void draw(SpriteBatch batch) {
+        batch.draw(getRegion().getTexture(), getVertices(), 0, getColor());
+    }
 }
@@ -34,6 +34,17 @@ public interface SpriteBatch extends Disposable {
     void draw(Texture texture, int x, int y, int width, int height);
 
     void draw(Texture texture, int x, int y);
+
+    /**
+     * Draws a textured quad, for example a transformed {@link Sprite}.
+     *
+     * @param texture the texture
+     * @param vertices x, y, u and v of the 4 corners, see
+     * {@link Sprite#getVertices()}
+     * @param offset the index of the first vertex value
+     * @param color the color the texture is multiplied by, as ARGB8888
+     */
+    void draw(Texture texture, float[] vertices, int offset, int color);
     
     ShapeRenderer drawShape();
 
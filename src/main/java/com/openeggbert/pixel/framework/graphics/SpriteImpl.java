@@ -0,0 +1,173 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// Pixel: Game library.
+// Copyright (C) 2024 the original author or authors.
+//
+// This program is free software: you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation, either version 3
+// of the License, or (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program. If not, see
+// <https://www.gnu.org/licenses/> or write to the Free Software
+// Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+///////////////////////////////////////////////////////////////////////////////////////////////
+package com.openeggbert.pixel.framework.graphics;
+
+import com.openeggbert.pixel.framework.math.Angle;
+import com.openeggbert.pixel.framework.math.AngleUnit;
+import lombok.Getter;
+
+/**
+ * Default {@link Sprite}. The transformed vertices are cached and computed
+ * again only after a change, so drawing a sprite which does not move is a
+ * copy of 16 floats.
+ *
+ * @author robertvokac
+ */
+public class SpriteImpl implements Sprite {
+
+    @Getter
+    private TextureRegion region;
+    @Getter
+    private float x;
+    @Getter
+    private float y;
+    @Getter
+    private float width;
+    @Getter
+    private float height;
+    @Getter
+    private float originX;
+    @Getter
+    private float originY;
+    @Getter
+    private float scaleX = 1f;
+    @Getter
+    private float scaleY = 1f;
+    @Getter
+    private final Angle rotation = new Angle(0f);
+    @Getter
+    private int color = PackedColor.WHITE;
+    private final float[] vertices = new float[VERTEX_COUNT];
+    private boolean dirty = true;
+
+    public SpriteImpl(TextureRegion region) {
+        setRegion(region);
+        setSize(region.getRegionWidth(), region.getRegionHeight());
+    }
+
+    public SpriteImpl(Texture texture) {
+        this(new TextureRegion(texture));
+    }
+
+    @Override
+    public void setRegion(TextureRegion region) {
+        this.region = region;
+        dirty = true;
+    }
+
+    @Override
+    public void setPosition(float x, float y) {
+        this.x = x;
+        this.y = y;
+        dirty = true;
+    }
+
+    @Override
+    public void translate(float x, float y) {
+        setPosition(this.x + x, this.y + y);
+    }
+
+    @Override
+    public void setSize(float width, float height) {
+        this.width = width;
+        this.height = height;
+        dirty = true;
+    }
+
+    @Override
+    public void setOrigin(float originX, float originY) {
+        this.originX = originX;
+        this.originY = originY;
+        dirty = true;
+    }
+
+    @Override
+    public void setOriginCenter() {
+        setOrigin(width / 2f, height / 2f);
+    }
+
+    @Override
+    public void setScale(float scaleX, float scaleY) {
+        this.scaleX = scaleX;
+        this.scaleY = scaleY;
+        dirty = true;
+    }
+
+    @Override
+    public void setRotation(Angle rotation) {
+        setRotation(rotation.asDegrees());
+    }
+
+    @Override
+    public void setRotation(float degrees) {
+        rotation.set(degrees, AngleUnit.DEGREE);
+        dirty = true;
+    }
+
+    @Override
+    public void rotate(float degrees) {
+        setRotation(rotation.asDegrees() + degrees);
+    }
+
+    @Override
+    public void setColor(int argb) {
+        this.color = argb;
+    }
+
+    @Override
+    public float[] getVertices() {
+        if (dirty) {
+            updateVertices();
+            dirty = false;
+        }
+        return vertices;
+    }
+
+    private void updateVertices() {
+        float left = -originX * scaleX;
+        float top = -originY * scaleY;
+        float right = (width - originX) * scaleX;
+        float bottom = (height - originY) * scaleY;
+        float pivotX = x + originX;
+        float pivotY = y + originY;
+        float degrees = rotation.asDegrees();
+        if (degrees % 360f == 0f) {
+            setVertex(0, pivotX + left, pivotY + top, region.getU(), region.getV());
+            setVertex(1, pivotX + right, pivotY + top, region.getU2(), region.getV());
+            setVertex(2, pivotX + right, pivotY + bottom, region.getU2(), region.getV2());
+            setVertex(3, pivotX + left, pivotY + bottom, region.getU(), region.getV2());
+            return;
+        }
+        float cos = rotation.cos();
+        float sin = rotation.sin();
+        setVertex(0, pivotX + cos * left - sin * top, pivotY + sin * left + cos * top, region.getU(), region.getV());
+        setVertex(1, pivotX + cos * right - sin * top, pivotY + sin * right + cos * top, region.getU2(), region.getV());
+        setVertex(2, pivotX + cos * right - sin * bottom, pivotY + sin * right + cos * bottom, region.getU2(), region.getV2());
+        setVertex(3, pivotX + cos * left - sin * bottom, pivotY + sin * left + cos * bottom, region.getU(), region.getV2());
+    }
+
+    private void setVertex(int corner, float vertexX, float vertexY, float u, float v) {
+        int i = corner * 4;
+        vertices[i] = vertexX;
+        vertices[i + 1] = vertexY;
+        vertices[i + 2] = u;
+        vertices[i + 3] = v;
+    }
+}
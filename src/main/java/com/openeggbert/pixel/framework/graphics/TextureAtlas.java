@@ -17,16 +17,192 @@
 // <https://www.gnu.org/licenses/> or write to the Free Software
 // Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
 ///////////////////////////////////////////////////////////////////////////////////////////////
-
 package com.openeggbert.pixel.framework.graphics;
 
+import com.openeggbert.pixel.framework.Disposable;
+import com.openeggbert.pixel.framework.files.FileException;
+import com.openeggbert.pixel.framework.files.FileSystem;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
+ * Named regions of a few large textures (pages), created by
+ * {@link TextureAtlasPacker}.
+ *
+ * <p>
+ * An atlas can be saved to a {@link FileSystem} once and loaded later without
+ * packing again. The description is a text file with tab separated values:
+ * </p>
+ * <pre>
+ * pixel-atlas  1
+ * page         (file name)  (width)  (height)
+ * region       (name)       (x)      (y)      (width)  (height)
+ * </pre>
+ * <p>
+ * The regions follow their page. Every page is stored in its own file next to
+ * the description, as RGBA8888 as returned by {@link Pixmap#getPixels()}.
+ * </p>
  *
  * @author robertvokac
  */
-public class TextureAtlas {
+public class TextureAtlas implements Disposable {
+
+    private static final String HEADER = "pixel-atlas";
+    private static final int VERSION = 1;
+    private static final String PAGE = "page";
+    private static final String REGION = "region";
+    private static final String TAB = "\t";
+
+    private final List<Pixmap> pages;
+    private final List<Texture> textures;
+    private final Map<String, TextureRegion> regions;
+    private boolean disposed;
+
     public TextureAtlas() {
-//todo
+        this(new ArrayList<>(), new ArrayList<>(), new LinkedHashMap<>());
+    }
+
+    TextureAtlas(List<Pixmap> pages, List<Texture> textures, Map<String, TextureRegion> regions) {
+        this.pages = pages;
+        this.textures = textures;
+        this.regions = regions;
+    }
+
+    /**
+     * Returns the region.
+     *
+     * @param name the name of the region
+     * @return the region or null, if there is no such region
+     */
+    public TextureRegion findRegion(String name) {
+        return regions.get(name);
+    }
+
+    /**
+     * Returns all regions by their names, in the order they were added.
+     *
+     * @return the unmodifiable map of regions
+     */
+    public Map<String, TextureRegion> getRegions() {
+        return Collections.unmodifiableMap(regions);
+    }
+
+    public List<Texture> getTextures() {
+        return Collections.unmodifiableList(textures);
+    }
+
+    public List<Pixmap> getPages() {
+        return Collections.unmodifiableList(pages);
+    }
+
+    /**
+     * Saves the atlas. The pages are saved to the files named path.0, path.1
+     * and so on.
+     *
+     * @param fileSystem the file system
+     * @param path the path of the description
+     * @throws FileException if writing failed
+     */
+    public void save(FileSystem fileSystem, String path) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(HEADER).append(TAB).append(VERSION).append('\n');
+        String directory = path.lastIndexOf('/') < 0 ? "" : path.substring(0, path.lastIndexOf('/') + 1);
+        String fileName = path.substring(directory.length());
+        for (int i = 0; i < pages.size(); i++) {
+            Pixmap page = pages.get(i);
+            String pageFileName = fileName + "." + i;
+            write(fileSystem.writeBytes(directory + pageFileName, page.getPixels()), directory + pageFileName);
+            sb.append(PAGE).append(TAB).append(pageFileName).append(TAB).append(page.getWidth()).append(TAB)
+                    .append(page.getHeight()).append('\n');
+            Texture texture = textures.get(i);
+            for (Map.Entry<String, TextureRegion> entry : regions.entrySet()) {
+                TextureRegion region = entry.getValue();
+                if (region.getTexture() != texture) {
+                    continue;
+                }
+                sb.append(REGION).append(TAB).append(entry.getKey())
+                        .append(TAB).append(region.getRegionX()).append(TAB).append(region.getRegionY())
+                        .append(TAB).append(region.getRegionWidth()).append(TAB).append(region.getRegionHeight())
+                        .append('\n');
+            }
+        }
+        write(fileSystem.writeString(path, sb.toString()), path);
+    }
+
+    private static void write(String result, String path) {
+        if (result != null && !result.isEmpty()) {
+            throw new FileException("Could not write " + path + ": " + result);
+        }
+    }
+
+    /**
+     * Loads an atlas saved by {@link #save(FileSystem, String)}.
+     *
+     * @param fileSystem the file system
+     * @param path the path of the description
+     * @param pixMapFactory the factory of the pages
+     * @param textureFactory the factory of the textures
+     * @return the atlas
+     * @throws FileException if the atlas could not be read
+     */
+    public static TextureAtlas load(FileSystem fileSystem, String path, PixMapFactory pixMapFactory, TextureFactory textureFactory) {
+        String description = fileSystem.readString(path);
+        if (description == null) {
+            throw new FileException("Could not read texture atlas: " + path);
+        }
+        String directory = path.lastIndexOf('/') < 0 ? "" : path.substring(0, path.lastIndexOf('/') + 1);
+        String[] lines = description.split("\\r?\\n");
+        if (lines.length == 0 || !lines[0].equals(HEADER + TAB + VERSION)) {
+            throw new FileException("This is not a supported texture atlas: " + path);
+        }
+        List<Pixmap> pages = new ArrayList<>();
+        List<Texture> textures = new ArrayList<>();
+        Map<String, TextureRegion> regions = new LinkedHashMap<>();
+        for (int i = 1; i < lines.length; i++) {
+            if (lines[i].isEmpty()) {
+                continue;
+            }
+            String[] values = lines[i].split(TAB);
+            try {
+                if (values[0].equals(PAGE) && values.length == 4) {
+                    byte[] pixels = fileSystem.readBytes(directory + values[1]);
+                    if (pixels == null) {
+                        throw new FileException("Could not read page of texture atlas: " + directory + values[1]);
+                    }
+                    Pixmap page = pixMapFactory.create(Integer.parseInt(values[2]), Integer.parseInt(values[3]));
+                    page.setPixels(pixels);
+                    pages.add(page);
+                    textures.add(textureFactory.create(page));
+                } else if (values[0].equals(REGION) && values.length == 6 && !textures.isEmpty()) {
+                    regions.put(values[1], new TextureRegion(textures.get(textures.size() - 1),
+                            Integer.parseInt(values[2]), Integer.parseInt(values[3]),
+                            Integer.parseInt(values[4]), Integer.parseInt(values[5])));
+                } else {
+                    throw new FileException("Invalid line " + (i + 1) + " of texture atlas " + path + ": " + lines[i]);
+                }
+            } catch (NumberFormatException e) {
+                throw new FileException("Invalid line " + (i + 1) + " of texture atlas " + path + ": " + lines[i], e);
+            }
+        }
+        return new TextureAtlas(pages, textures, regions);
+    }
+
+    @Override
+    public void dispose() {
+        for (Texture texture : textures) {
+            texture.dispose();
+        }
+        for (Pixmap page : pages) {
+            page.dispose();
+        }
+        disposed = true;
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return disposed;
     }
-    
 }
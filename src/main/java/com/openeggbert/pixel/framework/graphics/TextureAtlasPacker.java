@@ -0,0 +1,181 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// Pixel: Game library.
+// Copyright (C) 2024 the original author or authors.
+//
+// This program is free software: you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation, either version 3
+// of the License, or (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program. If not, see
+// <https://www.gnu.org/licenses/> or write to the Free Software
+// Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+///////////////////////////////////////////////////////////////////////////////////////////////
+package com.openeggbert.pixel.framework.graphics;
+
+import com.openeggbert.pixel.framework.PixelException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.Getter;
+
+/**
+ * Packs many small pixmaps into a few large pages of a {@link TextureAtlas},
+ * so they can be drawn without switching textures.
+ *
+ * <p>
+ * The pixmaps are placed by {@link MaxRectsPacker}, the largest ones first.
+ * Every pixmap is surrounded by padding of the given width; with bleeding, the
+ * padding repeats the edge pixels of the pixmap, so sampling slightly outside
+ * of a region does not pick up its neighbours.
+ * </p>
+ *
+ * @author robertvokac
+ */
+public class TextureAtlasPacker {
+
+    @Getter
+    private final int pageWidth;
+    @Getter
+    private final int pageHeight;
+    @Getter
+    private final int padding;
+    @Getter
+    private final boolean bleed;
+    private final Map<String, Pixmap> pixmaps = new LinkedHashMap<>();
+
+    /**
+     * Creates a packer.
+     *
+     * @param pageWidth the width of the pages
+     * @param pageHeight the height of the pages
+     * @param padding the count of pixels around every pixmap
+     * @param bleed true, if the padding should repeat the edge pixels
+     */
+    public TextureAtlasPacker(int pageWidth, int pageHeight, int padding, boolean bleed) {
+        if (pageWidth <= 0 || pageHeight <= 0 || padding < 0) {
+            throw new PixelException("Invalid page size or padding: " + pageWidth + "x" + pageHeight + ", " + padding);
+        }
+        this.pageWidth = pageWidth;
+        this.pageHeight = pageHeight;
+        this.padding = padding;
+        this.bleed = bleed;
+    }
+
+    /**
+     * Adds a pixmap.
+     *
+     * @param name the unique name of the region, without tabs and line breaks
+     * @param pixmap the pixmap
+     * @return this packer for method chaining
+     */
+    public TextureAtlasPacker add(String name, Pixmap pixmap) {
+        if (name.isEmpty() || name.indexOf('\t') >= 0 || name.indexOf('\n') >= 0 || name.indexOf('\r') >= 0) {
+            throw new PixelException("Invalid name of region: " + name);
+        }
+        if (pixmap.getWidth() + 2 * padding > pageWidth || pixmap.getHeight() + 2 * padding > pageHeight) {
+            throw new PixelException("Pixmap " + name + " does not fit into a page: " + pixmap.getWidth() + "x" + pixmap.getHeight());
+        }
+        if (pixmaps.putIfAbsent(name, pixmap) != null) {
+            throw new PixelException("Region was already added: " + name);
+        }
+        return this;
+    }
+
+    /**
+     * Packs the added pixmaps and creates the pages and their textures.
+     *
+     * @param pixMapFactory the factory of the pages
+     * @param textureFactory the factory of the textures
+     * @return the atlas
+     */
+    public TextureAtlas pack(PixMapFactory pixMapFactory, TextureFactory textureFactory) {
+        List<String> names = new ArrayList<>(pixmaps.keySet());
+        names.sort((a, b) -> {
+            Pixmap first = pixmaps.get(a);
+            Pixmap second = pixmaps.get(b);
+            int comparison = Integer.compare(Math.max(second.getWidth(), second.getHeight()), Math.max(first.getWidth(), first.getHeight()));
+            return comparison != 0 ? comparison
+                    : Integer.compare(second.getWidth() * second.getHeight(), first.getWidth() * first.getHeight());
+        });
+
+        List<MaxRectsPacker> packers = new ArrayList<>();
+        int[] pageIndexes = new int[names.size()];
+        int[] positions = new int[names.size() * 2];
+        int[] position = new int[2];
+        for (int i = 0; i < names.size(); i++) {
+            Pixmap pixmap = pixmaps.get(names.get(i));
+            int width = pixmap.getWidth() + 2 * padding;
+            int height = pixmap.getHeight() + 2 * padding;
+            int page = 0;
+            while (page < packers.size() && !packers.get(page).insert(width, height, position)) {
+                page++;
+            }
+            if (page == packers.size()) {
+                MaxRectsPacker packer = new MaxRectsPacker(pageWidth, pageHeight);
+                packer.insert(width, height, position);
+                packers.add(packer);
+            }
+            pageIndexes[i] = page;
+            positions[i * 2] = position[0] + padding;
+            positions[i * 2 + 1] = position[1] + padding;
+        }
+
+        List<Pixmap> pages = new ArrayList<>(packers.size());
+        for (int i = 0; i < packers.size(); i++) {
+            Pixmap page = pixMapFactory.create(pageWidth, pageHeight);
+            page.setColor(PackedColor.TRANSPARENT);
+            page.fill();
+            pages.add(page);
+        }
+        for (int i = 0; i < names.size(); i++) {
+            drawRegion(pages.get(pageIndexes[i]), pixmaps.get(names.get(i)), positions[i * 2], positions[i * 2 + 1]);
+        }
+        List<Texture> textures = new ArrayList<>(pages.size());
+        for (Pixmap page : pages) {
+            textures.add(textureFactory.create(page));
+        }
+        TextureRegion[] packedRegions = new TextureRegion[names.size()];
+        for (int i = 0; i < names.size(); i++) {
+            Pixmap pixmap = pixmaps.get(names.get(i));
+            packedRegions[i] = new TextureRegion(textures.get(pageIndexes[i]), positions[i * 2], positions[i * 2 + 1],
+                    pixmap.getWidth(), pixmap.getHeight());
+        }
+        //the regions keep the order in which they were added
+        Map<String, TextureRegion> regions = new LinkedHashMap<>();
+        for (String name : pixmaps.keySet()) {
+            regions.put(name, null);
+        }
+        for (int i = 0; i < names.size(); i++) {
+            regions.put(names.get(i), packedRegions[i]);
+        }
+        return new TextureAtlas(pages, textures, regions);
+    }
+
+    private void drawRegion(Pixmap page, Pixmap pixmap, int x, int y) {
+        page.drawPixmap(pixmap, x, y);
+        if (!bleed || padding == 0) {
+            return;
+        }
+        int width = pixmap.getWidth();
+        int height = pixmap.getHeight();
+        int p = padding;
+        //edges
+        page.drawPixmap(pixmap, 0, 0, 1, height, x - p, y, p, height);
+        page.drawPixmap(pixmap, width - 1, 0, 1, height, x + width, y, p, height);
+        page.drawPixmap(pixmap, 0, 0, width, 1, x, y - p, width, p);
+        page.drawPixmap(pixmap, 0, height - 1, width, 1, x, y + height, width, p);
+        //corners
+        page.drawPixmap(pixmap, 0, 0, 1, 1, x - p, y - p, p, p);
+        page.drawPixmap(pixmap, width - 1, 0, 1, 1, x + width, y - p, p, p);
+        page.drawPixmap(pixmap, 0, height - 1, 1, 1, x - p, y + height, p, p);
+        page.drawPixmap(pixmap, width - 1, height - 1, 1, 1, x + width, y + height, p, p);
+    }
+}
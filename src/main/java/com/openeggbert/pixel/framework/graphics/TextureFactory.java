@@ -32,5 +32,17 @@ public interface TextureFactory {
      Texture create(Pixmap pixmap);
      Texture create(int width, int height);
      Texture createTransparent(int width, int height);
+
+     /**
+      * Creates a texture for pixels of the format. The format is a request,
+      * a backend may store the texture in another format, for example when
+      * it can draw only ARGB8888 textures.
+      *
+      * @param width the width
+      * @param height the height
+      * @param format the format
+      * @return the texture
+      */
+     Texture create(int width, int height, PixelFormat format);
      
 }
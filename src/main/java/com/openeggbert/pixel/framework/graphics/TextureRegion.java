@@ -17,16 +17,61 @@
 // <https://www.gnu.org/licenses/> or write to the Free Software
 // Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
 ///////////////////////////////////////////////////////////////////////////////////////////////
-
 package com.openeggbert.pixel.framework.graphics;
 
+import lombok.Getter;
+
 /**
+ * Rectangular part of a texture. The texture coordinates (u, v) of the
+ * corners are computed once, when the region is set.
  *
  * @author robertvokac
  */
+@Getter
 public class TextureRegion {
+
+    private Texture texture;
+    private int regionX;
+    private int regionY;
+    private int regionWidth;
+    private int regionHeight;
+    private float u;
+    private float v;
+    private float u2;
+    private float v2;
+
     public TextureRegion() {
-//todo
+        //the region is set later
+    }
+
+    public TextureRegion(Texture texture) {
+        this(texture, 0, 0, texture.getWidth(), texture.getHeight());
+    }
+
+    public TextureRegion(Texture texture, int x, int y, int width, int height) {
+        setRegion(texture, x, y, width, height);
+    }
+
+    /**
+     * Sets the region and computes its texture coordinates.
+     *
+     * @param texture the texture
+     * @param x the x coordinate in pixels
+     * @param y the y coordinate in pixels
+     * @param width the width in pixels
+     * @param height the height in pixels
+     */
+    public void setRegion(Texture texture, int x, int y, int width, int height) {
+        this.texture = texture;
+        this.regionX = x;
+        this.regionY = y;
+        this.regionWidth = width;
+        this.regionHeight = height;
+        float inverseWidth = 1f / texture.getWidth();
+        float inverseHeight = 1f / texture.getHeight();
+        this.u = x * inverseWidth;
+        this.v = y * inverseHeight;
+        this.u2 = (x + width) * inverseWidth;
+        this.v2 = (y + height) * inverseHeight;
     }
-    
 }
@@ -0,0 +1,263 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// Pixel: Game library.
+// Copyright (C) 2024 the original author or authors.
+//
+// This program is free software: you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation, either version 3
+// of the License, or (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program. If not, see
+// <https://www.gnu.org/licenses/> or write to the Free Software
+// Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+///////////////////////////////////////////////////////////////////////////////////////////////
+package com.openeggbert.pixel.framework.graphics;
+
+import com.openeggbert.pixel.framework.PixelException;
+import com.openeggbert.pixel.framework.View;
+import com.openeggbert.pixel.framework.math.Affine2;
+import com.openeggbert.pixel.framework.math.Vec2;
+import lombok.Getter;
+
+/**
+ * Maps the world seen by a camera onto the screen according to a
+ * {@link View} mode.
+ *
+ * <ul>
+ * <li>STRETCH - the world is stretched over the whole screen, the aspect ratio
+ * is not kept.</li>
+ * <li>FIT - the world is scaled uniformly to fit the screen, the rest of the
+ * screen is left as black bars (letterboxing).</li>
+ * <li>SCREEN - the world has the size of the screen, one world unit per
+ * {@link #getUnitsPerPixel()} pixels.</li>
+ * <li>EXTEND - the world is scaled uniformly as with FIT, then extended in one
+ * direction to fill the whole screen, so there are no bars.</li>
+ * </ul>
+ *
+ * <p>
+ * With integer scaling, FIT and EXTEND scale the world only by whole numbers,
+ * so that pixel art stays sharp. The rest is letterboxed.
+ * </p>
+ *
+ * <p>
+ * Everything is computed in {@link #update(int, int)}, which is meant to be
+ * called from {@link com.openeggbert.pixel.framework.ApplicationListener#resize(int, int)}.
+ * {@link #project(Vec2)} and {@link #unproject(Vec2)} then only apply cached
+ * transformations, without creating any objects. Screen coordinates have the
+ * origin in the upper left corner, with y pointing down.
+ * </p>
+ *
+ * @author robertvokac
+ */
+public class Viewport {
+
+    @Getter
+    private final View view;
+    @Getter
+    private final OrthographicCamera camera;
+    /**
+     * The size of the world requested by the game.
+     */
+    @Getter
+    private float worldWidth, worldHeight;
+    @Getter
+    private boolean integerScaling;
+    /**
+     * World units per screen pixel in the mode SCREEN.
+     */
+    @Getter
+    private float unitsPerPixel = 1f;
+
+    /**
+     * The area of the screen used to show the world.
+     */
+    @Getter
+    private int screenX, screenY, screenWidth, screenHeight;
+    /**
+     * The whole size of the screen given in the last update.
+     */
+    @Getter
+    private int totalScreenWidth, totalScreenHeight;
+    /**
+     * Screen pixels per world unit, on the x and the y axis.
+     */
+    @Getter
+    private float scaleX, scaleY;
+
+    private final Affine2 ndcToScreen = new Affine2();
+    private final Affine2 screenToNdc = new Affine2();
+
+    public Viewport(View view, float worldWidth, float worldHeight) {
+        this(view, worldWidth, worldHeight, new OrthographicCamera(worldWidth, worldHeight));
+    }
+
+    public Viewport(View view, float worldWidth, float worldHeight, OrthographicCamera camera) {
+        if (view == null) {
+            throw new PixelException("View is null.");
+        }
+        this.view = view;
+        this.camera = camera;
+        setWorldSize(worldWidth, worldHeight);
+    }
+
+    /**
+     * Sets the requested world size. Takes effect with the next update.
+     *
+     * @param worldWidth the width
+     * @param worldHeight the height
+     */
+    public void setWorldSize(float worldWidth, float worldHeight) {
+        if (worldWidth <= 0f || worldHeight <= 0f) {
+            throw new PixelException("World size must be positive: " + worldWidth + "x" + worldHeight);
+        }
+        this.worldWidth = worldWidth;
+        this.worldHeight = worldHeight;
+    }
+
+    /**
+     * Enables scaling by whole numbers for FIT and EXTEND. Takes effect with
+     * the next update.
+     *
+     * @param integerScaling true to scale by whole numbers only
+     */
+    public void setIntegerScaling(boolean integerScaling) {
+        this.integerScaling = integerScaling;
+    }
+
+    public void setUnitsPerPixel(float unitsPerPixel) {
+        if (unitsPerPixel <= 0f) {
+            throw new PixelException("Units per pixel must be positive: " + unitsPerPixel);
+        }
+        this.unitsPerPixel = unitsPerPixel;
+    }
+
+    public void update(int screenWidth, int screenHeight) {
+        update(screenWidth, screenHeight, false);
+    }
+
+    /**
+     * Recomputes the viewport for the new size of the screen and sets the
+     * viewport of the camera.
+     *
+     * @param newScreenWidth the width of the screen in pixels
+     * @param newScreenHeight the height of the screen in pixels
+     * @param centerCamera true to move the camera to the center of the world
+     */
+    public void update(int newScreenWidth, int newScreenHeight, boolean centerCamera) {
+        if (newScreenWidth <= 0 || newScreenHeight <= 0) {
+            //minimized window, keep the last state
+            return;
+        }
+        this.totalScreenWidth = newScreenWidth;
+        this.totalScreenHeight = newScreenHeight;
+        float cameraWidth = worldWidth;
+        float cameraHeight = worldHeight;
+        int width = newScreenWidth;
+        int height = newScreenHeight;
+        switch (view) {
+            case STRETCH:
+                break;
+            case FIT: {
+                float scale = computeUniformScale(newScreenWidth, newScreenHeight);
+                width = Math.round(worldWidth * scale);
+                height = Math.round(worldHeight * scale);
+                break;
+            }
+            case SCREEN:
+                cameraWidth = newScreenWidth * unitsPerPixel;
+                cameraHeight = newScreenHeight * unitsPerPixel;
+                break;
+            case EXTEND: {
+                float scale = computeUniformScale(newScreenWidth, newScreenHeight);
+                if (integerScaling) {
+                    //extend by whole world units only, the remainder is letterboxed
+                    cameraWidth = Math.max(worldWidth, (float) Math.floor(newScreenWidth / scale));
+                    cameraHeight = Math.max(worldHeight, (float) Math.floor(newScreenHeight / scale));
+                    width = Math.round(cameraWidth * scale);
+                    height = Math.round(cameraHeight * scale);
+                } else {
+                    cameraWidth = newScreenWidth / scale;
+                    cameraHeight = newScreenHeight / scale;
+                }
+                break;
+            }
+            default:
+                throw new PixelException("Unsupported view: " + view);
+        }
+        width = Math.min(width, newScreenWidth);
+        height = Math.min(height, newScreenHeight);
+        this.screenWidth = width;
+        this.screenHeight = height;
+        this.screenX = (newScreenWidth - width) / 2;
+        this.screenY = (newScreenHeight - height) / 2;
+        this.scaleX = width / cameraWidth;
+        this.scaleY = height / cameraHeight;
+
+        camera.setViewport(cameraWidth, cameraHeight);
+        if (centerCamera) {
+            camera.setPosition(cameraWidth / 2f, cameraHeight / 2f);
+        }
+        //normalized device coordinates have y pointing up, the screen down
+        ndcToScreen.setToTranslation(screenX + width / 2f, screenY + height / 2f)
+                .scale(width / 2f, -height / 2f);
+        screenToNdc.set(ndcToScreen).inv();
+    }
+
+    private float computeUniformScale(int newScreenWidth, int newScreenHeight) {
+        float scale = Math.min(newScreenWidth / worldWidth, newScreenHeight / worldHeight);
+        if (integerScaling && scale >= 1f) {
+            scale = (float) Math.floor(scale);
+        }
+        return scale;
+    }
+
+    /**
+     * Transforms the world coordinates into the screen coordinates.
+     *
+     * @param vector the world coordinates, overwritten by the result
+     * @return the given vector
+     */
+    public Vec2 project(Vec2 vector) {
+        return camera.project(vector).mul(ndcToScreen);
+    }
+
+    /**
+     * Transforms the screen coordinates, for example of a touch, into the
+     * world coordinates.
+     *
+     * @param vector the screen coordinates, overwritten by the result
+     * @return the given vector
+     */
+    public Vec2 unproject(Vec2 vector) {
+        return camera.unproject(vector.mul(screenToNdc));
+    }
+
+    /**
+     * Writes the transformation of the world coordinates into the screen
+     * coordinates into the given matrix.
+     *
+     * @param worldToScreen the matrix to be set
+     * @return the given matrix
+     */
+    public Affine2 getWorldToScreen(Affine2 worldToScreen) {
+        return worldToScreen.set(camera.getCombined()).mulLeft(ndcToScreen);
+    }
+
+    /**
+     * Returns true, if the point of the screen is inside the viewport and not
+     * on a letterbox bar.
+     *
+     * @param x the x coordinate on the screen
+     * @param y the y coordinate on the screen
+     * @return true, if inside
+     */
+    public boolean isInside(float x, float y) {
+        return x >= screenX && x < screenX + screenWidth && y >= screenY && y < screenY + screenHeight;
+    }
+}
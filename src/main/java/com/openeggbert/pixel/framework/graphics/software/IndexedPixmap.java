@@ -0,0 +1,330 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// Pixel: Game library.
+// Copyright (C) 2024 the original author or authors.
+//
+// This program is free software: you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation, either version 3
+// of the License, or (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program. If not, see
+// <https://www.gnu.org/licenses/> or write to the Free Software
+// Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+///////////////////////////////////////////////////////////////////////////////////////////////
+package com.openeggbert.pixel.framework.graphics.software;
+
+import com.openeggbert.pixel.framework.PixelException;
+import com.openeggbert.pixel.framework.graphics.Color4BitPalette;
+import com.openeggbert.pixel.framework.graphics.PaletteLookupCube;
+import com.openeggbert.pixel.framework.graphics.Pixmap;
+import java.util.Arrays;
+
+/**
+ * Pixmap storing one byte per pixel, an index to its palette of up to 256
+ * ARGB8888 colors. The default palette is {@link Color4BitPalette}.
+ *
+ * <p>
+ * The palette is mutable and the pixels are resolved only when read, so palette
+ * swaps and color cycling cost O(palette size), no matter how large the pixmap
+ * is. Drawn colors are mapped to the closest palette entry; use
+ * {@link #setColorIndex(int)} to draw an exact index.
+ * </p>
+ *
+ * @author robertvokac
+ */
+public class IndexedPixmap extends SoftwareDrawable implements Pixmap {
+
+    public static final int MAX_PALETTE_SIZE = PaletteLookupCube.MAX_PALETTE_SIZE;
+
+    private final byte[] indexes;
+    private final int[] palette = new int[MAX_PALETTE_SIZE];
+    private int paletteSize;
+    /**
+     * Built lazily, when a color is drawn after the palette has changed.
+     */
+    private PaletteLookupCube lookupCube;
+    private int lastColor;
+    private int lastIndex = -1;
+    /**
+     * The index set by {@link #setColorIndex(int)}, it is kept, when the
+     * palette changes, until another color is set.
+     */
+    private int exactIndex = -1;
+
+    public IndexedPixmap(int width, int height) {
+        this(width, height, Color4BitPalette.toArgbArray());
+    }
+
+    /**
+     * Creates a pixmap, all pixels have the index 0.
+     *
+     * @param width the width
+     * @param height the height
+     * @param palette the colors as ARGB8888, 1 to 256 of them
+     */
+    public IndexedPixmap(int width, int height, int[] palette) {
+        super(width, height);
+        this.indexes = new byte[width * height];
+        setPalette(palette);
+    }
+
+    /**
+     * Returns the storage of this pixmap. Changes of the array are visible in
+     * this pixmap.
+     *
+     * @return the palette indexes, row by row
+     */
+    public byte[] getBuffer() {
+        return indexes;
+    }
+
+    public int getPaletteSize() {
+        return paletteSize;
+    }
+
+    public int getPaletteColor(int index) {
+        checkIndex(index);
+        return palette[index];
+    }
+
+    /**
+     * Returns a copy of the palette.
+     *
+     * @return the colors as ARGB8888
+     */
+    public int[] getPalette() {
+        return Arrays.copyOf(palette, paletteSize);
+    }
+
+    /**
+     * Replaces the whole palette, for example to swap team colors. The
+     * pixels are not changed. A shorter palette is rejected, if a pixel uses
+     * an index outside of it.
+     *
+     * @param colors the colors as ARGB8888, 1 to 256 of them
+     * @throws PixelException if the palette is empty, too long or too short
+     * for the pixels
+     */
+    public void setPalette(int[] colors) {
+        if (colors.length == 0 || colors.length > MAX_PALETTE_SIZE) {
+            throw new PixelException("Palette must have 1 to " + MAX_PALETTE_SIZE + " colors, but has " + colors.length);
+        }
+        if (colors.length < paletteSize) {
+            for (byte index : indexes) {
+                if ((index & 0xFF) >= colors.length) {
+                    throw new PixelException("Palette with " + colors.length + " colors is too short, a pixel has the index " + (index & 0xFF));
+                }
+            }
+            if (exactIndex >= colors.length) {
+                exactIndex = -1;
+            }
+        }
+        System.arraycopy(colors, 0, palette, 0, colors.length);
+        paletteSize = colors.length;
+        paletteChanged();
+    }
+
+    /**
+     * Replaces one color of the palette.
+     *
+     * @param index the index
+     * @param argb the color as ARGB8888
+     */
+    public void setPaletteColor(int index, int argb) {
+        checkIndex(index);
+        palette[index] = argb;
+        paletteChanged();
+    }
+
+    /**
+     * Rotates the palette colors from the first index to the last index, both
+     * inclusive. A color moves from index i to index i + steps, the colors
+     * leaving the range come back at its other end.
+     *
+     * @param from the first index
+     * @param to the last index
+     * @param steps the count of steps, negative values rotate backwards
+     */
+    public void cyclePalette(int from, int to, int steps) {
+        checkIndex(from);
+        checkIndex(to);
+        int length = to - from + 1;
+        if (length <= 0) {
+            throw new PixelException("Invalid range of palette: " + from + "-" + to);
+        }
+        int shift = Math.floorMod(steps, length);
+        if (shift == 0) {
+            return;
+        }
+        int[] copy = Arrays.copyOfRange(palette, from, to + 1);
+        for (int i = 0; i < length; i++) {
+            palette[from + (i + shift) % length] = copy[i];
+        }
+        paletteChanged();
+    }
+
+    private void paletteChanged() {
+        lookupCube = null;
+        lastIndex = -1;
+    }
+
+    /**
+     * Sets the current color to the palette color, drawing will store exactly
+     * this index.
+     *
+     * @param index the index
+     */
+    public void setColorIndex(int index) {
+        checkIndex(index);
+        color = palette[index];
+        exactIndex = index;
+    }
+
+    @Override
+    public void setColor(int argb) {
+        super.setColor(argb);
+        exactIndex = -1;
+    }
+
+    /**
+     * Returns the palette index of the pixel. The coordinates are not checked.
+     *
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @return the index
+     */
+    public int getIndex(int x, int y) {
+        return indexes[y * width + x] & 0xFF;
+    }
+
+    /**
+     * Sets the palette index of the pixel. The coordinates are not checked,
+     * the index is.
+     *
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @param index the index
+     */
+    public void setIndex(int x, int y, int index) {
+        checkIndex(index);
+        indexes[y * width + x] = (byte) index;
+    }
+
+    /**
+     * Resolves all pixels to ARGB8888 colors of the current palette.
+     *
+     * @param target the array for width * height colors, row by row
+     */
+    public void resolve(int[] target) {
+        if (target.length != indexes.length) {
+            throw new PixelException("Expected " + indexes.length + " pixels, but got " + target.length);
+        }
+        int[] colors = palette;
+        for (int i = 0; i < indexes.length; i++) {
+            target[i] = colors[indexes[i] & 0xFF];
+        }
+    }
+
+    /**
+     * Resolves a row of pixels to ARGB8888 colors of the current palette.
+     * Used by {@link SoftwarePixmap} to draw this pixmap.
+     */
+    void resolveRow(int sourceX, int sourceY, int sourceFixedX, int stepX, int[] target, int targetIndex, int length) {
+        int[] colors = palette;
+        int row = sourceY * width + sourceX;
+        if (stepX == FIXED_ONE) {
+            for (int i = row + (sourceFixedX >> 16), end = targetIndex + length; targetIndex < end; i++, targetIndex++) {
+                target[targetIndex] = colors[indexes[i] & 0xFF];
+            }
+            return;
+        }
+        for (int end = targetIndex + length; targetIndex < end; targetIndex++, sourceFixedX += stepX) {
+            target[targetIndex] = colors[indexes[row + (sourceFixedX >> 16)] & 0xFF];
+        }
+    }
+
+    private int indexOf(int argb) {
+        if (exactIndex >= 0 && argb == color) {
+            return exactIndex;
+        }
+        if (lastIndex >= 0 && argb == lastColor) {
+            return lastIndex;
+        }
+        if (lookupCube == null) {
+            lookupCube = new PaletteLookupCube(getPalette());
+        }
+        lastColor = argb;
+        lastIndex = lookupCube.indexOf(argb);
+        return lastIndex;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= paletteSize) {
+            throw new PixelException("Invalid palette index: " + index);
+        }
+    }
+
+    @Override
+    protected int readPixel(int x, int y) {
+        return palette[indexes[y * width + x] & 0xFF];
+    }
+
+    @Override
+    protected void writePixel(int x, int y, int argb) {
+        indexes[y * width + x] = (byte) indexOf(argb);
+    }
+
+    @Override
+    protected void writeSpan(int x, int y, int length, int argb) {
+        int start = y * width + x;
+        Arrays.fill(indexes, start, start + length, (byte) indexOf(argb));
+    }
+
+    @Override
+    protected void copyRow(Pixmap source, int sourceX, int sourceY, int sourceFixedX, int stepX, int x, int y, int length) {
+        if (!(source instanceof IndexedPixmap) || !canCopyIndexesOf((IndexedPixmap) source)) {
+            super.copyRow(source, sourceX, sourceY, sourceFixedX, stepX, x, y, length);
+            return;
+        }
+        IndexedPixmap indexedSource = (IndexedPixmap) source;
+        int sourceRow = sourceY * indexedSource.width + sourceX;
+        int index = y * width + x;
+        if (stepX == FIXED_ONE) {
+            System.arraycopy(indexedSource.indexes, sourceRow + (sourceFixedX >> 16), indexes, index, length);
+            return;
+        }
+        for (int end = index + length; index < end; index++, sourceFixedX += stepX) {
+            indexes[index] = indexedSource.indexes[sourceRow + (sourceFixedX >> 16)];
+        }
+    }
+
+    /**
+     * The indexes can be copied as they are, if every index of the source
+     * means the same opaque color here. Otherwise the colors are mapped one by
+     * one.
+     */
+    private boolean canCopyIndexesOf(IndexedPixmap source) {
+        if (source.paletteSize > paletteSize) {
+            return false;
+        }
+        int[] sourcePalette = source.palette;
+        for (int i = 0; i < source.paletteSize; i++) {
+            int argb = sourcePalette[i];
+            if (argb != palette[i] || (argb >>> 24) != 0xFF) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void fill() {
+        Arrays.fill(indexes, (byte) indexOf(color));
+    }
+}
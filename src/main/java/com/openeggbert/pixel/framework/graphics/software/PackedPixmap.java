@@ -0,0 +1,299 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// Pixel: Game library.
+// Copyright (C) 2024 the original author or authors.
+//
+// This program is free software: you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation, either version 3
+// of the License, or (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program. If not, see
+// <https://www.gnu.org/licenses/> or write to the Free Software
+// Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+///////////////////////////////////////////////////////////////////////////////////////////////
+package com.openeggbert.pixel.framework.graphics.software;
+
+import com.openeggbert.pixel.framework.PixelException;
+import com.openeggbert.pixel.framework.graphics.ColorDepthConverter;
+import com.openeggbert.pixel.framework.graphics.PaletteLookupCube;
+import com.openeggbert.pixel.framework.graphics.PixelFormat;
+import com.openeggbert.pixel.framework.graphics.PixelFormatCodec;
+import com.openeggbert.pixel.framework.graphics.Pixmap;
+import java.util.Arrays;
+import lombok.Getter;
+
+/**
+ * Pixmap stored in memory in a {@link PixelFormat}, in the layout of
+ * {@link PixelFormatCodec}. An RGB565 pixmap needs half of the memory of a
+ * {@link SoftwarePixmap}, a 4-bit indexed one an eighth and a 1-bit one a
+ * thirty-second.
+ *
+ * <p>
+ * Colors are converted to the format when drawn, so {@link #getPixel} returns
+ * the reduced color. Copying between pixmaps of the same format (and the same
+ * palette) copies the stored values without any conversion.
+ * </p>
+ *
+ * @author robertvokac
+ */
+public class PackedPixmap extends SoftwareDrawable implements Pixmap {
+
+    @Getter
+    private final PixelFormat format;
+    private final PaletteLookupCube palette;
+    private final int bitsPerPixel;
+    private final int stride;
+    private final byte[] data;
+    private final ColorDepthConverter converter;
+    /**
+     * The colors of the values of formats with up to 8 bits per pixel.
+     */
+    private final int[] decodingTable;
+
+    public PackedPixmap(int width, int height, PixelFormat format) {
+        this(width, height, format, null);
+    }
+
+    /**
+     * Creates a pixmap.
+     *
+     * @param width the width
+     * @param height the height
+     * @param format the format
+     * @param palette the palette of indexed pixels, null for
+     * {@link com.openeggbert.pixel.framework.graphics.Color4BitPalette}
+     */
+    public PackedPixmap(int width, int height, PixelFormat format, PaletteLookupCube palette) {
+        this(width, height, format, palette, new byte[format.getByteCount(width, height)]);
+    }
+
+    /**
+     * Creates a pixmap using the given array as its storage, without copying
+     * it.
+     *
+     * @param width the width
+     * @param height the height
+     * @param format the format
+     * @param palette the palette of indexed pixels, null for
+     * {@link com.openeggbert.pixel.framework.graphics.Color4BitPalette}
+     * @param data the pixels encoded by {@link PixelFormatCodec}
+     */
+    public PackedPixmap(int width, int height, PixelFormat format, PaletteLookupCube palette, byte[] data) {
+        super(width, height);
+        if (data.length != format.getByteCount(width, height)) {
+            throw new PixelException("Expected " + format.getByteCount(width, height) + " bytes, but got " + data.length);
+        }
+        this.format = format;
+        this.palette = format.isIndexed() ? palette : null;
+        this.bitsPerPixel = format.getBitsPerPixel();
+        this.stride = format.getRowByteCount(width);
+        this.data = data;
+        this.converter = PixelFormatCodec.createConverter(format, this.palette);
+        this.decodingTable = PixelFormatCodec.createDecodingTable(format, this.palette == null ? null : this.palette.getPalette());
+    }
+
+    /**
+     * Creates a pixmap with the pixels of the given pixmap converted to the
+     * format.
+     *
+     * @param source the pixmap to convert
+     * @param format the format
+     * @return the new pixmap
+     */
+    public static PackedPixmap of(SoftwarePixmap source, PixelFormat format) {
+        return new PackedPixmap(source.getWidth(), source.getHeight(), format, null,
+                PixelFormatCodec.encode(source.getBuffer(), source.getWidth(), source.getHeight(), format));
+    }
+
+    /**
+     * Returns the storage of this pixmap. Changes of the array are visible in
+     * this pixmap.
+     *
+     * @return the pixels encoded by {@link PixelFormatCodec}
+     */
+    public byte[] getBuffer() {
+        return data;
+    }
+
+    /**
+     * Decodes all pixels to a new pixmap with 32 bits per pixel.
+     *
+     * @return the new pixmap
+     */
+    public SoftwarePixmap toSoftwarePixmap() {
+        int[] pixels = PixelFormatCodec.decode(data, width, height, format, palette == null ? null : palette.getPalette());
+        return new SoftwarePixmap(width, height, pixels);
+    }
+
+    /**
+     * Returns the stored value of the pixel, for example the palette index of
+     * an indexed pixmap. The coordinates are not checked.
+     *
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @return the value
+     */
+    public int getValue(int x, int y) {
+        int row = y * stride;
+        switch (bitsPerPixel) {
+            case 32:
+                return getRgba(data, row + x * 4);
+            case 24: {
+                int i = row + x * 3;
+                return ((data[i] & 0xFF) << 16) | ((data[i + 1] & 0xFF) << 8) | (data[i + 2] & 0xFF);
+            }
+            case 16: {
+                int i = row + x * 2;
+                return ((data[i] & 0xFF) << 8) | (data[i + 1] & 0xFF);
+            }
+            case 8:
+                return data[row + x] & 0xFF;
+            default: {
+                int bit = x * bitsPerPixel;
+                int shift = 8 - bitsPerPixel - (bit & 7);
+                return (data[row + (bit >> 3)] >> shift) & ((1 << bitsPerPixel) - 1);
+            }
+        }
+    }
+
+    /**
+     * Sets the stored value of the pixel. The coordinates are not checked.
+     *
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @param value the value, as returned by {@link #getValue(int, int)}
+     */
+    public void setValue(int x, int y, int value) {
+        int row = y * stride;
+        switch (bitsPerPixel) {
+            case 32:
+                putRgba(data, row + x * 4, value);
+                break;
+            case 24: {
+                int i = row + x * 3;
+                data[i] = (byte) (value >> 16);
+                data[i + 1] = (byte) (value >> 8);
+                data[i + 2] = (byte) value;
+                break;
+            }
+            case 16: {
+                int i = row + x * 2;
+                data[i] = (byte) (value >> 8);
+                data[i + 1] = (byte) value;
+                break;
+            }
+            case 8:
+                data[row + x] = (byte) value;
+                break;
+            default: {
+                int bit = x * bitsPerPixel;
+                int shift = 8 - bitsPerPixel - (bit & 7);
+                int mask = ((1 << bitsPerPixel) - 1) << shift;
+                int i = row + (bit >> 3);
+                data[i] = (byte) ((data[i] & ~mask) | ((value << shift) & mask));
+            }
+        }
+    }
+
+    private int encode(int argb) {
+        switch (format) {
+            case RGBA8888:
+                return argb;
+            case RGB888:
+                return argb & 0xFFFFFF;
+            default:
+                return converter.encode(argb);
+        }
+    }
+
+    private int decode(int value) {
+        switch (format) {
+            case RGBA8888:
+                return value;
+            case RGB888:
+                return 0xFF000000 | value;
+            case RGB565:
+                return PixelFormatCodec.decodeRgb565(value);
+            default:
+                return decodingTable[value];
+        }
+    }
+
+    @Override
+    protected int readPixel(int x, int y) {
+        return decode(getValue(x, y));
+    }
+
+    @Override
+    protected void writePixel(int x, int y, int argb) {
+        setValue(x, y, encode(argb));
+    }
+
+    @Override
+    protected void writeSpan(int x, int y, int length, int argb) {
+        int value = encode(argb);
+        if (bitsPerPixel == 8) {
+            int start = y * stride + x;
+            Arrays.fill(data, start, start + length, (byte) value);
+            return;
+        }
+        int end = x + length;
+        if (bitsPerPixel > 8) {
+            for (; x < end; x++) {
+                setValue(x, y, value);
+            }
+            return;
+        }
+        //the pixels up to the first whole byte, the whole bytes, the rest
+        int pixelsPerByte = 8 / bitsPerPixel;
+        for (; x < end && x % pixelsPerByte != 0; x++) {
+            setValue(x, y, value);
+        }
+        int wholeBytes = (end - x) / pixelsPerByte;
+        if (wholeBytes > 0) {
+            int pattern = value;
+            for (int bits = bitsPerPixel; bits < 8; bits <<= 1) {
+                pattern |= pattern << bits;
+            }
+            int start = y * stride + x / pixelsPerByte;
+            Arrays.fill(data, start, start + wholeBytes, (byte) pattern);
+            x += wholeBytes * pixelsPerByte;
+        }
+        for (; x < end; x++) {
+            setValue(x, y, value);
+        }
+    }
+
+    @Override
+    protected void copyRow(Pixmap source, int sourceX, int sourceY, int sourceFixedX, int stepX, int x, int y, int length) {
+        if (!isSameFormat(source)) {
+            super.copyRow(source, sourceX, sourceY, sourceFixedX, stepX, x, y, length);
+            return;
+        }
+        PackedPixmap packedSource = (PackedPixmap) source;
+        int firstX = sourceX + (sourceFixedX >> 16);
+        if (stepX == FIXED_ONE && (bitsPerPixel >= 8 || length * bitsPerPixel % 8 == 0
+                && firstX * bitsPerPixel % 8 == 0 && x * bitsPerPixel % 8 == 0)) {
+            System.arraycopy(packedSource.data, sourceY * packedSource.stride + firstX * bitsPerPixel / 8,
+                    data, y * stride + x * bitsPerPixel / 8, length * bitsPerPixel / 8);
+            return;
+        }
+        for (int end = x + length; x < end; x++, sourceFixedX += stepX) {
+            setValue(x, y, packedSource.getValue(sourceX + (sourceFixedX >> 16), sourceY));
+        }
+    }
+
+    private boolean isSameFormat(Pixmap source) {
+        if (!(source instanceof PackedPixmap)) {
+            return false;
+        }
+        PackedPixmap packedSource = (PackedPixmap) source;
+        return packedSource.format == format && packedSource.palette == palette;
+    }
+}
@@ -0,0 +1,548 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// Pixel: Game library.
+// Copyright (C) 2024 the original author or authors.
+//
+// This program is free software: you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation, either version 3
+// of the License, or (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program. If not, see
+// <https://www.gnu.org/licenses/> or write to the Free Software
+// Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+///////////////////////////////////////////////////////////////////////////////////////////////
+package com.openeggbert.pixel.framework.graphics.software;
+
+import com.openeggbert.pixel.framework.PixelException;
+import com.openeggbert.pixel.framework.graphics.Color;
+import com.openeggbert.pixel.framework.graphics.Drawable;
+import com.openeggbert.pixel.framework.graphics.PackedColor;
+import com.openeggbert.pixel.framework.graphics.Pixmap;
+
+/**
+ * Base of the drawables rendered on the CPU.
+ *
+ * <p>
+ * All primitives are clipped once against the bounds and reduced to horizontal
+ * spans or single pixels, so the subclasses have to implement only the access
+ * to their storage. Colors are handled as ARGB8888 ints (0xAARRGGBB), the same
+ * format as returned by {@link Color#toInt()}. Drawing replaces the pixels, it
+ * does not blend them.
+ * </p>
+ *
+ * @author robertvokac
+ */
+public abstract class SoftwareDrawable implements Drawable {
+
+    /**
+     * 1.0 in the 16.16 fixed point format used for scaling.
+     */
+    protected static final int FIXED_ONE = 1 << 16;
+
+    /**
+     * Lines with an end point farther from the origin are cut to this range
+     * first, so the arithmetic of the clipped Bresenham cannot overflow.
+     */
+    private static final int LINE_RANGE = 1 << 29;
+
+    protected final int width;
+    protected final int height;
+    protected int color = 0xFF000000;
+    private boolean disposed;
+
+    protected SoftwareDrawable(int width, int height) {
+        if (width <= 0 || height <= 0) {
+            throw new PixelException("Invalid size: " + width + "x" + height);
+        }
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Returns the pixel as ARGB8888. The coordinates are already checked.
+     *
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @return the color
+     */
+    protected abstract int readPixel(int x, int y);
+
+    /**
+     * Sets the pixel. The coordinates are already checked.
+     *
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @param argb the color as ARGB8888
+     */
+    protected abstract void writePixel(int x, int y, int argb);
+
+    /**
+     * Sets a horizontal run of pixels. The span is already clipped.
+     *
+     * @param x the x coordinate of the first pixel
+     * @param y the y coordinate
+     * @param length the count of pixels, at least 1
+     * @param argb the color as ARGB8888
+     */
+    protected void writeSpan(int x, int y, int length, int argb) {
+        for (int end = x + length; x < end; x++) {
+            writePixel(x, y, argb);
+        }
+    }
+
+    /**
+     * Copies a row of the source to this drawable. The source x coordinate is
+     * in 16.16 fixed point relative to sourceX, the row is already clipped
+     * against both the source and this drawable.
+     *
+     * @param source the source pixmap
+     * @param sourceX the x coordinate in the source, to which sourceFixedX is
+     * relative
+     * @param sourceY the y coordinate in the source
+     * @param sourceFixedX the offset of the first pixel from sourceX
+     * @param stepX the step in the source per pixel of this drawable
+     * @param x the x coordinate of the first pixel
+     * @param y the y coordinate
+     * @param length the count of pixels
+     */
+    protected void copyRow(Pixmap source, int sourceX, int sourceY, int sourceFixedX, int stepX, int x, int y, int length) {
+        for (int end = x + length; x < end; x++, sourceFixedX += stepX) {
+            writePixel(x, y, source.getPixel(sourceX + (sourceFixedX >> 16), sourceY));
+        }
+    }
+
+    /**
+     * Returns the current color as ARGB8888.
+     *
+     * @return the color
+     */
+    public int getColor() {
+        return color;
+    }
+
+    @Override
+    public void setColor(Color color) {
+        setColor(color.toInt());
+    }
+
+    @Override
+    public void setColor(float red, float green, float blue, float alpha) {
+        setColor(PackedColor.pack(red, green, blue, alpha));
+    }
+
+    @Override
+    public void setColor(float red, float green, float blue) {
+        setColor(red, green, blue, 1f);
+    }
+
+    @Override
+    public void setColor(int red, int green, int blue, int alpha) {
+        setColor(PackedColor.pack(red, green, blue, alpha));
+    }
+
+    @Override
+    public void setColor(int red, int green, int blue) {
+        setColor(red, green, blue, 255);
+    }
+
+    @Override
+    public void setColor(int argb) {
+        this.color = argb;
+    }
+
+    @Override
+    public void fill() {
+        for (int y = 0; y < height; y++) {
+            writeSpan(0, y, width, color);
+        }
+    }
+
+    @Override
+    public void drawPixel(int x, int y) {
+        drawPixel(x, y, color);
+    }
+
+    @Override
+    public void drawPixel(int x, int y, int color) {
+        if (x >= 0 && y >= 0 && x < width && y < height) {
+            writePixel(x, y, color);
+        }
+    }
+
+    /**
+     * Returns the pixel as ARGB8888, or 0 if it is out of bounds.
+     *
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @return the color
+     */
+    @Override
+    public int getPixel(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) {
+            return 0;
+        }
+        return readPixel(x, y);
+    }
+
+    @Override
+    public void drawLine(int x, int y, int x2, int y2) {
+        if (y == y2) {
+            horizontalLine(Math.min(x, x2), Math.max(x, x2), y, color);
+            return;
+        }
+        if (x == x2) {
+            verticalLine(x, Math.min(y, y2), Math.max(y, y2), color);
+            return;
+        }
+        if (Math.max(Math.max(Math.abs((long) x), Math.abs((long) x2)), Math.max(Math.abs((long) y), Math.abs((long) y2))) > LINE_RANGE) {
+            drawCutLine(x, y, x2, y2);
+            return;
+        }
+        long dx = Math.abs((long) x2 - x);
+        long dy = Math.abs((long) y2 - y);
+        int sx = x < x2 ? 1 : -1;
+        int sy = y < y2 ? 1 : -1;
+        if (dx >= dy) {
+            drawClippedLine(x, y, sx, sy, dx, dy, width, height, false);
+        } else {
+            drawClippedLine(y, x, sy, sx, dy, dx, height, width, true);
+        }
+    }
+
+    /**
+     * Cuts the line to the square of {@link #LINE_RANGE} with Liang-Barsky and
+     * draws the rest. The rounded end points may move the visible pixels of
+     * such a long line by one.
+     */
+    private void drawCutLine(int x, int y, int x2, int y2) {
+        double dx = (double) x2 - x;
+        double dy = (double) y2 - y;
+        double t0 = 0;
+        double t1 = 1;
+        for (int edge = 0; edge < 4; edge++) {
+            double p = edge == 0 ? -dx : edge == 1 ? dx : edge == 2 ? -dy : dy;
+            double q = edge == 0 ? (double) x + LINE_RANGE : edge == 1 ? (double) LINE_RANGE - x
+                    : edge == 2 ? (double) y + LINE_RANGE : (double) LINE_RANGE - y;
+            if (p == 0) {
+                if (q < 0) {
+                    return;
+                }
+            } else if (p < 0) {
+                t0 = Math.max(t0, q / p);
+            } else {
+                t1 = Math.min(t1, q / p);
+            }
+        }
+        if (t0 > t1) {
+            return;
+        }
+        drawLine((int) Math.round(x + t0 * dx), (int) Math.round(y + t0 * dy),
+                (int) Math.round(x + t1 * dx), (int) Math.round(y + t1 * dy));
+    }
+
+    /**
+     * Draws a line with Bresenham, u is the major axis and v the minor axis.
+     * Only the steps inside of this drawable are walked, the minor coordinate
+     * and the error of the first of them are computed directly, so a long line
+     * mostly outside costs as much as its visible part.
+     *
+     * <p>
+     * After i steps the minor offset is floor((2 * i * dv + du - 1) / (2 * du))
+     * and the error is the remainder of this division.
+     * </p>
+     */
+    private void drawClippedLine(int u, int v, int su, int sv, long du, long dv, int uLimit, int vLimit, boolean swapped) {
+        //the steps, which have the major coordinate inside
+        long first = Math.max(0, su > 0 ? -(long) u : (long) u - (uLimit - 1));
+        long last = Math.min(du, su > 0 ? (long) uLimit - 1 - u : u);
+        //the minor offsets, which have the minor coordinate inside
+        long minorMin = sv > 0 ? -(long) v : (long) v - (vLimit - 1);
+        long minorMax = sv > 0 ? (long) vLimit - 1 - v : v;
+        long du2 = 2 * du;
+        long dv2 = 2 * dv;
+        if (minorMin > 0) {
+            first = Math.max(first, -Math.floorDiv(-(du2 * minorMin - du + 1), dv2));
+        }
+        if (minorMax < dv) {
+            last = Math.min(last, -Math.floorDiv(-(du2 * (minorMax + 1) - du + 1), dv2) - 1);
+        }
+        if (first > last) {
+            return;
+        }
+        long numerator = dv2 * first + du - 1;
+        int minor = (int) (numerator / du2);
+        long error = numerator % du2;
+        int major = u + su * (int) first;
+        minor = v + sv * minor;
+        for (int count = (int) (last - first); count >= 0; count--, major += su) {
+            if (swapped) {
+                writePixel(minor, major, color);
+            } else {
+                writePixel(major, minor, color);
+            }
+            error += dv2;
+            if (error >= du2) {
+                error -= du2;
+                minor += sv;
+            }
+        }
+    }
+
+    @Override
+    public void drawRectangle(int x, int y, int width, int height) {
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+        int right = x + width - 1;
+        int bottom = y + height - 1;
+        horizontalLine(x, right, y, color);
+        horizontalLine(x, right, bottom, color);
+        verticalLine(x, y + 1, bottom - 1, color);
+        verticalLine(right, y + 1, bottom - 1, color);
+    }
+
+    @Override
+    public void fillRectangle(int x, int y, int width, int height) {
+        int x0 = Math.max(x, 0);
+        int x1 = (int) Math.min((long) x + width, this.width);
+        int y0 = Math.max(y, 0);
+        int y1 = (int) Math.min((long) y + height, this.height);
+        if (x0 >= x1) {
+            return;
+        }
+        for (int row = y0; row < y1; row++) {
+            writeSpan(x0, row, x1 - x0, color);
+        }
+    }
+
+    @Override
+    public void drawCircle(int centerX, int centerY, int radius) {
+        if (radius < 0) {
+            return;
+        }
+        //midpoint circle, eight symmetric points per step
+        int x = radius;
+        int y = 0;
+        int error = 1 - radius;
+        while (x >= y) {
+            drawPixel(centerX + x, centerY + y, color);
+            drawPixel(centerX - x, centerY + y, color);
+            drawPixel(centerX + x, centerY - y, color);
+            drawPixel(centerX - x, centerY - y, color);
+            drawPixel(centerX + y, centerY + x, color);
+            drawPixel(centerX - y, centerY + x, color);
+            drawPixel(centerX + y, centerY - x, color);
+            drawPixel(centerX - y, centerY - x, color);
+            y++;
+            if (error < 0) {
+                error += 2 * y + 1;
+            } else {
+                x--;
+                error += 2 * (y - x) + 1;
+            }
+        }
+    }
+
+    @Override
+    public void fillCircle(int centerX, int centerY, int radius) {
+        if (radius < 0) {
+            return;
+        }
+        int y0 = Math.max(centerY - radius, 0);
+        int y1 = Math.min(centerY + radius, height - 1);
+        long radiusSquared = (long) radius * radius;
+        for (int y = y0; y <= y1; y++) {
+            long dy = y - centerY;
+            int dx = (int) Math.sqrt(radiusSquared - dy * dy);
+            horizontalLine(centerX - dx, centerX + dx, y, color);
+        }
+    }
+
+    @Override
+    public void fillTriangle(int x1, int y1, int x2, int y2, int x3, int y3) {
+        //sort the vertices by y
+        if (y1 > y2) {
+            int t = x1; x1 = x2; x2 = t;
+            t = y1; y1 = y2; y2 = t;
+        }
+        if (y2 > y3) {
+            int t = x2; x2 = x3; x3 = t;
+            t = y2; y2 = y3; y3 = t;
+        }
+        if (y1 > y2) {
+            int t = x1; x1 = x2; x2 = t;
+            t = y1; y1 = y2; y2 = t;
+        }
+        if (y1 == y3) {
+            horizontalLine(Math.min(x1, Math.min(x2, x3)), Math.max(x1, Math.max(x2, x3)), y1, color);
+            return;
+        }
+        int yStart = Math.max(y1, 0);
+        int yEnd = Math.min(y3, height - 1);
+        long longHeight = y3 - y1;
+        for (int y = yStart; y <= yEnd; y++) {
+            int a = x1 + (int) ((long) (y - y1) * (x3 - x1) / longHeight);
+            int b;
+            if (y < y2) {
+                b = x1 + (int) ((long) (y - y1) * (x2 - x1) / (y2 - y1));
+            } else if (y3 == y2) {
+                b = x2;
+            } else {
+                b = x2 + (int) ((long) (y - y2) * (x3 - x2) / (y3 - y2));
+            }
+            horizontalLine(Math.min(a, b), Math.max(a, b), y, color);
+        }
+    }
+
+    @Override
+    public void drawPixmap(Pixmap pixmap, int x, int y) {
+        drawPixmap(pixmap, 0, 0, pixmap.getWidth(), pixmap.getHeight(), x, y, pixmap.getWidth(), pixmap.getHeight());
+    }
+
+    @Override
+    public void drawPixmap(Pixmap pixmap, int x, int y, int srcX, int srcY, int srcWidth, int srcHeight) {
+        drawPixmap(pixmap, srcX, srcY, srcWidth, srcHeight, x, y, srcWidth, srcHeight);
+    }
+
+    /**
+     * Draws a part of the pixmap scaled to the destination rectangle, with the
+     * nearest neighbour sampling.
+     */
+    @Override
+    public void drawPixmap(Pixmap pixmap, int srcX, int srcY, int srcWidth, int srcHeight, int dstX, int dstY, int dstWidth, int dstHeight) {
+        if (srcWidth <= 0 || srcHeight <= 0 || dstWidth <= 0 || dstHeight <= 0) {
+            return;
+        }
+        int sourceX0 = Math.max(srcX, 0);
+        int sourceX1 = Math.min(srcX + srcWidth, pixmap.getWidth());
+        int sourceY0 = Math.max(srcY, 0);
+        int sourceY1 = Math.min(srcY + srcHeight, pixmap.getHeight());
+        if (sourceX0 >= sourceX1 || sourceY0 >= sourceY1) {
+            return;
+        }
+        int stepX = (int) Math.max(1, ((long) srcWidth << 16) / dstWidth);
+        int stepY = (int) Math.max(1, ((long) srcHeight << 16) / dstHeight);
+        //the destination pixels sampling inside of both the source rectangle and the source pixmap
+        int x0 = Math.max(Math.max(dstX, dstX + ceilDiv((long) (sourceX0 - srcX) << 16, stepX)), 0);
+        int x1 = Math.min(Math.min(dstX + dstWidth, dstX + ceilDiv((long) (sourceX1 - srcX) << 16, stepX)), width);
+        int y0 = Math.max(Math.max(dstY, dstY + ceilDiv((long) (sourceY0 - srcY) << 16, stepY)), 0);
+        int y1 = Math.min(Math.min(dstY + dstHeight, dstY + ceilDiv((long) (sourceY1 - srcY) << 16, stepY)), height);
+        if (x0 >= x1 || y0 >= y1) {
+            return;
+        }
+        long fixedX = ((long) srcX << 16) + (long) (x0 - dstX) * stepX;
+        long fixedY = ((long) srcY << 16) + (long) (y0 - dstY) * stepY;
+        //copyRow steps in int relative to the first source pixel, so very long rows are split
+        int chunk = Math.min(x1 - x0, (Integer.MAX_VALUE - FIXED_ONE) / stepX + 1);
+        for (int y = y0; y < y1; y++, fixedY += stepY) {
+            for (int x = x0; x < x1; x += chunk) {
+                long start = fixedX + (long) (x - x0) * stepX;
+                copyRow(pixmap, (int) (start >> 16), (int) (fixedY >> 16), (int) (start & 0xFFFF), stepX, x, y, Math.min(chunk, x1 - x));
+            }
+        }
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public void dispose() {
+        disposed = true;
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return disposed;
+    }
+
+    /**
+     * Returns all pixels as RGBA8888, row by row.
+     *
+     * @return the pixels, 4 bytes per pixel
+     */
+    @Override
+    public byte[] getPixels() {
+        byte[] result = new byte[width * height * 4];
+        int i = 0;
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++, i += 4) {
+                putRgba(result, i, readPixel(x, y));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Sets all pixels from RGBA8888, row by row.
+     *
+     * @param pixels the pixels, 4 bytes per pixel
+     */
+    @Override
+    public void setPixels(byte[] pixels) {
+        checkRgbaLength(pixels);
+        int i = 0;
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++, i += 4) {
+                writePixel(x, y, getRgba(pixels, i));
+            }
+        }
+    }
+
+    protected void horizontalLine(int x1, int x2, int y, int argb) {
+        if (y < 0 || y >= height) {
+            return;
+        }
+        int x0 = Math.max(x1, 0);
+        int end = Math.min(x2, width - 1);
+        if (x0 <= end) {
+            writeSpan(x0, y, end - x0 + 1, argb);
+        }
+    }
+
+    protected void verticalLine(int x, int y1, int y2, int argb) {
+        if (x < 0 || x >= width) {
+            return;
+        }
+        int end = Math.min(y2, height - 1);
+        for (int y = Math.max(y1, 0); y <= end; y++) {
+            writePixel(x, y, argb);
+        }
+    }
+
+    protected void checkRgbaLength(byte[] pixels) {
+        if (pixels.length != width * height * 4) {
+            throw new PixelException("Expected " + (width * height * 4) + " bytes, but got " + pixels.length);
+        }
+    }
+
+    protected static void putRgba(byte[] array, int index, int argb) {
+        array[index] = (byte) (argb >> 16);
+        array[index + 1] = (byte) (argb >> 8);
+        array[index + 2] = (byte) argb;
+        array[index + 3] = (byte) (argb >>> 24);
+    }
+
+    protected static int getRgba(byte[] array, int index) {
+        return ((array[index + 3] & 0xFF) << 24)
+                | ((array[index] & 0xFF) << 16)
+                | ((array[index + 1] & 0xFF) << 8)
+                | (array[index + 2] & 0xFF);
+    }
+
+    private static int ceilDiv(long dividend, int divisor) {
+        return (int) ((dividend + divisor - 1) / divisor);
+    }
+}
@@ -0,0 +1,59 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// Pixel: Game library.
+// Copyright (C) 2024 the original author or authors.
+//
+// This program is free software: you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation, either version 3
+// of the License, or (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program. If not, see
+// <https://www.gnu.org/licenses/> or write to the Free Software
+// Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+///////////////////////////////////////////////////////////////////////////////////////////////
+package com.openeggbert.pixel.framework.graphics.software;
+
+import com.openeggbert.pixel.framework.PixelException;
+import com.openeggbert.pixel.framework.files.File;
+import com.openeggbert.pixel.framework.graphics.Pixmap;
+import com.openeggbert.pixel.framework.graphics.PixMapFactory;
+import com.openeggbert.pixel.framework.graphics.PixelFormat;
+
+/**
+ * Creates {@link SoftwarePixmap}s. Image files cannot be decoded without a
+ * platform backend.
+ *
+ * @author robertvokac
+ */
+public class SoftwarePixMapFactory implements PixMapFactory {
+
+    @Override
+    public Pixmap create(int width, int height) {
+        return new SoftwarePixmap(width, height);
+    }
+
+    @Override
+    public Pixmap create(File fileHandle) {
+        throw new PixelException("Decoding of image files is not supported by the software renderer: " + fileHandle.path());
+    }
+
+    /**
+     * Creates a pixmap storing its pixels in the format, a
+     * {@link PackedPixmap} for other formats than RGBA8888.
+     *
+     * @param width the width
+     * @param height the height
+     * @param format the format
+     * @return the pixmap
+     */
+    @Override
+    public Pixmap create(int width, int height, PixelFormat format) {
+        return format == PixelFormat.RGBA8888 ? create(width, height) : new PackedPixmap(width, height, format);
+    }
+}
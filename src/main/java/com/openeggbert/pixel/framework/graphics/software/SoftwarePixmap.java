@@ -0,0 +1,153 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// Pixel: Game library.
+// Copyright (C) 2024 the original author or authors.
+//
+// This program is free software: you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation, either version 3
+// of the License, or (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program. If not, see
+// <https://www.gnu.org/licenses/> or write to the Free Software
+// Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+///////////////////////////////////////////////////////////////////////////////////////////////
+package com.openeggbert.pixel.framework.graphics.software;
+
+import com.openeggbert.pixel.framework.PixelException;
+import com.openeggbert.pixel.framework.graphics.ColorDepthConverter;
+import com.openeggbert.pixel.framework.graphics.ColorMode;
+import com.openeggbert.pixel.framework.graphics.DitherMethod;
+import com.openeggbert.pixel.framework.graphics.Ditherer;
+import com.openeggbert.pixel.framework.graphics.Pixmap;
+import java.util.Arrays;
+
+/**
+ * Pixmap stored in memory as ARGB8888 in one int array, row by row. It does
+ * not need any platform backend, so it can be used on servers, in tests and as
+ * a reference renderer.
+ *
+ * @author robertvokac
+ */
+public class SoftwarePixmap extends SoftwareDrawable implements Pixmap {
+
+    private final int[] pixels;
+
+    public SoftwarePixmap(int width, int height) {
+        super(width, height);
+        this.pixels = new int[width * height];
+    }
+
+    /**
+     * Creates a pixmap using the given array as its storage, without copying
+     * it.
+     *
+     * @param width the width
+     * @param height the height
+     * @param pixels the pixels as ARGB8888, row by row
+     */
+    public SoftwarePixmap(int width, int height, int[] pixels) {
+        super(width, height);
+        if (pixels.length != width * height) {
+            throw new PixelException("Expected " + (width * height) + " pixels, but got " + pixels.length);
+        }
+        this.pixels = pixels;
+    }
+
+    /**
+     * Returns the storage of this pixmap. Changes of the array are visible in
+     * this pixmap.
+     *
+     * @return the pixels as ARGB8888, row by row
+     */
+    public int[] getBuffer() {
+        return pixels;
+    }
+
+    /**
+     * Reduces the colors of all pixels in place.
+     *
+     * @param colorMode the color mode
+     * @param bitCount the bit count, see {@link ColorDepthConverter#of}
+     */
+    public void convertTo(ColorMode colorMode, int bitCount) {
+        ColorDepthConverter.of(colorMode, bitCount).convert(pixels, pixels, width, height);
+    }
+
+    /**
+     * Reduces the colors of all pixels in place, with dithering.
+     *
+     * @param colorMode the color mode
+     * @param bitCount the bit count, see {@link ColorDepthConverter#of}
+     * @param ditherMethod the dithering method
+     */
+    public void convertTo(ColorMode colorMode, int bitCount, DitherMethod ditherMethod) {
+        Ditherer.dither(pixels, pixels, width, height, ColorDepthConverter.of(colorMode, bitCount), ditherMethod);
+    }
+
+    @Override
+    protected int readPixel(int x, int y) {
+        return pixels[y * width + x];
+    }
+
+    @Override
+    protected void writePixel(int x, int y, int argb) {
+        pixels[y * width + x] = argb;
+    }
+
+    @Override
+    protected void writeSpan(int x, int y, int length, int argb) {
+        int start = y * width + x;
+        Arrays.fill(pixels, start, start + length, argb);
+    }
+
+    @Override
+    protected void copyRow(Pixmap source, int sourceX, int sourceY, int sourceFixedX, int stepX, int x, int y, int length) {
+        if (source instanceof IndexedPixmap) {
+            ((IndexedPixmap) source).resolveRow(sourceX, sourceY, sourceFixedX, stepX, pixels, y * width + x, length);
+            return;
+        }
+        if (!(source instanceof SoftwarePixmap)) {
+            super.copyRow(source, sourceX, sourceY, sourceFixedX, stepX, x, y, length);
+            return;
+        }
+        SoftwarePixmap softwareSource = (SoftwarePixmap) source;
+        int[] sourcePixels = softwareSource.pixels;
+        int sourceRow = sourceY * softwareSource.width + sourceX;
+        int index = y * width + x;
+        if (stepX == FIXED_ONE) {
+            System.arraycopy(sourcePixels, sourceRow + (sourceFixedX >> 16), pixels, index, length);
+            return;
+        }
+        for (int end = index + length; index < end; index++, sourceFixedX += stepX) {
+            pixels[index] = sourcePixels[sourceRow + (sourceFixedX >> 16)];
+        }
+    }
+
+    @Override
+    public void fill() {
+        Arrays.fill(pixels, color);
+    }
+
+    @Override
+    public byte[] getPixels() {
+        byte[] result = new byte[pixels.length * 4];
+        for (int i = 0, j = 0; i < pixels.length; i++, j += 4) {
+            putRgba(result, j, pixels[i]);
+        }
+        return result;
+    }
+
+    @Override
+    public void setPixels(byte[] pixels) {
+        checkRgbaLength(pixels);
+        for (int i = 0, j = 0; i < this.pixels.length; i++, j += 4) {
+            this.pixels[i] = getRgba(pixels, j);
+        }
+    }
+}
@@ -0,0 +1,371 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// Pixel: Game library.
+// Copyright (C) 2024 the original author or authors.
+//
+// This program is free software: you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation, either version 3
+// of the License, or (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program. If not, see
+// <https://www.gnu.org/licenses/> or write to the Free Software
+// Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+///////////////////////////////////////////////////////////////////////////////////////////////
+package com.openeggbert.pixel.framework.graphics.software;
+
+import com.openeggbert.pixel.framework.PixelException;
+import com.openeggbert.pixel.framework.graphics.Color;
+import com.openeggbert.pixel.framework.graphics.PackedColor;
+import com.openeggbert.pixel.framework.graphics.ShapeRenderer;
+import com.openeggbert.pixel.framework.graphics.Texture;
+import com.openeggbert.pixel.framework.graphics.TextureRegion;
+import com.openeggbert.pixel.framework.math.Angle;
+import com.openeggbert.pixel.framework.math.FastMath;
+import java.util.Arrays;
+import lombok.Getter;
+
+/**
+ * Shape renderer drawing into a {@link SoftwarePixmap} on the CPU.
+ *
+ * <p>
+ * All shapes are reduced to triangles, which are collected in a reusable
+ * buffer and rasterized when the buffer is full or when {@link #flush()} is
+ * called. No objects are created per shape. Triangles are filled with solid
+ * colors, blended over the target, with the top-left rule, so triangles
+ * sharing an edge do not draw its pixels twice. The coordinates are the pixel
+ * coordinates of the target, y grows downwards.
+ * </p>
+ *
+ * @author robertvokac
+ */
+public class SoftwareShapeRenderer implements ShapeRenderer {
+
+    public static final int DEFAULT_CAPACITY = 4096;
+    private static final int MAX_CIRCLE_SEGMENTS = 128;
+
+    @Getter
+    private final SoftwarePixmap target;
+    private final float[] vertices;
+    private final int[] colors;
+    private int count;
+    private int color = PackedColor.WHITE;
+    private final Color colorObject = new Color();
+    @Getter
+    private TextureRegion textureRegion;
+    private float[] circle = new float[0];
+    /**
+     * The span of the rasterized row, inclusive.
+     */
+    private int spanFrom;
+    private int spanTo;
+    private boolean disposed;
+
+    @Getter
+    private int flushCount;
+    @Getter
+    private int triangleCount;
+
+    public SoftwareShapeRenderer(SoftwarePixmap target) {
+        this(target, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a shape renderer.
+     *
+     * @param target the pixmap to draw into
+     * @param capacity the count of triangles collected before they are drawn
+     */
+    public SoftwareShapeRenderer(SoftwarePixmap target, int capacity) {
+        if (capacity <= 0) {
+            throw new PixelException("Invalid capacity: " + capacity);
+        }
+        this.target = target;
+        this.vertices = new float[capacity * 6];
+        this.colors = new int[capacity];
+    }
+
+    @Override
+    public void setColor(Color color) {
+        this.color = color.toInt();
+    }
+
+    @Override
+    public void setColor(int argb) {
+        this.color = argb;
+    }
+
+    /**
+     * Returns the current color. The returned object is reused.
+     *
+     * @return the color
+     */
+    @Override
+    public Color getColor() {
+        return PackedColor.toColor(color, colorObject);
+    }
+
+    public int getColorArgb() {
+        return color;
+    }
+
+    @Override
+    public void filledRectangle(float x, float y, float width, float height, Angle rotation, Color color) {
+        if (rotation.asDegrees() % 360f == 0f) {
+            filledRectangle(x, y, width, height, 0f, color.toInt());
+            return;
+        }
+        addRotatedRectangle(x, y, width, height, rotation.cos(), rotation.sin(), color.toInt());
+    }
+
+    @Override
+    public void filledRectangle(float x, float y, float width, float height, float rotation, int argb) {
+        if (rotation % 360f == 0f) {
+            float right = x + width;
+            float bottom = y + height;
+            addTriangle(x, y, right, y, right, bottom, argb);
+            addTriangle(x, y, right, bottom, x, bottom, argb);
+            return;
+        }
+        float cos = FastMath.cosDeg(rotation);
+        float sin = FastMath.sinDeg(rotation);
+        addRotatedRectangle(x, y, width, height, cos, sin, argb);
+    }
+
+    private void addRotatedRectangle(float x, float y, float width, float height, float cos, float sin, int argb) {
+        float centerX = x + width / 2f;
+        float centerY = y + height / 2f;
+        float halfWidth = width / 2f;
+        float halfHeight = height / 2f;
+        //the corners relative to the center, rotated
+        float ax = cos * -halfWidth - sin * -halfHeight;
+        float ay = sin * -halfWidth + cos * -halfHeight;
+        float bx = cos * halfWidth - sin * -halfHeight;
+        float by = sin * halfWidth + cos * -halfHeight;
+        addTriangle(centerX + ax, centerY + ay, centerX + bx, centerY + by, centerX - ax, centerY - ay, argb);
+        addTriangle(centerX + ax, centerY + ay, centerX - ax, centerY - ay, centerX - bx, centerY - by, argb);
+    }
+
+    /**
+     * Draws a line as a rectangle of the given width.
+     *
+     * @param x1 the x coordinate of the start
+     * @param y1 the y coordinate of the start
+     * @param x2 the x coordinate of the end
+     * @param y2 the y coordinate of the end
+     * @param lineWidth the width of the line
+     * @param argb the color as ARGB8888
+     */
+    public void line(float x1, float y1, float x2, float y2, float lineWidth, int argb) {
+        float dx = x2 - x1;
+        float dy = y2 - y1;
+        float length = (float) Math.sqrt(dx * dx + dy * dy);
+        if (length == 0f) {
+            return;
+        }
+        float normalX = -dy / length * lineWidth / 2f;
+        float normalY = dx / length * lineWidth / 2f;
+        addTriangle(x1 + normalX, y1 + normalY, x2 + normalX, y2 + normalY, x2 - normalX, y2 - normalY, argb);
+        addTriangle(x1 + normalX, y1 + normalY, x2 - normalX, y2 - normalY, x1 - normalX, y1 - normalY, argb);
+    }
+
+    public void line(float x1, float y1, float x2, float y2) {
+        line(x1, y1, x2, y2, 1f, color);
+    }
+
+    /**
+     * Draws a filled circle as a fan of triangles, the count of segments grows
+     * with the radius.
+     *
+     * @param centerX the x coordinate of the center
+     * @param centerY the y coordinate of the center
+     * @param radius the radius
+     * @param argb the color as ARGB8888
+     */
+    public void filledCircle(float centerX, float centerY, float radius, int argb) {
+        if (radius <= 0f) {
+            return;
+        }
+        int segments = Math.min(MAX_CIRCLE_SEGMENTS, Math.max(8, (int) (6 * Math.cbrt(radius)) * 2));
+        float[] unitCircle = getUnitCircle(segments);
+        float previousX = centerX + radius;
+        float previousY = centerY;
+        for (int i = 1; i <= segments; i++) {
+            float x = centerX + unitCircle[i * 2] * radius;
+            float y = centerY + unitCircle[i * 2 + 1] * radius;
+            addTriangle(centerX, centerY, previousX, previousY, x, y, argb);
+            previousX = x;
+            previousY = y;
+        }
+    }
+
+    public void filledCircle(float centerX, float centerY, float radius) {
+        filledCircle(centerX, centerY, radius, color);
+    }
+
+    /**
+     * Returns the points of a circle with the radius 1, computed only when the
+     * count of segments changes.
+     */
+    private float[] getUnitCircle(int segments) {
+        if (circle.length != (segments + 1) * 2) {
+            circle = new float[(segments + 1) * 2];
+            for (int i = 0; i <= segments; i++) {
+                double angle = 2 * Math.PI * i / segments;
+                circle[i * 2] = (float) Math.cos(angle);
+                circle[i * 2 + 1] = (float) Math.sin(angle);
+            }
+        }
+        return circle;
+    }
+
+    public void filledTriangle(float x1, float y1, float x2, float y2, float x3, float y3, int argb) {
+        addTriangle(x1, y1, x2, y2, x3, y3, argb);
+    }
+
+    public void filledTriangle(float x1, float y1, float x2, float y2, float x3, float y3) {
+        addTriangle(x1, y1, x2, y2, x3, y3, color);
+    }
+
+    private void addTriangle(float x1, float y1, float x2, float y2, float x3, float y3, int argb) {
+        if (count == colors.length) {
+            flush();
+        }
+        int i = count * 6;
+        vertices[i] = x1;
+        vertices[i + 1] = y1;
+        vertices[i + 2] = x2;
+        vertices[i + 3] = y2;
+        vertices[i + 4] = x3;
+        vertices[i + 5] = y3;
+        colors[count] = argb;
+        count++;
+    }
+
+    /**
+     * Draws the collected triangles.
+     */
+    public void flush() {
+        if (count == 0) {
+            return;
+        }
+        for (int i = 0; i < count; i++) {
+            rasterize(i * 6, colors[i]);
+        }
+        triangleCount += count;
+        flushCount++;
+        count = 0;
+    }
+
+    /**
+     * Sets all counters to zero.
+     */
+    public void resetCounters() {
+        flushCount = 0;
+        triangleCount = 0;
+    }
+
+    private void rasterize(int offset, int argb) {
+        if ((argb >>> 24) == 0) {
+            return;
+        }
+        float ax = vertices[offset];
+        float ay = vertices[offset + 1];
+        float bx = vertices[offset + 2];
+        float by = vertices[offset + 3];
+        float cx = vertices[offset + 4];
+        float cy = vertices[offset + 5];
+        float area = (bx - ax) * (cy - ay) - (by - ay) * (cx - ax);
+        if (area == 0f) {
+            return;
+        }
+        if (area < 0f) {
+            //clockwise on the screen, so the inside is on the same side of all edges
+            float t = bx;
+            bx = cx;
+            cx = t;
+            t = by;
+            by = cy;
+            cy = t;
+        }
+        int width = target.getWidth();
+        int top = Math.max(0, (int) Math.ceil(Math.min(ay, Math.min(by, cy)) - 0.5f));
+        int bottom = Math.min(target.getHeight() - 1, (int) Math.floor(Math.max(ay, Math.max(by, cy)) - 0.5f));
+        int[] pixels = target.getBuffer();
+        boolean opaque = (argb >>> 24) == 255;
+        for (int y = top; y <= bottom; y++) {
+            float centerY = y + 0.5f;
+            spanFrom = 0;
+            spanTo = width - 1;
+            if (!clipSpan(ax, ay, bx, by, centerY) || !clipSpan(bx, by, cx, cy, centerY) || !clipSpan(cx, cy, ax, ay, centerY)) {
+                continue;
+            }
+            int start = y * width + spanFrom;
+            int end = y * width + spanTo + 1;
+            if (opaque) {
+                Arrays.fill(pixels, start, end, argb);
+            } else {
+                for (int i = start; i < end; i++) {
+                    pixels[i] = PackedColor.blend(argb, pixels[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Narrows the span of the row to the pixels on the inner side of the edge.
+     *
+     * @return false, if the span is empty
+     */
+    private boolean clipSpan(float px, float py, float qx, float qy, float centerY) {
+        float dx = qx - px;
+        float dy = qy - py;
+        //the edge function dx * (y - py) - dy * (x - px) is not negative inside
+        boolean topLeft = dy < 0f || dy == 0f && dx > 0f;
+        float valueAtZero = dx * (centerY - py) + dy * px;
+        if (dy == 0f) {
+            return topLeft ? valueAtZero >= 0f : valueAtZero > 0f;
+        }
+        float bound = valueAtZero / dy;
+        if (dy < 0f) {
+            //inside for x >= bound, the edge is a left one
+            spanFrom = Math.max(spanFrom, (int) Math.ceil(bound - 0.5f));
+        } else {
+            //inside for x <= bound, the edge is not top-left
+            spanTo = Math.min(spanTo, (int) Math.ceil(bound - 0.5f) - 1);
+        }
+        return spanFrom <= spanTo;
+    }
+
+    @Override
+    public void setTextureRegion(TextureRegion textureRegion) {
+        this.textureRegion = textureRegion;
+    }
+
+    /**
+     * Sets the texture. The software renderer fills shapes with solid colors
+     * only, the texture is kept for the callers.
+     *
+     * @param texture the texture
+     */
+    @Override
+    public void setTexture(Texture texture) {
+        this.textureRegion = texture == null ? null : new TextureRegion(texture);
+    }
+
+    @Override
+    public void dispose() {
+        count = 0;
+        disposed = true;
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return disposed;
+    }
+}
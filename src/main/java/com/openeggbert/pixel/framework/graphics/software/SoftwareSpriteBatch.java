@@ -0,0 +1,469 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// Pixel: Game library.
+// Copyright (C) 2024 the original author or authors.
+//
+// This program is free software: you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation, either version 3
+// of the License, or (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program. If not, see
+// <https://www.gnu.org/licenses/> or write to the Free Software
+// Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+///////////////////////////////////////////////////////////////////////////////////////////////
+package com.openeggbert.pixel.framework.graphics.software;
+
+import com.openeggbert.pixel.framework.PixelException;
+import com.openeggbert.pixel.framework.graphics.PackedColor;
+import com.openeggbert.pixel.framework.graphics.ShapeRenderer;
+import com.openeggbert.pixel.framework.graphics.Sprite;
+import com.openeggbert.pixel.framework.graphics.SpriteBatch;
+import com.openeggbert.pixel.framework.graphics.Texture;
+import com.openeggbert.pixel.framework.graphics.TextureRegion;
+import java.util.Arrays;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Sprite batch rendering {@link SoftwareTexture}s into a
+ * {@link SoftwarePixmap} on the CPU. The coordinates are the pixel coordinates
+ * of the target, y grows downwards.
+ *
+ * <p>
+ * The draws are recorded into a preallocated int array, without creating any
+ * objects, and executed when the batch is flushed: by {@link #end()}, by
+ * {@link #flush()} or when the buffer is full. Consecutive draws of the same
+ * texture are one draw call. With {@link #setSortByTexture(boolean)}, the
+ * draws of a flush are grouped by texture first, which gives the least draw
+ * calls, but changes the order of overlapping sprites of different textures.
+ * </p>
+ *
+ * <p>
+ * The texture pixels are multiplied by the color of the batch and drawn over
+ * the target with alpha blending, scaled with the nearest neighbour sampling.
+ * The counters make the efficiency of batching measurable without a GPU.
+ * </p>
+ *
+ * @author robertvokac
+ */
+public class SoftwareSpriteBatch implements SpriteBatch {
+
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private static final int TEXTURE = 0;
+    private static final int DST_X = 1;
+    private static final int DST_Y = 2;
+    private static final int DST_WIDTH = 3;
+    private static final int DST_HEIGHT = 4;
+    private static final int SRC_X = 5;
+    private static final int SRC_Y = 6;
+    private static final int SRC_WIDTH = 7;
+    private static final int SRC_HEIGHT = 8;
+    private static final int COLOR = 9;
+    /**
+     * Quads use only the texture and the color, their vertices are stored in
+     * the separate float array.
+     */
+    private static final int QUAD = 10;
+    private static final int COMMAND_SIZE = 11;
+
+    @Getter
+    private final SoftwarePixmap target;
+    private final int[] commands;
+    private final float[] quads;
+    private final float[] range = new float[2];
+    private SoftwareShapeRenderer shapeRenderer;
+    private final SoftwareTexture[] textures;
+    private final long[] order;
+    private int count;
+    private boolean drawing;
+    private boolean disposed;
+
+    @Getter
+    @Setter
+    private boolean sortByTexture;
+    /**
+     * The color the texture pixels are multiplied by, as ARGB8888.
+     */
+    @Getter
+    @Setter
+    private int color = PackedColor.WHITE;
+
+    @Getter
+    private int drawCallCount;
+    @Getter
+    private int flushCount;
+    @Getter
+    private int spriteCount;
+
+    public SoftwareSpriteBatch(SoftwarePixmap target) {
+        this(target, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a batch.
+     *
+     * @param target the pixmap to draw into
+     * @param capacity the count of draws recorded before the batch is flushed
+     */
+    public SoftwareSpriteBatch(SoftwarePixmap target, int capacity) {
+        if (capacity <= 0) {
+            throw new PixelException("Invalid capacity: " + capacity);
+        }
+        this.target = target;
+        this.commands = new int[capacity * COMMAND_SIZE];
+        this.quads = new float[capacity * Sprite.VERTEX_COUNT];
+        this.textures = new SoftwareTexture[capacity];
+        this.order = new long[capacity];
+    }
+
+    @Override
+    public void begin() {
+        if (drawing) {
+            throw new PixelException("SoftwareSpriteBatch.end must be called before begin.");
+        }
+        drawing = true;
+    }
+
+    @Override
+    public void end() {
+        if (!drawing) {
+            throw new PixelException("SoftwareSpriteBatch.begin must be called before end.");
+        }
+        flush();
+        drawing = false;
+    }
+
+    public boolean isDrawing() {
+        return drawing;
+    }
+
+    @Override
+    public void draw(Texture texture, int x, int y) {
+        draw(texture, x, y, texture.getWidth(), texture.getHeight());
+    }
+
+    @Override
+    public void draw(Texture texture, int x, int y, int width, int height) {
+        draw(texture, x, y, width, height, 0, 0, texture.getWidth(), texture.getHeight());
+    }
+
+    public void draw(TextureRegion region, int x, int y) {
+        draw(region, x, y, region.getRegionWidth(), region.getRegionHeight());
+    }
+
+    public void draw(TextureRegion region, int x, int y, int width, int height) {
+        draw(region.getTexture(), x, y, width, height,
+                region.getRegionX(), region.getRegionY(), region.getRegionWidth(), region.getRegionHeight());
+    }
+
+    /**
+     * Draws a part of the texture scaled to the destination rectangle.
+     *
+     * @param texture the texture, must be a {@link SoftwareTexture}
+     * @param x the x coordinate of the destination
+     * @param y the y coordinate of the destination
+     * @param width the width of the destination
+     * @param height the height of the destination
+     * @param srcX the x coordinate in the texture
+     * @param srcY the y coordinate in the texture
+     * @param srcWidth the width in the texture
+     * @param srcHeight the height in the texture
+     */
+    public void draw(Texture texture, int x, int y, int width, int height, int srcX, int srcY, int srcWidth, int srcHeight) {
+        checkDraw(texture);
+        if (width <= 0 || height <= 0 || srcWidth <= 0 || srcHeight <= 0) {
+            return;
+        }
+        if (count == textures.length) {
+            flush();
+        }
+        int offset = count * COMMAND_SIZE;
+        commands[offset + TEXTURE] = ((SoftwareTexture) texture).getId();
+        commands[offset + DST_X] = x;
+        commands[offset + DST_Y] = y;
+        commands[offset + DST_WIDTH] = width;
+        commands[offset + DST_HEIGHT] = height;
+        commands[offset + SRC_X] = srcX;
+        commands[offset + SRC_Y] = srcY;
+        commands[offset + SRC_WIDTH] = srcWidth;
+        commands[offset + SRC_HEIGHT] = srcHeight;
+        commands[offset + COLOR] = color;
+        commands[offset + QUAD] = 0;
+        textures[count] = (SoftwareTexture) texture;
+        count++;
+    }
+
+    /**
+     * Draws a textured quad. The texture is mapped affinely, using the first,
+     * the second and the fourth corner.
+     */
+    @Override
+    public void draw(Texture texture, float[] vertices, int offset, int color) {
+        checkDraw(texture);
+        if (count == textures.length) {
+            flush();
+        }
+        int commandOffset = count * COMMAND_SIZE;
+        commands[commandOffset + TEXTURE] = ((SoftwareTexture) texture).getId();
+        commands[commandOffset + COLOR] = PackedColor.multiply(color, this.color);
+        commands[commandOffset + QUAD] = 1;
+        System.arraycopy(vertices, offset, quads, count * Sprite.VERTEX_COUNT, Sprite.VERTEX_COUNT);
+        textures[count] = (SoftwareTexture) texture;
+        count++;
+    }
+
+    private void checkDraw(Texture texture) {
+        if (!drawing) {
+            throw new PixelException("SoftwareSpriteBatch.begin must be called before draw.");
+        }
+        if (!(texture instanceof SoftwareTexture)) {
+            throw new PixelException("SoftwareSpriteBatch can draw only SoftwareTexture, not " + texture.getClass().getName());
+        }
+    }
+
+    /**
+     * Executes the recorded draws.
+     */
+    public void flush() {
+        if (shapeRenderer != null) {
+            shapeRenderer.flush();
+        }
+        if (count == 0) {
+            return;
+        }
+        for (int i = 0; i < count; i++) {
+            //the index keeps the sort stable
+            order[i] = sortByTexture ? ((long) commands[i * COMMAND_SIZE + TEXTURE] << 32) | i : i;
+        }
+        if (sortByTexture) {
+            Arrays.sort(order, 0, count);
+        }
+        SoftwareTexture current = null;
+        for (int i = 0; i < count; i++) {
+            int command = (int) order[i];
+            if (textures[command] != current) {
+                current = textures[command];
+                drawCallCount++;
+            }
+            if (commands[command * COMMAND_SIZE + QUAD] != 0) {
+                renderQuad(current, command * Sprite.VERTEX_COUNT, commands[command * COMMAND_SIZE + COLOR]);
+            } else {
+                render(current, command * COMMAND_SIZE);
+            }
+        }
+        spriteCount += count;
+        flushCount++;
+        Arrays.fill(textures, 0, count, null);
+        count = 0;
+    }
+
+    /**
+     * Sets all counters to zero.
+     */
+    public void resetCounters() {
+        drawCallCount = 0;
+        flushCount = 0;
+        spriteCount = 0;
+    }
+
+    private void render(SoftwareTexture texture, int offset) {
+        SoftwarePixmap source = texture.getPixmap();
+        int[] sourcePixels = source.getBuffer();
+        int sourceWidth = source.getWidth();
+        int[] targetPixels = target.getBuffer();
+        int targetWidth = target.getWidth();
+
+        int dstX = commands[offset + DST_X];
+        int dstY = commands[offset + DST_Y];
+        int dstWidth = commands[offset + DST_WIDTH];
+        int dstHeight = commands[offset + DST_HEIGHT];
+        int srcX = commands[offset + SRC_X];
+        int srcY = commands[offset + SRC_Y];
+        int srcWidth = commands[offset + SRC_WIDTH];
+        int srcHeight = commands[offset + SRC_HEIGHT];
+        int tint = commands[offset + COLOR];
+
+        int sourceX0 = Math.max(srcX, 0);
+        int sourceX1 = Math.min(srcX + srcWidth, sourceWidth);
+        int sourceY0 = Math.max(srcY, 0);
+        int sourceY1 = Math.min(srcY + srcHeight, source.getHeight());
+        if (sourceX0 >= sourceX1 || sourceY0 >= sourceY1) {
+            return;
+        }
+        int stepX = (int) Math.max(1, ((long) srcWidth << 16) / dstWidth);
+        int stepY = (int) Math.max(1, ((long) srcHeight << 16) / dstHeight);
+        int x0 = Math.max(Math.max(dstX, dstX + ceilDiv((long) (sourceX0 - srcX) << 16, stepX)), 0);
+        int x1 = Math.min(Math.min(dstX + dstWidth, dstX + ceilDiv((long) (sourceX1 - srcX) << 16, stepX)), targetWidth);
+        int y0 = Math.max(Math.max(dstY, dstY + ceilDiv((long) (sourceY0 - srcY) << 16, stepY)), 0);
+        int y1 = Math.min(Math.min(dstY + dstHeight, dstY + ceilDiv((long) (sourceY1 - srcY) << 16, stepY)), target.getHeight());
+        if (x0 >= x1 || y0 >= y1) {
+            return;
+        }
+        int fixedX0 = (srcX << 16) + (int) ((long) (x0 - dstX) * stepX);
+        int fixedY = (srcY << 16) + (int) ((long) (y0 - dstY) * stepY);
+        boolean tinted = tint != PackedColor.WHITE;
+        for (int y = y0; y < y1; y++, fixedY += stepY) {
+            int sourceRow = (fixedY >> 16) * sourceWidth;
+            int index = y * targetWidth + x0;
+            int fixedX = fixedX0;
+            for (int end = index + x1 - x0; index < end; index++, fixedX += stepX) {
+                int pixel = sourcePixels[sourceRow + (fixedX >> 16)];
+                if (tinted) {
+                    pixel = PackedColor.multiply(pixel, tint);
+                }
+                int alpha = pixel >>> 24;
+                if (alpha == 255) {
+                    targetPixels[index] = pixel;
+                } else if (alpha != 0) {
+                    targetPixels[index] = PackedColor.blend(pixel, targetPixels[index]);
+                }
+            }
+        }
+    }
+
+    private void renderQuad(SoftwareTexture texture, int offset, int tint) {
+        float[] v = quads;
+        float x0 = v[offset];
+        float y0 = v[offset + 1];
+        //the axes of the quad: from the first corner to the second (s) and to the fourth (t)
+        float sx = v[offset + 4] - x0;
+        float sy = v[offset + 5] - y0;
+        float tx = v[offset + 12] - x0;
+        float ty = v[offset + 13] - y0;
+        float determinant = sx * ty - sy * tx;
+        if (Math.abs(determinant) < 1e-6f) {
+            return;
+        }
+        SoftwarePixmap source = texture.getPixmap();
+        int[] sourcePixels = source.getBuffer();
+        int sourceWidth = source.getWidth();
+        int sourceHeight = source.getHeight();
+        float u0 = v[offset + 2] * sourceWidth;
+        float v0 = v[offset + 3] * sourceHeight;
+        float uPerS = v[offset + 6] * sourceWidth - u0;
+        float vPerS = v[offset + 7] * sourceHeight - v0;
+        float uPerT = v[offset + 14] * sourceWidth - u0;
+        float vPerT = v[offset + 15] * sourceHeight - v0;
+        int minU = Math.max(0, (int) Math.floor(Math.min(u0, Math.min(u0 + uPerS, u0 + uPerT))));
+        int maxU = Math.min(sourceWidth, (int) Math.ceil(Math.max(u0, Math.max(u0 + uPerS, u0 + uPerT)))) - 1;
+        int minV = Math.max(0, (int) Math.floor(Math.min(v0, Math.min(v0 + vPerS, v0 + vPerT))));
+        int maxV = Math.min(sourceHeight, (int) Math.ceil(Math.max(v0, Math.max(v0 + vPerS, v0 + vPerT)))) - 1;
+        if (minU > maxU || minV > maxV) {
+            return;
+        }
+
+        float minX = Math.min(Math.min(x0, x0 + sx), Math.min(x0 + tx, x0 + sx + tx));
+        float maxX = Math.max(Math.max(x0, x0 + sx), Math.max(x0 + tx, x0 + sx + tx));
+        float minY = Math.min(Math.min(y0, y0 + sy), Math.min(y0 + ty, y0 + sy + ty));
+        float maxY = Math.max(Math.max(y0, y0 + sy), Math.max(y0 + ty, y0 + sy + ty));
+        int targetWidth = target.getWidth();
+        int left = Math.max(0, (int) Math.ceil(minX - 0.5f));
+        int right = Math.min(targetWidth - 1, (int) Math.floor(maxX - 0.5f));
+        int top = Math.max(0, (int) Math.ceil(minY - 0.5f));
+        int bottom = Math.min(target.getHeight() - 1, (int) Math.floor(maxY - 0.5f));
+        int[] targetPixels = target.getBuffer();
+        boolean tinted = tint != PackedColor.WHITE;
+        //s and t are linear in the x coordinate of the pixel center
+        float sPerX = ty / determinant;
+        float tPerX = -sy / determinant;
+        for (int y = top; y <= bottom; y++) {
+            float centerY = y + 0.5f - y0;
+            float sAtX0 = (-x0 * ty - centerY * tx) / determinant;
+            float tAtX0 = (centerY * sx + x0 * sy) / determinant;
+            float from = left + 0.5f;
+            float to = right + 0.5f;
+            float[] range = narrow(sAtX0, sPerX, from, to);
+            if (range == null) {
+                continue;
+            }
+            range = narrow(tAtX0, tPerX, range[0], range[1]);
+            if (range == null) {
+                continue;
+            }
+            int spanStart = (int) Math.ceil(range[0] - 0.5f);
+            int spanEnd = (int) Math.floor(range[1] - 0.5f);
+            int index = y * targetWidth + spanStart;
+            for (int x = spanStart; x <= spanEnd; x++, index++) {
+                float centerX = x + 0.5f;
+                float s = sAtX0 + sPerX * centerX;
+                float t = tAtX0 + tPerX * centerX;
+                int texelX = Math.min(maxU, Math.max(minU, (int) Math.floor(u0 + s * uPerS + t * uPerT)));
+                int texelY = Math.min(maxV, Math.max(minV, (int) Math.floor(v0 + s * vPerS + t * vPerT)));
+                int pixel = sourcePixels[texelY * sourceWidth + texelX];
+                if (tinted) {
+                    pixel = PackedColor.multiply(pixel, tint);
+                }
+                int alpha = pixel >>> 24;
+                if (alpha == 255) {
+                    targetPixels[index] = pixel;
+                } else if (alpha != 0) {
+                    targetPixels[index] = PackedColor.blend(pixel, targetPixels[index]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Narrows the range of x so that value + step * x stays between 0 and 1.
+     *
+     * @return the narrowed range, null if empty
+     */
+    private float[] narrow(float value, float step, float from, float to) {
+        if (step == 0f) {
+            return value >= 0f && value <= 1f ? setRange(from, to) : null;
+        }
+        float a = -value / step;
+        float b = (1f - value) / step;
+        float newFrom = Math.max(from, Math.min(a, b));
+        float newTo = Math.min(to, Math.max(a, b));
+        return newFrom > newTo ? null : setRange(newFrom, newTo);
+    }
+
+    private float[] setRange(float from, float to) {
+        range[0] = from;
+        range[1] = to;
+        return range;
+    }
+
+    private static int ceilDiv(long dividend, int divisor) {
+        return (int) ((dividend + divisor - 1) / divisor);
+    }
+
+    /**
+     * Returns the shape renderer drawing into the same target. The sprites
+     * drawn so far are flushed first, the shapes are drawn before the sprites
+     * drawn later.
+     *
+     * @return the shape renderer
+     */
+    @Override
+    public ShapeRenderer drawShape() {
+        flush();
+        if (shapeRenderer == null) {
+            shapeRenderer = new SoftwareShapeRenderer(target);
+        }
+        return shapeRenderer;
+    }
+
+    @Override
+    public void dispose() {
+        count = 0;
+        Arrays.fill(textures, null);
+        if (shapeRenderer != null) {
+            shapeRenderer.dispose();
+        }
+        disposed = true;
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return disposed;
+    }
+}
@@ -0,0 +1,127 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// Pixel: Game library.
+// Copyright (C) 2024 the original author or authors.
+//
+// This program is free software: you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation, either version 3
+// of the License, or (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program. If not, see
+// <https://www.gnu.org/licenses/> or write to the Free Software
+// Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+///////////////////////////////////////////////////////////////////////////////////////////////
+package com.openeggbert.pixel.framework.graphics.software;
+
+import com.openeggbert.pixel.framework.graphics.ColorMode;
+import com.openeggbert.pixel.framework.graphics.PackedColor;
+import com.openeggbert.pixel.framework.graphics.Pixmap;
+import com.openeggbert.pixel.framework.graphics.Texture;
+import lombok.Getter;
+
+/**
+ * Texture kept in the main memory as a {@link SoftwarePixmap}, drawn by
+ * {@link SoftwareSpriteBatch}.
+ *
+ * @author robertvokac
+ */
+public class SoftwareTexture implements Texture {
+
+    private static int nextId;
+
+    /**
+     * Unique id, the sprite batch groups its draws by it.
+     */
+    @Getter
+    private final int id;
+    @Getter
+    private SoftwarePixmap pixmap;
+    private boolean disposed;
+
+    public SoftwareTexture(int width, int height) {
+        this(new SoftwarePixmap(width, height));
+    }
+
+    /**
+     * Creates a texture using the given pixmap as its storage, without copying
+     * it.
+     *
+     * @param pixmap the pixmap
+     */
+    public SoftwareTexture(SoftwarePixmap pixmap) {
+        this.id = createId();
+        this.pixmap = pixmap;
+    }
+
+    private static synchronized int createId() {
+        return nextId++;
+    }
+
+    @Override
+    public void draw(Pixmap pixmap, int x, int y) {
+        this.pixmap.drawPixmap(pixmap, x, y);
+    }
+
+    @Override
+    public int getWidth() {
+        return pixmap.getWidth();
+    }
+
+    @Override
+    public int getHeight() {
+        return pixmap.getHeight();
+    }
+
+    @Override
+    public int getDepth() {
+        return 32;
+    }
+
+    @Override
+    public void makeColorTransparent(int r, int g, int b) {
+        int rgb = PackedColor.pack(r, g, b) & 0xFFFFFF;
+        int[] pixels = pixmap.getBuffer();
+        for (int i = 0; i < pixels.length; i++) {
+            if ((pixels[i] & 0xFFFFFF) == rgb) {
+                pixels[i] = PackedColor.TRANSPARENT;
+            }
+        }
+    }
+
+    @Override
+    public void scale(double d) {
+        int width = Math.max(1, (int) Math.round(pixmap.getWidth() * d));
+        int height = Math.max(1, (int) Math.round(pixmap.getHeight() * d));
+        SoftwarePixmap scaled = new SoftwarePixmap(width, height);
+        scaled.drawPixmap(pixmap, 0, 0, pixmap.getWidth(), pixmap.getHeight(), 0, 0, width, height);
+        pixmap = scaled;
+    }
+
+    @Override
+    public void setColorMode(ColorMode colorMode, int bitCount) {
+        pixmap.convertTo(colorMode, bitCount);
+    }
+
+    @Override
+    public void clear() {
+        pixmap.setColor(PackedColor.TRANSPARENT);
+        pixmap.fill();
+    }
+
+    @Override
+    public void dispose() {
+        pixmap.dispose();
+        disposed = true;
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return disposed;
+    }
+}
@@ -0,0 +1,88 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// Pixel: Game library.
+// Copyright (C) 2024 the original author or authors.
+//
+// This program is free software: you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation, either version 3
+// of the License, or (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program. If not, see
+// <https://www.gnu.org/licenses/> or write to the Free Software
+// Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+///////////////////////////////////////////////////////////////////////////////////////////////
+package com.openeggbert.pixel.framework.graphics.software;
+
+import com.openeggbert.pixel.framework.PixelException;
+import com.openeggbert.pixel.framework.files.File;
+import com.openeggbert.pixel.framework.graphics.PackedColor;
+import com.openeggbert.pixel.framework.graphics.PixelFormat;
+import com.openeggbert.pixel.framework.graphics.Pixmap;
+import com.openeggbert.pixel.framework.graphics.Texture;
+import com.openeggbert.pixel.framework.graphics.TextureFactory;
+
+/**
+ * Creates {@link SoftwareTexture}s. Image files cannot be decoded without a
+ * platform backend, textures have to be created from pixmaps.
+ *
+ * @author robertvokac
+ */
+public class SoftwareTextureFactory implements TextureFactory {
+
+    @Override
+    public Texture create(String assetPath) {
+        throw new PixelException("Decoding of image files is not supported by the software renderer: " + assetPath);
+    }
+
+    @Override
+    public Texture create(File file) {
+        throw new PixelException("Decoding of image files is not supported by the software renderer: " + file.path());
+    }
+
+    /**
+     * Creates a texture with a copy of the pixels of the pixmap.
+     *
+     * @param pixmap the pixmap
+     * @return the texture
+     */
+    @Override
+    public Texture create(Pixmap pixmap) {
+        SoftwarePixmap copy = new SoftwarePixmap(pixmap.getWidth(), pixmap.getHeight());
+        copy.drawPixmap(pixmap, 0, 0);
+        return new SoftwareTexture(copy);
+    }
+
+    @Override
+    public Texture create(int width, int height) {
+        SoftwarePixmap pixmap = new SoftwarePixmap(width, height);
+        pixmap.setColor(PackedColor.BLACK);
+        pixmap.fill();
+        return new SoftwareTexture(pixmap);
+    }
+
+    @Override
+    public Texture createTransparent(int width, int height) {
+        return new SoftwareTexture(width, height);
+    }
+
+    /**
+     * Creates a texture like {@link #create(int, int)}. The format is ignored,
+     * the sprite batch draws only ARGB8888 textures, so a software texture
+     * saves no memory with other formats.
+     *
+     * @param width the width
+     * @param height the height
+     * @param format the format
+     * @return the texture
+     */
+    @Override
+    public Texture create(int width, int height, PixelFormat format) {
+        return create(width, height);
+    }
+}
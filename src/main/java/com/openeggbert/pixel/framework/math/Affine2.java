@@ -0,0 +1,275 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// Pixel: Game library.
+// Copyright (C) 2024 the original author or authors.
+//
+// This program is free software: you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation, either version 3
+// of the License, or (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program. If not, see
+// <https://www.gnu.org/licenses/> or write to the Free Software
+// Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+///////////////////////////////////////////////////////////////////////////////////////////////
+package com.openeggbert.pixel.framework.math;
+
+import com.openeggbert.pixel.framework.PixelException;
+import com.openeggbert.pixel.framework.utils.Pool;
+import lombok.Getter;
+
+/**
+ * Mutable affine transformation of the plane, a 3x3 matrix with the last row
+ * fixed to (0, 0, 1). A point is transformed as x' = m00 * x + m01 * y + m02,
+ * y' = m10 * x + m11 * y + m12.
+ *
+ * <p>
+ * All operations modify this matrix and return it for method chaining, no
+ * objects are created. {@link #translate}, {@link #scale} and {@link #rotate}
+ * append the transformation, so it is applied to the points before the
+ * current one.
+ * </p>
+ *
+ * @author robertvokac
+ */
+@Getter
+public final class Affine2 implements Pool.Poolable {
+
+    private float m00 = 1f, m01, m02;
+    private float m10, m11 = 1f, m12;
+
+    public Affine2() {
+    }
+
+    public Affine2(Affine2 matrix) {
+        set(matrix);
+    }
+
+    public Affine2 idt() {
+        return set(1f, 0f, 0f, 0f, 1f, 0f);
+    }
+
+    public Affine2 set(float m00, float m01, float m02, float m10, float m11, float m12) {
+        this.m00 = m00;
+        this.m01 = m01;
+        this.m02 = m02;
+        this.m10 = m10;
+        this.m11 = m11;
+        this.m12 = m12;
+        return this;
+    }
+
+    public Affine2 set(Affine2 matrix) {
+        return set(matrix.m00, matrix.m01, matrix.m02, matrix.m10, matrix.m11, matrix.m12);
+    }
+
+    public Affine2 setToTranslation(float x, float y) {
+        return set(1f, 0f, x, 0f, 1f, y);
+    }
+
+    public Affine2 setToScaling(float scaleX, float scaleY) {
+        return set(scaleX, 0f, 0f, 0f, scaleY, 0f);
+    }
+
+    public Affine2 setToRotation(float degrees) {
+        return setToRotation(FastMath.cosDeg(degrees), FastMath.sinDeg(degrees));
+    }
+
+    public Affine2 setToRotation(Angle angle) {
+        return setToRotation(angle.cos(), angle.sin());
+    }
+
+    public Affine2 setToRotation(float cos, float sin) {
+        return set(cos, -sin, 0f, sin, cos, 0f);
+    }
+
+    /**
+     * Sets this matrix to scaling, then rotation, then translation, as used for
+     * sprites and cameras.
+     *
+     * @param x the translation on the x axis
+     * @param y the translation on the y axis
+     * @param degrees the rotation
+     * @param scaleX the scale on the x axis
+     * @param scaleY the scale on the y axis
+     * @return this matrix
+     */
+    public Affine2 setToTrnRotScl(float x, float y, float degrees, float scaleX, float scaleY) {
+        if (degrees == 0f) {
+            return set(scaleX, 0f, x, 0f, scaleY, y);
+        }
+        float cos = FastMath.cosDeg(degrees);
+        float sin = FastMath.sinDeg(degrees);
+        return set(cos * scaleX, -sin * scaleY, x, sin * scaleX, cos * scaleY, y);
+    }
+
+    public Affine2 translate(float x, float y) {
+        m02 += m00 * x + m01 * y;
+        m12 += m10 * x + m11 * y;
+        return this;
+    }
+
+    public Affine2 scale(float scaleX, float scaleY) {
+        m00 *= scaleX;
+        m01 *= scaleY;
+        m10 *= scaleX;
+        m11 *= scaleY;
+        return this;
+    }
+
+    public Affine2 rotate(float degrees) {
+        return degrees == 0f ? this : rotate(FastMath.cosDeg(degrees), FastMath.sinDeg(degrees));
+    }
+
+    public Affine2 rotate(Angle angle) {
+        return rotate(angle.cos(), angle.sin());
+    }
+
+    private Affine2 rotate(float cos, float sin) {
+        return set(
+                m00 * cos + m01 * sin, m01 * cos - m00 * sin, m02,
+                m10 * cos + m11 * sin, m11 * cos - m10 * sin, m12);
+    }
+
+    /**
+     * Multiplies this matrix by the other one from the right, this = this *
+     * other. The other transformation is applied first.
+     *
+     * @param other the other matrix
+     * @return this matrix
+     */
+    public Affine2 mul(Affine2 other) {
+        return set(
+                m00 * other.m00 + m01 * other.m10, m00 * other.m01 + m01 * other.m11, m00 * other.m02 + m01 * other.m12 + m02,
+                m10 * other.m00 + m11 * other.m10, m10 * other.m01 + m11 * other.m11, m10 * other.m02 + m11 * other.m12 + m12);
+    }
+
+    /**
+     * Multiplies this matrix by the other one from the left, this = other *
+     * this. The other transformation is applied last.
+     *
+     * @param other the other matrix
+     * @return this matrix
+     */
+    public Affine2 mulLeft(Affine2 other) {
+        return set(
+                other.m00 * m00 + other.m01 * m10, other.m00 * m01 + other.m01 * m11, other.m00 * m02 + other.m01 * m12 + other.m02,
+                other.m10 * m00 + other.m11 * m10, other.m10 * m01 + other.m11 * m11, other.m10 * m02 + other.m11 * m12 + other.m12);
+    }
+
+    public float det() {
+        return m00 * m11 - m01 * m10;
+    }
+
+    /**
+     * Inverts this matrix.
+     *
+     * @return this matrix
+     * @throws PixelException if the matrix is singular
+     */
+    public Affine2 inv() {
+        float det = det();
+        if (det == 0f) {
+            throw new PixelException("Singular affine matrix cannot be inverted.");
+        }
+        float invDet = 1f / det;
+        return set(
+                m11 * invDet, -m01 * invDet, (m01 * m12 - m11 * m02) * invDet,
+                -m10 * invDet, m00 * invDet, (m10 * m02 - m00 * m12) * invDet);
+    }
+
+    /**
+     * Interpolates every element of this matrix towards the target matrix.
+     *
+     * @param target the target matrix
+     * @param progress 0 keeps this matrix, 1 sets the target
+     * @return this matrix
+     */
+    public Affine2 lerp(Affine2 target, float progress) {
+        return set(
+                m00 + (target.m00 - m00) * progress, m01 + (target.m01 - m01) * progress, m02 + (target.m02 - m02) * progress,
+                m10 + (target.m10 - m10) * progress, m11 + (target.m11 - m11) * progress, m12 + (target.m12 - m12) * progress);
+    }
+
+    public boolean isIdentity() {
+        return m00 == 1f && m01 == 0f && m02 == 0f && m10 == 0f && m11 == 1f && m12 == 0f;
+    }
+
+    /**
+     * Returns true, if this matrix only translates.
+     *
+     * @return true, if there is no scaling, rotation or shearing
+     */
+    public boolean isTranslation() {
+        return m00 == 1f && m01 == 0f && m10 == 0f && m11 == 1f;
+    }
+
+    public float applyToX(float x, float y) {
+        return m00 * x + m01 * y + m02;
+    }
+
+    public float applyToY(float x, float y) {
+        return m10 * x + m11 * y + m12;
+    }
+
+    /**
+     * Transforms the points stored in the array in place.
+     *
+     * @param vertices the array with the points
+     * @param offset the index of the x of the first point
+     * @param count the count of points
+     * @param stride the distance of two consecutive points in floats, at least
+     * 2
+     */
+    public void transform(float[] vertices, int offset, int count, int stride) {
+        transform(vertices, offset, vertices, offset, count, stride);
+    }
+
+    /**
+     * Transforms the points from the source array into the target array. The
+     * arrays may be the same. Only x and y of every point are written.
+     *
+     * @param source the array with the points
+     * @param sourceOffset the index of the x of the first source point
+     * @param target the array for the transformed points
+     * @param targetOffset the index of the x of the first target point
+     * @param count the count of points
+     * @param stride the distance of two consecutive points in floats, at least
+     * 2, the same for both arrays
+     */
+    public void transform(float[] source, int sourceOffset, float[] target, int targetOffset, int count, int stride) {
+        if (stride < 2) {
+            throw new PixelException("Stride must be at least 2: " + stride);
+        }
+        float a = m00, b = m01, c = m02, d = m10, e = m11, f = m12;
+        int end = sourceOffset + count * stride;
+        if (isTranslation()) {
+            for (int i = sourceOffset, j = targetOffset; i < end; i += stride, j += stride) {
+                target[j] = source[i] + c;
+                target[j + 1] = source[i + 1] + f;
+            }
+            return;
+        }
+        for (int i = sourceOffset, j = targetOffset; i < end; i += stride, j += stride) {
+            float x = source[i];
+            float y = source[i + 1];
+            target[j] = a * x + b * y + c;
+            target[j + 1] = d * x + e * y + f;
+        }
+    }
+
+    @Override
+    public void reset() {
+        idt();
+    }
+
+    @Override
+    public String toString() {
+        return "[" + m00 + "|" + m01 + "|" + m02 + "]\n[" + m10 + "|" + m11 + "|" + m12 + "]\n[0.0|0.0|1.0]";
+    }
+}
@@ -20,6 +20,8 @@
 package com.openeggbert.pixel.framework.math;
 
 /**
+ * Angle stored in degrees. Its sine and cosine are computed lazily, once per
+ * value, so rotating by the same angle again costs no trigonometry.
  *
  * @author robertvokac
  */
@@ -28,6 +30,9 @@ public class Angle {
     public static final float DEFAULT_ROTATION_IN_ANGLES = 0f;
     
     private float degrees;
+    private float sin;
+    private float cos;
+    private boolean trigonometryComputed;
     public static Angle ofDegrees(float degrees) {
         return new Angle(degrees);
     }
@@ -63,7 +68,7 @@ public class Angle {
         return degrees;
     }
     public float asRadians() {
-        return as(AngleUnit.RADIAN);
+        return degrees * AngleUnitConverter.RADIANS_PER_DEGREE;
     }
     public float asGradians() {
         return as(AngleUnit.GRADIAN);
@@ -79,5 +84,35 @@ public class Angle {
     }
     public void set(float value, AngleUnit angleUnit) {
         this.degrees = AngleUnit.convert(value, angleUnit, AngleUnit.DEGREE);
+        this.trigonometryComputed = false;
+    }
+
+    /**
+     * Returns the sine, computed when first needed after a change.
+     *
+     * @return the sine
+     */
+    public float sin() {
+        computeTrigonometry();
+        return sin;
+    }
+
+    /**
+     * Returns the cosine, computed when first needed after a change.
+     *
+     * @return the cosine
+     */
+    public float cos() {
+        computeTrigonometry();
+        return cos;
+    }
+
+    private void computeTrigonometry() {
+        if (!trigonometryComputed) {
+            double radians = Math.toRadians(degrees);
+            sin = (float) Math.sin(radians);
+            cos = (float) Math.cos(radians);
+            trigonometryComputed = true;
+        }
     }
 }
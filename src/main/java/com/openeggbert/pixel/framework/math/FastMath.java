@@ -0,0 +1,115 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// Pixel: Game library.
+// Copyright (C) 2024 the original author or authors.
+//
+// This program is free software: you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation, either version 3
+// of the License, or (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program. If not, see
+// <https://www.gnu.org/licenses/> or write to the Free Software
+// Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+///////////////////////////////////////////////////////////////////////////////////////////////
+package com.openeggbert.pixel.framework.math;
+
+/**
+ * Fast approximations of trigonometric functions and other helpers working
+ * with primitive floats, without creating any objects.
+ *
+ * <p>
+ * The sine and the cosine are read from a shared {@link SinCosTable} with
+ * {@link #DEFAULT_TABLE_BITS} bits. Code needing another resolution can create
+ * its own table.
+ * </p>
+ *
+ * @author robertvokac
+ */
+public final class FastMath {
+
+    public static final float PI = (float) Math.PI;
+    public static final float PI2 = (float) (Math.PI * 2);
+    public static final float HALF_PI = (float) (Math.PI / 2);
+    public static final float RADIANS_PER_DEGREE = AngleUnitConverter.RADIANS_PER_DEGREE;
+    public static final float DEGREES_PER_RADIAN = AngleUnitConverter.DEGREES_PER_RADIAN;
+    public static final int DEFAULT_TABLE_BITS = 12;
+
+    private static final SinCosTable TABLE = new SinCosTable(DEFAULT_TABLE_BITS);
+
+    private FastMath() {
+        //Not meant to be instantiated.
+    }
+
+    public static SinCosTable getTable() {
+        return TABLE;
+    }
+
+    public static float sin(float radians) {
+        return TABLE.sin(radians);
+    }
+
+    public static float cos(float radians) {
+        return TABLE.cos(radians);
+    }
+
+    public static float sinDeg(float degrees) {
+        return TABLE.sinDeg(degrees);
+    }
+
+    public static float cosDeg(float degrees) {
+        return TABLE.cosDeg(degrees);
+    }
+
+    public static float toRadians(float degrees) {
+        return degrees * RADIANS_PER_DEGREE;
+    }
+
+    public static float toDegrees(float radians) {
+        return radians * DEGREES_PER_RADIAN;
+    }
+
+    /**
+     * Returns the same angle between 0 (inclusive) and 360 (exclusive)
+     * degrees.
+     *
+     * @param degrees the angle in degrees
+     * @return the normalized angle
+     */
+    public static float normalizeDegrees(float degrees) {
+        float result = degrees % 360f;
+        if (result < 0f) {
+            result += 360f;
+        }
+        return result >= 360f ? 0f : result;
+    }
+
+    public static float clamp(float value, float min, float max) {
+        return value < min ? min : value > max ? max : value;
+    }
+
+    public static int clamp(int value, int min, int max) {
+        return value < min ? min : value > max ? max : value;
+    }
+
+    public static float lerp(float from, float to, float progress) {
+        return from + (to - from) * progress;
+    }
+
+    /**
+     * Returns true, if the values differ at most by the tolerance.
+     *
+     * @param a the first value
+     * @param b the second value
+     * @param tolerance the tolerance
+     * @return true, if nearly equal
+     */
+    public static boolean isEqual(float a, float b, float tolerance) {
+        return Math.abs(a - b) <= tolerance;
+    }
+}
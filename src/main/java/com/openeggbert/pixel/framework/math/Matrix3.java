@@ -0,0 +1,329 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// Pixel: Game library.
+// Copyright (C) 2024 the original author or authors.
+//
+// This program is free software: you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation, either version 3
+// of the License, or (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program. If not, see
+// <https://www.gnu.org/licenses/> or write to the Free Software
+// Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+///////////////////////////////////////////////////////////////////////////////////////////////
+package com.openeggbert.pixel.framework.math;
+
+import com.openeggbert.pixel.framework.PixelException;
+import com.openeggbert.pixel.framework.utils.Pool;
+
+/**
+ * Mutable 3x3 float matrix stored in column-major order, as expected by OpenGL.
+ * Used for homogeneous transformations of the plane.
+ *
+ * <p>
+ * All operations modify this matrix and return it for method chaining. The
+ * multiplication works in an internal buffer created with the matrix, so no
+ * objects are created.
+ * </p>
+ *
+ * @author robertvokac
+ */
+public final class Matrix3 implements Pool.Poolable {
+
+    public static final int M00 = 0;
+    public static final int M10 = 1;
+    public static final int M20 = 2;
+    public static final int M01 = 3;
+    public static final int M11 = 4;
+    public static final int M21 = 5;
+    public static final int M02 = 6;
+    public static final int M12 = 7;
+    public static final int M22 = 8;
+
+    private static final int SIZE = 3;
+
+    private final float[] values = new float[SIZE * SIZE];
+    private final float[] buffer = new float[SIZE * SIZE];
+
+    public Matrix3() {
+        idt();
+    }
+
+    public Matrix3(Matrix3 matrix) {
+        set(matrix);
+    }
+
+    /**
+     * Returns the backing array of this matrix in column-major order. Changes
+     * of the array change the matrix.
+     *
+     * @return the values
+     */
+    public float[] getValues() {
+        return values;
+    }
+
+    public float get(int row, int column) {
+        return values[column * SIZE + row];
+    }
+
+    public Matrix3 idt() {
+        values[M00] = 1f;
+        values[M10] = 0f;
+        values[M20] = 0f;
+        values[M01] = 0f;
+        values[M11] = 1f;
+        values[M21] = 0f;
+        values[M02] = 0f;
+        values[M12] = 0f;
+        values[M22] = 1f;
+        return this;
+    }
+
+    public Matrix3 set(Matrix3 matrix) {
+        System.arraycopy(matrix.values, 0, values, 0, values.length);
+        return this;
+    }
+
+    /**
+     * Sets the values from an array in column-major order.
+     *
+     * @param columnMajor the values
+     * @return this matrix
+     */
+    public Matrix3 set(float[] columnMajor) {
+        System.arraycopy(columnMajor, 0, values, 0, values.length);
+        return this;
+    }
+
+    public Matrix3 set(Affine2 affine) {
+        values[M00] = affine.getM00();
+        values[M10] = affine.getM10();
+        values[M20] = 0f;
+        values[M01] = affine.getM01();
+        values[M11] = affine.getM11();
+        values[M21] = 0f;
+        values[M02] = affine.getM02();
+        values[M12] = affine.getM12();
+        values[M22] = 1f;
+        return this;
+    }
+
+    public Matrix3 setToTranslation(float x, float y) {
+        idt();
+        values[M02] = x;
+        values[M12] = y;
+        return this;
+    }
+
+    public Matrix3 setToScaling(float scaleX, float scaleY) {
+        idt();
+        values[M00] = scaleX;
+        values[M11] = scaleY;
+        return this;
+    }
+
+    public Matrix3 setToRotation(float degrees) {
+        return setToRotation(FastMath.cosDeg(degrees), FastMath.sinDeg(degrees));
+    }
+
+    public Matrix3 setToRotation(Angle angle) {
+        return setToRotation(angle.cos(), angle.sin());
+    }
+
+    private Matrix3 setToRotation(float cos, float sin) {
+        idt();
+        values[M00] = cos;
+        values[M10] = sin;
+        values[M01] = -sin;
+        values[M11] = cos;
+        return this;
+    }
+
+    public Matrix3 translate(float x, float y) {
+        values[M02] += values[M00] * x + values[M01] * y;
+        values[M12] += values[M10] * x + values[M11] * y;
+        values[M22] += values[M20] * x + values[M21] * y;
+        return this;
+    }
+
+    public Matrix3 scale(float scaleX, float scaleY) {
+        values[M00] *= scaleX;
+        values[M10] *= scaleX;
+        values[M20] *= scaleX;
+        values[M01] *= scaleY;
+        values[M11] *= scaleY;
+        values[M21] *= scaleY;
+        return this;
+    }
+
+    /**
+     * Multiplies this matrix by the other one from the right, this = this *
+     * other. The other transformation is applied first.
+     *
+     * @param other the other matrix
+     * @return this matrix
+     */
+    public Matrix3 mul(Matrix3 other) {
+        multiply(values, other.values);
+        return this;
+    }
+
+    /**
+     * Multiplies this matrix by the other one from the left, this = other *
+     * this. The other transformation is applied last.
+     *
+     * @param other the other matrix
+     * @return this matrix
+     */
+    public Matrix3 mulLeft(Matrix3 other) {
+        multiply(other.values, values);
+        return this;
+    }
+
+    private void multiply(float[] left, float[] right) {
+        for (int column = 0; column < SIZE; column++) {
+            for (int row = 0; row < SIZE; row++) {
+                float sum = 0f;
+                for (int k = 0; k < SIZE; k++) {
+                    sum += left[k * SIZE + row] * right[column * SIZE + k];
+                }
+                buffer[column * SIZE + row] = sum;
+            }
+        }
+        System.arraycopy(buffer, 0, values, 0, values.length);
+    }
+
+    public float det() {
+        float[] v = values;
+        return v[M00] * (v[M11] * v[M22] - v[M12] * v[M21])
+                - v[M01] * (v[M10] * v[M22] - v[M12] * v[M20])
+                + v[M02] * (v[M10] * v[M21] - v[M11] * v[M20]);
+    }
+
+    /**
+     * Inverts this matrix.
+     *
+     * @return this matrix
+     * @throws PixelException if the matrix is singular
+     */
+    public Matrix3 inv() {
+        float det = det();
+        if (det == 0f) {
+            throw new PixelException("Singular matrix cannot be inverted.");
+        }
+        float invDet = 1f / det;
+        float[] v = values;
+        float[] b = buffer;
+        b[M00] = (v[M11] * v[M22] - v[M12] * v[M21]) * invDet;
+        b[M01] = (v[M02] * v[M21] - v[M01] * v[M22]) * invDet;
+        b[M02] = (v[M01] * v[M12] - v[M02] * v[M11]) * invDet;
+        b[M10] = (v[M12] * v[M20] - v[M10] * v[M22]) * invDet;
+        b[M11] = (v[M00] * v[M22] - v[M02] * v[M20]) * invDet;
+        b[M12] = (v[M02] * v[M10] - v[M00] * v[M12]) * invDet;
+        b[M20] = (v[M10] * v[M21] - v[M11] * v[M20]) * invDet;
+        b[M21] = (v[M01] * v[M20] - v[M00] * v[M21]) * invDet;
+        b[M22] = (v[M00] * v[M11] - v[M01] * v[M10]) * invDet;
+        System.arraycopy(b, 0, v, 0, v.length);
+        return this;
+    }
+
+    public Matrix3 transpose() {
+        float[] v = values;
+        float swap = v[M01];
+        v[M01] = v[M10];
+        v[M10] = swap;
+        swap = v[M02];
+        v[M02] = v[M20];
+        v[M20] = swap;
+        swap = v[M12];
+        v[M12] = v[M21];
+        v[M21] = swap;
+        return this;
+    }
+
+    /**
+     * Interpolates every element of this matrix towards the target matrix.
+     *
+     * @param target the target matrix
+     * @param progress 0 keeps this matrix, 1 sets the target
+     * @return this matrix
+     */
+    public Matrix3 lerp(Matrix3 target, float progress) {
+        for (int i = 0; i < values.length; i++) {
+            values[i] += (target.values[i] - values[i]) * progress;
+        }
+        return this;
+    }
+
+    /**
+     * Transforms the points stored in the array in place.
+     *
+     * @param vertices the array with the points
+     * @param offset the index of the x of the first point
+     * @param count the count of points
+     * @param stride the distance of two consecutive points in floats, at least
+     * 2
+     * @see #transform(float[], int, float[], int, int, int)
+     */
+    public void transform(float[] vertices, int offset, int count, int stride) {
+        transform(vertices, offset, vertices, offset, count, stride);
+    }
+
+    /**
+     * Transforms the points from the source array into the target array,
+     * including the division by the homogeneous coordinate, if the last row is
+     * not (0, 0, 1). The arrays may be the same. Only x and y of every point
+     * are written.
+     *
+     * @param source the array with the points
+     * @param sourceOffset the index of the x of the first source point
+     * @param target the array for the transformed points
+     * @param targetOffset the index of the x of the first target point
+     * @param count the count of points
+     * @param stride the distance of two consecutive points in floats, at least
+     * 2, the same for both arrays
+     */
+    public void transform(float[] source, int sourceOffset, float[] target, int targetOffset, int count, int stride) {
+        if (stride < 2) {
+            throw new PixelException("Stride must be at least 2: " + stride);
+        }
+        float a = values[M00], b = values[M01], c = values[M02];
+        float d = values[M10], e = values[M11], f = values[M12];
+        float g = values[M20], h = values[M21], k = values[M22];
+        boolean affine = g == 0f && h == 0f && k == 1f;
+        int end = sourceOffset + count * stride;
+        for (int i = sourceOffset, j = targetOffset; i < end; i += stride, j += stride) {
+            float x = source[i];
+            float y = source[i + 1];
+            float newX = a * x + b * y + c;
+            float newY = d * x + e * y + f;
+            if (!affine) {
+                float invW = 1f / (g * x + h * y + k);
+                newX *= invW;
+                newY *= invW;
+            }
+            target[j] = newX;
+            target[j + 1] = newY;
+        }
+    }
+
+    @Override
+    public void reset() {
+        idt();
+    }
+
+    @Override
+    public String toString() {
+        float[] v = values;
+        return "[" + v[M00] + "|" + v[M01] + "|" + v[M02] + "]\n"
+                + "[" + v[M10] + "|" + v[M11] + "|" + v[M12] + "]\n"
+                + "[" + v[M20] + "|" + v[M21] + "|" + v[M22] + "]";
+    }
+}
@@ -0,0 +1,404 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// Pixel: Game library.
+// Copyright (C) 2024 the original author or authors.
+//
+// This program is free software: you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation, either version 3
+// of the License, or (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program. If not, see
+// <https://www.gnu.org/licenses/> or write to the Free Software
+// Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+///////////////////////////////////////////////////////////////////////////////////////////////
+package com.openeggbert.pixel.framework.math;
+
+import com.openeggbert.pixel.framework.PixelException;
+import com.openeggbert.pixel.framework.utils.Pool;
+
+/**
+ * Mutable 4x4 float matrix stored in column-major order, as expected by OpenGL.
+ * Used for projections and transformations in space.
+ *
+ * <p>
+ * All operations modify this matrix and return it for method chaining. The
+ * multiplication and the inversion work in an internal buffer created with
+ * the matrix, so no objects are created.
+ * </p>
+ *
+ * @author robertvokac
+ */
+public final class Matrix4 implements Pool.Poolable {
+
+    public static final int M00 = 0;
+    public static final int M10 = 1;
+    public static final int M20 = 2;
+    public static final int M30 = 3;
+    public static final int M01 = 4;
+    public static final int M11 = 5;
+    public static final int M21 = 6;
+    public static final int M31 = 7;
+    public static final int M02 = 8;
+    public static final int M12 = 9;
+    public static final int M22 = 10;
+    public static final int M32 = 11;
+    public static final int M03 = 12;
+    public static final int M13 = 13;
+    public static final int M23 = 14;
+    public static final int M33 = 15;
+
+    private static final int SIZE = 4;
+
+    private final float[] values = new float[SIZE * SIZE];
+    private final float[] buffer = new float[SIZE * SIZE];
+
+    public Matrix4() {
+        idt();
+    }
+
+    public Matrix4(Matrix4 matrix) {
+        set(matrix);
+    }
+
+    /**
+     * Returns the backing array of this matrix in column-major order. Changes
+     * of the array change the matrix.
+     *
+     * @return the values
+     */
+    public float[] getValues() {
+        return values;
+    }
+
+    public float get(int row, int column) {
+        return values[column * SIZE + row];
+    }
+
+    public Matrix4 idt() {
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i % (SIZE + 1) == 0 ? 1f : 0f;
+        }
+        return this;
+    }
+
+    public Matrix4 set(Matrix4 matrix) {
+        System.arraycopy(matrix.values, 0, values, 0, values.length);
+        return this;
+    }
+
+    /**
+     * Sets the values from an array in column-major order.
+     *
+     * @param columnMajor the values
+     * @return this matrix
+     */
+    public Matrix4 set(float[] columnMajor) {
+        System.arraycopy(columnMajor, 0, values, 0, values.length);
+        return this;
+    }
+
+    /**
+     * Sets this matrix to the affine transformation of the xy plane, z is kept.
+     *
+     * @param affine the affine transformation
+     * @return this matrix
+     */
+    public Matrix4 set(Affine2 affine) {
+        idt();
+        values[M00] = affine.getM00();
+        values[M10] = affine.getM10();
+        values[M01] = affine.getM01();
+        values[M11] = affine.getM11();
+        values[M03] = affine.getM02();
+        values[M13] = affine.getM12();
+        return this;
+    }
+
+    public Matrix4 setToTranslation(float x, float y, float z) {
+        idt();
+        values[M03] = x;
+        values[M13] = y;
+        values[M23] = z;
+        return this;
+    }
+
+    public Matrix4 setToScaling(float scaleX, float scaleY, float scaleZ) {
+        idt();
+        values[M00] = scaleX;
+        values[M11] = scaleY;
+        values[M22] = scaleZ;
+        return this;
+    }
+
+    /**
+     * Sets this matrix to the rotation around the z axis.
+     *
+     * @param degrees the angle in degrees
+     * @return this matrix
+     */
+    public Matrix4 setToRotationZ(float degrees) {
+        idt();
+        float cos = FastMath.cosDeg(degrees);
+        float sin = FastMath.sinDeg(degrees);
+        values[M00] = cos;
+        values[M10] = sin;
+        values[M01] = -sin;
+        values[M11] = cos;
+        return this;
+    }
+
+    /**
+     * Sets this matrix to the orthographic projection of the box into the
+     * normalized device coordinates from -1 to 1.
+     *
+     * @param left the left side
+     * @param right the right side
+     * @param bottom the bottom side
+     * @param top the top side
+     * @param near the near plane
+     * @param far the far plane
+     * @return this matrix
+     */
+    public Matrix4 setToOrtho(float left, float right, float bottom, float top, float near, float far) {
+        idt();
+        values[M00] = 2f / (right - left);
+        values[M11] = 2f / (top - bottom);
+        values[M22] = -2f / (far - near);
+        values[M03] = -(right + left) / (right - left);
+        values[M13] = -(top + bottom) / (top - bottom);
+        values[M23] = -(far + near) / (far - near);
+        return this;
+    }
+
+    public Matrix4 setToOrtho2D(float x, float y, float width, float height) {
+        return setToOrtho(x, x + width, y, y + height, 0f, 1f);
+    }
+
+    public Matrix4 translate(float x, float y, float z) {
+        for (int row = 0; row < SIZE; row++) {
+            values[M03 + row] += values[M00 + row] * x + values[M01 + row] * y + values[M02 + row] * z;
+        }
+        return this;
+    }
+
+    public Matrix4 scale(float scaleX, float scaleY, float scaleZ) {
+        for (int row = 0; row < SIZE; row++) {
+            values[M00 + row] *= scaleX;
+            values[M01 + row] *= scaleY;
+            values[M02 + row] *= scaleZ;
+        }
+        return this;
+    }
+
+    /**
+     * Multiplies this matrix by the other one from the right, this = this *
+     * other. The other transformation is applied first.
+     *
+     * @param other the other matrix
+     * @return this matrix
+     */
+    public Matrix4 mul(Matrix4 other) {
+        multiply(values, other.values);
+        return this;
+    }
+
+    /**
+     * Multiplies this matrix by the other one from the left, this = other *
+     * this. The other transformation is applied last.
+     *
+     * @param other the other matrix
+     * @return this matrix
+     */
+    public Matrix4 mulLeft(Matrix4 other) {
+        multiply(other.values, values);
+        return this;
+    }
+
+    private void multiply(float[] left, float[] right) {
+        for (int column = 0; column < SIZE; column++) {
+            for (int row = 0; row < SIZE; row++) {
+                float sum = 0f;
+                for (int k = 0; k < SIZE; k++) {
+                    sum += left[k * SIZE + row] * right[column * SIZE + k];
+                }
+                buffer[column * SIZE + row] = sum;
+            }
+        }
+        System.arraycopy(buffer, 0, values, 0, values.length);
+    }
+
+    public float det() {
+        float[] v = values;
+        float s0 = v[M00] * v[M11] - v[M10] * v[M01];
+        float s1 = v[M00] * v[M12] - v[M10] * v[M02];
+        float s2 = v[M00] * v[M13] - v[M10] * v[M03];
+        float s3 = v[M01] * v[M12] - v[M11] * v[M02];
+        float s4 = v[M01] * v[M13] - v[M11] * v[M03];
+        float s5 = v[M02] * v[M13] - v[M12] * v[M03];
+        float c5 = v[M22] * v[M33] - v[M32] * v[M23];
+        float c4 = v[M21] * v[M33] - v[M31] * v[M23];
+        float c3 = v[M21] * v[M32] - v[M31] * v[M22];
+        float c2 = v[M20] * v[M33] - v[M30] * v[M23];
+        float c1 = v[M20] * v[M32] - v[M30] * v[M22];
+        float c0 = v[M20] * v[M31] - v[M30] * v[M21];
+        return s0 * c5 - s1 * c4 + s2 * c3 + s3 * c2 - s4 * c1 + s5 * c0;
+    }
+
+    /**
+     * Inverts this matrix, using the 2x2 sub-determinants of the upper and the
+     * lower two rows.
+     *
+     * @return this matrix
+     * @throws PixelException if the matrix is singular
+     */
+    public Matrix4 inv() {
+        float[] v = values;
+        float s0 = v[M00] * v[M11] - v[M10] * v[M01];
+        float s1 = v[M00] * v[M12] - v[M10] * v[M02];
+        float s2 = v[M00] * v[M13] - v[M10] * v[M03];
+        float s3 = v[M01] * v[M12] - v[M11] * v[M02];
+        float s4 = v[M01] * v[M13] - v[M11] * v[M03];
+        float s5 = v[M02] * v[M13] - v[M12] * v[M03];
+        float c5 = v[M22] * v[M33] - v[M32] * v[M23];
+        float c4 = v[M21] * v[M33] - v[M31] * v[M23];
+        float c3 = v[M21] * v[M32] - v[M31] * v[M22];
+        float c2 = v[M20] * v[M33] - v[M30] * v[M23];
+        float c1 = v[M20] * v[M32] - v[M30] * v[M22];
+        float c0 = v[M20] * v[M31] - v[M30] * v[M21];
+        float det = s0 * c5 - s1 * c4 + s2 * c3 + s3 * c2 - s4 * c1 + s5 * c0;
+        if (det == 0f) {
+            throw new PixelException("Singular matrix cannot be inverted.");
+        }
+        float invDet = 1f / det;
+        float[] b = buffer;
+        b[M00] = (v[M11] * c5 - v[M12] * c4 + v[M13] * c3) * invDet;
+        b[M01] = (-v[M01] * c5 + v[M02] * c4 - v[M03] * c3) * invDet;
+        b[M02] = (v[M31] * s5 - v[M32] * s4 + v[M33] * s3) * invDet;
+        b[M03] = (-v[M21] * s5 + v[M22] * s4 - v[M23] * s3) * invDet;
+        b[M10] = (-v[M10] * c5 + v[M12] * c2 - v[M13] * c1) * invDet;
+        b[M11] = (v[M00] * c5 - v[M02] * c2 + v[M03] * c1) * invDet;
+        b[M12] = (-v[M30] * s5 + v[M32] * s2 - v[M33] * s1) * invDet;
+        b[M13] = (v[M20] * s5 - v[M22] * s2 + v[M23] * s1) * invDet;
+        b[M20] = (v[M10] * c4 - v[M11] * c2 + v[M13] * c0) * invDet;
+        b[M21] = (-v[M00] * c4 + v[M01] * c2 - v[M03] * c0) * invDet;
+        b[M22] = (v[M30] * s4 - v[M31] * s2 + v[M33] * s0) * invDet;
+        b[M23] = (-v[M20] * s4 + v[M21] * s2 - v[M23] * s0) * invDet;
+        b[M30] = (-v[M10] * c3 + v[M11] * c1 - v[M12] * c0) * invDet;
+        b[M31] = (v[M00] * c3 - v[M01] * c1 + v[M02] * c0) * invDet;
+        b[M32] = (-v[M30] * s3 + v[M31] * s1 - v[M32] * s0) * invDet;
+        b[M33] = (v[M20] * s3 - v[M21] * s1 + v[M22] * s0) * invDet;
+        System.arraycopy(b, 0, v, 0, v.length);
+        return this;
+    }
+
+    public Matrix4 transpose() {
+        for (int row = 0; row < SIZE; row++) {
+            for (int column = row + 1; column < SIZE; column++) {
+                int a = column * SIZE + row;
+                int b = row * SIZE + column;
+                float swap = values[a];
+                values[a] = values[b];
+                values[b] = swap;
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Interpolates every element of this matrix towards the target matrix.
+     *
+     * @param target the target matrix
+     * @param progress 0 keeps this matrix, 1 sets the target
+     * @return this matrix
+     */
+    public Matrix4 lerp(Matrix4 target, float progress) {
+        for (int i = 0; i < values.length; i++) {
+            values[i] += (target.values[i] - values[i]) * progress;
+        }
+        return this;
+    }
+
+    /**
+     * Transforms the points stored in the array in place.
+     *
+     * @param vertices the array with the points
+     * @param offset the index of the x of the first point
+     * @param count the count of points
+     * @param stride the distance of two consecutive points in floats, at least
+     * 3
+     * @see #transform(float[], int, float[], int, int, int)
+     */
+    public void transform(float[] vertices, int offset, int count, int stride) {
+        transform(vertices, offset, vertices, offset, count, stride);
+    }
+
+    /**
+     * Transforms the points (x, y, z) from the source array into the target
+     * array, including the division by the homogeneous coordinate, if the last
+     * row is not (0, 0, 0, 1). The arrays may be the same. Only x, y and z of
+     * every point are written.
+     *
+     * @param source the array with the points
+     * @param sourceOffset the index of the x of the first source point
+     * @param target the array for the transformed points
+     * @param targetOffset the index of the x of the first target point
+     * @param count the count of points
+     * @param stride the distance of two consecutive points in floats, at least
+     * 3, the same for both arrays
+     */
+    public void transform(float[] source, int sourceOffset, float[] target, int targetOffset, int count, int stride) {
+        if (stride < 3) {
+            throw new PixelException("Stride must be at least 3: " + stride);
+        }
+        float[] v = values;
+        boolean affine = v[M30] == 0f && v[M31] == 0f && v[M32] == 0f && v[M33] == 1f;
+        int end = sourceOffset + count * stride;
+        for (int i = sourceOffset, j = targetOffset; i < end; i += stride, j += stride) {
+            float x = source[i];
+            float y = source[i + 1];
+            float z = source[i + 2];
+            float newX = v[M00] * x + v[M01] * y + v[M02] * z + v[M03];
+            float newY = v[M10] * x + v[M11] * y + v[M12] * z + v[M13];
+            float newZ = v[M20] * x + v[M21] * y + v[M22] * z + v[M23];
+            if (!affine) {
+                float invW = 1f / (v[M30] * x + v[M31] * y + v[M32] * z + v[M33]);
+                newX *= invW;
+                newY *= invW;
+                newZ *= invW;
+            }
+            target[j] = newX;
+            target[j + 1] = newY;
+            target[j + 2] = newZ;
+        }
+    }
+
+    @Override
+    public void reset() {
+        idt();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int row = 0; row < SIZE; row++) {
+            if (row > 0) {
+                sb.append('\n');
+            }
+            sb.append('[');
+            for (int column = 0; column < SIZE; column++) {
+                if (column > 0) {
+                    sb.append('|');
+                }
+                sb.append(get(row, column));
+            }
+            sb.append(']');
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,133 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// Pixel: Game library.
+// Copyright (C) 2024 the original author or authors.
+//
+// This program is free software: you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation, either version 3
+// of the License, or (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program. If not, see
+// <https://www.gnu.org/licenses/> or write to the Free Software
+// Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+///////////////////////////////////////////////////////////////////////////////////////////////
+package com.openeggbert.pixel.framework.math;
+
+import com.openeggbert.pixel.framework.PixelException;
+
+/**
+ * Lookup table of sine and cosine values with linear interpolation between
+ * the entries. The resolution is given by the count of entries per full
+ * circle, a power of two.
+ *
+ * <p>
+ * With 4096 entries, the error is about 1e-6, close to the precision of
+ * float near 1. Indexes within 2^16 entries from zero are computed in float,
+ * that is about 100 radians with 4096 entries. Larger angles take a slower
+ * path computing the index in double, so they keep the precision as far as the
+ * float argument can express them.
+ * </p>
+ *
+ * @author robertvokac
+ */
+public final class SinCosTable {
+
+    public static final int MIN_BITS = 4;
+    public static final int MAX_BITS = 20;
+    private static final float MAX_FLOAT_INDEX = 0x1p16f;
+    private static final double MAX_CAST_INDEX = 0x1p62;
+
+    private final float[] table;
+    private final int mask;
+    private final int quarter;
+    private final float indexesPerRadian;
+    private final float indexesPerDegree;
+    private final double preciseIndexesPerRadian;
+    private final double preciseIndexesPerDegree;
+
+    /**
+     * Creates the table.
+     *
+     * @param bits the count of entries per full circle is 2 to the power of
+     * bits
+     */
+    public SinCosTable(int bits) {
+        if (bits < MIN_BITS || bits > MAX_BITS) {
+            throw new PixelException("Bits of sin cos table must be between " + MIN_BITS + " and " + MAX_BITS + ": " + bits);
+        }
+        int size = 1 << bits;
+        this.mask = size - 1;
+        this.quarter = size / 4;
+        this.preciseIndexesPerRadian = size / (2 * Math.PI);
+        this.preciseIndexesPerDegree = size / 360d;
+        this.indexesPerRadian = (float) preciseIndexesPerRadian;
+        this.indexesPerDegree = size / 360f;
+        //one more entry, so the interpolation does not need to wrap around
+        this.table = new float[size + 1];
+        for (int i = 0; i <= size; i++) {
+            table[i] = (float) Math.sin(2 * Math.PI * i / size);
+        }
+    }
+
+    public int getSize() {
+        return mask + 1;
+    }
+
+    public float sin(float radians) {
+        float index = radians * indexesPerRadian;
+        return isFloatIndex(index) ? lookup(index) : lookup(radians * preciseIndexesPerRadian);
+    }
+
+    public float cos(float radians) {
+        float index = radians * indexesPerRadian + quarter;
+        return isFloatIndex(index) ? lookup(index) : lookup(radians * preciseIndexesPerRadian + quarter);
+    }
+
+    public float sinDeg(float degrees) {
+        float index = degrees * indexesPerDegree;
+        return isFloatIndex(index) ? lookup(index) : lookup(degrees * preciseIndexesPerDegree);
+    }
+
+    public float cosDeg(float degrees) {
+        float index = degrees * indexesPerDegree + quarter;
+        return isFloatIndex(index) ? lookup(index) : lookup(degrees * preciseIndexesPerDegree + quarter);
+    }
+
+    private static boolean isFloatIndex(float index) {
+        return index > -MAX_FLOAT_INDEX && index < MAX_FLOAT_INDEX;
+    }
+
+    private float lookup(float index) {
+        int i = (int) index;
+        if (index < i) {
+            //floor of negative values
+            i--;
+        }
+        float fraction = index - i;
+        i &= mask;
+        float value = table[i];
+        return value + (table[i + 1] - value) * fraction;
+    }
+
+    private float lookup(double index) {
+        if (Math.abs(index) > MAX_CAST_INDEX) {
+            //the cast to long would saturate, reduce to one circle first
+            index %= mask + 1;
+        }
+        long floor = (long) index;
+        if (index < floor) {
+            floor--;
+        }
+        float fraction = (float) (index - floor);
+        //the mask wraps the index into the circle, also for negative values
+        int i = (int) floor & mask;
+        float value = table[i];
+        return value + (table[i + 1] - value) * fraction;
+    }
+}
@@ -0,0 +1,231 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// Pixel: Game library.
+// Copyright (C) 2024 the original author or authors.
+//
+// This program is free software: you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation, either version 3
+// of the License, or (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program. If not, see
+// <https://www.gnu.org/licenses/> or write to the Free Software
+// Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+///////////////////////////////////////////////////////////////////////////////////////////////
+package com.openeggbert.pixel.framework.math;
+
+import com.openeggbert.pixel.framework.utils.Pool;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Mutable two-dimensional float vector. All operations modify this vector and
+ * return it for method chaining, no objects are created.
+ *
+ * @author robertvokac
+ */
+@Getter
+@Setter
+public final class Vec2 implements Pool.Poolable {
+
+    private float x, y;
+
+    public Vec2() {
+    }
+
+    public Vec2(float x, float y) {
+        this.x = x;
+        this.y = y;
+    }
+
+    public Vec2(Vec2 vector) {
+        this(vector.x, vector.y);
+    }
+
+    public Vec2 set(float x, float y) {
+        this.x = x;
+        this.y = y;
+        return this;
+    }
+
+    public Vec2 set(Vec2 vector) {
+        return set(vector.x, vector.y);
+    }
+
+    public Vec2 setZero() {
+        return set(0f, 0f);
+    }
+
+    public Vec2 add(float x, float y) {
+        return set(this.x + x, this.y + y);
+    }
+
+    public Vec2 add(Vec2 vector) {
+        return add(vector.x, vector.y);
+    }
+
+    public Vec2 sub(float x, float y) {
+        return set(this.x - x, this.y - y);
+    }
+
+    public Vec2 sub(Vec2 vector) {
+        return sub(vector.x, vector.y);
+    }
+
+    public Vec2 scale(float scalar) {
+        return set(x * scalar, y * scalar);
+    }
+
+    public Vec2 scale(float scaleX, float scaleY) {
+        return set(x * scaleX, y * scaleY);
+    }
+
+    /**
+     * Adds the vector multiplied by the scalar.
+     *
+     * @param vector the vector
+     * @param scalar the scalar
+     * @return this vector
+     */
+    public Vec2 mulAdd(Vec2 vector, float scalar) {
+        return set(x + vector.x * scalar, y + vector.y * scalar);
+    }
+
+    public float dot(Vec2 vector) {
+        return x * vector.x + y * vector.y;
+    }
+
+    /**
+     * Returns the z component of the cross product of the vectors extended to
+     * three dimensions.
+     *
+     * @param vector the other vector
+     * @return the cross product
+     */
+    public float cross(Vec2 vector) {
+        return x * vector.y - y * vector.x;
+    }
+
+    public float length() {
+        return (float) Math.sqrt(x * x + y * y);
+    }
+
+    public float length2() {
+        return x * x + y * y;
+    }
+
+    public float distance(Vec2 vector) {
+        return (float) Math.sqrt(distance2(vector));
+    }
+
+    public float distance2(Vec2 vector) {
+        float dx = vector.x - x;
+        float dy = vector.y - y;
+        return dx * dx + dy * dy;
+    }
+
+    /**
+     * Scales this vector to the length 1. The zero vector is not changed.
+     *
+     * @return this vector
+     */
+    public Vec2 normalize() {
+        float length2 = length2();
+        return length2 == 0f || length2 == 1f ? this : scale(1f / (float) Math.sqrt(length2));
+    }
+
+    public Vec2 lerp(Vec2 target, float progress) {
+        return set(x + (target.x - x) * progress, y + (target.y - y) * progress);
+    }
+
+    /**
+     * Rotates this vector counterclockwise in a y-up coordinate system, which
+     * is clockwise on a y-down screen. The sine and the cosine are read from
+     * the table of {@link FastMath}.
+     *
+     * @param degrees the angle in degrees
+     * @return this vector
+     */
+    public Vec2 rotateDeg(float degrees) {
+        return rotate(FastMath.cosDeg(degrees), FastMath.sinDeg(degrees));
+    }
+
+    public Vec2 rotate(Angle angle) {
+        return rotate(angle.cos(), angle.sin());
+    }
+
+    private Vec2 rotate(float cos, float sin) {
+        return set(x * cos - y * sin, x * sin + y * cos);
+    }
+
+    /**
+     * Returns the angle of this vector relative to the x axis.
+     *
+     * @return the angle in degrees, between -180 and 180
+     */
+    public float angleDeg() {
+        return (float) Math.toDegrees(Math.atan2(y, x));
+    }
+
+    public Vec2 mul(Affine2 matrix) {
+        return set(
+                matrix.getM00() * x + matrix.getM01() * y + matrix.getM02(),
+                matrix.getM10() * x + matrix.getM11() * y + matrix.getM12());
+    }
+
+    /**
+     * Transforms this vector as a point, including the division by the
+     * homogeneous coordinate.
+     *
+     * @param matrix the matrix
+     * @return this vector
+     */
+    public Vec2 mul(Matrix3 matrix) {
+        float[] m = matrix.getValues();
+        float w = m[Matrix3.M20] * x + m[Matrix3.M21] * y + m[Matrix3.M22];
+        float newX = m[Matrix3.M00] * x + m[Matrix3.M01] * y + m[Matrix3.M02];
+        float newY = m[Matrix3.M10] * x + m[Matrix3.M11] * y + m[Matrix3.M12];
+        return w == 1f ? set(newX, newY) : set(newX / w, newY / w);
+    }
+
+    public boolean isZero() {
+        return x == 0f && y == 0f;
+    }
+
+    public boolean epsilonEquals(Vec2 vector, float tolerance) {
+        return Math.abs(vector.x - x) <= tolerance && Math.abs(vector.y - y) <= tolerance;
+    }
+
+    @Override
+    public void reset() {
+        setZero();
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) {
+            return true;
+        }
+        if (!(object instanceof Vec2)) {
+            return false;
+        }
+        Vec2 vector = (Vec2) object;
+        return Float.floatToIntBits(x) == Float.floatToIntBits(vector.x)
+                && Float.floatToIntBits(y) == Float.floatToIntBits(vector.y);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Float.floatToIntBits(x) + Float.floatToIntBits(y);
+    }
+
+    @Override
+    public String toString() {
+        return "(" + x + "," + y + ")";
+    }
+}
@@ -0,0 +1,219 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// Pixel: Game library.
+// Copyright (C) 2024 the original author or authors.
+//
+// This program is free software: you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation, either version 3
+// of the License, or (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program. If not, see
+// <https://www.gnu.org/licenses/> or write to the Free Software
+// Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+///////////////////////////////////////////////////////////////////////////////////////////////
+package com.openeggbert.pixel.framework.math;
+
+import com.openeggbert.pixel.framework.utils.Pool;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Mutable three-dimensional float vector. All operations modify this vector
+ * and return it for method chaining, no objects are created.
+ *
+ * @author robertvokac
+ */
+@Getter
+@Setter
+public final class Vec3 implements Pool.Poolable {
+
+    private float x, y, z;
+
+    public Vec3() {
+    }
+
+    public Vec3(float x, float y, float z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+    }
+
+    public Vec3(Vec3 vector) {
+        this(vector.x, vector.y, vector.z);
+    }
+
+    public Vec3 set(float x, float y, float z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        return this;
+    }
+
+    public Vec3 set(Vec3 vector) {
+        return set(vector.x, vector.y, vector.z);
+    }
+
+    public Vec3 set(Vec2 vector, float z) {
+        return set(vector.getX(), vector.getY(), z);
+    }
+
+    public Vec3 setZero() {
+        return set(0f, 0f, 0f);
+    }
+
+    public Vec3 add(float x, float y, float z) {
+        return set(this.x + x, this.y + y, this.z + z);
+    }
+
+    public Vec3 add(Vec3 vector) {
+        return add(vector.x, vector.y, vector.z);
+    }
+
+    public Vec3 sub(float x, float y, float z) {
+        return set(this.x - x, this.y - y, this.z - z);
+    }
+
+    public Vec3 sub(Vec3 vector) {
+        return sub(vector.x, vector.y, vector.z);
+    }
+
+    public Vec3 scale(float scalar) {
+        return set(x * scalar, y * scalar, z * scalar);
+    }
+
+    public Vec3 scale(float scaleX, float scaleY, float scaleZ) {
+        return set(x * scaleX, y * scaleY, z * scaleZ);
+    }
+
+    /**
+     * Adds the vector multiplied by the scalar.
+     *
+     * @param vector the vector
+     * @param scalar the scalar
+     * @return this vector
+     */
+    public Vec3 mulAdd(Vec3 vector, float scalar) {
+        return set(x + vector.x * scalar, y + vector.y * scalar, z + vector.z * scalar);
+    }
+
+    public float dot(Vec3 vector) {
+        return x * vector.x + y * vector.y + z * vector.z;
+    }
+
+    public Vec3 cross(Vec3 vector) {
+        return set(y * vector.z - z * vector.y, z * vector.x - x * vector.z, x * vector.y - y * vector.x);
+    }
+
+    public float length() {
+        return (float) Math.sqrt(length2());
+    }
+
+    public float length2() {
+        return x * x + y * y + z * z;
+    }
+
+    public float distance(Vec3 vector) {
+        return (float) Math.sqrt(distance2(vector));
+    }
+
+    public float distance2(Vec3 vector) {
+        float dx = vector.x - x;
+        float dy = vector.y - y;
+        float dz = vector.z - z;
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    /**
+     * Scales this vector to the length 1. The zero vector is not changed.
+     *
+     * @return this vector
+     */
+    public Vec3 normalize() {
+        float length2 = length2();
+        return length2 == 0f || length2 == 1f ? this : scale(1f / (float) Math.sqrt(length2));
+    }
+
+    public Vec3 lerp(Vec3 target, float progress) {
+        return set(x + (target.x - x) * progress, y + (target.y - y) * progress, z + (target.z - z) * progress);
+    }
+
+    /**
+     * Transforms this vector as a point by the matrix, ignoring its last row.
+     *
+     * @param matrix the affine matrix
+     * @return this vector
+     */
+    public Vec3 mul(Matrix4 matrix) {
+        float[] m = matrix.getValues();
+        return set(
+                m[Matrix4.M00] * x + m[Matrix4.M01] * y + m[Matrix4.M02] * z + m[Matrix4.M03],
+                m[Matrix4.M10] * x + m[Matrix4.M11] * y + m[Matrix4.M12] * z + m[Matrix4.M13],
+                m[Matrix4.M20] * x + m[Matrix4.M21] * y + m[Matrix4.M22] * z + m[Matrix4.M23]);
+    }
+
+    /**
+     * Transforms this vector as a point by the matrix, including the division
+     * by the homogeneous coordinate.
+     *
+     * @param matrix the projection matrix
+     * @return this vector
+     */
+    public Vec3 prj(Matrix4 matrix) {
+        float[] m = matrix.getValues();
+        float w = m[Matrix4.M30] * x + m[Matrix4.M31] * y + m[Matrix4.M32] * z + m[Matrix4.M33];
+        mul(matrix);
+        return w == 1f ? this : scale(1f / w);
+    }
+
+    public Vec3 mul(Matrix3 matrix) {
+        float[] m = matrix.getValues();
+        return set(
+                m[Matrix3.M00] * x + m[Matrix3.M01] * y + m[Matrix3.M02] * z,
+                m[Matrix3.M10] * x + m[Matrix3.M11] * y + m[Matrix3.M12] * z,
+                m[Matrix3.M20] * x + m[Matrix3.M21] * y + m[Matrix3.M22] * z);
+    }
+
+    public boolean isZero() {
+        return x == 0f && y == 0f && z == 0f;
+    }
+
+    public boolean epsilonEquals(Vec3 vector, float tolerance) {
+        return Math.abs(vector.x - x) <= tolerance && Math.abs(vector.y - y) <= tolerance
+                && Math.abs(vector.z - z) <= tolerance;
+    }
+
+    @Override
+    public void reset() {
+        setZero();
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) {
+            return true;
+        }
+        if (!(object instanceof Vec3)) {
+            return false;
+        }
+        Vec3 vector = (Vec3) object;
+        return Float.floatToIntBits(x) == Float.floatToIntBits(vector.x)
+                && Float.floatToIntBits(y) == Float.floatToIntBits(vector.y)
+                && Float.floatToIntBits(z) == Float.floatToIntBits(vector.z);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * Float.floatToIntBits(x) + Float.floatToIntBits(y)) + Float.floatToIntBits(z);
+    }
+
+    @Override
+    public String toString() {
+        return "(" + x + "," + y + "," + z + ")";
+    }
+}
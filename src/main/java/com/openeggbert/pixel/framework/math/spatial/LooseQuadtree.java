@@ -0,0 +1,273 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// Pixel: Game library.
+// Copyright (C) 2024 the original author or authors.
+//
+// This program is free software: you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation, either version 3
+// of the License, or (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program. If not, see
+// <https://www.gnu.org/licenses/> or write to the Free Software
+// Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+///////////////////////////////////////////////////////////////////////////////////////////////
+package com.openeggbert.pixel.framework.math.spatial;
+
+import com.openeggbert.pixel.framework.PixelException;
+import java.util.Arrays;
+import lombok.Getter;
+
+/**
+ * Loose quadtree over a fixed area of the world. The bounds of every node are
+ * enlarged to twice its size, so a rectangle is stored in exactly one node,
+ * chosen directly from its size and its center, without descending the tree.
+ *
+ * <p>
+ * The tree is complete up to the maximum depth and stored implicitly: the
+ * nodes of a level are laid out row by row after the nodes of the previous
+ * levels. Every node has a linked list of its rectangles, chained by the ids,
+ * and the count of rectangles in its subtree, so empty subtrees are skipped
+ * by the queries. Rectangles with the center outside the world area are kept
+ * in the root.
+ * </p>
+ *
+ * @author robertvokac
+ */
+public class LooseQuadtree implements SpatialIndex {
+
+    public static final int DEFAULT_MAX_DEPTH = 6;
+    public static final int MAX_DEPTH = 10;
+
+    private static final int NONE = -1;
+
+    @Getter
+    private final float worldX, worldY, worldWidth, worldHeight;
+    @Getter
+    private final int maxDepth;
+
+    private final int[] heads;
+    private final int[] subtreeCounts;
+
+    private int[] nodes;
+    private int[] next;
+    private int[] previous;
+    private float[] bounds;
+    private int size;
+
+    public LooseQuadtree(float worldX, float worldY, float worldWidth, float worldHeight) {
+        this(worldX, worldY, worldWidth, worldHeight, DEFAULT_MAX_DEPTH, 256);
+    }
+
+    /**
+     * Creates the quadtree.
+     *
+     * @param worldX the x of the world area
+     * @param worldY the y of the world area
+     * @param worldWidth the width of the world area
+     * @param worldHeight the height of the world area
+     * @param maxDepth the depth of the smallest nodes, the root has the depth
+     * 0
+     * @param initialCapacity the expected highest id plus one
+     */
+    public LooseQuadtree(float worldX, float worldY, float worldWidth, float worldHeight, int maxDepth, int initialCapacity) {
+        if (worldWidth <= 0f || worldHeight <= 0f) {
+            throw new PixelException("World size must be positive: " + worldWidth + "x" + worldHeight);
+        }
+        if (maxDepth < 0 || maxDepth > MAX_DEPTH) {
+            throw new PixelException("Maximum depth must be between 0 and " + MAX_DEPTH + ": " + maxDepth);
+        }
+        this.worldX = worldX;
+        this.worldY = worldY;
+        this.worldWidth = worldWidth;
+        this.worldHeight = worldHeight;
+        this.maxDepth = maxDepth;
+        int nodeCount = levelOffset(maxDepth + 1);
+        heads = new int[nodeCount];
+        subtreeCounts = new int[nodeCount];
+        Arrays.fill(heads, NONE);
+        int capacity = Math.max(1, initialCapacity);
+        nodes = new int[capacity];
+        next = new int[capacity];
+        previous = new int[capacity];
+        bounds = new float[capacity * 4];
+        Arrays.fill(nodes, NONE);
+    }
+
+    @Override
+    public void update(int id, float x, float y, float width, float height) {
+        if (id < 0) {
+            throw new PixelException("Id must not be negative: " + id);
+        }
+        ensureCapacity(id);
+        int offset = id * 4;
+        bounds[offset] = x;
+        bounds[offset + 1] = y;
+        bounds[offset + 2] = width;
+        bounds[offset + 3] = height;
+        int node = findNode(x, y, width, height);
+        int current = nodes[id];
+        if (current == node) {
+            return;
+        }
+        if (current == NONE) {
+            size++;
+        } else {
+            unlink(id, current);
+        }
+        nodes[id] = node;
+        previous[id] = NONE;
+        next[id] = heads[node];
+        if (heads[node] != NONE) {
+            previous[heads[node]] = id;
+        }
+        heads[node] = id;
+        addToSubtreeCounts(node, 1);
+    }
+
+    @Override
+    public boolean remove(int id) {
+        if (!contains(id)) {
+            return false;
+        }
+        unlink(id, nodes[id]);
+        nodes[id] = NONE;
+        size--;
+        return true;
+    }
+
+    @Override
+    public boolean contains(int id) {
+        return id >= 0 && id < nodes.length && nodes[id] != NONE;
+    }
+
+    @Override
+    public int query(float x, float y, float width, float height, int[] result) {
+        return find(0, 0, 0, x, y, x + width, y + height, false, result, 0);
+    }
+
+    @Override
+    public int queryPoint(float x, float y, int[] result) {
+        return find(0, 0, 0, x, y, x, y, true, result, 0);
+    }
+
+    private int find(int depth, int cellX, int cellY, float left, float top, float right, float bottom,
+            boolean point, int[] result, int found) {
+        int cellsPerSide = 1 << depth;
+        int node = levelOffset(depth) + cellY * cellsPerSide + cellX;
+        if (subtreeCounts[node] == 0) {
+            return found;
+        }
+        if (depth > 0) {
+            //the root also holds the rectangles outside of the world
+            float nodeWidth = worldWidth / cellsPerSide;
+            float nodeHeight = worldHeight / cellsPerSide;
+            float looseLeft = worldX + (cellX - 0.5f) * nodeWidth;
+            float looseTop = worldY + (cellY - 0.5f) * nodeHeight;
+            if (looseLeft > right || looseLeft + 2 * nodeWidth < left || looseTop > bottom || looseTop + 2 * nodeHeight < top) {
+                return found;
+            }
+        }
+        for (int id = heads[node]; id != NONE; id = next[id]) {
+            int offset = id * 4;
+            float boxX = bounds[offset];
+            float boxY = bounds[offset + 1];
+            float boxRight = boxX + bounds[offset + 2];
+            float boxBottom = boxY + bounds[offset + 3];
+            boolean hit = point
+                    ? left >= boxX && left < boxRight && top >= boxY && top < boxBottom
+                    : boxX < right && boxRight > left && boxY < bottom && boxBottom > top;
+            if (hit) {
+                if (found < result.length) {
+                    result[found] = id;
+                }
+                found++;
+            }
+        }
+        if (depth < maxDepth) {
+            int childX = cellX * 2;
+            int childY = cellY * 2;
+            found = find(depth + 1, childX, childY, left, top, right, bottom, point, result, found);
+            found = find(depth + 1, childX + 1, childY, left, top, right, bottom, point, result, found);
+            found = find(depth + 1, childX, childY + 1, left, top, right, bottom, point, result, found);
+            found = find(depth + 1, childX + 1, childY + 1, left, top, right, bottom, point, result, found);
+        }
+        return found;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(heads, NONE);
+        Arrays.fill(subtreeCounts, 0);
+        Arrays.fill(nodes, NONE);
+        size = 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    private int findNode(float x, float y, float width, float height) {
+        float centerX = x + width / 2f - worldX;
+        float centerY = y + height / 2f - worldY;
+        if (!(centerX >= 0f && centerX < worldWidth && centerY >= 0f && centerY < worldHeight)) {
+            return 0;
+        }
+        int depth = maxDepth;
+        while (depth > 0 && (width > worldWidth / (1 << depth) || height > worldHeight / (1 << depth))) {
+            depth--;
+        }
+        int cellsPerSide = 1 << depth;
+        int cellX = Math.min(cellsPerSide - 1, (int) (centerX / worldWidth * cellsPerSide));
+        int cellY = Math.min(cellsPerSide - 1, (int) (centerY / worldHeight * cellsPerSide));
+        return levelOffset(depth) + cellY * cellsPerSide + cellX;
+    }
+
+    private void unlink(int id, int node) {
+        if (previous[id] == NONE) {
+            heads[node] = next[id];
+        } else {
+            next[previous[id]] = next[id];
+        }
+        if (next[id] != NONE) {
+            previous[next[id]] = previous[id];
+        }
+        addToSubtreeCounts(node, -1);
+    }
+
+    private void addToSubtreeCounts(int node, int delta) {
+        int depth = 0;
+        while (levelOffset(depth + 1) <= node) {
+            depth++;
+        }
+        int local = node - levelOffset(depth);
+        int cellX = local & ((1 << depth) - 1);
+        int cellY = local >> depth;
+        for (; depth >= 0; depth--, cellX >>= 1, cellY >>= 1) {
+            subtreeCounts[levelOffset(depth) + (cellY << depth) + cellX] += delta;
+        }
+    }
+
+    private static int levelOffset(int depth) {
+        return ((1 << (2 * depth)) - 1) / 3;
+    }
+
+    private void ensureCapacity(int id) {
+        if (id < nodes.length) {
+            return;
+        }
+        int oldCapacity = nodes.length;
+        int capacity = Math.max(id + 1, oldCapacity * 2);
+        nodes = Arrays.copyOf(nodes, capacity);
+        Arrays.fill(nodes, oldCapacity, capacity, NONE);
+        next = Arrays.copyOf(next, capacity);
+        previous = Arrays.copyOf(previous, capacity);
+        bounds = Arrays.copyOf(bounds, capacity * 4);
+    }
+}
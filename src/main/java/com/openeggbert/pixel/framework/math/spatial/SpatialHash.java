@@ -0,0 +1,350 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// Pixel: Game library.
+// Copyright (C) 2024 the original author or authors.
+//
+// This program is free software: you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation, either version 3
+// of the License, or (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program. If not, see
+// <https://www.gnu.org/licenses/> or write to the Free Software
+// Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+///////////////////////////////////////////////////////////////////////////////////////////////
+package com.openeggbert.pixel.framework.math.spatial;
+
+import com.openeggbert.pixel.framework.PixelException;
+import java.util.Arrays;
+import lombok.Getter;
+
+/**
+ * Spatial index dividing the unbounded plane into square cells of the same
+ * size. The cells are hashed into a fixed count of buckets, so only the
+ * occupied area costs memory.
+ *
+ * <p>
+ * A rectangle is stored in every cell it overlaps, the cell size should be
+ * about the size of a typical rectangle. Moving a rectangle within the same
+ * cells only updates its bounds. All data are kept in primitive arrays, the
+ * cell entries are linked lists of nodes chained by indexes.
+ * </p>
+ *
+ * <p>
+ * A rectangle overlapping more cells than there are buckets is kept in a
+ * separate list, which every query checks. A query region overlapping more
+ * cells than there are buckets scans the buckets instead of the cells. The
+ * cell coordinates are clamped, so even infinite rectangles are handled.
+ * </p>
+ *
+ * @author robertvokac
+ */
+public class SpatialHash implements SpatialIndex {
+
+    public static final int DEFAULT_BUCKET_COUNT = 4096;
+
+    private static final int NONE = -1;
+    private static final int MAX_CELL = 1 << 29;
+
+    @Getter
+    private final float cellSize;
+    private final float inverseCellSize;
+    private final int[] buckets;
+    private final int bucketMask;
+
+    private int[] nodeIds;
+    private int[] nodeNext;
+    private int nodeCount;
+    private int firstFreeNode = NONE;
+
+    private boolean[] present;
+    private float[] bounds;
+    /**
+     * The first and the last cell of every rectangle: min x, min y, max x, max
+     * y.
+     */
+    private int[] cells;
+    /**
+     * The ids of the rectangles overlapping too many cells, they are not
+     * stored in the buckets.
+     */
+    private int[] largeIds = new int[16];
+    private int largeCount;
+    private boolean[] large;
+    /**
+     * Used to report every rectangle only once by a query, even if it is
+     * found in more cells.
+     */
+    private int[] stamps;
+    private int stamp;
+    private int size;
+
+    public SpatialHash(float cellSize) {
+        this(cellSize, DEFAULT_BUCKET_COUNT, 256);
+    }
+
+    /**
+     * Creates the spatial hash.
+     *
+     * @param cellSize the size of a cell
+     * @param bucketCount the count of buckets, rounded up to a power of two
+     * @param initialCapacity the expected highest id plus one
+     */
+    public SpatialHash(float cellSize, int bucketCount, int initialCapacity) {
+        if (cellSize <= 0f) {
+            throw new PixelException("Cell size must be positive: " + cellSize);
+        }
+        if (bucketCount < 1) {
+            throw new PixelException("Bucket count must be positive: " + bucketCount);
+        }
+        this.cellSize = cellSize;
+        this.inverseCellSize = 1f / cellSize;
+        int powerOfTwo = Integer.highestOneBit(bucketCount);
+        if (powerOfTwo < bucketCount) {
+            powerOfTwo <<= 1;
+        }
+        this.buckets = new int[powerOfTwo];
+        this.bucketMask = powerOfTwo - 1;
+        Arrays.fill(buckets, NONE);
+        int capacity = Math.max(1, initialCapacity);
+        present = new boolean[capacity];
+        large = new boolean[capacity];
+        bounds = new float[capacity * 4];
+        cells = new int[capacity * 4];
+        stamps = new int[capacity];
+        nodeIds = new int[capacity * 2];
+        nodeNext = new int[capacity * 2];
+    }
+
+    @Override
+    public void update(int id, float x, float y, float width, float height) {
+        if (id < 0) {
+            throw new PixelException("Id must not be negative: " + id);
+        }
+        ensureCapacity(id);
+        int minX = cell(x);
+        int minY = cell(y);
+        int maxX = cell(x + width);
+        int maxY = cell(y + height);
+        int offset = id * 4;
+        bounds[offset] = x;
+        bounds[offset + 1] = y;
+        bounds[offset + 2] = width;
+        bounds[offset + 3] = height;
+        if (present[id]) {
+            if (cells[offset] == minX && cells[offset + 1] == minY && cells[offset + 2] == maxX && cells[offset + 3] == maxY) {
+                return;
+            }
+            unlink(id);
+        } else {
+            present[id] = true;
+            size++;
+        }
+        cells[offset] = minX;
+        cells[offset + 1] = minY;
+        cells[offset + 2] = maxX;
+        cells[offset + 3] = maxY;
+        if (cellCount(minX, minY, maxX, maxY) > buckets.length) {
+            large[id] = true;
+            if (largeCount == largeIds.length) {
+                largeIds = Arrays.copyOf(largeIds, largeCount * 2);
+            }
+            largeIds[largeCount++] = id;
+            return;
+        }
+        for (int cellY = minY; cellY <= maxY; cellY++) {
+            for (int cellX = minX; cellX <= maxX; cellX++) {
+                int bucket = bucket(cellX, cellY);
+                int node = allocateNode();
+                nodeIds[node] = id;
+                nodeNext[node] = buckets[bucket];
+                buckets[bucket] = node;
+            }
+        }
+    }
+
+    @Override
+    public boolean remove(int id) {
+        if (!contains(id)) {
+            return false;
+        }
+        unlink(id);
+        present[id] = false;
+        size--;
+        return true;
+    }
+
+    @Override
+    public boolean contains(int id) {
+        return id >= 0 && id < present.length && present[id];
+    }
+
+    @Override
+    public int query(float x, float y, float width, float height, int[] result) {
+        return find(x, y, width, height, false, result);
+    }
+
+    @Override
+    public int queryPoint(float x, float y, int[] result) {
+        return find(x, y, 0f, 0f, true, result);
+    }
+
+    private int find(float x, float y, float width, float height, boolean point, int[] result) {
+        int currentStamp = nextStamp();
+        float right = x + width;
+        float bottom = y + height;
+        int minX = cell(x);
+        int minY = cell(y);
+        int maxX = cell(right);
+        int maxY = cell(bottom);
+        int found = 0;
+        for (int i = 0; i < largeCount; i++) {
+            found = check(largeIds[i], currentStamp, x, y, right, bottom, point, result, found);
+        }
+        if (cellCount(minX, minY, maxX, maxY) > buckets.length) {
+            for (int bucket = 0; bucket < buckets.length; bucket++) {
+                for (int node = buckets[bucket]; node != NONE; node = nodeNext[node]) {
+                    found = check(nodeIds[node], currentStamp, x, y, right, bottom, point, result, found);
+                }
+            }
+            return found;
+        }
+        for (int cellY = minY; cellY <= maxY; cellY++) {
+            for (int cellX = minX; cellX <= maxX; cellX++) {
+                for (int node = buckets[bucket(cellX, cellY)]; node != NONE; node = nodeNext[node]) {
+                    found = check(nodeIds[node], currentStamp, x, y, right, bottom, point, result, found);
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Adds the id to the result, if it was not reported by this query yet and
+     * its rectangle is hit.
+     *
+     * @return the new count of found ids
+     */
+    private int check(int id, int currentStamp, float x, float y, float right, float bottom, boolean point, int[] result, int found) {
+        if (stamps[id] == currentStamp) {
+            return found;
+        }
+        stamps[id] = currentStamp;
+        int offset = id * 4;
+        float boxX = bounds[offset];
+        float boxY = bounds[offset + 1];
+        float boxRight = boxX + bounds[offset + 2];
+        float boxBottom = boxY + bounds[offset + 3];
+        boolean hit = point
+                ? x >= boxX && x < boxRight && y >= boxY && y < boxBottom
+                : boxX < right && boxRight > x && boxY < bottom && boxBottom > y;
+        if (!hit) {
+            return found;
+        }
+        if (found < result.length) {
+            result[found] = id;
+        }
+        return found + 1;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(buckets, NONE);
+        Arrays.fill(present, false);
+        Arrays.fill(large, false);
+        largeCount = 0;
+        nodeCount = 0;
+        firstFreeNode = NONE;
+        size = 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    private int cell(float coordinate) {
+        //clamped, so the loops over the cells cannot overflow
+        int cell = (int) Math.floor(coordinate * inverseCellSize);
+        return Math.max(-MAX_CELL, Math.min(MAX_CELL, cell));
+    }
+
+    private static long cellCount(int minX, int minY, int maxX, int maxY) {
+        return (maxX - minX + 1L) * (maxY - minY + 1L);
+    }
+
+    private int bucket(int cellX, int cellY) {
+        return ((cellX * 73856093) ^ (cellY * 19349663)) & bucketMask;
+    }
+
+    private int nextStamp() {
+        stamp++;
+        if (stamp == 0) {
+            Arrays.fill(stamps, 0);
+            stamp = 1;
+        }
+        return stamp;
+    }
+
+    private void unlink(int id) {
+        if (large[id]) {
+            large[id] = false;
+            for (int i = 0; i < largeCount; i++) {
+                if (largeIds[i] == id) {
+                    largeIds[i] = largeIds[--largeCount];
+                    break;
+                }
+            }
+            return;
+        }
+        int offset = id * 4;
+        for (int cellY = cells[offset + 1]; cellY <= cells[offset + 3]; cellY++) {
+            for (int cellX = cells[offset]; cellX <= cells[offset + 2]; cellX++) {
+                int bucket = bucket(cellX, cellY);
+                int previous = NONE;
+                for (int node = buckets[bucket]; node != NONE; previous = node, node = nodeNext[node]) {
+                    if (nodeIds[node] == id) {
+                        if (previous == NONE) {
+                            buckets[bucket] = nodeNext[node];
+                        } else {
+                            nodeNext[previous] = nodeNext[node];
+                        }
+                        nodeNext[node] = firstFreeNode;
+                        firstFreeNode = node;
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    private int allocateNode() {
+        if (firstFreeNode != NONE) {
+            int node = firstFreeNode;
+            firstFreeNode = nodeNext[node];
+            return node;
+        }
+        if (nodeCount == nodeIds.length) {
+            nodeIds = Arrays.copyOf(nodeIds, nodeCount * 2);
+            nodeNext = Arrays.copyOf(nodeNext, nodeCount * 2);
+        }
+        return nodeCount++;
+    }
+
+    private void ensureCapacity(int id) {
+        if (id < present.length) {
+            return;
+        }
+        int capacity = Math.max(id + 1, present.length * 2);
+        present = Arrays.copyOf(present, capacity);
+        large = Arrays.copyOf(large, capacity);
+        bounds = Arrays.copyOf(bounds, capacity * 4);
+        cells = Arrays.copyOf(cells, capacity * 4);
+        stamps = Arrays.copyOf(stamps, capacity);
+    }
+}
@@ -0,0 +1,123 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// Pixel: Game library.
+// Copyright (C) 2024 the original author or authors.
+//
+// This program is free software: you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation, either version 3
+// of the License, or (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program. If not, see
+// <https://www.gnu.org/licenses/> or write to the Free Software
+// Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+///////////////////////////////////////////////////////////////////////////////////////////////
+package com.openeggbert.pixel.framework.math.spatial;
+
+import com.openeggbert.pixel.framework.math.Rectangle;
+
+/**
+ * Index of axis-aligned rectangles identified by non-negative int ids, for
+ * fast region queries instead of testing every pair of entities.
+ *
+ * <p>
+ * The ids are used as indexes into the internal arrays, so they should be
+ * dense, for example the indexes of the entities. The queries write the found
+ * ids into arrays provided by the caller and return the count of found ids,
+ * which can be greater than the length of the array, only the ids fitting into
+ * the array are written then.
+ * </p>
+ *
+ * <p>
+ * An index is not thread-safe. To rebuild it without stalling the game
+ * thread, a second instance can be filled by {@link #rebuild} on a worker
+ * thread and then handed over to the game thread, for example by
+ * {@link com.openeggbert.pixel.framework.interfaces.App#runLater(Runnable)}.
+ * </p>
+ *
+ * @author robertvokac
+ */
+public interface SpatialIndex {
+
+    /**
+     * Adds the rectangle, or moves it, if the id is already in this index.
+     *
+     * @param id the id, not negative
+     * @param x the x of the rectangle
+     * @param y the y of the rectangle
+     * @param width the width of the rectangle
+     * @param height the height of the rectangle
+     */
+    void update(int id, float x, float y, float width, float height);
+
+    default void update(int id, Rectangle rectangle) {
+        update(id, rectangle.getX(), rectangle.getY(), rectangle.getWidth(), rectangle.getHeight());
+    }
+
+    /**
+     * Removes the rectangle.
+     *
+     * @param id the id
+     * @return true, if the id was in this index
+     */
+    boolean remove(int id);
+
+    boolean contains(int id);
+
+    /**
+     * Finds the rectangles overlapping the given region. Rectangles only
+     * touching the region are not found.
+     *
+     * @param x the x of the region
+     * @param y the y of the region
+     * @param width the width of the region
+     * @param height the height of the region
+     * @param result the array for the found ids
+     * @return the count of found ids
+     */
+    int query(float x, float y, float width, float height, int[] result);
+
+    default int query(Rectangle region, int[] result) {
+        return query(region.getX(), region.getY(), region.getWidth(), region.getHeight(), result);
+    }
+
+    /**
+     * Finds the rectangles containing the point. The left and the upper edge
+     * of a rectangle belong to it, the right and the lower edge do not.
+     *
+     * @param x the x of the point
+     * @param y the y of the point
+     * @param result the array for the found ids
+     * @return the count of found ids
+     */
+    int queryPoint(float x, float y, int[] result);
+
+    /**
+     * Replaces the content of this index.
+     *
+     * @param ids the ids
+     * @param bounds x, y, width and height of every rectangle, in the order of
+     * the ids
+     * @param count the count of rectangles
+     */
+    default void rebuild(int[] ids, float[] bounds, int count) {
+        clear();
+        for (int i = 0, j = 0; i < count; i++, j += 4) {
+            update(ids[i], bounds[j], bounds[j + 1], bounds[j + 2], bounds[j + 3]);
+        }
+    }
+
+    void clear();
+
+    /**
+     * Returns the count of rectangles in this index.
+     *
+     * @return the size
+     */
+    int size();
+}
@@ -0,0 +1,393 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// Pixel: Game library.
+// Copyright (C) 2024 the original author or authors.
+//
+// This program is free software: you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation, either version 3
+// of the License, or (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program. If not, see
+// <https://www.gnu.org/licenses/> or write to the Free Software
+// Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+///////////////////////////////////////////////////////////////////////////////////////////////
+package com.openeggbert.pixel.framework.math.spatial;
+
+import com.openeggbert.pixel.framework.PixelException;
+import com.openeggbert.pixel.framework.math.Rectangle;
+import java.util.Arrays;
+import lombok.Getter;
+
+/**
+ * Broad phase of the collision detection, finding all pairs of overlapping
+ * rectangles with sweep and prune on the x axis.
+ *
+ * <p>
+ * The minimum and the maximum x of every rectangle are kept in an array of
+ * endpoints, which stays sorted between the calls of {@link #findPairs()}.
+ * Because the rectangles move only a little from frame to frame, the array is
+ * sorted again by insertion sort in nearly linear time. The sweep over the
+ * sorted endpoints then tests only the rectangles overlapping on the x axis,
+ * so the cost is close to O(n + k) for n rectangles and k pairs.
+ * </p>
+ *
+ * <p>
+ * Every pair is encoded as a long by {@link #pair(int, int)}, with the lower
+ * id in the upper half. The pairs are written into reusable arrays, sorted,
+ * and compared with the pairs of the previous call, which gives the pairs,
+ * which started, continued and stopped overlapping.
+ * </p>
+ *
+ * @author robertvokac
+ */
+public class SweepAndPrune {
+
+    private boolean[] present;
+    /**
+     * True, if the endpoints of the id are in the array of endpoints, it can
+     * still be there after the removal until the next sort.
+     */
+    private boolean[] inEndpoints;
+    private float[] bounds;
+    private int size;
+
+    /**
+     * Id * 2, plus 1 for the maximum.
+     */
+    private int[] endpoints;
+    private float[] endpointValues;
+    private int endpointCount;
+
+    private int[] active;
+    private int[] activePositions;
+
+    private long[] pairs;
+    @Getter
+    private int pairCount;
+    private long[] previousPairs;
+    private int previousPairCount;
+    private long[] entered;
+    @Getter
+    private int enteredCount;
+    private long[] stayed;
+    @Getter
+    private int stayedCount;
+    private long[] exited;
+    @Getter
+    private int exitedCount;
+
+    /**
+     * The count of moves of the insertion sort in the last call of
+     * {@link #findPairs()}, low for coherent movement.
+     */
+    @Getter
+    private int swapCount;
+
+    public SweepAndPrune() {
+        this(256);
+    }
+
+    /**
+     * Creates the broad phase.
+     *
+     * @param initialCapacity the expected highest id plus one
+     */
+    public SweepAndPrune(int initialCapacity) {
+        int capacity = Math.max(1, initialCapacity);
+        present = new boolean[capacity];
+        inEndpoints = new boolean[capacity];
+        bounds = new float[capacity * 4];
+        activePositions = new int[capacity];
+        endpoints = new int[capacity * 2];
+        endpointValues = new float[capacity * 2];
+        active = new int[capacity];
+        pairs = new long[capacity];
+        previousPairs = new long[capacity];
+        entered = new long[capacity];
+        stayed = new long[capacity];
+        exited = new long[capacity];
+    }
+
+    /**
+     * Adds the rectangle, or moves it, if the id was already added.
+     *
+     * @param id the id, not negative
+     * @param x the x of the rectangle
+     * @param y the y of the rectangle
+     * @param width the width of the rectangle, not negative
+     * @param height the height of the rectangle, not negative
+     */
+    public void update(int id, float x, float y, float width, float height) {
+        if (id < 0) {
+            throw new PixelException("Id must not be negative: " + id);
+        }
+        if (width < 0f || height < 0f) {
+            throw new PixelException("Size must not be negative: " + width + "x" + height);
+        }
+        ensureCapacity(id);
+        int offset = id * 4;
+        bounds[offset] = x;
+        bounds[offset + 1] = y;
+        bounds[offset + 2] = width;
+        bounds[offset + 3] = height;
+        if (present[id]) {
+            return;
+        }
+        present[id] = true;
+        size++;
+        if (!inEndpoints[id]) {
+            inEndpoints[id] = true;
+            if (endpointCount + 2 > endpoints.length) {
+                endpoints = Arrays.copyOf(endpoints, endpoints.length * 2);
+                endpointValues = Arrays.copyOf(endpointValues, endpoints.length);
+            }
+            //sorted into place by the next call of findPairs
+            endpoints[endpointCount++] = id * 2;
+            endpoints[endpointCount++] = id * 2 + 1;
+        }
+    }
+
+    public void update(int id, Rectangle rectangle) {
+        update(id, rectangle.getX(), rectangle.getY(), rectangle.getWidth(), rectangle.getHeight());
+    }
+
+    /**
+     * Removes the rectangle. Its pairs are reported as exited by the next call
+     * of {@link #findPairs()}.
+     *
+     * @param id the id
+     * @return true, if the id was added
+     */
+    public boolean remove(int id) {
+        if (!contains(id)) {
+            return false;
+        }
+        present[id] = false;
+        size--;
+        return true;
+    }
+
+    public boolean contains(int id) {
+        return id >= 0 && id < present.length && present[id];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        Arrays.fill(present, false);
+        size = 0;
+    }
+
+    /**
+     * Finds all pairs of overlapping rectangles and the changes since the last
+     * call. Rectangles only touching each other do not overlap.
+     *
+     * @return the count of pairs
+     */
+    public int findPairs() {
+        refreshEndpoints();
+        sortEndpoints();
+        swapPairBuffers();
+        sweep();
+        Arrays.sort(pairs, 0, pairCount);
+        diff();
+        return pairCount;
+    }
+
+    /**
+     * Returns the pairs found by the last call of {@link #findPairs()}, sorted
+     * ascending. The array is reused and only the first
+     * {@link #getPairCount()} values are valid.
+     *
+     * @return the pairs
+     */
+    public long[] getPairs() {
+        return pairs;
+    }
+
+    /**
+     * Returns the pairs, which started overlapping in the last call of
+     * {@link #findPairs()}. Only the first {@link #getEnteredCount()} values
+     * are valid.
+     *
+     * @return the entered pairs
+     */
+    public long[] getEntered() {
+        return entered;
+    }
+
+    /**
+     * Returns the pairs, which overlapped already before the last call of
+     * {@link #findPairs()}. Only the first {@link #getStayedCount()} values
+     * are valid.
+     *
+     * @return the stayed pairs
+     */
+    public long[] getStayed() {
+        return stayed;
+    }
+
+    /**
+     * Returns the pairs, which stopped overlapping in the last call of
+     * {@link #findPairs()}, including the pairs of removed rectangles. Only
+     * the first {@link #getExitedCount()} values are valid.
+     *
+     * @return the exited pairs
+     */
+    public long[] getExited() {
+        return exited;
+    }
+
+    /**
+     * Encodes the pair of ids, the order of the ids does not matter.
+     *
+     * @param a the first id
+     * @param b the second id
+     * @return the pair
+     */
+    public static long pair(int a, int b) {
+        return a < b ? ((long) a << 32) | b : ((long) b << 32) | a;
+    }
+
+    public static int first(long pair) {
+        return (int) (pair >>> 32);
+    }
+
+    public static int second(long pair) {
+        return (int) pair;
+    }
+
+    /**
+     * Drops the endpoints of removed rectangles and loads the current values.
+     */
+    private void refreshEndpoints() {
+        int written = 0;
+        for (int i = 0; i < endpointCount; i++) {
+            int endpoint = endpoints[i];
+            int id = endpoint >>> 1;
+            if (!present[id]) {
+                inEndpoints[id] = false;
+                continue;
+            }
+            int offset = id * 4;
+            endpoints[written] = endpoint;
+            endpointValues[written] = (endpoint & 1) == 0 ? bounds[offset] : bounds[offset] + bounds[offset + 2];
+            written++;
+        }
+        endpointCount = written;
+    }
+
+    /**
+     * Insertion sort by the value, minimums before maximums with the same
+     * value, so that every rectangle is activated before it is deactivated.
+     */
+    private void sortEndpoints() {
+        int swaps = 0;
+        for (int i = 1; i < endpointCount; i++) {
+            float value = endpointValues[i];
+            int endpoint = endpoints[i];
+            int j = i - 1;
+            while (j >= 0 && (endpointValues[j] > value
+                    || (endpointValues[j] == value && (endpoints[j] & 1) > (endpoint & 1)))) {
+                endpointValues[j + 1] = endpointValues[j];
+                endpoints[j + 1] = endpoints[j];
+                j--;
+                swaps++;
+            }
+            endpointValues[j + 1] = value;
+            endpoints[j + 1] = endpoint;
+        }
+        swapCount = swaps;
+    }
+
+    private void swapPairBuffers() {
+        long[] swap = previousPairs;
+        previousPairs = pairs;
+        previousPairCount = pairCount;
+        pairs = swap;
+        pairCount = 0;
+    }
+
+    private void sweep() {
+        int activeCount = 0;
+        for (int i = 0; i < endpointCount; i++) {
+            int endpoint = endpoints[i];
+            int id = endpoint >>> 1;
+            if ((endpoint & 1) != 0) {
+                int position = activePositions[id];
+                int last = active[--activeCount];
+                active[position] = last;
+                activePositions[last] = position;
+                continue;
+            }
+            int offset = id * 4;
+            float x = bounds[offset];
+            float y = bounds[offset + 1];
+            float right = x + bounds[offset + 2];
+            float bottom = y + bounds[offset + 3];
+            for (int k = 0; k < activeCount; k++) {
+                int other = active[k];
+                int otherOffset = other * 4;
+                float otherX = bounds[otherOffset];
+                float otherY = bounds[otherOffset + 1];
+                //the x axis is tested again, because of touching rectangles
+                if (otherX < right && otherX + bounds[otherOffset + 2] > x
+                        && otherY < bottom && otherY + bounds[otherOffset + 3] > y) {
+                    if (pairCount == pairs.length) {
+                        pairs = Arrays.copyOf(pairs, pairCount * 2);
+                    }
+                    pairs[pairCount++] = pair(id, other);
+                }
+            }
+            activePositions[id] = activeCount;
+            active[activeCount++] = id;
+        }
+    }
+
+    /**
+     * Merges the sorted current and previous pairs.
+     */
+    private void diff() {
+        int capacity = Math.max(pairCount, previousPairCount);
+        if (entered.length < capacity) {
+            entered = new long[capacity];
+            stayed = new long[capacity];
+            exited = new long[capacity];
+        }
+        enteredCount = 0;
+        stayedCount = 0;
+        exitedCount = 0;
+        int i = 0;
+        int j = 0;
+        while (i < previousPairCount || j < pairCount) {
+            if (j == pairCount || (i < previousPairCount && previousPairs[i] < pairs[j])) {
+                exited[exitedCount++] = previousPairs[i++];
+            } else if (i == previousPairCount || pairs[j] < previousPairs[i]) {
+                entered[enteredCount++] = pairs[j++];
+            } else {
+                stayed[stayedCount++] = pairs[j++];
+                i++;
+            }
+        }
+    }
+
+    private void ensureCapacity(int id) {
+        if (id < present.length) {
+            return;
+        }
+        int capacity = Math.max(id + 1, present.length * 2);
+        present = Arrays.copyOf(present, capacity);
+        inEndpoints = Arrays.copyOf(inEndpoints, capacity);
+        bounds = Arrays.copyOf(bounds, capacity * 4);
+        activePositions = Arrays.copyOf(activePositions, capacity);
+        active = Arrays.copyOf(active, capacity);
+    }
+}
@@ -0,0 +1,91 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// Pixel: Game library.
+// Copyright (C) 2024 the original author or authors.
+//
+// This program is free software: you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation, either version 3
+// of the License, or (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program. If not, see
+// <https://www.gnu.org/licenses/> or write to the Free Software
+// Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+///////////////////////////////////////////////////////////////////////////////////////////////
+package com.openeggbert.pixel.framework.tools;
+
+import com.openeggbert.pixel.framework.utils.AssetsManifest;
+import com.openeggbert.pixel.framework.utils.AssetsManifestWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Build time tool, which creates the binary assets manifest for a directory
+ * with assets.
+ *
+ * <p>
+ * Usage: {@code AssetsManifestTool <assets directory> [<output file>]}. If the
+ * output file is not specified, then the file assets.manifest is created in the
+ * assets directory.
+ * </p>
+ *
+ * <p>
+ * This class uses java.nio.file and is not part of the GWT module.
+ * </p>
+ *
+ * @author robertvokac
+ */
+public class AssetsManifestTool {
+
+    private AssetsManifestTool() {
+        //Not meant to be instantiated.
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || args.length > 2) {
+            System.err.println("Usage: AssetsManifestTool <assets directory> [<output file>]");
+            System.exit(1);
+            return;
+        }
+        Path assetsDirectory = Paths.get(args[0]);
+        Path output = args.length == 2 ? Paths.get(args[1]) : assetsDirectory.resolve(AssetsManifest.FILE_NAME);
+        byte[] manifest = createManifest(assetsDirectory, output);
+        Files.write(output, manifest);
+        System.out.println("Created " + output + " (" + manifest.length + " bytes)");
+    }
+
+    /**
+     * Creates the manifest for all regular files in the directory and its
+     * subdirectories.
+     *
+     * @param assetsDirectory the directory with assets
+     * @param ignoredFile this file is not added to the manifest, can be null
+     * @return the content of the manifest
+     * @throws IOException if reading of a file failed
+     */
+    public static byte[] createManifest(Path assetsDirectory, Path ignoredFile) throws IOException {
+        List<Path> files;
+        try (Stream<Path> stream = Files.walk(assetsDirectory)) {
+            files = stream
+                    .filter(Files::isRegularFile)
+                    .filter(p -> ignoredFile == null || !p.toAbsolutePath().equals(ignoredFile.toAbsolutePath()))
+                    .collect(Collectors.toList());
+        }
+        AssetsManifestWriter writer = new AssetsManifestWriter();
+        for (Path file : files) {
+            String path = assetsDirectory.relativize(file).toString().replace('\\', '/');
+            writer.add(path, Files.readAllBytes(file));
+        }
+        return writer.toByteArray();
+    }
+}
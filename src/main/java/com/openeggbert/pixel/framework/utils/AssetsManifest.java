@@ -0,0 +1,323 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// Pixel: Game library.
+// Copyright (C) 2024 the original author or authors.
+//
+// This program is free software: you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation, either version 3
+// of the License, or (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program. If not, see
+// <https://www.gnu.org/licenses/> or write to the Free Software
+// Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+///////////////////////////////////////////////////////////////////////////////////////////////
+package com.openeggbert.pixel.framework.utils;
+
+import com.openeggbert.pixel.framework.files.FileException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary, precompiled alternative to the text file assets.txt.
+ *
+ * <p>
+ * The manifest is created at build time by {@link AssetsManifestWriter} and
+ * contains a string table, the directory tree, and the size and the content
+ * hash of every file. It is loaded with a single read and without splitting
+ * any lines. The query methods of {@link AssetsTxt} are answered directly from
+ * the directory tree.
+ * </p>
+ *
+ * <p>
+ * Layout (all numbers are big-endian):
+ * </p>
+ * <ul>
+ * <li>header: magic, version, string count, string data length, directory
+ * count, file count (6 ints)</li>
+ * <li>string offsets: string count + 1 ints, followed by the UTF-8 string
+ * data</li>
+ * <li>directories: name, parent, first child directory, child directory count,
+ * first file, file count (6 ints each). The root directory is the first one,
+ * the children of a directory are stored next to each other.</li>
+ * <li>files: name, directory (2 ints), size, hash (2 longs). The files of a
+ * directory are stored next to each other, sorted by name.</li>
+ * </ul>
+ *
+ * @author robertvokac
+ */
+public class AssetsManifest extends AssetsTxt {
+
+    public static final String FILE_NAME = "assets.manifest";
+
+    static final int MAGIC = 0x5058414D;//PXAM
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 6 * 4;
+    static final int DIRECTORY_RECORD_SIZE = 6 * 4;
+    static final int FILE_RECORD_SIZE = 2 * 4 + 2 * 8;
+    static final int ROOT = 0;
+    static final int NO_NAME = -1;
+
+    private static final String ROOT_PATH = ".";
+
+    private final String[] strings;
+
+    private final int[] directoryName;
+    private final int[] directoryParent;
+    private final int[] directoryFirstChild;
+    private final int[] directoryChildCount;
+    private final int[] directoryFirstFile;
+    private final int[] directoryFileCount;
+
+    private final int[] fileName;
+    private final int[] fileDirectory;
+    private final long[] fileSize;
+    private final long[] fileHash;
+
+    private final String[] directoryPaths;
+    private final Map<String, Integer> directoryIndexes;
+
+    public AssetsManifest(byte[] data) {
+        BinaryUtils bu = BinaryUtilsImpl.INSTANCE;
+        if (data.length < HEADER_SIZE || bu.readInt(data, 0) != MAGIC) {
+            throw new FileException("This is not an assets manifest.");
+        }
+        int version = bu.readInt(data, 4);
+        if (version != VERSION) {
+            throw new FileException("Unsupported version of assets manifest: " + version);
+        }
+        int stringCount = bu.readInt(data, 8);
+        int stringDataLength = bu.readInt(data, 12);
+        int directoryCount = bu.readInt(data, 16);
+        int fileCount = bu.readInt(data, 20);
+        if (stringCount < 0 || stringDataLength < 0 || directoryCount < 1 || fileCount < 0) {
+            throw new FileException("Assets manifest is corrupted, invalid counts: " + stringCount + ", "
+                    + stringDataLength + ", " + directoryCount + ", " + fileCount);
+        }
+        long expectedLength = HEADER_SIZE + (stringCount + 1L) * 4 + stringDataLength
+                + (long) directoryCount * DIRECTORY_RECORD_SIZE + (long) fileCount * FILE_RECORD_SIZE;
+        if (data.length != expectedLength) {
+            throw new FileException("Assets manifest is corrupted, unexpected length: " + data.length);
+        }
+
+        int offsetsStart = HEADER_SIZE;
+        int stringDataStart = offsetsStart + (stringCount + 1) * 4;
+        int directoriesStart = stringDataStart + stringDataLength;
+        int filesStart = directoriesStart + directoryCount * DIRECTORY_RECORD_SIZE;
+
+        strings = new String[stringCount];
+        int stringStart = bu.readInt(data, offsetsStart);
+        for (int i = 0; i < stringCount; i++) {
+            int stringEnd = bu.readInt(data, offsetsStart + (i + 1) * 4);
+            if (stringStart < 0 || stringEnd < stringStart || stringEnd > stringDataLength) {
+                throw new FileException("Assets manifest is corrupted, invalid offsets of string " + i + ": "
+                        + stringStart + "-" + stringEnd);
+            }
+            strings[i] = new String(data, stringDataStart + stringStart, stringEnd - stringStart, StandardCharsets.UTF_8);
+            stringStart = stringEnd;
+        }
+
+        directoryName = new int[directoryCount];
+        directoryParent = new int[directoryCount];
+        directoryFirstChild = new int[directoryCount];
+        directoryChildCount = new int[directoryCount];
+        directoryFirstFile = new int[directoryCount];
+        directoryFileCount = new int[directoryCount];
+        for (int i = 0, offset = directoriesStart; i < directoryCount; i++, offset += DIRECTORY_RECORD_SIZE) {
+            directoryName[i] = bu.readInt(data, offset);
+            directoryParent[i] = bu.readInt(data, offset + 4);
+            directoryFirstChild[i] = bu.readInt(data, offset + 8);
+            directoryChildCount[i] = bu.readInt(data, offset + 12);
+            directoryFirstFile[i] = bu.readInt(data, offset + 16);
+            directoryFileCount[i] = bu.readInt(data, offset + 20);
+            if (i != ROOT) {
+                checkIndex("name of directory", i, directoryName[i], stringCount);
+                //parents are always stored before their children
+                checkIndex("parent of directory", i, directoryParent[i], i);
+            }
+            //the root is nobody's child
+            checkRange("child directories of directory", i, directoryFirstChild[i], directoryChildCount[i], ROOT + 1, directoryCount);
+            checkRange("files of directory", i, directoryFirstFile[i], directoryFileCount[i], 0, fileCount);
+        }
+
+        fileName = new int[fileCount];
+        fileDirectory = new int[fileCount];
+        fileSize = new long[fileCount];
+        fileHash = new long[fileCount];
+        for (int i = 0, offset = filesStart; i < fileCount; i++, offset += FILE_RECORD_SIZE) {
+            fileName[i] = bu.readInt(data, offset);
+            fileDirectory[i] = bu.readInt(data, offset + 4);
+            fileSize[i] = bu.readLong(data, offset + 8);
+            fileHash[i] = bu.readLong(data, offset + 16);
+            checkIndex("name of file", i, fileName[i], stringCount);
+            checkIndex("directory of file", i, fileDirectory[i], directoryCount);
+        }
+
+        directoryIndexes = new HashMap<>(directoryCount * 2);
+        directoryPaths = new String[directoryCount];
+        for (int i = 0; i < directoryCount; i++) {
+            if (i == ROOT) {
+                directoryPaths[i] = ROOT_PATH;
+                continue;
+            }
+            int parent = directoryParent[i];
+            String name = strings[directoryName[i]];
+            directoryPaths[i] = parent == ROOT ? name : directoryPaths[parent] + "/" + name;
+            directoryIndexes.put(directoryPaths[i], i);
+        }
+    }
+
+    private static void checkIndex(String what, int record, int index, int count) {
+        if (index < 0 || index >= count) {
+            throw new FileException("Assets manifest is corrupted, invalid " + what + " " + record + ": " + index);
+        }
+    }
+
+    private static void checkRange(String what, int record, int first, int count, int min, int end) {
+        if (first < min || count < 0 || (long) first + count > end) {
+            throw new FileException("Assets manifest is corrupted, invalid " + what + " " + record + ": "
+                    + first + "+" + count);
+        }
+    }
+
+    public int getDirectoryCount() {
+        return directoryName.length;
+    }
+
+    public int getFileCount() {
+        return fileName.length;
+    }
+
+    @Override
+    public void listDirectories() {
+        for (int i = 0; i < directoryName.length; i++) {
+            if (i != ROOT) {
+                System.out.println(getDirectoryPath(i));
+            }
+        }
+    }
+
+    @Override
+    public void listFiles() {
+        for (int i = 0; i < fileName.length; i++) {
+            System.out.println(getFilePath(i));
+        }
+    }
+
+    @Override
+    public List<String> list(String pathToDirectory, boolean directoryType, boolean fileType) {
+        if (!directoryType && !fileType) {
+            throw new FileException("Invalid arguments, both arguments are false: directoryType, fileType");
+        }
+        int directory = findDirectory(pathToDirectory);
+        if (directory < 0) {
+            throw new FileException("There is no such directory in assets: " + pathToDirectory);
+        }
+        List<String> result = new ArrayList<>(
+                (fileType ? directoryFileCount[directory] : 0) + (directoryType ? directoryChildCount[directory] : 0));
+        if (fileType) {
+            int first = directoryFirstFile[directory];
+            int end = first + directoryFileCount[directory];
+            for (int i = first; i < end; i++) {
+                result.add(strings[fileName[i]]);
+            }
+        }
+        if (directoryType) {
+            int first = directoryFirstChild[directory];
+            int end = first + directoryChildCount[directory];
+            for (int i = first; i < end; i++) {
+                result.add(strings[directoryName[i]]);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public boolean containsDirectory(String path) {
+        return directoryIndexes.containsKey(path);
+    }
+
+    public boolean containsFile(String path) {
+        return findFile(path) >= 0;
+    }
+
+    /**
+     * Returns the size of the file in bytes.
+     *
+     * @param path the path of the file
+     * @return the size
+     * @throws FileException if there is no such file
+     */
+    public long getFileSize(String path) {
+        return fileSize[findExistingFile(path)];
+    }
+
+    /**
+     * Returns the hash of the content of the file, as computed by
+     * {@link BinaryUtils#hash64(byte[])}.
+     *
+     * @param path the path of the file
+     * @return the hash
+     * @throws FileException if there is no such file
+     */
+    public long getFileHash(String path) {
+        return fileHash[findExistingFile(path)];
+    }
+
+    String getDirectoryPath(int directory) {
+        return directoryPaths[directory];
+    }
+
+    String getFilePath(int file) {
+        int directory = fileDirectory[file];
+        String name = strings[fileName[file]];
+        return directory == ROOT ? name : directoryPaths[directory] + "/" + name;
+    }
+
+    private int findDirectory(String path) {
+        if (path.equals(ROOT_PATH)) {
+            return ROOT;
+        }
+        Integer index = directoryIndexes.get(path);
+        return index == null ? -1 : index;
+    }
+
+    private int findExistingFile(String path) {
+        int file = findFile(path);
+        if (file < 0) {
+            throw new FileException("There is no such file in assets: " + path);
+        }
+        return file;
+    }
+
+    private int findFile(String path) {
+        int lastSlash = path.lastIndexOf('/');
+        int directory = findDirectory(lastSlash < 0 ? ROOT_PATH : path.substring(0, lastSlash));
+        if (directory < 0) {
+            return -1;
+        }
+        String name = path.substring(lastSlash + 1);
+        int low = directoryFirstFile[directory];
+        int high = low + directoryFileCount[directory] - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = strings[fileName[middle]].compareTo(name);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,198 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// Pixel: Game library.
+// Copyright (C) 2024 the original author or authors.
+//
+// This program is free software: you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation, either version 3
+// of the License, or (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program. If not, see
+// <https://www.gnu.org/licenses/> or write to the Free Software
+// Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+///////////////////////////////////////////////////////////////////////////////////////////////
+package com.openeggbert.pixel.framework.utils;
+
+import com.openeggbert.pixel.framework.files.FileException;
+import com.openeggbert.pixel.framework.files.FileSystem;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Creates the binary {@link AssetsManifest}. Meant to be used at build time.
+ *
+ * @author robertvokac
+ */
+public class AssetsManifestWriter {
+
+    private final Directory root = new Directory(null, null);
+
+    /**
+     * Adds a file. The size and the hash are computed from the content.
+     *
+     * @param path the relative path of the file, with slashes as separators
+     * @param content the content of the file
+     * @return this writer for method chaining
+     */
+    public AssetsManifestWriter add(String path, byte[] content) {
+        return add(path, content.length, BinaryUtilsImpl.INSTANCE.hash64(content));
+    }
+
+    /**
+     * Adds a file.
+     *
+     * @param path the relative path of the file, with slashes as separators
+     * @param size the size of the file in bytes
+     * @param hash the hash of the content of the file
+     * @return this writer for method chaining
+     */
+    public AssetsManifestWriter add(String path, long size, long hash) {
+        if (path.isEmpty() || path.startsWith("/") || path.endsWith("/")) {
+            throw new FileException("Invalid path of asset: " + path);
+        }
+        String[] array = path.split("/");
+        Directory directory = root;
+        for (int i = 0; i < array.length - 1; i++) {
+            if (directory.files.containsKey(array[i])) {
+                throw new FileException("Path of asset is already used by a file: " + path);
+            }
+            Directory parent = directory;
+            directory = directory.directories.computeIfAbsent(array[i], n -> new Directory(n, parent));
+        }
+        String name = array[array.length - 1];
+        if (directory.files.containsKey(name) || directory.directories.containsKey(name)) {
+            throw new FileException("Asset was already added: " + path);
+        }
+        directory.files.put(name, new long[]{size, hash});
+        return this;
+    }
+
+    /**
+     * Serializes the added files.
+     *
+     * @return the content of the manifest
+     */
+    public byte[] toByteArray() {
+        //breadth first order keeps the children of every directory together
+        List<Directory> directories = new ArrayList<>();
+        directories.add(root);
+        for (int i = 0; i < directories.size(); i++) {
+            directories.addAll(directories.get(i).directories.values());
+        }
+        Map<String, Integer> stringIndexes = new LinkedHashMap<>();
+        int fileCount = 0;
+        for (Directory directory : directories) {
+            if (directory.name != null) {
+                stringIndexes.putIfAbsent(directory.name, stringIndexes.size());
+            }
+            for (String name : directory.files.keySet()) {
+                stringIndexes.putIfAbsent(name, stringIndexes.size());
+            }
+            fileCount += directory.files.size();
+        }
+        List<byte[]> encodedStrings = new ArrayList<>(stringIndexes.size());
+        int stringDataLength = 0;
+        for (String string : stringIndexes.keySet()) {
+            byte[] encoded = string.getBytes(StandardCharsets.UTF_8);
+            encodedStrings.add(encoded);
+            stringDataLength += encoded.length;
+        }
+
+        int stringDataStart = AssetsManifest.HEADER_SIZE + (encodedStrings.size() + 1) * 4;
+        int directoriesStart = stringDataStart + stringDataLength;
+        int filesStart = directoriesStart + directories.size() * AssetsManifest.DIRECTORY_RECORD_SIZE;
+        byte[] data = new byte[filesStart + fileCount * AssetsManifest.FILE_RECORD_SIZE];
+
+        BinaryUtils bu = BinaryUtilsImpl.INSTANCE;
+        bu.writeInt(data, 0, AssetsManifest.MAGIC);
+        bu.writeInt(data, 4, AssetsManifest.VERSION);
+        bu.writeInt(data, 8, encodedStrings.size());
+        bu.writeInt(data, 12, stringDataLength);
+        bu.writeInt(data, 16, directories.size());
+        bu.writeInt(data, 20, fileCount);
+
+        int stringOffset = 0;
+        for (int i = 0; i < encodedStrings.size(); i++) {
+            byte[] encoded = encodedStrings.get(i);
+            bu.writeInt(data, AssetsManifest.HEADER_SIZE + i * 4, stringOffset);
+            System.arraycopy(encoded, 0, data, stringDataStart + stringOffset, encoded.length);
+            stringOffset += encoded.length;
+        }
+        bu.writeInt(data, AssetsManifest.HEADER_SIZE + encodedStrings.size() * 4, stringOffset);
+
+        for (int i = 0; i < directories.size(); i++) {
+            directories.get(i).index = i;
+        }
+        int nextChild = 1;
+        int nextFile = 0;
+        int fileOffset = filesStart;
+        for (int i = 0; i < directories.size(); i++) {
+            Directory directory = directories.get(i);
+            int offset = directoriesStart + i * AssetsManifest.DIRECTORY_RECORD_SIZE;
+            bu.writeInt(data, offset, directory.name == null ? AssetsManifest.NO_NAME : stringIndexes.get(directory.name));
+            bu.writeInt(data, offset + 4, directory.parent == null ? AssetsManifest.ROOT : directory.parent.index);
+            bu.writeInt(data, offset + 8, nextChild);
+            bu.writeInt(data, offset + 12, directory.directories.size());
+            bu.writeInt(data, offset + 16, nextFile);
+            bu.writeInt(data, offset + 20, directory.files.size());
+            nextChild += directory.directories.size();
+            nextFile += directory.files.size();
+            for (Map.Entry<String, long[]> file : directory.files.entrySet()) {
+                bu.writeInt(data, fileOffset, stringIndexes.get(file.getKey()));
+                bu.writeInt(data, fileOffset + 4, i);
+                bu.writeLong(data, fileOffset + 8, file.getValue()[0]);
+                bu.writeLong(data, fileOffset + 16, file.getValue()[1]);
+                fileOffset += AssetsManifest.FILE_RECORD_SIZE;
+            }
+        }
+        return data;
+    }
+
+    /**
+     * Creates the manifest for the files listed in the text of assets.txt. The
+     * content of the files is read from the given file system, the paths are
+     * relative to its working directory.
+     *
+     * @param assetsTxt the content of assets.txt
+     * @param fileSystem the file system containing the assets
+     * @return the content of the manifest
+     */
+    public static byte[] fromAssetsTxt(String assetsTxt, FileSystem fileSystem) {
+        AssetsManifestWriter writer = new AssetsManifestWriter();
+        for (String line : assetsTxt.split("\\r?\\n")) {
+            if (line.isEmpty()) {
+                continue;
+            }
+            byte[] content = fileSystem.readBytes(line);
+            if (content == null) {
+                throw new FileException("Could not read asset: " + line);
+            }
+            writer.add(line, content);
+        }
+        return writer.toByteArray();
+    }
+
+    private static class Directory {
+
+        private final String name;
+        private final Directory parent;
+        private int index;
+        private final Map<String, Directory> directories = new TreeMap<>();
+        private final Map<String, long[]> files = new TreeMap<>();
+
+        Directory(String name, Directory parent) {
+            this.name = name;
+            this.parent = parent;
+        }
+    }
+}
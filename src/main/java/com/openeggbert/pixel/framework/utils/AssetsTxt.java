@@ -19,7 +19,6 @@
 ///////////////////////////////////////////////////////////////////////////////////////////////
 package com.openeggbert.pixel.framework.utils;
 
-import com.openeggbert.pixel.framework.Pixel;
 import com.openeggbert.pixel.framework.files.FileException;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -39,8 +38,15 @@ public class AssetsTxt {
     
     private final Set<String> directoriesSet = new HashSet<>();
 
+    /**
+     * Constructor for subclasses, which answer the queries from another source
+     * than the text of assets.txt.
+     */
+    protected AssetsTxt() {
+    }
+
     public AssetsTxt(String readString) {
-        Pixel.utils().splitStringToLinesAsStream(readString).forEach(line -> {
+        Arrays.stream(readString.split("\\r?\\n")).forEach(line -> {
             var lineArray = Arrays.asList(line.split("/"));
             filesLists.add(lineArray);
             if (lineArray.size() > 1) {
@@ -61,8 +67,7 @@ public class AssetsTxt {
             while (depth > 1) {
                 depth = depth - 1;
                 String aSubdirectory = list.stream().limit(depth).collect(Collectors.joining("/"));
-                if (!directoriesSet.contains(aSubdirectory)) {
-                    subDirectoriesTmpSet.add(aSubdirectory);
+                if (!directoriesSet.contains(aSubdirectory) && subDirectoriesTmpSet.add(aSubdirectory)) {
                     directoriesLists.add(Arrays.asList(aSubdirectory.split("/")));
                 }
 
@@ -28,6 +28,71 @@ import java.util.BitSet;
  */
 public interface BinaryUtils {
     public int BITS_PER_BYTE = 8;
+    /**
+     * Converts the lowest bits of the value to a bit set. Meant for single
+     * values, images are packed by
+     * {@link com.openeggbert.pixel.framework.graphics.PixelFormatCodec}.
+     *
+     * @param value the value
+     * @param bitCount the count of bits
+     * @return the bit set
+     */
     BitSet convertIntToBitSet(int value, int bitCount);
+
+    /**
+     * Concatenates three bit sets. Meant for single values, images are packed
+     * by {@link com.openeggbert.pixel.framework.graphics.PixelFormatCodec}.
+     */
     BitSet merge3BitSets(BitSet bitSet1, BitSet bitSet2, BitSet bitSet3, int bitSet1Size, int bitSet2Size, int bitSet3Size);
+
+    /**
+     * Reads a big-endian 32-bit integer.
+     *
+     * @param data the source array
+     * @param offset the index of the first byte
+     * @return the integer
+     */
+    int readInt(byte[] data, int offset);
+
+    /**
+     * Reads a big-endian 64-bit integer.
+     *
+     * @param data the source array
+     * @param offset the index of the first byte
+     * @return the long
+     */
+    long readLong(byte[] data, int offset);
+
+    /**
+     * Writes a big-endian 32-bit integer.
+     *
+     * @param data the target array
+     * @param offset the index of the first byte
+     * @param value the integer to write
+     */
+    void writeInt(byte[] data, int offset, int value);
+
+    /**
+     * Writes a big-endian 64-bit integer.
+     *
+     * @param data the target array
+     * @param offset the index of the first byte
+     * @param value the long to write
+     */
+    void writeLong(byte[] data, int offset, long value);
+
+    /**
+     * Computes the 64-bit FNV-1a hash of a part of an array. The hash is not
+     * cryptographic, it is meant for detecting changed content.
+     *
+     * @param data the data
+     * @param offset the index of the first byte
+     * @param length the count of bytes
+     * @return the hash
+     */
+    long hash64(byte[] data, int offset, int length);
+
+    default long hash64(byte[] data) {
+        return hash64(data, 0, data.length);
+    }
 }
@@ -79,4 +79,45 @@ public class BinaryUtilsImpl implements BinaryUtils {
         return result;
     }
 
+    private static final long FNV_64_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_64_PRIME = 0x100000001b3L;
+
+    @Override
+    public int readInt(byte[] data, int offset) {
+        return ((data[offset] & 0xFF) << 24)
+                | ((data[offset + 1] & 0xFF) << 16)
+                | ((data[offset + 2] & 0xFF) << 8)
+                | (data[offset + 3] & 0xFF);
+    }
+
+    @Override
+    public long readLong(byte[] data, int offset) {
+        return ((long) readInt(data, offset) << 32) | (readInt(data, offset + 4) & 0xFFFFFFFFL);
+    }
+
+    @Override
+    public void writeInt(byte[] data, int offset, int value) {
+        data[offset] = (byte) (value >>> 24);
+        data[offset + 1] = (byte) (value >>> 16);
+        data[offset + 2] = (byte) (value >>> 8);
+        data[offset + 3] = (byte) value;
+    }
+
+    @Override
+    public void writeLong(byte[] data, int offset, long value) {
+        writeInt(data, offset, (int) (value >>> 32));
+        writeInt(data, offset + 4, (int) value);
+    }
+
+    @Override
+    public long hash64(byte[] data, int offset, int length) {
+        long hash = FNV_64_OFFSET_BASIS;
+        int end = offset + length;
+        for (int i = offset; i < end; i++) {
+            hash ^= (data[i] & 0xFF);
+            hash *= FNV_64_PRIME;
+        }
+        return hash;
+    }
+
 }
@@ -0,0 +1,129 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// Pixel: Game library.
+// Copyright (C) 2024 the original author or authors.
+//
+// This program is free software: you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation, either version 3
+// of the License, or (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program. If not, see
+// <https://www.gnu.org/licenses/> or write to the Free Software
+// Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+///////////////////////////////////////////////////////////////////////////////////////////////
+package com.openeggbert.pixel.framework.utils;
+
+import com.openeggbert.pixel.framework.PixelException;
+import java.util.ArrayList;
+import java.util.function.Supplier;
+import lombok.Getter;
+
+/**
+ * Pool of reusable objects, so that short-lived temporary objects (vectors,
+ * matrices) do not create garbage every frame.
+ *
+ * <p>
+ * Objects implementing {@link Poolable} are reset, when they are freed. The
+ * pool is not thread-safe.
+ * </p>
+ *
+ * @author robertvokac
+ * @param <T> the type of the pooled objects
+ */
+public class Pool<T> {
+
+    /**
+     * Object, which can be reset to its initial state, when it is returned to a
+     * pool.
+     */
+    public interface Poolable {
+
+        void reset();
+    }
+
+    private final Supplier<T> factory;
+    @Getter
+    private final int max;
+    private final ArrayList<T> freeObjects;
+    /**
+     * The highest count of free objects held by this pool.
+     */
+    @Getter
+    private int peak;
+
+    public Pool(Supplier<T> factory) {
+        this(factory, 16, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Creates the pool.
+     *
+     * @param factory creates new objects, when the pool is empty
+     * @param initialCapacity the initial capacity of the list of free objects
+     * @param max the maximum count of free objects kept, the others are left
+     * to the garbage collector
+     */
+    public Pool(Supplier<T> factory, int initialCapacity, int max) {
+        if (max < 1) {
+            throw new PixelException("Maximum count of free objects must be positive: " + max);
+        }
+        this.factory = factory;
+        this.max = max;
+        this.freeObjects = new ArrayList<>(Math.min(initialCapacity, max));
+    }
+
+    /**
+     * Returns a free object, or a new one, if there is no free object.
+     *
+     * @return the object
+     */
+    public T obtain() {
+        int size = freeObjects.size();
+        return size == 0 ? factory.get() : freeObjects.remove(size - 1);
+    }
+
+    /**
+     * Returns the object to this pool.
+     *
+     * @param object the object no more used by the caller
+     */
+    public void free(T object) {
+        if (object == null) {
+            throw new PixelException("Object to be freed is null.");
+        }
+        if (freeObjects.size() < max) {
+            freeObjects.add(object);
+            peak = Math.max(peak, freeObjects.size());
+        }
+        if (object instanceof Poolable) {
+            ((Poolable) object).reset();
+        }
+    }
+
+    /**
+     * Creates new free objects in advance.
+     *
+     * @param count the count of objects to be created
+     */
+    public void fill(int count) {
+        int toBeCreated = Math.min(count, max - freeObjects.size());
+        for (int i = 0; i < toBeCreated; i++) {
+            freeObjects.add(factory.get());
+        }
+        peak = Math.max(peak, freeObjects.size());
+    }
+
+    public int getFree() {
+        return freeObjects.size();
+    }
+
+    public void clear() {
+        freeObjects.clear();
+    }
+}
@@ -0,0 +1,168 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// Pixel: Game library.
+// Copyright (C) 2024 the original author or authors.
+//
+// This program is free software: you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation, either version 3
+// of the License, or (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program. If not, see
+// <https://www.gnu.org/licenses/> or write to the Free Software
+// Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+///////////////////////////////////////////////////////////////////////////////////////////////
+package com.openeggbert.pixel.framework.files.async;
+
+import com.openeggbert.pixel.framework.files.FileException;
+import com.openeggbert.pixel.framework.files.FileSystem;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AsyncFileSystemTest {
+
+    private static final long TIMEOUT = 5;
+
+    private FileSystem fileSystem;
+    private AsyncFileSystem async;
+
+    @BeforeEach
+    void setUp() {
+        fileSystem = mock(FileSystem.class);
+        when(fileSystem.convertToAbsolutePathIfNeeded(anyString())).thenAnswer(i -> i.getArgument(0));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (async != null) {
+            async.dispose();
+        }
+    }
+
+    @Test
+    void testConcurrentReadsAreCoalesced() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger readCount = new AtomicInteger();
+        byte[] content = {1, 2, 3};
+        when(fileSystem.readBytes("/a")).thenAnswer(i -> {
+            readCount.incrementAndGet();
+            release.await(TIMEOUT, TimeUnit.SECONDS);
+            return content;
+        });
+        async = new AsyncFileSystem(fileSystem, 2, 16, (Executor) null);
+        CompletableFuture<byte[]> first = async.readBytes("/a");
+        CompletableFuture<byte[]> second = async.readBytes("/a");
+        assertEquals(1, async.getInFlightReadCount());
+        release.countDown();
+        assertSame(content, first.get(TIMEOUT, TimeUnit.SECONDS));
+        assertSame(content, second.get(TIMEOUT, TimeUnit.SECONDS));
+        assertEquals(1, readCount.get());
+        waitUntil(() -> async.getInFlightReadCount() == 0);
+    }
+
+    @Test
+    void testReadAfterWriteIsNotStale() throws Exception {
+        AtomicReference<byte[]> stored = new AtomicReference<>("old".getBytes(StandardCharsets.UTF_8));
+        CountDownLatch firstReadStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger readCount = new AtomicInteger();
+        when(fileSystem.readBytes("/a")).thenAnswer(i -> {
+            byte[] snapshot = stored.get();
+            if (readCount.incrementAndGet() == 1) {
+                firstReadStarted.countDown();
+                release.await(TIMEOUT, TimeUnit.SECONDS);
+            }
+            return snapshot;
+        });
+        when(fileSystem.writeBytes(anyString(), any())).thenAnswer(i -> {
+            //slow write, a read not waiting for it would see the old content
+            Thread.sleep(100);
+            stored.set(i.getArgument(1));
+            return "";
+        });
+        async = new AsyncFileSystem(fileSystem, 3, 16, (Executor) null);
+        CompletableFuture<byte[]> before = async.readBytes("/a");
+        assertTrue(firstReadStarted.await(TIMEOUT, TimeUnit.SECONDS));
+        CompletableFuture<String> write = async.writeBytes("/a", "new".getBytes(StandardCharsets.UTF_8));
+        CompletableFuture<byte[]> after = async.readBytes("/a");
+        assertEquals("new", new String(after.get(TIMEOUT, TimeUnit.SECONDS), StandardCharsets.UTF_8));
+        assertEquals("", write.get(TIMEOUT, TimeUnit.SECONDS));
+        release.countDown();
+        assertEquals("old", new String(before.get(TIMEOUT, TimeUnit.SECONDS), StandardCharsets.UTF_8));
+        assertEquals(2, readCount.get());
+    }
+
+    @Test
+    void testErrorsArePropagated() throws Exception {
+        when(fileSystem.readBytes("/broken")).thenThrow(new FileException("broken"));
+        when(fileSystem.writeString("/broken", "text")).thenThrow(new FileException("read only"));
+        async = new AsyncFileSystem(fileSystem);
+        ExecutionException readError = assertThrows(ExecutionException.class,
+                () -> async.readBytes("/broken").get(TIMEOUT, TimeUnit.SECONDS));
+        assertInstanceOf(FileException.class, readError.getCause());
+        ExecutionException writeError = assertThrows(ExecutionException.class,
+                () -> async.writeString("/broken", "text").get(TIMEOUT, TimeUnit.SECONDS));
+        assertInstanceOf(FileException.class, writeError.getCause());
+        waitUntil(() -> async.getInFlightReadCount() == 0);
+    }
+
+    @Test
+    void testFullQueueFailsFuture() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(fileSystem.readBytes(anyString())).thenAnswer(i -> {
+            started.countDown();
+            release.await(TIMEOUT, TimeUnit.SECONDS);
+            return new byte[0];
+        });
+        async = new AsyncFileSystem(fileSystem, 1, 1, (Executor) null);
+        CompletableFuture<byte[]> running = async.readBytes("/a");
+        assertTrue(started.await(TIMEOUT, TimeUnit.SECONDS));
+        CompletableFuture<byte[]> queued = async.readBytes("/b");
+        CompletableFuture<byte[]> rejected = async.readBytes("/c");
+        ExecutionException error = assertThrows(ExecutionException.class, () -> rejected.get(TIMEOUT, TimeUnit.SECONDS));
+        assertInstanceOf(FileException.class, error.getCause());
+        release.countDown();
+        assertNotNull(running.get(TIMEOUT, TimeUnit.SECONDS));
+        assertNotNull(queued.get(TIMEOUT, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testDisposedFileSystemFailsFuture() {
+        async = new AsyncFileSystem(fileSystem);
+        async.dispose();
+        ExecutionException error = assertThrows(ExecutionException.class, () -> async.readBytes("/a").get(TIMEOUT, TimeUnit.SECONDS));
+        assertInstanceOf(FileException.class, error.getCause());
+        assertTrue(error.getCause().getMessage().startsWith("File system is disposed"), error.getCause().getMessage());
+        error = assertThrows(ExecutionException.class, () -> async.list("/").get(TIMEOUT, TimeUnit.SECONDS));
+        assertEquals("File system is disposed", error.getCause().getMessage());
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long end = System.currentTimeMillis() + TIMEOUT * 1000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < end) {
+            Thread.sleep(5);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+}
@@ -0,0 +1,143 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// Pixel: Game library.
+// Copyright (C) 2024 the original author or authors.
+//
+// This program is free software: you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation, either version 3
+// of the License, or (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program. If not, see
+// <https://www.gnu.org/licenses/> or write to the Free Software
+// Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+///////////////////////////////////////////////////////////////////////////////////////////////
+package com.openeggbert.pixel.framework.files.host;
+
+import com.openeggbert.pixel.framework.Pixel;
+import com.openeggbert.pixel.framework.files.RegularFileType;
+import com.openeggbert.pixel.framework.files.map.MapFileSystem;
+import com.openeggbert.pixel.framework.files.map.MapFileSystemCompression;
+import com.openeggbert.pixel.framework.files.map.SimpleJavaMap;
+import com.openeggbert.pixel.framework.interfaces.App;
+import com.openeggbert.pixel.framework.interfaces.Utils;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import org.mockito.MockedStatic;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.when;
+
+/**
+ *
+ * @author robertvokac
+ */
+class MapFileSystemImporterTest {
+
+    private static final byte[] BINARY = {0, 1, 2, (byte) 0xff, (byte) 0xc3, 10, 0};
+
+    @TempDir
+    Path temporaryDirectory;
+
+    private MockedStatic<Pixel> pixel;
+    private Thread callingThread;
+    private MapFileSystem fileSystem;
+
+    @BeforeEach
+    void setup() {
+        //the mocked static methods are visible to the calling thread only,
+        //so the utils fail if they are used by the parallel workers
+        callingThread = Thread.currentThread();
+        Utils utils = mock(Utils.class);
+        when(utils.encodeToBase64(any(byte[].class))).thenAnswer(i -> {
+            assertSame(callingThread, Thread.currentThread());
+            return Base64.getEncoder().encodeToString(i.getArgument(0));
+        });
+        when(utils.decodeBase64AsByteArray(anyString())).thenAnswer(i -> {
+            assertSame(callingThread, Thread.currentThread());
+            return Base64.getDecoder().decode((String) i.getArgument(0));
+        });
+        when(utils.compress(any(byte[].class), anyString())).thenAnswer(i -> reverse(i.getArgument(0)));
+        when(utils.decompress(any(byte[].class), anyString())).thenAnswer(i -> reverse(i.getArgument(0)));
+        pixel = mockStatic(Pixel.class);
+        pixel.when(Pixel::utils).thenReturn(utils);
+        pixel.when(Pixel::app).thenReturn(mock(App.class));
+        fileSystem = new MapFileSystem(new SimpleJavaMap(), MapFileSystemCompression.LZMA);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pixel.close();
+    }
+
+    @Test
+    void testRoundTrip() throws IOException {
+        Path source = Files.createDirectories(temporaryDirectory.resolve("source"));
+        Files.write(source.resolve("text.txt"), "Hello\nworld ěščř".getBytes(StandardCharsets.UTF_8));
+        Files.write(source.resolve("marker.txt"), "BINARYFILEnot really".getBytes(StandardCharsets.UTF_8));
+        Files.write(source.resolve("binary.bin"), BINARY);
+        Files.write(source.resolve("empty.txt"), new byte[0]);
+        Files.createDirectories(source.resolve("a/b"));
+        Files.write(source.resolve("a/b/nested.txt"), "nested".getBytes(StandardCharsets.UTF_8));
+        Files.createDirectories(source.resolve("emptyDirectory"));
+
+        BulkTransferReport imported = MapFileSystemImporter.importDirectory(source, fileSystem, "/data");
+        assertEquals(5, imported.getFileCount());
+        assertEquals(3, imported.getDirectoryCount());
+
+        assertEquals(RegularFileType.TEXT, fileSystem.getRegularFileType("/data/text.txt"));
+        assertEquals("Hello\nworld ěščř", fileSystem.readString("/data/text.txt"));
+        assertArrayEquals("Hello\nworld ěščř".getBytes(StandardCharsets.UTF_8), fileSystem.readBytes("/data/text.txt"));
+        assertEquals(RegularFileType.BINARY, fileSystem.getRegularFileType("/data/marker.txt"));
+        assertArrayEquals(BINARY, fileSystem.readBytes("/data/binary.bin"));
+        assertArrayEquals(new byte[0], fileSystem.readBytes("/data/empty.txt"));
+        assertTrue(fileSystem.isDirectory("/data/emptyDirectory"));
+
+        Path target = temporaryDirectory.resolve("target");
+        BulkTransferReport exported = MapFileSystemExporter.exportDirectory(fileSystem, "/data", target);
+        assertEquals(5, exported.getFileCount());
+        assertEquals(3, exported.getDirectoryCount());
+        assertEquals(imported.getByteCount(), exported.getByteCount());
+
+        for (String file : new String[]{"text.txt", "marker.txt", "binary.bin", "empty.txt", "a/b/nested.txt"}) {
+            assertArrayEquals(Files.readAllBytes(source.resolve(file)), Files.readAllBytes(target.resolve(file)), file);
+        }
+        assertTrue(Files.isDirectory(target.resolve("emptyDirectory")));
+    }
+
+    @Test
+    void testRoundTripWithoutTextDetection() throws IOException {
+        Path source = Files.createDirectories(temporaryDirectory.resolve("source"));
+        Files.write(source.resolve("text.txt"), "Hello".getBytes(StandardCharsets.UTF_8));
+
+        MapFileSystemImporter.importDirectory(source, fileSystem, "/", false);
+        assertEquals(RegularFileType.BINARY, fileSystem.getRegularFileType("/text.txt"));
+
+        Path target = temporaryDirectory.resolve("target");
+        MapFileSystemExporter.exportDirectory(fileSystem, "/", target);
+        assertEquals("Hello", new String(Files.readAllBytes(target.resolve("text.txt")), StandardCharsets.UTF_8));
+    }
+
+    private static byte[] reverse(byte[] data) {
+        byte[] result = new byte[data.length];
+        for (int i = 0; i < data.length; i++) {
+            result[i] = data[data.length - 1 - i];
+        }
+        return result;
+    }
+}
@@ -0,0 +1,158 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// Pixel: Game library.
+// Copyright (C) 2024 the original author or authors.
+//
+// This program is free software: you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation, either version 3
+// of the License, or (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program. If not, see
+// <https://www.gnu.org/licenses/> or write to the Free Software
+// Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+///////////////////////////////////////////////////////////////////////////////////////////////
+package com.openeggbert.pixel.framework.files.pack;
+
+import com.openeggbert.pixel.framework.files.FileException;
+import com.openeggbert.pixel.framework.files.FileType;
+import com.openeggbert.pixel.framework.utils.BinaryUtils;
+import com.openeggbert.pixel.framework.utils.BinaryUtilsImpl;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class PackFileSystemTest {
+
+    private byte[] pack;
+    private PackFileSystem fs;
+
+    @BeforeEach
+    void setUp() {
+        pack = new PackFileWriter(8)
+                .add("readme.txt", "Hello".getBytes(StandardCharsets.UTF_8))
+                .add("images/a.png", new byte[]{1, 2, 3})
+                .add("/images/tiles/grass.png", new byte[]{4, 5, 6, 7, 8})
+                .toByteArray();
+        fs = new PackFileSystem(pack);
+    }
+
+    @Test
+    void testDataIsAligned() {
+        assertEquals(0, pack.length % 8);
+    }
+
+    @Test
+    void testReadBytes() {
+        assertArrayEquals(new byte[]{1, 2, 3}, fs.readBytes("/images/a.png"));
+        assertArrayEquals(new byte[]{4, 5, 6, 7, 8}, fs.readBytes("/images/tiles/grass.png"));
+        assertEquals(5, fs.getSize("/images/tiles/grass.png"));
+        assertNull(fs.readBytes("/missing.png"));
+    }
+
+    @Test
+    void testReadString() {
+        assertEquals("Hello", fs.readString("readme.txt"));
+    }
+
+    @Test
+    void testTypes() {
+        assertTrue(fs.isDirectory("/"));
+        assertTrue(fs.isDirectory("/images/tiles"));
+        assertTrue(fs.isFile("/images/a.png"));
+        assertFalse(fs.isFile("/images"));
+        assertEquals(FileType.DIRECTORY, fs.type("/images"));
+        assertEquals(FileType.FILE, fs.type("/readme.txt"));
+        assertThrows(FileException.class, () -> fs.type("/missing"));
+    }
+
+    @Test
+    void testList() {
+        List<String> root = fs.list("/");
+        assertEquals(2, root.size());
+        assertTrue(root.contains("/readme.txt"));
+        assertTrue(root.contains("/images"));
+        assertEquals(List.of("/images/a.png", "/images/tiles"), fs.list("/images"));
+    }
+
+    @Test
+    void testChangeDirectory() {
+        assertEquals("", fs.changeDirectory("images"));
+        assertEquals("/images", fs.printWorkingDirectory());
+        assertArrayEquals(new byte[]{1, 2, 3}, fs.readBytes("a.png"));
+        assertEquals("", fs.changeDirectory(".."));
+        assertEquals("/", fs.printWorkingDirectory());
+        assertEquals("Path is not directory: /readme.txt", fs.changeDirectory("readme.txt"));
+    }
+
+    @Test
+    void testReadOnly() {
+        assertTrue(fs.isReadonly());
+        assertFalse(fs.writeString("/new.txt", "text").isEmpty());
+        assertFalse(fs.remove("/readme.txt"));
+        assertTrue(fs.exists("/readme.txt"));
+    }
+
+    @Test
+    void testInvalidPack() {
+        assertThrows(FileException.class, () -> new PackFileSystem(new byte[]{1, 2, 3}));
+        assertThrows(FileException.class, () -> new PackFileWriter().add("a.txt", new byte[0]).add("/a.txt", new byte[0]));
+    }
+
+    @Test
+    void testTruncatedPack() {
+        for (int length = 0; length < pack.length; length++) {
+            byte[] truncated = Arrays.copyOf(pack, length);
+            try {
+                new PackFileSystem(truncated);
+            } catch (FileException e) {
+                //expected for most of the lengths, only padding may be cut off
+            }
+        }
+    }
+
+    @Test
+    void testCorruptedTableOfContents() {
+        BinaryUtils bu = BinaryUtilsImpl.INSTANCE;
+        int pathLength = bu.readInt(pack, PackFileSystem.HEADER_SIZE);
+        int record = PackFileSystem.HEADER_SIZE + 4 + pathLength;
+
+        assertCorrupted(corrupt(PackFileSystem.HEADER_SIZE, Integer.MAX_VALUE));
+        assertCorrupted(corrupt(PackFileSystem.HEADER_SIZE, -1));
+        assertCorrupted(corrupt(12, 1_000_000));
+        assertCorrupted(corrupt(16, -8));
+        //offset, stored size, size, compression
+        assertCorrupted(corrupt(record, -1));
+        assertCorrupted(corrupt(record, Integer.MAX_VALUE - 1));
+        assertCorrupted(corrupt(record + 4, -1));
+        assertCorrupted(corrupt(record + 8, -1));
+        assertCorrupted(corrupt(record + 12, 99));
+        assertCorrupted(corrupt(record + 12, -1));
+    }
+
+    private byte[] corrupt(int offset, int value) {
+        byte[] corrupted = Arrays.copyOf(pack, pack.length);
+        BinaryUtilsImpl.INSTANCE.writeInt(corrupted, offset, value);
+        return corrupted;
+    }
+
+    private static void assertCorrupted(byte[] data) {
+        assertThrows(FileException.class, () -> new PackFileSystem(data));
+    }
+
+    @Test
+    void testBackup() {
+        byte[] backup = fs.backup("pack");
+        assertArrayEquals(pack, backup);
+        assertNotSame(pack, backup);
+        assertArrayEquals(new byte[]{1, 2, 3}, new PackFileSystem(backup).readBytes("/images/a.png"));
+    }
+}
@@ -0,0 +1,177 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// Pixel: Game library.
+// Copyright (C) 2024 the original author or authors.
+//
+// This program is free software: you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation, either version 3
+// of the License, or (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program. If not, see
+// <https://www.gnu.org/licenses/> or write to the Free Software
+// Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+///////////////////////////////////////////////////////////////////////////////////////////////
+package com.openeggbert.pixel.framework.files.sync;
+
+import com.openeggbert.pixel.framework.files.map.MemoryFileSystem;
+import com.openeggbert.pixel.framework.files.pack.PackFileSystem;
+import com.openeggbert.pixel.framework.files.pack.PackFileWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class FileSystemSyncTest {
+
+    private MemoryFileSystem source;
+    private MemoryFileSystem target;
+    private FileSystemSync sync;
+
+    @BeforeEach
+    void setUp() {
+        source = new MemoryFileSystem();
+        source.createDirectory("/assets");
+        source.createDirectory("/assets/images");
+        source.writeString("/assets/readme.txt", "Hello");
+        source.writeString("/assets/images/a.txt", "aaa");
+        target = new MemoryFileSystem();
+        sync = new FileSystemSync();
+    }
+
+    @Test
+    void testSyncIntoEmptyTarget() {
+        FileSystemDiff diff = sync.sync(source, "/assets", target, "/deploy/assets");
+
+        assertEquals(List.of("images"), diff.getAddedDirectories());
+        assertEquals(List.of("images/a.txt", "readme.txt"), diff.getAddedFiles());
+        assertEquals("Hello", target.readString("/deploy/assets/readme.txt"));
+        assertEquals("aaa", target.readString("/deploy/assets/images/a.txt"));
+        assertEquals(8, sync.getTransferredByteCount());
+        assertTrue(sync.diff(source, "/assets", target, "/deploy/assets").isEmpty());
+    }
+
+    @Test
+    void testOnlyChangesAreApplied() {
+        sync.sync(source, "/assets", target, "/assets");
+        long transferred = sync.getTransferredByteCount();
+        source.remove("/assets/images/a.txt");
+        source.writeString("/assets/images/a.txt", "bbbb");
+        source.createDirectory("/assets/sounds");
+        source.writeString("/assets/sounds/b.txt", "b");
+        target.writeString("/assets/obsolete.txt", "x");
+
+        FileSystemDiff diff = sync.sync(source, "/assets", target, "/assets");
+
+        assertEquals(List.of("sounds"), diff.getAddedDirectories());
+        assertEquals(List.of("sounds/b.txt"), diff.getAddedFiles());
+        assertEquals(List.of("images/a.txt"), diff.getChangedFiles());
+        assertEquals(List.of("obsolete.txt"), diff.getRemovedFiles());
+        assertEquals(transferred + 5, sync.getTransferredByteCount());
+        assertEquals("bbbb", target.readString("/assets/images/a.txt"));
+        assertFalse(target.exists("/assets/obsolete.txt"));
+    }
+
+    @Test
+    void testRemovedDirectoriesChildrenFirst() {
+        target.createDirectory("/assets");
+        target.createDirectory("/assets/old");
+        target.createDirectory("/assets/old/deep");
+        target.writeString("/assets/old/deep/c.txt", "c");
+
+        FileSystemDiff diff = sync.sync(source, "/assets", target, "/assets");
+
+        assertEquals(List.of("old/deep", "old"), diff.getRemovedDirectories());
+        assertFalse(target.exists("/assets/old"));
+    }
+
+    @Test
+    void testHashCacheUsesSizeAndLastModified() {
+        TimestampedFileSystem timestamped = new TimestampedFileSystem();
+        timestamped.createDirectory("/assets");
+        timestamped.writeString("/assets/readme.txt", "Hello");
+        FileHashCache cache = new FileHashCache();
+
+        long hash = cache.hash(timestamped, "/assets/readme.txt");
+        assertEquals(hash, cache.hash(timestamped, "/assets/readme.txt"));
+        assertEquals(1, cache.getHitCount());
+
+        timestamped.remove("/assets/readme.txt");
+        timestamped.writeString("/assets/readme.txt", "World");
+        assertNotEquals(hash, cache.hash(timestamped, "/assets/readme.txt"));
+        assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    void testHashCacheHitsForMapFileSystem() {
+        FileHashCache cache = new FileHashCache();
+        long hash = cache.hash(source, "/assets/readme.txt");
+        assertEquals(hash, cache.hash(source, "/assets/readme.txt"));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+
+        //same size, possibly in the same millisecond
+        source.remove("/assets/readme.txt");
+        source.writeString("/assets/readme.txt", "World");
+        assertNotEquals(hash, cache.hash(source, "/assets/readme.txt"));
+        assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    void testHashCacheHitsForPackFileSystem() {
+        PackFileSystem pack = new PackFileSystem(new PackFileWriter(8)
+                .add("readme.txt", "Hello".getBytes(StandardCharsets.UTF_8))
+                .toByteArray());
+        FileHashCache cache = new FileHashCache();
+        long hash = cache.hash(pack, "/readme.txt");
+        assertEquals(hash, cache.hash(pack, "/readme.txt"));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    void testSecondDiffUsesCachedHashes() {
+        sync.sync(source, "/assets", target, "/assets");
+        sync.diff(source, "/assets", target, "/assets");
+        int sourceMisses = sync.getSourceCache().getMissCount();
+        int targetMisses = sync.getTargetCache().getMissCount();
+        int sourceHits = sync.getSourceCache().getHitCount();
+        int targetHits = sync.getTargetCache().getHitCount();
+
+        assertTrue(sync.diff(source, "/assets", target, "/assets").isEmpty());
+        assertEquals(sourceMisses, sync.getSourceCache().getMissCount());
+        assertEquals(targetMisses, sync.getTargetCache().getMissCount());
+        assertEquals(sourceHits + 2, sync.getSourceCache().getHitCount());
+        assertEquals(targetHits + 2, sync.getTargetCache().getHitCount());
+    }
+
+    private static class TimestampedFileSystem extends MemoryFileSystem {
+
+        private final Map<String, Long> lastModified = new HashMap<>();
+        private long clock = 1;
+
+        @Override
+        public String writeString(String name, String text) {
+            lastModified.put(convertToAbsolutePathIfNeeded(name), clock++);
+            return super.writeString(name, text);
+        }
+
+        @Override
+        public long getSize(String path) {
+            return readString(path).length();
+        }
+
+        @Override
+        public long lastModified(String path) {
+            return lastModified.getOrDefault(convertToAbsolutePathIfNeeded(path), 0L);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// Pixel: Game library.
+// Copyright (C) 2024 the original author or authors.
+//
+// This program is free software: you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation, either version 3
+// of the License, or (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program. If not, see
+// <https://www.gnu.org/licenses/> or write to the Free Software
+// Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+///////////////////////////////////////////////////////////////////////////////////////////////
+package com.openeggbert.pixel.framework.graphics;
+
+import com.openeggbert.pixel.framework.PixelException;
+import java.util.Arrays;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+class AnimationPoolTest {
+
+    @Test
+    void testInstancesFollowTheirAnimations() {
+        AnimationPool pool = new AnimationPool(2);
+        int walk = pool.register(new Animation<>(10, AnimationMode.LOOP, "w0", "w1", "w2"));
+        int jump = pool.register(new Animation<>(new int[]{5, 15}, AnimationMode.NORMAL, "j0", "j1"));
+        int a = pool.add(walk, 0);
+        int b = pool.add(walk, 5, 2f, AnimationMode.LOOP_PINGPONG);
+        int c = pool.add(jump, 100);
+        pool.update(120);
+        assertEquals(0, pool.getFrame(a));
+        assertEquals(1, pool.getFrame(b));
+        assertEquals(1, pool.getFrame(c));
+        assertEquals("j1", pool.getKeyFrame(c));
+        assertEquals(3, pool.getInstanceCount());
+        assertArrayEquals(new int[]{0, 1, 1}, Arrays.copyOf(pool.getFrames(), pool.getHandleCount()));
+
+        pool.remove(b);
+        assertFalse(pool.contains(b));
+        assertEquals(-1, pool.getFrames()[b]);
+        assertThrows(PixelException.class, () -> pool.getFrame(b));
+        assertEquals(b, pool.add(jump, 120));
+        pool.update(125);
+        assertEquals(1, pool.getFrame(b));
+    }
+
+    @Test
+    void testParallelUpdateMatchesSequential() {
+        Animation<Integer> animation = new Animation<>(7, AnimationMode.LOOP_RANDOM, 0, 1, 2, 3, 4, 5, 6);
+        AnimationPool parallel = new AnimationPool();
+        AnimationPool sequential = new AnimationPool();
+        sequential.setParallel(false);
+        for (AnimationPool pool : new AnimationPool[]{parallel, sequential}) {
+            int id = pool.register(animation);
+            for (int i = 0; i < AnimationPool.PARALLEL_THRESHOLD * 2; i++) {
+                pool.add(id, i % 1000, 0.5f + (i % 5) * 0.25f, AnimationMode.values()[i % 6]);
+            }
+            pool.update(123_456);
+        }
+        assertArrayEquals(sequential.getFrames(), parallel.getFrames());
+    }
+
+    @Test
+    void testLongRunningInstancesKeepExactTime() {
+        AnimationPool pool = new AnimationPool(2);
+        int id = pool.register(new Animation<>(1, AnimationMode.LOOP, "f0", "f1", "f2", "f3", "f4"));
+        int normal = pool.add(id, 0);
+        int fast = pool.add(id, 0, 3f, AnimationMode.LOOP);
+        pool.update(16_777_217L);
+        assertEquals(2, pool.getFrame(normal));
+        assertEquals(1, pool.getFrame(fast));
+    }
+}
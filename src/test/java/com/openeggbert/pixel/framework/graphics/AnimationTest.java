@@ -0,0 +1,124 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// Pixel: Game library.
+// Copyright (C) 2024 the original author or authors.
+//
+// This program is free software: you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation, either version 3
+// of the License, or (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program. If not, see
+// <https://www.gnu.org/licenses/> or write to the Free Software
+// Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+///////////////////////////////////////////////////////////////////////////////////////////////
+package com.openeggbert.pixel.framework.graphics;
+
+import java.util.Arrays;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+class AnimationTest {
+
+    private static int[] indexes(Animation<String> animation, int count, int step) {
+        int[] result = new int[count];
+        for (int i = 0; i < count; i++) {
+            result[i] = animation.getKeyFrameIndex((long) i * step);
+        }
+        return result;
+    }
+
+    @Test
+    void testModes() {
+        Animation<String> animation = new Animation<>(10, "a", "b", "c", "d");
+        assertArrayEquals(new int[]{0, 1, 2, 3, 3, 3}, indexes(animation, 6, 10));
+        assertEquals("b", animation.getKeyFrame(15));
+        assertFalse(animation.isAnimationFinished(39));
+        assertTrue(animation.isAnimationFinished(40));
+
+        animation.setAnimationMode(AnimationMode.REVERSED);
+        assertArrayEquals(new int[]{3, 2, 1, 0, 0}, indexes(animation, 5, 10));
+        animation.setAnimationMode(AnimationMode.LOOP);
+        assertArrayEquals(new int[]{0, 1, 2, 3, 0, 1}, indexes(animation, 6, 10));
+        animation.setAnimationMode(AnimationMode.LOOP_REVERSED);
+        assertArrayEquals(new int[]{3, 2, 1, 0, 3, 2}, indexes(animation, 6, 10));
+        animation.setAnimationMode(AnimationMode.LOOP_PINGPONG);
+        assertArrayEquals(new int[]{0, 1, 2, 3, 2, 1, 0, 1, 2, 3, 2}, indexes(animation, 11, 10));
+        assertFalse(animation.isAnimationFinished(1000));
+    }
+
+    @Test
+    void testVariableDurations() {
+        Animation<String> animation = new Animation<>(new int[]{5, 20, 10}, AnimationMode.NORMAL, "a", "b", "c");
+        assertEquals(35f, animation.getAnimationDuration());
+        assertArrayEquals(new int[]{0, 1, 1, 1, 1, 2, 2, 2}, indexes(animation, 8, 5));
+        animation.setAnimationMode(AnimationMode.LOOP);
+        assertEquals(0, animation.getKeyFrameIndex(35));
+        assertEquals(1, animation.getKeyFrameIndex(40));
+        animation.setAnimationMode(AnimationMode.LOOP_PINGPONG);
+        //a 5, b 20, c 10, b 20, then again a
+        assertEquals(2, animation.getKeyFrameIndex(34));
+        assertEquals(1, animation.getKeyFrameIndex(35));
+        assertEquals(1, animation.getKeyFrameIndex(54));
+        assertEquals(0, animation.getKeyFrameIndex(55));
+        assertEquals(1, animation.getKeyFrameIndex(60));
+    }
+
+    @Test
+    void testKeyFramesFromIterable() {
+        Animation<String> animation = new Animation<>(10, List.of("a", "b", "c"), AnimationMode.LOOP);
+        String keyFrame = animation.getKeyFrame(35);
+        assertEquals("a", keyFrame);
+        List<String> keyFrames = animation.getKeyFrames();
+        assertEquals(List.of("a", "b", "c"), keyFrames);
+        assertThrows(UnsupportedOperationException.class, () -> keyFrames.set(0, "x"));
+    }
+
+    @Test
+    void testUniformDurationsMatchVariableDurations() {
+        Animation<String> uniform = new Animation<>(7, "a", "b", "c", "d", "e");
+        Animation<String> variable = new Animation<>(new int[]{7, 7, 7, 7, 7}, AnimationMode.NORMAL, "a", "b", "c", "d", "e");
+        for (AnimationMode mode : AnimationMode.values()) {
+            uniform.setAnimationMode(mode);
+            variable.setAnimationMode(mode);
+            for (long time = 0; time < 200; time++) {
+                if (mode != AnimationMode.LOOP_RANDOM) {
+                    assertEquals(uniform.getKeyFrameIndex(time), variable.getKeyFrameIndex(time), mode + " " + time);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testRandomIsDeterministic() {
+        Animation<String> animation = new Animation<>(10, AnimationMode.LOOP_RANDOM, "a", "b", "c", "d");
+        animation.setSeed(42);
+        int[] first = indexes(animation, 100, 10);
+        assertArrayEquals(first, indexes(animation, 100, 10));
+        assertEquals(animation.getKeyFrameIndex(30), animation.getKeyFrameIndex(39));
+        int[] counts = new int[4];
+        for (int index : first) {
+            counts[index]++;
+        }
+        assertTrue(Arrays.stream(counts).allMatch(c -> c > 10), Arrays.toString(counts));
+        animation.setSeed(43);
+        assertFalse(Arrays.equals(first, indexes(animation, 100, 10)));
+    }
+
+    @Test
+    void testRandomStepsOfLongRunningAnimations() {
+        Animation<String> animation = new Animation<>(2, AnimationMode.LOOP_RANDOM,
+                "a", "b", "c", "d", "e", "f", "g", "h", "i", "j", "k", "l", "m", "n", "o", "p");
+        //above 2^24 ms a float time is rounded to whole milliseconds and more
+        long start = 1L << 25;
+        for (long time = start; time < start + 64; time += 2) {
+            assertEquals(animation.getKeyFrameIndex(time), animation.getKeyFrameIndex(time + 1), "time " + time);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// Pixel: Game library.
+// Copyright (C) 2024 the original author or authors.
+//
+// This program is free software: you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation, either version 3
+// of the License, or (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program. If not, see
+// <https://www.gnu.org/licenses/> or write to the Free Software
+// Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+///////////////////////////////////////////////////////////////////////////////////////////////
+package com.openeggbert.pixel.framework.graphics;
+
+import com.openeggbert.pixel.framework.PixelException;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+class ColorDepthConverterTest {
+
+    @Test
+    void testRgb565() {
+        ColorDepthConverter converter = ColorDepthConverter.of(ColorMode.COLOR, 16);
+        assertEquals(0xFFFF, converter.encode(0xFFFFFFFF));
+        assertEquals(0xF800, converter.encode(0xFFFF0000));
+        assertEquals(0x07E0, converter.encode(0x0000FF00));
+        assertEquals(0x80FFFFFF, converter.convert(0x80FFFFFF));
+        assertEquals(0xFF840000, converter.convert(0xFF870000));
+    }
+
+    @Test
+    void testRgb332() {
+        ColorDepthConverter converter = ColorDepthConverter.of(ColorMode.COLOR, 8);
+        assertEquals(0xFF, converter.encode(0xFFFFFFFF));
+        assertEquals(0xE0, converter.encode(0xFFFF0000));
+        assertEquals(0xFF0000AA, converter.convert(0xFF0000BF));
+    }
+
+    @Test
+    void testGray() {
+        ColorDepthConverter converter = ColorDepthConverter.of(ColorMode.BLACK_AND_WHITE, 1);
+        assertEquals(1, converter.encode(0xFFFFFFFF));
+        assertEquals(0, converter.encode(0xFF300000));
+        assertEquals(0xFFFFFFFF, converter.convert(0xFFC0C0C0));
+        assertEquals(0xFF555555, ColorDepthConverter.of(ColorMode.BLACK_AND_WHITE, 2).convert(0xFF606060));
+    }
+
+    @Test
+    void testPalette() {
+        ColorDepthConverter converter = ColorDepthConverter.of(ColorMode.COLOR, 4);
+        int[] palette = Color4BitPalette.toArgbArray();
+        assertEquals(Color4BitPalette.RED.toInt(), palette[converter.encode(0xFFF01010)]);
+        assertEquals(Color4BitPalette.DARK_BLUE.toInt(), converter.convert(0xFF000070));
+    }
+
+    @Test
+    void testArbitraryPalette() {
+        ColorDepthConverter converter = ColorDepthConverter.of(
+                new PaletteLookupCube(new int[]{0xFF000000, 0xFF808080, 0xFFFFFFFF}));
+        assertEquals(2, converter.getBitCount());
+        assertEquals(1, converter.encode(0xFF707070));
+        assertEquals(0x80FFFFFF, converter.convert(0x80E0E0E0));
+    }
+
+    @Test
+    void testBulkConversionMatchesSingleConversion() {
+        int width = 300;
+        int height = 300;
+        int[] pixels = new int[width * height];
+        Random random = new Random(7);
+        for (int i = 0; i < pixels.length; i++) {
+            pixels[i] = random.nextInt();
+        }
+        for (int bitCount : new int[]{16, 8, 4}) {
+            ColorDepthConverter converter = ColorDepthConverter.of(ColorMode.COLOR, bitCount);
+            int[] converted = new int[pixels.length];
+            int[] encoded = new int[pixels.length];
+            converter.convert(pixels, converted, width, height);
+            converter.encode(pixels, encoded, width, height);
+            for (int i = 0; i < pixels.length; i += 97) {
+                assertEquals(converter.convert(pixels[i]), converted[i]);
+                assertEquals(converter.encode(pixels[i]), encoded[i]);
+            }
+        }
+    }
+
+    @Test
+    void testUnsupported() {
+        assertThrows(PixelException.class, () -> ColorDepthConverter.of(ColorMode.COLOR, 12));
+        assertThrows(PixelException.class, () -> ColorDepthConverter.of(ColorMode.BLACK_AND_WHITE, 3));
+    }
+}
@@ -0,0 +1,165 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// Pixel: Game library.
+// Copyright (C) 2024 the original author or authors.
+//
+// This program is free software: you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation, either version 3
+// of the License, or (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program. If not, see
+// <https://www.gnu.org/licenses/> or write to the Free Software
+// Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+///////////////////////////////////////////////////////////////////////////////////////////////
+package com.openeggbert.pixel.framework.graphics;
+
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+class DithererTest {
+
+    private static final ColorQuantizer ONE_BIT = ColorDepthConverter.of(ColorMode.BLACK_AND_WHITE, 1);
+
+    private static int[] gradient(int width, int height) {
+        int[] pixels = new int[width * height];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int gray = x * 255 / (width - 1);
+                pixels[y * width + x] = 0xFF000000 | (gray << 16) | (gray << 8) | gray;
+            }
+        }
+        return pixels;
+    }
+
+    private static double averageBlue(int[] pixels) {
+        long sum = 0;
+        for (int pixel : pixels) {
+            sum += pixel & 0xFF;
+        }
+        return (double) sum / pixels.length;
+    }
+
+    @Test
+    void testDitheringKeepsAverageBrightness() {
+        int[] source = gradient(64, 16);
+        for (DitherMethod method : new DitherMethod[]{DitherMethod.ORDERED, DitherMethod.FLOYD_STEINBERG}) {
+            int[] target = new int[source.length];
+            Ditherer.dither(source, target, 64, 16, ONE_BIT, method);
+            for (int pixel : target) {
+                assertTrue(pixel == 0xFF000000 || pixel == 0xFFFFFFFF, method + " " + Integer.toHexString(pixel));
+            }
+            assertEquals(averageBlue(source), averageBlue(target), 6, method.name());
+        }
+        int[] undithered = new int[source.length];
+        Ditherer.dither(source, undithered, 64, 16, ONE_BIT, DitherMethod.NONE);
+        assertEquals(0xFF000000, undithered[64 / 2 - 1]);
+    }
+
+    @Test
+    void testAtkinsonLosesPartOfTheError() {
+        int[] source = gradient(64, 16);
+        int[] target = new int[source.length];
+        Ditherer.dither(source, target, 64, 16, ONE_BIT, DitherMethod.ATKINSON);
+        assertEquals(0xFFFFFFFF, target[63]);
+        assertEquals(0xFF000000, target[0]);
+    }
+
+    @Test
+    void testParallelErrorDiffusionMatchesSequential() {
+        int width = 509;
+        int height = 211;
+        int[] source = new int[width * height];
+        Random random = new Random(11);
+        for (int i = 0; i < source.length; i++) {
+            source[i] = random.nextInt();
+        }
+        ColorQuantizer quantizer = ColorDepthConverter.of(ColorMode.COLOR, 8);
+        int[] target = new int[source.length];
+        Ditherer.dither(source, target, width, height, quantizer, DitherMethod.FLOYD_STEINBERG);
+        assertArrayEquals(sequentialFloydSteinberg(source, width, height, quantizer), target);
+    }
+
+    @Test
+    void testParallelAtkinsonMatchesSequential() {
+        int width = 777;
+        int height = 97;
+        int[] source = new int[width * height];
+        Random random = new Random(13);
+        for (int i = 0; i < source.length; i++) {
+            source[i] = random.nextInt();
+        }
+        ColorQuantizer quantizer = ColorDepthConverter.of(ColorMode.COLOR, 8);
+        int[] target = new int[source.length];
+        Ditherer.dither(source, target, width, height, quantizer, DitherMethod.ATKINSON);
+        assertArrayEquals(sequentialAtkinson(source, width, height, quantizer), target);
+    }
+
+    private static int[] sequentialAtkinson(int[] source, int width, int height, ColorQuantizer quantizer) {
+        int[][] error = new int[3][source.length];
+        int[] result = new int[source.length];
+        int[][] neighbours = {{1, 0}, {2, 0}, {-1, 1}, {0, 1}, {1, 1}, {0, 2}};
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int i = y * width + x;
+                int[] channels = new int[3];
+                int argb = source[i] & 0xFF000000;
+                for (int c = 0; c < 3; c++) {
+                    channels[c] = Math.max(0, Math.min(255, ((source[i] >> (16 - 8 * c)) & 0xFF) + error[c][i]));
+                    argb |= channels[c] << (16 - 8 * c);
+                }
+                result[i] = quantizer.quantize(argb);
+                for (int c = 0; c < 3; c++) {
+                    int e = channels[c] - ((result[i] >> (16 - 8 * c)) & 0xFF);
+                    for (int[] neighbour : neighbours) {
+                        int nx = x + neighbour[0];
+                        int ny = y + neighbour[1];
+                        if (nx >= 0 && nx < width && ny < height) {
+                            error[c][ny * width + nx] += e / 8;
+                        }
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private static int[] sequentialFloydSteinberg(int[] source, int width, int height, ColorQuantizer quantizer) {
+        int[][] error = new int[3][source.length];
+        int[] result = new int[source.length];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int i = y * width + x;
+                int[] channels = new int[3];
+                int argb = source[i] & 0xFF000000;
+                for (int c = 0; c < 3; c++) {
+                    channels[c] = Math.max(0, Math.min(255, ((source[i] >> (16 - 8 * c)) & 0xFF) + error[c][i]));
+                    argb |= channels[c] << (16 - 8 * c);
+                }
+                result[i] = quantizer.quantize(argb);
+                for (int c = 0; c < 3; c++) {
+                    int e = channels[c] - ((result[i] >> (16 - 8 * c)) & 0xFF);
+                    if (x + 1 < width) {
+                        error[c][i + 1] += e * 7 / 16;
+                    }
+                    if (y + 1 < height) {
+                        if (x > 0) {
+                            error[c][i + width - 1] += e * 3 / 16;
+                        }
+                        error[c][i + width] += e * 5 / 16;
+                        if (x + 1 < width) {
+                            error[c][i + width + 1] += e / 16;
+                        }
+                    }
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,95 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// Pixel: Game library.
+// Copyright (C) 2024 the original author or authors.
+//
+// This program is free software: you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation, either version 3
+// of the License, or (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program. If not, see
+// <https://www.gnu.org/licenses/> or write to the Free Software
+// Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+///////////////////////////////////////////////////////////////////////////////////////////////
+package com.openeggbert.pixel.framework.graphics;
+
+import com.openeggbert.pixel.framework.math.Rectangle;
+import com.openeggbert.pixel.framework.math.Vec2;
+import java.util.Arrays;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+class OrthographicCameraTest {
+
+    private static final float TOLERANCE = 0.0001f;
+
+    @Test
+    void testCombined() {
+        OrthographicCamera camera = new OrthographicCamera(200f, 100f);
+        assertTrue(new Vec2(0f, 0f).mul(camera.getCombined()).epsilonEquals(new Vec2(-1f, -1f), TOLERANCE));
+        assertTrue(camera.project(new Vec2(200f, 100f)).epsilonEquals(new Vec2(1f, 1f), TOLERANCE));
+
+        camera.setYDown(true);
+        assertTrue(camera.project(new Vec2(0f, 0f)).epsilonEquals(new Vec2(-1f, 1f), TOLERANCE));
+
+        camera.translate(100f, 0f);
+        camera.zoom(2f);
+        assertTrue(camera.project(new Vec2(200f, 50f)).epsilonEquals(new Vec2(0f, 0f), TOLERANCE));
+        assertTrue(camera.project(new Vec2(300f, 50f)).epsilonEquals(new Vec2(0.5f, 0f), TOLERANCE));
+        assertTrue(camera.unproject(new Vec2(0.5f, 0f)).epsilonEquals(new Vec2(300f, 50f), TOLERANCE));
+    }
+
+    @Test
+    void testCombinedIsCached() {
+        OrthographicCamera camera = new OrthographicCamera(200f, 100f);
+        float before = camera.getCombined().getM02();
+        camera.getCombined();
+        assertEquals(before, camera.getCombined().getM02());
+        camera.translate(50f, 0f);
+        assertNotEquals(before, camera.getCombined().getM02());
+    }
+
+    @Test
+    void testRotation() {
+        OrthographicCamera camera = new OrthographicCamera(100f, 100f);
+        camera.setPosition(0f, 0f);
+        camera.rotate(90f);
+        //the world rotates the other way on the screen
+        assertTrue(camera.project(new Vec2(0f, 50f)).epsilonEquals(new Vec2(1f, 0f), TOLERANCE));
+        Rectangle bounds = camera.getVisibleBounds(new Rectangle(0f, 0f, 0f, 0f));
+        assertEquals(-50f, bounds.getX(), TOLERANCE);
+        assertEquals(100f, bounds.getWidth(), TOLERANCE);
+    }
+
+    @Test
+    void testVisibility() {
+        OrthographicCamera camera = new OrthographicCamera(100f, 100f);
+        assertTrue(camera.isVisible(new Rectangle(90f, 90f, 20f, 20f)));
+        assertFalse(camera.isVisible(new Rectangle(100f, 0f, 20f, 20f)));
+        assertFalse(camera.isVisible(-20f, 0f, 20f, 20f));
+        camera.zoom(2f);
+        assertTrue(camera.isVisible(-20f, 0f, 20f, 20f));
+    }
+
+    @Test
+    void testCullRectangles() {
+        OrthographicCamera camera = new OrthographicCamera(100f, 100f);
+        float[] boxes = {
+            0f, 0f, 10f, 10f,
+            200f, 0f, 10f, 10f,
+            95f, 95f, 10f, 10f,
+            -10f, 50f, 10f, 10f,
+            -5f, 50f, 10f, 10f};
+        int[] visible = new int[5];
+        assertEquals(3, camera.cullRectangles(boxes, visible));
+        assertArrayEquals(new int[]{0, 2, 4}, Arrays.copyOf(visible, 3));
+        assertEquals(1, camera.cullRectangles(boxes, 4, 2, visible));
+        assertEquals(1, visible[0]);
+    }
+}
@@ -0,0 +1,85 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// Pixel: Game library.
+// Copyright (C) 2024 the original author or authors.
+//
+// This program is free software: you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation, either version 3
+// of the License, or (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program. If not, see
+// <https://www.gnu.org/licenses/> or write to the Free Software
+// Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+///////////////////////////////////////////////////////////////////////////////////////////////
+package com.openeggbert.pixel.framework.graphics;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+class PackedColorTest {
+
+    @Test
+    void testPackAndUnpack() {
+        int argb = PackedColor.pack(0x12, 0x34, 0x56, 0x78);
+        assertEquals(0x78123456, argb);
+        assertEquals(0x12, PackedColor.red(argb));
+        assertEquals(0x34, PackedColor.green(argb));
+        assertEquals(0x56, PackedColor.blue(argb));
+        assertEquals(0x78, PackedColor.alpha(argb));
+        assertEquals(0xFFFF0000, PackedColor.pack(300, -5, 0));
+        assertEquals(new Color(0.2f, 0.4f, 0.6f, 0.8f).toInt(), PackedColor.pack(0.2f, 0.4f, 0.6f, 0.8f));
+    }
+
+    @Test
+    void testToColor() {
+        Color color = new Color();
+        assertSame(color, PackedColor.toColor(0x80FF0000, color));
+        assertEquals(0x80FF0000, color.toInt());
+    }
+
+    @Test
+    void testMultiply() {
+        assertEquals(0xFF804020, PackedColor.multiply(0xFF804020, PackedColor.WHITE));
+        assertEquals(PackedColor.TRANSPARENT, PackedColor.multiply(0xFF804020, PackedColor.TRANSPARENT));
+        for (int x = 0; x < 256; x++) {
+            for (int y = 0; y < 256; y++) {
+                assertEquals(Math.round(x * y / 255f), PackedColor.multiplyComponent(x, y));
+            }
+        }
+    }
+
+    @Test
+    void testLerp() {
+        assertEquals(0xFF000000, PackedColor.lerp(0xFF000000, 0x00FFFFFF, 0));
+        assertEquals(0x00FFFFFF, PackedColor.lerp(0xFF000000, 0x00FFFFFF, 256));
+        assertEquals(0x7F7F7F7F, PackedColor.lerp(0xFF000000, 0x00FFFFFF, 0.5f));
+    }
+
+    @Test
+    void testPremultiply() {
+        assertEquals(0x80800000, PackedColor.premultiply(0x80FF0000));
+        assertEquals(0x80FF0000, PackedColor.unpremultiply(0x80800000));
+        assertEquals(0xFF123456, PackedColor.premultiply(0xFF123456));
+        assertEquals(PackedColor.TRANSPARENT, PackedColor.unpremultiply(0x00123456));
+    }
+
+    @Test
+    void testBlend() {
+        assertEquals(0xFF00FF00, PackedColor.blend(0xFF00FF00, 0xFFFF0000));
+        assertEquals(0xFFFF0000, PackedColor.blend(0x0000FF00, 0xFFFF0000));
+        assertEquals(0xFF7F8000, PackedColor.blend(0x8000FF00, 0xFFFF0000));
+        assertEquals(0x8000FF00, PackedColor.blend(0x8000FF00, PackedColor.TRANSPARENT));
+    }
+
+    @Test
+    void testRgbaConversion() {
+        assertEquals(0x12345678, PackedColor.toRgba(0x78123456));
+        assertEquals(0x78123456, PackedColor.fromRgba(0x12345678));
+    }
+}
@@ -0,0 +1,98 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// Pixel: Game library.
+// Copyright (C) 2024 the original author or authors.
+//
+// This program is free software: you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation, either version 3
+// of the License, or (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program. If not, see
+// <https://www.gnu.org/licenses/> or write to the Free Software
+// Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+///////////////////////////////////////////////////////////////////////////////////////////////
+package com.openeggbert.pixel.framework.graphics;
+
+import com.openeggbert.pixel.framework.PixelException;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+class PaletteLookupCubeTest {
+
+    private static int distance(int argb1, int argb2) {
+        int dr = ((argb1 >> 16) & 0xFF) - ((argb2 >> 16) & 0xFF);
+        int dg = ((argb1 >> 8) & 0xFF) - ((argb2 >> 8) & 0xFF);
+        int db = (argb1 & 0xFF) - (argb2 & 0xFF);
+        return dr * dr + dg * dg + db * db;
+    }
+
+    @Test
+    void testPaletteColorsMapToThemselves() {
+        int[] palette = Color4BitPalette.toArgbArray();
+        PaletteLookupCube cube = Color4BitPalette.getLookupCube();
+        for (int i = 0; i < palette.length; i++) {
+            assertEquals(i, cube.indexOf(palette[i]));
+            assertEquals(palette[i], cube.closestColor(palette[i]));
+        }
+        assertSame(Color4BitPalette.RED, Color4BitPalette.findClosestColor(new Color(250, 10, 5)));
+    }
+
+    @Test
+    void testSingleColorSearchIsExact() {
+        int[] palette = Color4BitPalette.toArgbArray();
+        Random random = new Random(5);
+        for (int i = 0; i < 1000; i++) {
+            int argb = random.nextInt() | 0xFF000000;
+            int index = Color4BitPalette.findClosestIndex(argb);
+            for (int entry : palette) {
+                assertTrue(distance(argb, palette[index]) <= distance(argb, entry), "color " + Integer.toHexString(argb));
+            }
+        }
+        //as far from BLACK as from GRAY, but the centre of its cube cell is closer to GRAY
+        assertSame(Color4BitPalette.BLACK, Color4BitPalette.findClosestColor(new Color(64, 64, 64)));
+        assertEquals(0, Color4BitPalette.findClosestIndex(0xFF404040));
+        assertEquals(8, Color4BitPalette.getLookupCube().indexOf(0xFF404040));
+    }
+
+    @Test
+    void testCloseToExactSearch() {
+        Random random = new Random(3);
+        int[] palette = new int[200];
+        for (int i = 0; i < palette.length; i++) {
+            palette[i] = random.nextInt() | 0xFF000000;
+        }
+        PaletteLookupCube cube = new PaletteLookupCube(palette);
+        for (int i = 0; i < 10000; i++) {
+            int argb = random.nextInt();
+            int exact = PaletteLookupCube.findClosestIndex(palette,
+                    (argb >> 16) & 0xFF, (argb >> 8) & 0xFF, argb & 0xFF);
+            double exactDistance = Math.sqrt(distance(argb, palette[exact]));
+            double cubeDistance = Math.sqrt(distance(argb, palette[cube.indexOf(argb)]));
+            //a cell has the diagonal of sqrt(3) * 8
+            assertTrue(cubeDistance <= exactDistance + 14, "color " + Integer.toHexString(argb));
+        }
+    }
+
+    @Test
+    void testBulkIndexOf() {
+        PaletteLookupCube cube = new PaletteLookupCube(new int[]{0xFF000000, 0xFFFFFFFF});
+        int[] colors = {0xFF101010, 0xFFF0F0F0, 0x00808080};
+        byte[] indexes = new byte[3];
+        cube.indexOf(colors, indexes, 0, 3);
+        assertArrayEquals(new byte[]{0, 1, 1}, indexes);
+        assertEquals(0x00FFFFFF, cube.closestColor(0x00808080));
+    }
+
+    @Test
+    void testInvalidPalette() {
+        assertThrows(PixelException.class, () -> new PaletteLookupCube(new int[0]));
+        assertThrows(PixelException.class, () -> new PaletteLookupCube(new int[257]));
+    }
+}
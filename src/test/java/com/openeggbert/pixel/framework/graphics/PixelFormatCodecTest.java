@@ -0,0 +1,110 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// Pixel: Game library.
+// Copyright (C) 2024 the original author or authors.
+//
+// This program is free software: you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation, either version 3
+// of the License, or (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program. If not, see
+// <https://www.gnu.org/licenses/> or write to the Free Software
+// Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+///////////////////////////////////////////////////////////////////////////////////////////////
+package com.openeggbert.pixel.framework.graphics;
+
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+class PixelFormatCodecTest {
+
+    private static int[] randomPixels(int count, long seed) {
+        Random random = new Random(seed);
+        int[] pixels = new int[count];
+        for (int i = 0; i < count; i++) {
+            pixels[i] = random.nextInt();
+        }
+        return pixels;
+    }
+
+    @Test
+    void testByteCounts() {
+        assertEquals(4 * 3 * 2, PixelFormat.RGBA8888.getByteCount(3, 2));
+        assertEquals(2 * 3 * 2, PixelFormat.RGB565.getByteCount(3, 2));
+        assertEquals(2 * 2, PixelFormat.GRAY1.getByteCount(9, 2));
+        assertEquals(3, PixelFormat.INDEXED4.getRowByteCount(5));
+        assertEquals(PixelFormat.GRAY2, PixelFormat.from(ColorMode.BLACK_AND_WHITE, 2));
+    }
+
+    @Test
+    void testLosslessFormats() {
+        int[] pixels = randomPixels(7 * 5, 1);
+        assertArrayEquals(pixels, PixelFormatCodec.decode(PixelFormatCodec.encode(pixels, 7, 5, PixelFormat.RGBA8888), 7, 5, PixelFormat.RGBA8888));
+        int[] decoded = PixelFormatCodec.decode(PixelFormatCodec.encode(pixels, 7, 5, PixelFormat.RGB888), 7, 5, PixelFormat.RGB888);
+        for (int i = 0; i < pixels.length; i++) {
+            assertEquals(pixels[i] | 0xFF000000, decoded[i]);
+        }
+    }
+
+    @Test
+    void testReducedFormatsMatchConverter() {
+        int width = 13;
+        int height = 6;
+        int[] pixels = randomPixels(width * height, 2);
+        for (PixelFormat format : PixelFormat.values()) {
+            if (format == PixelFormat.RGBA8888 || format == PixelFormat.RGB888) {
+                continue;
+            }
+            ColorDepthConverter converter = ColorDepthConverter.of(format.getColorMode(), format.getBitCount());
+            byte[] encoded = PixelFormatCodec.encode(pixels, width, height, format);
+            assertEquals(format.getByteCount(width, height), encoded.length);
+            int[] decoded = PixelFormatCodec.decode(encoded, width, height, format);
+            for (int i = 0; i < pixels.length; i++) {
+                assertEquals(converter.convert(pixels[i]) | 0xFF000000, decoded[i], format + " at " + i);
+            }
+        }
+    }
+
+    @Test
+    void testBitsArePackedMostSignificantFirst() {
+        int[] pixels = {0xFFFFFFFF, 0xFF000000, 0xFFFFFFFF, 0xFFFFFFFF, 0xFF000000, 0xFF000000, 0xFF000000, 0xFF000000, 0xFFFFFFFF};
+        byte[] encoded = PixelFormatCodec.encode(pixels, 9, 1, PixelFormat.GRAY1);
+        assertArrayEquals(new byte[]{(byte) 0xB0, (byte) 0x80}, encoded);
+        assertArrayEquals(new byte[]{(byte) 0xF8, 0x00, 0x00, 0x1F}, PixelFormatCodec.encode(new int[]{0xFFFF0000, 0xFF0000FF}, 1, 2, PixelFormat.RGB565));
+    }
+
+    @Test
+    void testLargeImageMatchesSmallRows() {
+        int width = 301;
+        int height = 260;
+        int[] pixels = randomPixels(width * height, 3);
+        byte[] encoded = PixelFormatCodec.encode(pixels, width, height, PixelFormat.GRAY2);
+        int stride = PixelFormat.GRAY2.getRowByteCount(width);
+        int[] row = new int[width];
+        for (int y = 0; y < height; y += 37) {
+            System.arraycopy(pixels, y * width, row, 0, width);
+            byte[] rowBytes = PixelFormatCodec.encode(row, width, 1, PixelFormat.GRAY2);
+            for (int i = 0; i < stride; i++) {
+                assertEquals(rowBytes[i], encoded[y * stride + i], "row " + y);
+            }
+        }
+    }
+
+    @Test
+    void testCustomPalette() {
+        int[] palette = {0xFF000000, 0xFFFF0000, 0xFF00FF00, 0xFF0000FF};
+        PaletteLookupCube cube = new PaletteLookupCube(palette);
+        int[] pixels = {0xFFF01010, 0xFF1010F0, 0xFF10F010, 0xFF101010};
+        byte[] encoded = PixelFormatCodec.encode(pixels, 4, 1, PixelFormat.INDEXED4, cube);
+        assertArrayEquals(new byte[]{0x13, 0x20}, encoded);
+        assertArrayEquals(new int[]{0xFFFF0000, 0xFF0000FF, 0xFF00FF00, 0xFF000000},
+                PixelFormatCodec.decode(encoded, 4, 1, PixelFormat.INDEXED4, palette));
+    }
+}
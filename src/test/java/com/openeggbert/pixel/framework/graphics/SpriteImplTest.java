@@ -0,0 +1,110 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// Pixel: Game library.
+// Copyright (C) 2024 the original author or authors.
+//
+// This program is free software: you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation, either version 3
+// of the License, or (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program. If not, see
+// <https://www.gnu.org/licenses/> or write to the Free Software
+// Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+///////////////////////////////////////////////////////////////////////////////////////////////
+package com.openeggbert.pixel.framework.graphics;
+
+import com.openeggbert.pixel.framework.graphics.software.SoftwarePixmap;
+import com.openeggbert.pixel.framework.graphics.software.SoftwareSpriteBatch;
+import com.openeggbert.pixel.framework.graphics.software.SoftwareTexture;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+class SpriteImplTest {
+
+    private static final float DELTA = 1e-4f;
+
+    /**
+     * 2x1 texture, red on the left and blue on the right.
+     */
+    private static SoftwareTexture texture() {
+        return new SoftwareTexture(new SoftwarePixmap(2, 1, new int[]{0xFFFF0000, 0xFF0000FF}));
+    }
+
+    @Test
+    void testVerticesAreCachedUntilChanged() {
+        SpriteImpl sprite = new SpriteImpl(texture());
+        float[] vertices = sprite.getVertices();
+        assertArrayEquals(new float[]{0, 0, 0, 0, 2, 0, 1, 0, 2, 1, 1, 1, 0, 1, 0, 1}, vertices, DELTA);
+        assertSame(vertices, sprite.getVertices());
+        sprite.setPosition(10, 20);
+        assertSame(vertices, sprite.getVertices());
+        assertEquals(12f, vertices[4], DELTA);
+        assertEquals(21f, vertices[9], DELTA);
+    }
+
+    @Test
+    void testRotationAndScaleAroundOrigin() {
+        SpriteImpl sprite = new SpriteImpl(texture());
+        sprite.setOriginCenter();
+        sprite.setRotation(90f);
+        float[] vertices = sprite.getVertices();
+        //the origin is at (1, 0.5), the first corner (0, 0) moves to (1.5, -0.5)
+        assertEquals(1.5f, vertices[0], DELTA);
+        assertEquals(-0.5f, vertices[1], DELTA);
+        assertEquals(1.5f, vertices[4], DELTA);
+        assertEquals(1.5f, vertices[5], DELTA);
+
+        sprite.setRotation(0f);
+        sprite.setScale(2f, 3f);
+        vertices = sprite.getVertices();
+        assertEquals(-1f, vertices[0], DELTA);
+        assertEquals(-1f, vertices[1], DELTA);
+        assertEquals(3f, vertices[8], DELTA);
+        assertEquals(2f, vertices[9], DELTA);
+    }
+
+    @Test
+    void testSoftwareBatchDrawsTransformedSprites() {
+        SoftwarePixmap screen = new SoftwarePixmap(8, 8);
+        SoftwareSpriteBatch batch = new SoftwareSpriteBatch(screen);
+        SpriteImpl sprite = new SpriteImpl(texture());
+        sprite.setSize(4, 2);
+        sprite.setPosition(1, 1);
+        batch.begin();
+        sprite.draw(batch);
+        batch.end();
+        assertEquals(0xFFFF0000, screen.getPixel(1, 1));
+        assertEquals(0xFFFF0000, screen.getPixel(2, 2));
+        assertEquals(0xFF0000FF, screen.getPixel(4, 2));
+        assertEquals(0, screen.getPixel(5, 1));
+        assertEquals(0, screen.getPixel(1, 3));
+
+        screen.setColor(0);
+        screen.fill();
+        sprite.setOrigin(0, 0);
+        sprite.setRotation(90f);
+        sprite.setPosition(4, 1);
+        sprite.setColor(0xFF80FFFF);
+        batch.begin();
+        sprite.draw(batch);
+        batch.end();
+        //rotated clockwise around (4, 1): the left half goes to the top
+        assertEquals(0xFF800000, screen.getPixel(2, 1));
+        assertEquals(0xFF800000, screen.getPixel(3, 2));
+        assertEquals(0xFF0000FF, screen.getPixel(2, 3));
+        assertEquals(0xFF0000FF, screen.getPixel(3, 4));
+        assertEquals(0, screen.getPixel(4, 2));
+        assertEquals(0, screen.getPixel(1, 2));
+        int covered = 0;
+        for (int pixel : screen.getBuffer()) {
+            covered += pixel != 0 ? 1 : 0;
+        }
+        assertEquals(8, covered);
+    }
+}
@@ -0,0 +1,135 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// Pixel: Game library.
+// Copyright (C) 2024 the original author or authors.
+//
+// This program is free software: you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation, either version 3
+// of the License, or (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program. If not, see
+// <https://www.gnu.org/licenses/> or write to the Free Software
+// Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+///////////////////////////////////////////////////////////////////////////////////////////////
+package com.openeggbert.pixel.framework.graphics;
+
+import com.openeggbert.pixel.framework.files.FileSystem;
+import com.openeggbert.pixel.framework.graphics.software.SoftwarePixMapFactory;
+import com.openeggbert.pixel.framework.graphics.software.SoftwarePixmap;
+import com.openeggbert.pixel.framework.graphics.software.SoftwareTextureFactory;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class TextureAtlasPackerTest {
+
+    private static SoftwarePixmap pixmap(int width, int height, int argb) {
+        SoftwarePixmap pixmap = new SoftwarePixmap(width, height);
+        pixmap.setColor(argb);
+        pixmap.fill();
+        return pixmap;
+    }
+
+    @Test
+    void testMaxRectsDoesNotOverlap() {
+        MaxRectsPacker packer = new MaxRectsPacker(64, 64);
+        Random random = new Random(5);
+        boolean[] used = new boolean[64 * 64];
+        int[] position = new int[2];
+        int placed = 0;
+        for (int i = 0; i < 100; i++) {
+            int width = 1 + random.nextInt(12);
+            int height = 1 + random.nextInt(12);
+            if (!packer.insert(width, height, position)) {
+                continue;
+            }
+            placed++;
+            for (int y = position[1]; y < position[1] + height; y++) {
+                for (int x = position[0]; x < position[0] + width; x++) {
+                    assertFalse(used[y * 64 + x], x + "," + y);
+                    used[y * 64 + x] = true;
+                }
+            }
+        }
+        assertTrue(placed > 20);
+        assertTrue(packer.getOccupancy() > 0.6f, "occupancy " + packer.getOccupancy());
+        assertTrue(new MaxRectsPacker(4, 4).insert(4, 4, position));
+        assertFalse(new MaxRectsPacker(4, 4).insert(5, 1, position));
+    }
+
+    @Test
+    void testPackingWithPaddingAndBleeding() {
+        TextureAtlasPacker packer = new TextureAtlasPacker(16, 16, 1, true);
+        packer.add("red", pixmap(6, 6, 0xFFFF0000));
+        packer.add("green", pixmap(6, 6, 0xFF00FF00));
+        packer.add("blue", pixmap(10, 10, 0xFF0000FF));
+        TextureAtlas atlas = packer.pack(new SoftwarePixMapFactory(), new SoftwareTextureFactory());
+
+        assertEquals(2, atlas.getTextures().size());
+        assertArrayEquals(new Object[]{"red", "green", "blue"}, atlas.getRegions().keySet().toArray());
+        TextureRegion blue = atlas.findRegion("blue");
+        assertEquals(10, blue.getRegionWidth());
+        assertEquals(blue.getRegionX() / 16f, blue.getU());
+        assertEquals((blue.getRegionY() + 10) / 16f, blue.getV2());
+
+        for (String name : atlas.getRegions().keySet()) {
+            TextureRegion region = atlas.findRegion(name);
+            Pixmap page = atlas.getPages().get(atlas.getTextures().indexOf(region.getTexture()));
+            int color = page.getPixel(region.getRegionX(), region.getRegionY());
+            assertEquals(color, page.getPixel(region.getRegionX() - 1, region.getRegionY() - 1), name);
+            int right = region.getRegionX() + region.getRegionWidth();
+            int bottom = region.getRegionY() + region.getRegionHeight();
+            assertEquals(color, page.getPixel(right, bottom), name);
+            assertEquals(color, page.getPixel(right, region.getRegionY() + 2), name);
+        }
+        TextureRegion red = atlas.findRegion("red");
+        TextureRegion green = atlas.findRegion("green");
+        assertSame(red.getTexture(), green.getTexture());
+        assertTrue(Math.abs(red.getRegionX() - green.getRegionX()) >= 8 || Math.abs(red.getRegionY() - green.getRegionY()) >= 8);
+    }
+
+    @Test
+    void testSaveAndLoad() {
+        Map<String, Object> files = new HashMap<>();
+        FileSystem fileSystem = mock(FileSystem.class);
+        when(fileSystem.writeString(anyString(), anyString())).thenAnswer(i -> {
+            files.put(i.getArgument(0), i.getArgument(1));
+            return "";
+        });
+        when(fileSystem.writeBytes(anyString(), any(byte[].class))).thenAnswer(i -> {
+            files.put(i.getArgument(0), i.getArgument(1));
+            return "";
+        });
+        when(fileSystem.readString(anyString())).thenAnswer(i -> (String) files.get(i.getArgument(0)));
+        when(fileSystem.readBytes(anyString())).thenAnswer(i -> (byte[]) files.get(i.getArgument(0)));
+
+        TextureAtlas atlas = new TextureAtlasPacker(8, 8, 0, false)
+                .add("a", pixmap(8, 4, 0xFF112233))
+                .add("b", pixmap(3, 3, 0x80445566))
+                .pack(new SoftwarePixMapFactory(), new SoftwareTextureFactory());
+        atlas.save(fileSystem, "assets/sprites.atlas");
+        assertTrue(files.containsKey("assets/sprites.atlas.0"));
+
+        TextureAtlas loaded = TextureAtlas.load(fileSystem, "assets/sprites.atlas", new SoftwarePixMapFactory(), new SoftwareTextureFactory());
+        assertEquals(atlas.getRegions().keySet(), loaded.getRegions().keySet());
+        for (String name : atlas.getRegions().keySet()) {
+            TextureRegion expected = atlas.findRegion(name);
+            TextureRegion actual = loaded.findRegion(name);
+            assertEquals(expected.getRegionX(), actual.getRegionX());
+            assertEquals(expected.getRegionY(), actual.getRegionY());
+            assertEquals(expected.getV2(), actual.getV2());
+        }
+        assertArrayEquals(atlas.getPages().get(0).getPixels(), loaded.getPages().get(0).getPixels());
+    }
+}
@@ -0,0 +1,112 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// Pixel: Game library.
+// Copyright (C) 2024 the original author or authors.
+//
+// This program is free software: you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation, either version 3
+// of the License, or (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program. If not, see
+// <https://www.gnu.org/licenses/> or write to the Free Software
+// Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+///////////////////////////////////////////////////////////////////////////////////////////////
+package com.openeggbert.pixel.framework.graphics;
+
+import com.openeggbert.pixel.framework.View;
+import com.openeggbert.pixel.framework.math.Affine2;
+import com.openeggbert.pixel.framework.math.Vec2;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+class ViewportTest {
+
+    private static final float TOLERANCE = 0.001f;
+
+    @Test
+    void testStretch() {
+        Viewport viewport = new Viewport(View.STRETCH, 320f, 240f);
+        viewport.update(640, 240, true);
+        assertEquals(0, viewport.getScreenX());
+        assertEquals(640, viewport.getScreenWidth());
+        assertEquals(2f, viewport.getScaleX(), TOLERANCE);
+        assertEquals(1f, viewport.getScaleY(), TOLERANCE);
+    }
+
+    @Test
+    void testFit() {
+        Viewport viewport = new Viewport(View.FIT, 320f, 240f);
+        viewport.update(1000, 480, true);
+        assertEquals(640, viewport.getScreenWidth());
+        assertEquals(480, viewport.getScreenHeight());
+        assertEquals(180, viewport.getScreenX());
+        assertEquals(0, viewport.getScreenY());
+        assertFalse(viewport.isInside(100f, 100f));
+        assertTrue(viewport.isInside(500f, 100f));
+
+        //world y points up, the screen y down
+        assertTrue(viewport.project(new Vec2(0f, 0f)).epsilonEquals(new Vec2(180f, 480f), TOLERANCE));
+        assertTrue(viewport.project(new Vec2(320f, 240f)).epsilonEquals(new Vec2(820f, 0f), TOLERANCE));
+        assertTrue(viewport.unproject(new Vec2(500f, 240f)).epsilonEquals(new Vec2(160f, 120f), TOLERANCE));
+    }
+
+    @Test
+    void testFitWithIntegerScaling() {
+        Viewport viewport = new Viewport(View.FIT, 320f, 240f);
+        viewport.setIntegerScaling(true);
+        viewport.update(1000, 700, true);
+        assertEquals(2f, viewport.getScaleX(), TOLERANCE);
+        assertEquals(640, viewport.getScreenWidth());
+        assertEquals(480, viewport.getScreenHeight());
+        assertEquals(180, viewport.getScreenX());
+        assertEquals(110, viewport.getScreenY());
+    }
+
+    @Test
+    void testScreen() {
+        Viewport viewport = new Viewport(View.SCREEN, 1f, 1f);
+        viewport.setUnitsPerPixel(0.5f);
+        viewport.update(800, 600, true);
+        assertEquals(400f, viewport.getCamera().getViewportWidth(), TOLERANCE);
+        assertEquals(300f, viewport.getCamera().getViewportHeight(), TOLERANCE);
+        assertEquals(2f, viewport.getScaleX(), TOLERANCE);
+    }
+
+    @Test
+    void testExtend() {
+        Viewport viewport = new Viewport(View.EXTEND, 320f, 240f);
+        viewport.update(1000, 480, true);
+        assertEquals(1000, viewport.getScreenWidth());
+        assertEquals(500f, viewport.getCamera().getViewportWidth(), TOLERANCE);
+        assertEquals(240f, viewport.getCamera().getViewportHeight(), TOLERANCE);
+
+        viewport.setIntegerScaling(true);
+        viewport.update(1001, 700, true);
+        assertEquals(500f, viewport.getCamera().getViewportWidth(), TOLERANCE);
+        assertEquals(350f, viewport.getCamera().getViewportHeight(), TOLERANCE);
+        assertEquals(1000, viewport.getScreenWidth());
+        assertEquals(0, viewport.getScreenX());
+    }
+
+    @Test
+    void testWorldToScreenMatchesProject() {
+        OrthographicCamera camera = new OrthographicCamera();
+        camera.setYDown(true);
+        Viewport viewport = new Viewport(View.FIT, 100f, 100f, camera);
+        viewport.update(300, 200, true);
+        camera.translate(10f, 0f);
+        Affine2 worldToScreen = viewport.getWorldToScreen(new Affine2());
+        Vec2 projected = viewport.project(new Vec2(30f, 40f));
+        assertEquals(projected.getX(), worldToScreen.applyToX(30f, 40f), TOLERANCE);
+        assertEquals(projected.getY(), worldToScreen.applyToY(30f, 40f), TOLERANCE);
+        //y down world: 40 is 40 % from the top, shifted by the camera
+        assertEquals(50f + 20f * 2f, projected.getX(), TOLERANCE);
+        assertEquals(80f, projected.getY(), TOLERANCE);
+    }
+}
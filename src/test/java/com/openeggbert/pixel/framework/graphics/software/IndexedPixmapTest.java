@@ -0,0 +1,133 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// Pixel: Game library.
+// Copyright (C) 2024 the original author or authors.
+//
+// This program is free software: you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation, either version 3
+// of the License, or (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program. If not, see
+// <https://www.gnu.org/licenses/> or write to the Free Software
+// Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+///////////////////////////////////////////////////////////////////////////////////////////////
+package com.openeggbert.pixel.framework.graphics.software;
+
+import com.openeggbert.pixel.framework.PixelException;
+import com.openeggbert.pixel.framework.graphics.Color4BitPalette;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+class IndexedPixmapTest {
+
+    private static final int[] PALETTE = {0xFF000000, 0xFF0000FF, 0xFF0000C0, 0xFF000080, 0xFFFFFFFF};
+
+    @Test
+    void testDefaultPaletteAndDrawing() {
+        IndexedPixmap pixmap = new IndexedPixmap(4, 3);
+        assertEquals(16, pixmap.getPaletteSize());
+        pixmap.setColor(250, 10, 5);
+        pixmap.fillRectangle(1, 1, 2, 1);
+        assertEquals(Color4BitPalette.findClosestIndex(0xFFFA0A05), pixmap.getIndex(1, 1));
+        assertEquals(Color4BitPalette.RED.toInt(), pixmap.getPixel(2, 1));
+        assertEquals(0, pixmap.getIndex(0, 0));
+    }
+
+    @Test
+    void testPaletteCycling() {
+        IndexedPixmap pixmap = new IndexedPixmap(3, 1, PALETTE);
+        for (int x = 0; x < 3; x++) {
+            pixmap.setIndex(x, 0, x + 1);
+        }
+        pixmap.cyclePalette(1, 3, 1);
+        assertArrayEquals(new int[]{0xFF000000, 0xFF000080, 0xFF0000FF, 0xFF0000C0, 0xFFFFFFFF}, pixmap.getPalette());
+        assertEquals(0xFF000080, pixmap.getPixel(0, 0));
+        pixmap.cyclePalette(1, 3, -4);
+        assertArrayEquals(PALETTE, pixmap.getPalette());
+        assertEquals(1, pixmap.getIndex(0, 0));
+    }
+
+    @Test
+    void testPaletteSwapAndColorIndex() {
+        IndexedPixmap pixmap = new IndexedPixmap(2, 2, PALETTE);
+        pixmap.setColorIndex(4);
+        pixmap.fill();
+        pixmap.setPaletteColor(4, 0xFFFF0000);
+        assertEquals(0xFFFF0000, pixmap.getPixel(1, 1));
+        pixmap.setColor(0xFFFF1010);
+        pixmap.drawPixel(0, 0);
+        assertEquals(4, pixmap.getIndex(0, 0));
+        assertThrows(PixelException.class, () -> pixmap.setColorIndex(5));
+        assertThrows(PixelException.class, () -> pixmap.setPalette(new int[257]));
+    }
+
+    @Test
+    void testColorIndexSurvivesPaletteEdits() {
+        IndexedPixmap pixmap = new IndexedPixmap(2, 2, new int[]{0xFF000000, 0xFFFFFFFF, 0xFFFFFFFF});
+        pixmap.setColorIndex(2);
+        pixmap.setPaletteColor(0, 0xFF808080);
+        pixmap.drawPixel(0, 0);
+        assertEquals(2, pixmap.getIndex(0, 0));
+        pixmap.cyclePalette(0, 1, 1);
+        pixmap.drawPixel(1, 0);
+        assertEquals(2, pixmap.getIndex(1, 0));
+
+        //the palette is white, gray, white now, the closest color is used again
+        pixmap.setColor(0xFFFFFFFF);
+        pixmap.drawPixel(0, 1);
+        assertEquals(0, pixmap.getIndex(0, 1));
+    }
+
+    @Test
+    void testShorterPalette() {
+        IndexedPixmap pixmap = new IndexedPixmap(2, 1, PALETTE);
+        pixmap.setIndex(1, 0, 4);
+        assertThrows(PixelException.class, () -> pixmap.setPalette(new int[]{0xFF000000, 0xFFFFFFFF}));
+        assertEquals(PALETTE.length, pixmap.getPaletteSize());
+        pixmap.setIndex(1, 0, 1);
+        pixmap.setPalette(new int[]{0xFF000000, 0xFFFFFFFF});
+        assertEquals(0xFFFFFFFF, pixmap.getPixel(1, 0));
+        assertThrows(PixelException.class, () -> pixmap.setIndex(0, 0, 2));
+    }
+
+    @Test
+    void testResolveBlit() {
+        IndexedPixmap source = new IndexedPixmap(3, 2, PALETTE);
+        source.setIndex(0, 0, 1);
+        source.setIndex(2, 1, 4);
+        int[] resolved = new int[6];
+        source.resolve(resolved);
+        assertArrayEquals(new int[]{0xFF0000FF, 0xFF000000, 0xFF000000, 0xFF000000, 0xFF000000, 0xFFFFFFFF}, resolved);
+
+        SoftwarePixmap target = new SoftwarePixmap(6, 4);
+        target.drawPixmap(source, 1, 1);
+        assertEquals(0xFF0000FF, target.getPixel(1, 1));
+        assertEquals(0xFFFFFFFF, target.getPixel(3, 2));
+        target.drawPixmap(source, 0, 0, 3, 2, 0, 0, 6, 4);
+        assertEquals(0xFF0000FF, target.getPixel(1, 1));
+        assertEquals(0xFFFFFFFF, target.getPixel(5, 3));
+
+        IndexedPixmap copy = new IndexedPixmap(3, 2, PALETTE);
+        copy.drawPixmap(source, 0, 0);
+        assertArrayEquals(source.getBuffer(), copy.getBuffer());
+    }
+
+    @Test
+    void testBlitBetweenDifferentPalettes() {
+        int[] swapped = {0xFF000000, 0xFFFF0000, 0xFF0000C0, 0xFF000080, 0xFFFFFFFF};
+        IndexedPixmap source = new IndexedPixmap(2, 1, swapped);
+        source.setIndex(0, 0, 1);
+        source.setIndex(1, 0, 4);
+        IndexedPixmap target = new IndexedPixmap(2, 1, PALETTE);
+        target.drawPixmap(source, 0, 0);
+        //the red of the source is closest to the black of the target
+        assertEquals(0, target.getIndex(0, 0));
+        assertEquals(4, target.getIndex(1, 0));
+    }
+}
@@ -0,0 +1,104 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// Pixel: Game library.
+// Copyright (C) 2024 the original author or authors.
+//
+// This program is free software: you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation, either version 3
+// of the License, or (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program. If not, see
+// <https://www.gnu.org/licenses/> or write to the Free Software
+// Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+///////////////////////////////////////////////////////////////////////////////////////////////
+package com.openeggbert.pixel.framework.graphics.software;
+
+import com.openeggbert.pixel.framework.graphics.ColorDepth;
+import com.openeggbert.pixel.framework.graphics.ColorMode;
+import com.openeggbert.pixel.framework.graphics.PixMapFactory;
+import com.openeggbert.pixel.framework.graphics.Pixmap;
+import com.openeggbert.pixel.framework.graphics.PixelFormat;
+import com.openeggbert.pixel.framework.graphics.PixelFormatCodec;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+class PackedPixmapTest {
+
+    @Test
+    void testMemoryIsReduced() {
+        assertEquals(100 * 20 * 2, new PackedPixmap(100, 20, PixelFormat.RGB565).getBuffer().length);
+        assertEquals(100 * 20 / 2, new PackedPixmap(100, 20, PixelFormat.from(ColorMode.COLOR, ColorDepth.BITS_4)).getBuffer().length);
+        assertEquals(13 * 20, new PackedPixmap(100, 20, PixelFormat.GRAY1).getBuffer().length);
+    }
+
+    @Test
+    void testFactoryCreatesPixmapsOfTheFormat() {
+        PixMapFactory factory = new SoftwarePixMapFactory();
+        Pixmap packed = factory.create(4, 2, PixelFormat.RGB565);
+        assertEquals(PixelFormat.RGB565, ((PackedPixmap) packed).getFormat());
+        assertTrue(factory.create(4, 2, PixelFormat.RGBA8888) instanceof SoftwarePixmap);
+    }
+
+    @Test
+    void testDrawingMatchesSoftwarePixmap() {
+        for (PixelFormat format : PixelFormat.values()) {
+            PackedPixmap packed = new PackedPixmap(23, 11, format);
+            SoftwarePixmap reference = new SoftwarePixmap(23, 11);
+            for (SoftwareDrawable drawable : new SoftwareDrawable[]{packed, reference}) {
+                drawable.setColor(0xFF204080);
+                drawable.fill();
+                drawable.setColor(0xFFF0F0F0);
+                drawable.fillRectangle(3, 2, 17, 5);
+                drawable.setColor(0xFFFF0000);
+                drawable.drawLine(0, 10, 22, 0);
+                drawable.drawPixel(5, 9, 0xFF00FF00);
+            }
+            int[] expected = PixelFormatCodec.decode(PixelFormatCodec.encode(reference.getBuffer(), 23, 11, format), 23, 11, format);
+            assertArrayEquals(expected, packed.toSoftwarePixmap().getBuffer(), format.name());
+            assertEquals(expected[9 * 23 + 5], packed.getPixel(5, 9), format.name());
+        }
+    }
+
+    @Test
+    void testBlitBetweenSameFormats() {
+        Random random = new Random(7);
+        int[] pixels = new int[17 * 9];
+        for (int i = 0; i < pixels.length; i++) {
+            pixels[i] = random.nextInt();
+        }
+        for (PixelFormat format : new PixelFormat[]{PixelFormat.RGB332, PixelFormat.INDEXED4, PixelFormat.GRAY1, PixelFormat.GRAY2}) {
+            PackedPixmap source = PackedPixmap.of(new SoftwarePixmap(17, 9, pixels), format);
+            PackedPixmap target = new PackedPixmap(30, 12, format);
+            target.drawPixmap(source, 0, 0);
+            target.drawPixmap(source, 19, 3, 2, 1, 8, 8);
+            for (int y = 0; y < 9; y++) {
+                for (int x = 0; x < 17; x++) {
+                    assertEquals(source.getValue(x, y), target.getValue(x, y), format + " " + x + "," + y);
+                }
+            }
+            for (int y = 0; y < 8; y++) {
+                for (int x = 0; x < 8; x++) {
+                    assertEquals(source.getValue(x + 2, y + 1), target.getValue(x + 19, y + 3), format + " " + x + "," + y);
+                }
+            }
+            assertEquals(0, target.getValue(29, 11));
+        }
+    }
+
+    @Test
+    void testScaledBlitAndConversion() {
+        SoftwarePixmap source = new SoftwarePixmap(2, 1, new int[]{0xFFFFFFFF, 0xFF000000});
+        PackedPixmap target = new PackedPixmap(4, 1, PixelFormat.GRAY1);
+        target.drawPixmap(PackedPixmap.of(source, PixelFormat.GRAY1), 0, 0, 2, 1, 0, 0, 4, 1);
+        assertEquals((byte) 0xC0, target.getBuffer()[0]);
+        target.drawPixmap(source, 0, 0, 2, 1, 0, 0, 4, 1);
+        assertEquals((byte) 0xC0, target.getBuffer()[0]);
+    }
+}
@@ -0,0 +1,199 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// Pixel: Game library.
+// Copyright (C) 2024 the original author or authors.
+//
+// This program is free software: you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation, either version 3
+// of the License, or (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program. If not, see
+// <https://www.gnu.org/licenses/> or write to the Free Software
+// Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+///////////////////////////////////////////////////////////////////////////////////////////////
+package com.openeggbert.pixel.framework.graphics.software;
+
+import com.openeggbert.pixel.framework.PixelException;
+import com.openeggbert.pixel.framework.graphics.Color;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SoftwarePixmapTest {
+
+    private static final int RED = 0xFFFF0000;
+
+    private SoftwarePixmap pixmap;
+
+    @BeforeEach
+    void setUp() {
+        pixmap = new SoftwarePixmap(8, 6);
+        pixmap.setColor(255, 0, 0);
+    }
+
+    private int count(int argb) {
+        int count = 0;
+        for (int pixel : pixmap.getBuffer()) {
+            if (pixel == argb) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Test
+    void testSetColor() {
+        pixmap.setColor(Color.RED);
+        assertEquals(RED, pixmap.getColor());
+        pixmap.setColor(0f, 0f, 1f, 0.5f);
+        assertEquals(0x800000FF, pixmap.getColor());
+    }
+
+    @Test
+    void testFillRectangleIsClipped() {
+        pixmap.fillRectangle(-2, 4, 5, 10);
+        assertEquals(3 * 2, count(RED));
+        assertEquals(RED, pixmap.getPixel(0, 5));
+        assertEquals(0, pixmap.getPixel(3, 5));
+        assertEquals(0, pixmap.getPixel(-1, 5));
+    }
+
+    @Test
+    void testDrawLine() {
+        pixmap.drawLine(0, 0, 7, 5);
+        assertEquals(RED, pixmap.getPixel(0, 0));
+        assertEquals(RED, pixmap.getPixel(7, 5));
+        assertEquals(8, count(RED));
+
+        pixmap.drawLine(-10, 2, 20, 2);
+        assertEquals(RED, pixmap.getPixel(0, 2));
+        assertEquals(RED, pixmap.getPixel(7, 2));
+    }
+
+    @Test
+    void testDrawLineIsClippedExactly() {
+        //the same lines drawn fully inside of a larger pixmap, so nothing is clipped
+        Random random = new Random(42);
+        for (int i = 0; i < 2000; i++) {
+            int x = random.nextInt(300) - 150;
+            int y = random.nextInt(300) - 150;
+            int x2 = random.nextInt(300) - 150;
+            int y2 = random.nextInt(300) - 150;
+            SoftwarePixmap clipped = new SoftwarePixmap(8, 6);
+            clipped.setColor(RED);
+            clipped.drawLine(x, y, x2, y2);
+            SoftwarePixmap reference = new SoftwarePixmap(500, 500);
+            reference.setColor(RED);
+            reference.drawLine(x + 200, y + 200, x2 + 200, y2 + 200);
+            for (int row = 0; row < 6; row++) {
+                for (int column = 0; column < 8; column++) {
+                    assertEquals(reference.getPixel(column + 200, row + 200), clipped.getPixel(column, row),
+                            x + "," + y + " -> " + x2 + "," + y2 + " at " + column + "," + row);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testDrawVeryLongLine() {
+        pixmap.drawLine(-500_000_000, 3, 500_000_000, 4);
+        assertEquals(8, count(RED));
+        //the middle of the line is at x = 0
+        assertEquals(RED, pixmap.getPixel(0, 3));
+        assertEquals(RED, pixmap.getPixel(1, 4));
+        assertEquals(RED, pixmap.getPixel(7, 4));
+
+        pixmap.drawLine(Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE);
+        assertEquals(RED, pixmap.getPixel(5, 5));
+        assertEquals(RED, pixmap.getPixel(0, 0));
+    }
+
+    @Test
+    void testDrawRectangle() {
+        pixmap.drawRectangle(1, 1, 4, 3);
+        assertEquals(10, count(RED));
+        assertEquals(0, pixmap.getPixel(2, 2));
+    }
+
+    @Test
+    void testFillTriangle() {
+        pixmap.fillTriangle(0, 0, 4, 0, 0, 4);
+        assertEquals(RED, pixmap.getPixel(0, 4));
+        assertEquals(RED, pixmap.getPixel(4, 0));
+        assertEquals(RED, pixmap.getPixel(1, 1));
+        assertEquals(0, pixmap.getPixel(4, 4));
+        assertEquals(5 + 4 + 3 + 2 + 1, count(RED));
+    }
+
+    @Test
+    void testFillCircle() {
+        pixmap.fillCircle(3, 3, 2);
+        assertEquals(RED, pixmap.getPixel(3, 1));
+        assertEquals(RED, pixmap.getPixel(1, 3));
+        assertEquals(RED, pixmap.getPixel(5, 3));
+        assertEquals(0, pixmap.getPixel(1, 1));
+    }
+
+    @Test
+    void testDrawPixmapScaled() {
+        SoftwarePixmap source = new SoftwarePixmap(2, 2, new int[]{1, 2, 3, 4});
+        pixmap.drawPixmap(source, 0, 0, 2, 2, 1, 1, 4, 4);
+        assertEquals(1, pixmap.getPixel(1, 1));
+        assertEquals(1, pixmap.getPixel(2, 2));
+        assertEquals(2, pixmap.getPixel(3, 1));
+        assertEquals(4, pixmap.getPixel(4, 4));
+        assertEquals(0, pixmap.getPixel(5, 5));
+    }
+
+    @Test
+    void testDrawPixmapIsClipped() {
+        SoftwarePixmap source = new SoftwarePixmap(2, 2, new int[]{1, 2, 3, 4});
+        pixmap.drawPixmap(source, -1, 5);
+        assertEquals(2, pixmap.getPixel(0, 5));
+        pixmap.drawPixmap(source, 0, 0, 1, 1, 3, 3);
+        assertEquals(4, pixmap.getPixel(0, 0));
+        assertEquals(0, pixmap.getPixel(1, 0));
+        pixmap.drawPixmap(source, -1, -1, 3, 3, 4, 0, 3, 3);
+        assertEquals(0, pixmap.getPixel(4, 0));
+        assertEquals(1, pixmap.getPixel(5, 1));
+        assertEquals(4, pixmap.getPixel(6, 2));
+    }
+
+    @Test
+    void testDrawPixmapFromLargeSourceX() {
+        int[] pixels = new int[40000];
+        for (int i = 0; i < pixels.length; i++) {
+            pixels[i] = i;
+        }
+        SoftwarePixmap source = new SoftwarePixmap(40000, 1, pixels);
+        pixmap.drawPixmap(source, 0, 0, 39990, 0, 4, 1);
+        assertEquals(39990, pixmap.getPixel(0, 0));
+        assertEquals(39993, pixmap.getPixel(3, 0));
+        pixmap.drawPixmap(source, 32768, 0, 8, 1, 0, 1, 4, 1);
+        assertEquals(32768, pixmap.getPixel(0, 1));
+        assertEquals(32774, pixmap.getPixel(3, 1));
+    }
+
+    @Test
+    void testPixelsRoundTrip() {
+        pixmap.drawPixel(1, 0, 0x11223344);
+        byte[] rgba = pixmap.getPixels();
+        assertEquals(8 * 6 * 4, rgba.length);
+        assertEquals(0x22, rgba[4]);
+        assertEquals(0x33, rgba[5]);
+        assertEquals(0x44, rgba[6]);
+        assertEquals(0x11, rgba[7]);
+
+        SoftwarePixmap copy = new SoftwarePixmap(8, 6);
+        copy.setPixels(rgba);
+        assertArrayEquals(pixmap.getBuffer(), copy.getBuffer());
+        assertThrows(PixelException.class, () -> copy.setPixels(new byte[3]));
+    }
+}
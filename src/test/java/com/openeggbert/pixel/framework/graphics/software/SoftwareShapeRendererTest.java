@@ -0,0 +1,134 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// Pixel: Game library.
+// Copyright (C) 2024 the original author or authors.
+//
+// This program is free software: you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation, either version 3
+// of the License, or (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program. If not, see
+// <https://www.gnu.org/licenses/> or write to the Free Software
+// Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+///////////////////////////////////////////////////////////////////////////////////////////////
+package com.openeggbert.pixel.framework.graphics.software;
+
+import com.openeggbert.pixel.framework.graphics.Color;
+import com.openeggbert.pixel.framework.graphics.ShapeRenderer;
+import com.openeggbert.pixel.framework.math.Angle;
+import com.openeggbert.pixel.framework.math.Rectangle;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedConstruction;
+import static org.mockito.Mockito.mockConstruction;
+
+class SoftwareShapeRendererTest {
+
+    private static final int RED = 0xFFFF0000;
+
+    private SoftwarePixmap screen;
+    private SoftwareShapeRenderer renderer;
+
+    @BeforeEach
+    void setUp() {
+        screen = new SoftwarePixmap(16, 16);
+        renderer = new SoftwareShapeRenderer(screen, 8);
+    }
+
+    private int count(int argb) {
+        int result = 0;
+        for (int pixel : screen.getBuffer()) {
+            result += pixel == argb ? 1 : 0;
+        }
+        return result;
+    }
+
+    @Test
+    void testRectangleCoversExactPixels() {
+        renderer.filledRectangle(2, 3, 4, 5, 0f, RED);
+        assertEquals(0, count(RED));
+        renderer.flush();
+        assertEquals(20, count(RED));
+        assertEquals(RED, screen.getPixel(2, 3));
+        assertEquals(RED, screen.getPixel(5, 7));
+        assertEquals(0, screen.getPixel(6, 7));
+        assertEquals(0, screen.getPixel(5, 8));
+        assertEquals(1, renderer.getFlushCount());
+        assertEquals(2, renderer.getTriangleCount());
+    }
+
+    @Test
+    void testSharedEdgesAreDrawnOnce() {
+        renderer.filledRectangle(0, 0, 10, 10, 0f, 0x80FF0000);
+        renderer.flush();
+        int first = screen.getPixel(3, 6);
+        for (int y = 0; y < 10; y++) {
+            for (int x = 0; x < 10; x++) {
+                assertEquals(first, screen.getPixel(x, y), x + "," + y);
+            }
+        }
+    }
+
+    @Test
+    void testRotatedRectangleKeepsArea() {
+        renderer.filledRectangle(4, 4, 8, 8, 45f, RED);
+        renderer.flush();
+        assertEquals(64, count(RED), 6);
+        assertEquals(RED, screen.getPixel(8, 8));
+        assertEquals(0, screen.getPixel(4, 4));
+        assertEquals(RED, screen.getPixel(8, 3));
+    }
+
+    @Test
+    void testCircleLineAndTriangle() {
+        renderer.filledCircle(8, 8, 5, RED);
+        renderer.flush();
+        assertEquals(Math.PI * 25, count(RED), 6);
+        screen.setColor(0);
+        screen.fill();
+        renderer.line(0, 1.5f, 16, 1.5f, 1f, RED);
+        renderer.filledTriangle(0, 4, 4, 4, 0, 8, RED);
+        renderer.flush();
+        //the pixel centers on the hypotenuse belong to the neighbouring triangle
+        assertEquals(16 + 3 + 2 + 1, count(RED));
+        assertTrue(renderer.getFlushCount() >= 3);
+    }
+
+    @Test
+    void testPrimitiveOverloadsAndSpriteBatch() {
+        SoftwareSpriteBatch batch = new SoftwareSpriteBatch(screen);
+        batch.begin();
+        ShapeRenderer shapes = batch.drawShape();
+        shapes.setColor(1f, 0f, 0f);
+        assertEquals(RED, shapes.getColor().toInt());
+        shapes.filledRectangle(0, 0, 2, 2);
+        batch.end();
+        assertEquals(4, count(RED));
+    }
+
+    @Test
+    void testRectangleOverloadsDoNotCreateAngles() {
+        Color red = new Color(1f, 0f, 0f, 1f);
+        Rectangle rectangle = new Rectangle(8, 8, 2, 2);
+        renderer.setColor(RED);
+        try (MockedConstruction<Angle> angles = mockConstruction(Angle.class)) {
+            renderer.filledRectangle(0, 0, 2, 2, 90f, red);
+            renderer.filledRectangle(4, 0, 2, 2, red);
+            renderer.filledRectangle(0, 4, 2, 2, 90f);
+            renderer.filledRectangle(4, 4, 2, 2);
+            renderer.filledRectangle(rectangle, red);
+            renderer.filledRectangle(rectangle, 90f);
+            renderer.filledRectangle(rectangle);
+            renderer.flush();
+            assertTrue(angles.constructed().isEmpty());
+        }
+        assertEquals(5 * 4, count(RED));
+    }
+}
@@ -0,0 +1,127 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// Pixel: Game library.
+// Copyright (C) 2024 the original author or authors.
+//
+// This program is free software: you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation, either version 3
+// of the License, or (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program. If not, see
+// <https://www.gnu.org/licenses/> or write to the Free Software
+// Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+///////////////////////////////////////////////////////////////////////////////////////////////
+package com.openeggbert.pixel.framework.graphics.software;
+
+import com.openeggbert.pixel.framework.PixelException;
+import com.openeggbert.pixel.framework.graphics.ShapeRenderer;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SoftwareSpriteBatchTest {
+
+    private SoftwarePixmap screen;
+    private SoftwareSpriteBatch batch;
+    private SoftwareTexture red;
+    private SoftwareTexture blue;
+
+    private static SoftwareTexture texture(int width, int height, int argb) {
+        SoftwarePixmap pixmap = new SoftwarePixmap(width, height);
+        pixmap.setColor(argb);
+        pixmap.fill();
+        return new SoftwareTexture(pixmap);
+    }
+
+    @BeforeEach
+    void setUp() {
+        screen = new SoftwarePixmap(16, 8);
+        screen.setColor(0xFF000000);
+        screen.fill();
+        batch = new SoftwareSpriteBatch(screen, 4);
+        red = texture(2, 2, 0xFFFF0000);
+        blue = texture(2, 2, 0xFF0000FF);
+    }
+
+    @Test
+    void testDrawCallsAreGroupedByTexture() {
+        batch.begin();
+        batch.draw(red, 0, 0);
+        batch.draw(blue, 2, 0);
+        batch.draw(red, 4, 0);
+        batch.end();
+        assertEquals(3, batch.getDrawCallCount());
+        assertEquals(1, batch.getFlushCount());
+        assertEquals(0xFFFF0000, screen.getPixel(5, 1));
+        assertEquals(0xFF0000FF, screen.getPixel(3, 1));
+
+        batch.resetCounters();
+        batch.setSortByTexture(true);
+        batch.begin();
+        batch.draw(red, 0, 0);
+        batch.draw(blue, 2, 0);
+        batch.draw(red, 4, 0);
+        batch.end();
+        assertEquals(2, batch.getDrawCallCount());
+        assertEquals(3, batch.getSpriteCount());
+    }
+
+    @Test
+    void testShapesAreLayeredBetweenSprites() {
+        batch.begin();
+        batch.draw(red, 0, 0);
+        ShapeRenderer shapes = batch.drawShape();
+        assertSame(shapes, batch.drawShape());
+        shapes.setColor(0f, 1f, 0f);
+        shapes.filledRectangle(1, 1, 2, 2);
+        batch.draw(blue, 2, 2);
+        batch.end();
+        assertEquals(0xFFFF0000, screen.getPixel(0, 0));
+        assertEquals(0xFF00FF00, screen.getPixel(1, 1));
+        assertEquals(0xFF00FF00, screen.getPixel(2, 1));
+        assertEquals(0xFF0000FF, screen.getPixel(2, 2));
+        assertEquals(0xFF0000FF, screen.getPixel(3, 3));
+    }
+
+    @Test
+    void testFullBufferIsFlushed() {
+        batch.begin();
+        for (int i = 0; i < 6; i++) {
+            batch.draw(red, i * 2, 4);
+        }
+        assertEquals(1, batch.getFlushCount());
+        batch.end();
+        assertEquals(2, batch.getFlushCount());
+        assertEquals(2, batch.getDrawCallCount());
+        assertEquals(0xFFFF0000, screen.getPixel(11, 5));
+    }
+
+    @Test
+    void testScalingClippingAndBlending() {
+        SoftwarePixmap pixmap = new SoftwarePixmap(2, 1, new int[]{0xFFFFFFFF, 0x80FFFFFF});
+        SoftwareTexture texture = new SoftwareTexture(pixmap);
+        batch.begin();
+        batch.draw(texture, -2, 6, 8, 4);
+        batch.setColor(0xFF00FF00);
+        batch.draw(texture, 14, 0, 2, 2, 0, 0, 1, 1);
+        batch.end();
+        assertEquals(0xFFFFFFFF, screen.getPixel(0, 7));
+        assertEquals(0xFF808080, screen.getPixel(2, 7));
+        assertEquals(0xFF000000, screen.getPixel(6, 7));
+        assertEquals(0xFF00FF00, screen.getPixel(15, 1));
+    }
+
+    @Test
+    void testBeginAndEndMustBePaired() {
+        assertThrows(PixelException.class, () -> batch.draw(red, 0, 0));
+        assertThrows(PixelException.class, () -> batch.end());
+        batch.begin();
+        assertThrows(PixelException.class, () -> batch.begin());
+    }
+}
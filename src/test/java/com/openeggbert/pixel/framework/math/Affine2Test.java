@@ -0,0 +1,95 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// Pixel: Game library.
+// Copyright (C) 2024 the original author or authors.
+//
+// This program is free software: you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation, either version 3
+// of the License, or (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program. If not, see
+// <https://www.gnu.org/licenses/> or write to the Free Software
+// Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+///////////////////////////////////////////////////////////////////////////////////////////////
+package com.openeggbert.pixel.framework.math;
+
+import com.openeggbert.pixel.framework.PixelException;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+class Affine2Test {
+
+    private static final float TOLERANCE = 0.0001f;
+
+    @Test
+    void testTranslateScaleRotate() {
+        Affine2 matrix = new Affine2().translate(10f, 0f).rotate(90f).scale(2f, 2f);
+        //scaled first, then rotated, then translated
+        assertEquals(10f, matrix.applyToX(1f, 0f), TOLERANCE);
+        assertEquals(2f, matrix.applyToY(1f, 0f), TOLERANCE);
+
+        Affine2 same = new Affine2().setToTrnRotScl(10f, 0f, 90f, 2f, 2f);
+        assertEquals(matrix.getM00(), same.getM00(), TOLERANCE);
+        assertEquals(matrix.getM01(), same.getM01(), TOLERANCE);
+        assertEquals(matrix.getM02(), same.getM02(), TOLERANCE);
+        assertEquals(matrix.getM11(), same.getM11(), TOLERANCE);
+    }
+
+    @Test
+    void testMulAndMulLeft() {
+        Affine2 translation = new Affine2().setToTranslation(5f, 0f);
+        Affine2 scaling = new Affine2().setToScaling(2f, 2f);
+        Affine2 a = new Affine2(translation).mul(scaling);
+        Affine2 b = new Affine2(scaling).mulLeft(translation);
+        assertEquals(7f, a.applyToX(1f, 0f), TOLERANCE);
+        assertEquals(7f, b.applyToX(1f, 0f), TOLERANCE);
+        assertEquals(12f, new Affine2(scaling).mul(translation).applyToX(1f, 0f), TOLERANCE);
+    }
+
+    @Test
+    void testInv() {
+        Affine2 matrix = new Affine2().setToTrnRotScl(3f, -4f, 30f, 2f, 0.5f);
+        Affine2 inverse = new Affine2(matrix).inv();
+        Affine2 product = new Affine2(matrix).mul(inverse);
+        assertEquals(1f, product.getM00(), TOLERANCE);
+        assertEquals(0f, product.getM01(), TOLERANCE);
+        assertEquals(0f, product.getM02(), TOLERANCE);
+        assertEquals(0f, product.getM10(), TOLERANCE);
+        assertEquals(1f, product.getM11(), TOLERANCE);
+        assertEquals(0f, product.getM12(), TOLERANCE);
+        assertThrows(PixelException.class, () -> new Affine2().setToScaling(0f, 1f).inv());
+    }
+
+    @Test
+    void testLerp() {
+        Affine2 matrix = new Affine2().lerp(new Affine2().setToTranslation(10f, 20f), 0.5f);
+        assertEquals(5f, matrix.getM02(), TOLERANCE);
+        assertEquals(10f, matrix.getM12(), TOLERANCE);
+        assertTrue(matrix.isTranslation());
+        assertFalse(matrix.isIdentity());
+        matrix.reset();
+        assertTrue(matrix.isIdentity());
+    }
+
+    @Test
+    void testTransformArray() {
+        //x, y, u, v
+        float[] vertices = {1f, 0f, 7f, 7f, 0f, 1f, 8f, 8f};
+        new Affine2().setToTranslation(1f, 1f).rotate(90f).transform(vertices, 0, 2, 4);
+        assertEquals(1f, vertices[0], TOLERANCE);
+        assertEquals(2f, vertices[1], TOLERANCE);
+        assertEquals(7f, vertices[2]);
+        assertEquals(0f, vertices[4], TOLERANCE);
+        assertEquals(1f, vertices[5], TOLERANCE);
+
+        float[] target = new float[4];
+        new Affine2().setToTranslation(1f, 2f).transform(new float[]{1f, 1f, 2f, 2f}, 0, target, 0, 2, 2);
+        assertArrayEquals(new float[]{2f, 3f, 3f, 4f}, target);
+    }
+}
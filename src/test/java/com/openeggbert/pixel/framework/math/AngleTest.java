@@ -109,4 +109,14 @@ class AngleTest {
         assertEquals(100f, angle.asGradians(), 0.001f);
         assertEquals(0.25f, angle.asNormalized(), TOLERANCE);
     }
+
+    @Test
+    void testSinCos() {
+        Angle angle = Angle.ofDegrees(30f);
+        assertEquals(0.5f, angle.sin(), TOLERANCE);
+        assertEquals((float) Math.sqrt(3) / 2, angle.cos(), TOLERANCE);
+        angle.set(90f, AngleUnit.DEGREE);
+        assertEquals(1f, angle.sin(), TOLERANCE);
+        assertEquals(0f, angle.cos(), TOLERANCE);
+    }
 }
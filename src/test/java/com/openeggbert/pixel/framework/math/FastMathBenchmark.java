@@ -0,0 +1,73 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// Pixel: Game library.
+// Copyright (C) 2024 the original author or authors.
+//
+// This program is free software: you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation, either version 3
+// of the License, or (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program. If not, see
+// <https://www.gnu.org/licenses/> or write to the Free Software
+// Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+///////////////////////////////////////////////////////////////////////////////////////////////
+package com.openeggbert.pixel.framework.math;
+
+/**
+ * Compares the accuracy and the speed of {@link FastMath} and
+ * {@link SinCosTable} with {@link Math}. Not run as a test, start it with the
+ * main method.
+ *
+ * @author robertvokac
+ */
+public class FastMathBenchmark {
+
+    private static final int COUNT = 10_000_000;
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        for (int bits = 8; bits <= 16; bits += 2) {
+            SinCosTable table = new SinCosTable(bits);
+            float maxError = 0f;
+            for (float radians = -10f; radians < 10f; radians += 0.0001f) {
+                maxError = Math.max(maxError, Math.abs(table.sin(radians) - (float) Math.sin(radians)));
+            }
+            System.out.println("Table with " + table.getSize() + " entries: max error " + maxError);
+        }
+        float[] angles = new float[4096];
+        for (int i = 0; i < angles.length; i++) {
+            angles[i] = (i * 0.37f) % 100f - 50f;
+        }
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            float sum = 0f;
+            for (int i = 0; i < COUNT; i++) {
+                float angle = angles[i & 4095];
+                sum += (float) Math.sin(angle) + (float) Math.cos(angle);
+            }
+            long mathTime = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < COUNT; i++) {
+                float angle = angles[i & 4095];
+                sum += FastMath.sin(angle) + FastMath.cos(angle);
+            }
+            long fastTime = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < COUNT; i++) {
+                float angle = angles[i & 4095] + 1e6f;
+                sum += FastMath.sin(angle) + FastMath.cos(angle);
+            }
+            long largeTime = System.nanoTime() - start;
+            System.out.printf("Round %d: Math %.2f ns, FastMath %.2f ns, FastMath of large angles %.2f ns per sin and cos (%s)%n",
+                    round, (double) mathTime / COUNT, (double) fastTime / COUNT, (double) largeTime / COUNT, sum);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// Pixel: Game library.
+// Copyright (C) 2024 the original author or authors.
+//
+// This program is free software: you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation, either version 3
+// of the License, or (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program. If not, see
+// <https://www.gnu.org/licenses/> or write to the Free Software
+// Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+///////////////////////////////////////////////////////////////////////////////////////////////
+package com.openeggbert.pixel.framework.math;
+
+import com.openeggbert.pixel.framework.PixelException;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+class FastMathTest {
+
+    @Test
+    void testSinCosAccuracy() {
+        float maxError = 0f;
+        for (float radians = -20f; radians < 20f; radians += 0.001f) {
+            maxError = Math.max(maxError, Math.abs(FastMath.sin(radians) - (float) Math.sin(radians)));
+            maxError = Math.max(maxError, Math.abs(FastMath.cos(radians) - (float) Math.cos(radians)));
+        }
+        assertTrue(maxError < 1e-5f, "max error " + maxError);
+    }
+
+    @Test
+    void testDegrees() {
+        assertEquals(1f, FastMath.sinDeg(90f), 1e-6f);
+        assertEquals(-1f, FastMath.cosDeg(-180f), 1e-6f);
+        assertEquals(0.5f, FastMath.sinDeg(390f), 1e-5f);
+        assertEquals(0.5f, FastMath.cosDeg(-60f), 1e-5f);
+    }
+
+    @Test
+    void testLargeAngles() {
+        for (float radians : new float[]{30_000.5f, -4_000_000.25f, 1e7f, 3e9f}) {
+            assertEquals((float) Math.sin(radians), FastMath.sin(radians), 1e-5f, "sin " + radians);
+            assertEquals((float) Math.cos(radians), FastMath.cos(radians), 1e-5f, "cos " + radians);
+        }
+        for (float degrees : new float[]{1_000_030.5f, -2.5e8f, 3.6e9f + 256f}) {
+            double radians = Math.toRadians(degrees);
+            assertEquals((float) Math.sin(radians), FastMath.sinDeg(degrees), 1e-5f, "sinDeg " + degrees);
+            assertEquals((float) Math.cos(radians), FastMath.cosDeg(degrees), 1e-5f, "cosDeg " + degrees);
+        }
+    }
+
+    @Test
+    void testLowResolutionTable() {
+        SinCosTable table = new SinCosTable(6);
+        assertEquals(64, table.getSize());
+        assertEquals(1f, table.sinDeg(90f), 1e-6f);
+        assertEquals((float) Math.sin(1), table.sin(1f), 0.002f);
+        assertThrows(PixelException.class, () -> new SinCosTable(2));
+    }
+
+    @Test
+    void testNormalizeDegrees() {
+        assertEquals(10f, FastMath.normalizeDegrees(370f), 1e-4f);
+        assertEquals(350f, FastMath.normalizeDegrees(-10f), 1e-4f);
+        assertEquals(0f, FastMath.normalizeDegrees(-720f), 1e-4f);
+    }
+
+    @Test
+    void testHelpers() {
+        assertEquals(2f, FastMath.clamp(5f, 0f, 2f));
+        assertEquals(0, FastMath.clamp(-3, 0, 2));
+        assertEquals(15f, FastMath.lerp(10f, 20f, 0.5f));
+        assertEquals(FastMath.HALF_PI, FastMath.toRadians(90f), 1e-6f);
+        assertEquals(180f, FastMath.toDegrees(FastMath.PI), 1e-4f);
+    }
+}
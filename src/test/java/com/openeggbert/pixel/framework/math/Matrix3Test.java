@@ -0,0 +1,75 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// Pixel: Game library.
+// Copyright (C) 2024 the original author or authors.
+//
+// This program is free software: you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation, either version 3
+// of the License, or (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program. If not, see
+// <https://www.gnu.org/licenses/> or write to the Free Software
+// Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+///////////////////////////////////////////////////////////////////////////////////////////////
+package com.openeggbert.pixel.framework.math;
+
+import com.openeggbert.pixel.framework.PixelException;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+class Matrix3Test {
+
+    private static final float TOLERANCE = 0.0001f;
+
+    @Test
+    void testMatchesAffine2() {
+        Affine2 affine = new Affine2().translate(3f, 4f).rotate(45f).scale(2f, 3f);
+        Matrix3 matrix = new Matrix3().translate(3f, 4f).mul(new Matrix3().setToRotation(45f)).scale(2f, 3f);
+        Matrix3 fromAffine = new Matrix3().set(affine);
+        for (int i = 0; i < 9; i++) {
+            assertEquals(fromAffine.getValues()[i], matrix.getValues()[i], TOLERANCE);
+        }
+        float[] points = {1f, 2f};
+        matrix.transform(points, 0, 1, 2);
+        assertEquals(affine.applyToX(1f, 2f), points[0], TOLERANCE);
+        assertEquals(affine.applyToY(1f, 2f), points[1], TOLERANCE);
+    }
+
+    @Test
+    void testInv() {
+        Matrix3 matrix = new Matrix3().set(new float[]{2f, 0f, 1f, 1f, 3f, 0f, 0f, 1f, 4f});
+        Matrix3 product = new Matrix3(matrix).inv().mulLeft(matrix);
+        for (int row = 0; row < 3; row++) {
+            for (int column = 0; column < 3; column++) {
+                assertEquals(row == column ? 1f : 0f, product.get(row, column), TOLERANCE);
+            }
+        }
+        assertThrows(PixelException.class, () -> new Matrix3().setToScaling(0f, 1f).inv());
+    }
+
+    @Test
+    void testTransposeAndLerp() {
+        Matrix3 matrix = new Matrix3().setToTranslation(4f, 6f).transpose();
+        assertEquals(4f, matrix.get(2, 0), TOLERANCE);
+        assertEquals(6f, matrix.get(2, 1), TOLERANCE);
+        Matrix3 half = new Matrix3().lerp(new Matrix3().setToScaling(3f, 5f), 0.5f);
+        assertEquals(2f, half.get(0, 0), TOLERANCE);
+        assertEquals(3f, half.get(1, 1), TOLERANCE);
+    }
+
+    @Test
+    void testProjectiveTransform() {
+        Matrix3 matrix = new Matrix3();
+        matrix.getValues()[Matrix3.M22] = 2f;
+        float[] points = {4f, 6f};
+        matrix.transform(points, 0, 1, 2);
+        assertArrayEquals(new float[]{2f, 3f}, points, TOLERANCE);
+        assertTrue(new Vec2(4f, 6f).mul(matrix).epsilonEquals(new Vec2(2f, 3f), TOLERANCE));
+    }
+}
@@ -0,0 +1,78 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// Pixel: Game library.
+// Copyright (C) 2024 the original author or authors.
+//
+// This program is free software: you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation, either version 3
+// of the License, or (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program. If not, see
+// <https://www.gnu.org/licenses/> or write to the Free Software
+// Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+///////////////////////////////////////////////////////////////////////////////////////////////
+package com.openeggbert.pixel.framework.math;
+
+import com.openeggbert.pixel.framework.PixelException;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+class Matrix4Test {
+
+    private static final float TOLERANCE = 0.0001f;
+
+    @Test
+    void testInv() {
+        Matrix4 matrix = new Matrix4().set(new float[]{
+            2f, 0f, 1f, 0f,
+            1f, 3f, 0f, 1f,
+            0f, 1f, 4f, 0f,
+            5f, 0f, 0f, 1f});
+        Matrix4 product = new Matrix4(matrix).inv().mul(matrix);
+        for (int row = 0; row < 4; row++) {
+            for (int column = 0; column < 4; column++) {
+                assertEquals(row == column ? 1f : 0f, product.get(row, column), TOLERANCE);
+            }
+        }
+        assertEquals(new Matrix4(matrix).inv().det(), 1f / matrix.det(), TOLERANCE);
+        assertThrows(PixelException.class, () -> new Matrix4().setToScaling(1f, 0f, 1f).inv());
+    }
+
+    @Test
+    void testOrtho() {
+        Matrix4 matrix = new Matrix4().setToOrtho2D(10f, 20f, 100f, 50f);
+        float[] points = {10f, 20f, 0f, 110f, 70f, 0f, 60f, 45f, 0f};
+        matrix.transform(points, 0, 3, 3);
+        assertArrayEquals(new float[]{-1f, -1f, -1f, 1f, 1f, -1f, 0f, 0f, -1f}, points, TOLERANCE);
+    }
+
+    @Test
+    void testTranslateScaleRotate() {
+        Matrix4 matrix = new Matrix4().translate(1f, 2f, 3f).scale(2f, 2f, 2f)
+                .mul(new Matrix4().setToRotationZ(90f));
+        Vec3 point = new Vec3(1f, 0f, 1f).mul(matrix);
+        assertTrue(point.epsilonEquals(new Vec3(1f, 4f, 5f), TOLERANCE), point.toString());
+        Matrix4 affine = new Matrix4().set(new Affine2().translate(1f, 2f).scale(2f, 2f).rotate(90f));
+        for (int row = 0; row < 2; row++) {
+            for (int column = 0; column < 4; column++) {
+                assertEquals(matrix.get(row, column), affine.get(row, column), TOLERANCE);
+            }
+        }
+    }
+
+    @Test
+    void testTransposeAndLerp() {
+        Matrix4 matrix = new Matrix4().setToTranslation(1f, 2f, 3f).transpose();
+        assertEquals(3f, matrix.get(3, 2), TOLERANCE);
+        Matrix4 half = new Matrix4().lerp(new Matrix4().setToScaling(3f, 3f, 3f), 0.5f);
+        assertEquals(2f, half.get(2, 2), TOLERANCE);
+        half.reset();
+        assertEquals(1f, half.get(2, 2));
+    }
+}
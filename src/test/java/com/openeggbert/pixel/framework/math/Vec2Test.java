@@ -0,0 +1,64 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// Pixel: Game library.
+// Copyright (C) 2024 the original author or authors.
+//
+// This program is free software: you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation, either version 3
+// of the License, or (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program. If not, see
+// <https://www.gnu.org/licenses/> or write to the Free Software
+// Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+///////////////////////////////////////////////////////////////////////////////////////////////
+package com.openeggbert.pixel.framework.math;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+class Vec2Test {
+
+    private static final float TOLERANCE = 0.0001f;
+
+    @Test
+    void testArithmetic() {
+        Vec2 vector = new Vec2(1f, 2f).add(3f, 4f).sub(new Vec2(1f, 1f)).scale(2f);
+        assertEquals(new Vec2(6f, 10f), vector);
+        assertEquals(26f, vector.dot(new Vec2(1f, 2f)), TOLERANCE);
+        assertEquals(5f, new Vec2(3f, 4f).length(), TOLERANCE);
+        assertEquals(1f, new Vec2(3f, 4f).normalize().length(), TOLERANCE);
+        assertTrue(new Vec2().normalize().isZero());
+        assertEquals(-2f, new Vec2(1f, 0f).cross(new Vec2(0f, -2f)), TOLERANCE);
+    }
+
+    @Test
+    void testLerpAndRotate() {
+        Vec2 vector = new Vec2(0f, 0f).lerp(new Vec2(10f, -10f), 0.25f);
+        assertTrue(vector.epsilonEquals(new Vec2(2.5f, -2.5f), TOLERANCE));
+        assertTrue(new Vec2(1f, 0f).rotateDeg(90f).epsilonEquals(new Vec2(0f, 1f), TOLERANCE));
+        assertTrue(new Vec2(1f, 0f).rotate(Angle.ofDegrees(180f)).epsilonEquals(new Vec2(-1f, 0f), TOLERANCE));
+        assertEquals(90f, new Vec2(0f, 3f).angleDeg(), TOLERANCE);
+    }
+
+    @Test
+    void testMulAffine() {
+        Affine2 matrix = new Affine2().setToTranslation(10f, 20f).scale(2f, 3f);
+        assertTrue(new Vec2(1f, 1f).mul(matrix).epsilonEquals(new Vec2(12f, 23f), TOLERANCE));
+    }
+
+    @Test
+    void testVec3() {
+        Vec3 vector = new Vec3(1f, 0f, 0f).cross(new Vec3(0f, 1f, 0f));
+        assertEquals(new Vec3(0f, 0f, 1f), vector);
+        Matrix4 matrix = new Matrix4().setToTranslation(1f, 2f, 3f);
+        assertTrue(new Vec3(1f, 1f, 1f).mul(matrix).epsilonEquals(new Vec3(2f, 3f, 4f), TOLERANCE));
+        Matrix4 ortho = new Matrix4().setToOrtho2D(0f, 0f, 100f, 50f);
+        assertTrue(new Vec3(100f, 50f, 0f).prj(ortho).epsilonEquals(new Vec3(1f, 1f, -1f), TOLERANCE));
+    }
+}
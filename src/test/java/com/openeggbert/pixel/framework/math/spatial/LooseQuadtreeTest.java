@@ -0,0 +1,66 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// Pixel: Game library.
+// Copyright (C) 2024 the original author or authors.
+//
+// This program is free software: you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation, either version 3
+// of the License, or (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program. If not, see
+// <https://www.gnu.org/licenses/> or write to the Free Software
+// Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+///////////////////////////////////////////////////////////////////////////////////////////////
+package com.openeggbert.pixel.framework.math.spatial;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+class LooseQuadtreeTest extends SpatialIndexTest {
+
+    @Override
+    protected SpatialIndex createIndex() {
+        return new LooseQuadtree(0f, 0f, 1024f, 1024f);
+    }
+
+    @Test
+    void testRectanglesAcrossNodeEdges() {
+        LooseQuadtree index = new LooseQuadtree(0f, 0f, 1024f, 1024f);
+        //crosses the edges of the root's children and of their children
+        index.update(0, 510f, 254f, 4f, 4f);
+        int[] result = new int[2];
+        assertEquals(1, index.query(500f, 250f, 11f, 5f, result));
+        assertEquals(1, index.query(513f, 257f, 5f, 5f, result));
+        assertEquals(1, index.queryPoint(513.5f, 257.5f, result));
+        assertEquals(0, index.queryPoint(514f, 257.5f, result));
+        index.update(0, 512f, 256f, 1f, 1f);
+        assertEquals(0, index.query(500f, 250f, 11f, 5f, result));
+        assertEquals(1, index.queryPoint(512.5f, 256.5f, result));
+    }
+
+    @Test
+    void testRectanglesOutsideWorld() {
+        LooseQuadtree index = new LooseQuadtree(0f, 0f, 1024f, 1024f);
+        index.update(0, -500f, -500f, 10f, 10f);
+        index.update(1, 5000f, 20f, 10f, 10f);
+        index.update(2, -100f, -100f, 2000f, 2000f);
+        int[] result = new int[4];
+        assertEquals(2, index.query(-505f, -505f, 10f, 10f, result) + index.queryPoint(5005f, 25f, result));
+        assertEquals(2, index.queryPoint(1500f, 1500f, result) + index.queryPoint(-495f, -495f, result));
+        assertEquals(2, index.queryPoint(500f, 500f, result) + index.queryPoint(5005f, 25f, result));
+
+        index.update(1, 100f, 100f, 10f, 10f);
+        assertEquals(0, index.queryPoint(5005f, 25f, result));
+        assertEquals(2, index.queryPoint(105f, 105f, result));
+        assertTrue(index.remove(2));
+        assertEquals(1, index.queryPoint(105f, 105f, result));
+        assertEquals(1, result[0]);
+        assertEquals(2, index.size());
+    }
+}
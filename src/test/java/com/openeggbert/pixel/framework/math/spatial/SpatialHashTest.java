@@ -0,0 +1,74 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// Pixel: Game library.
+// Copyright (C) 2024 the original author or authors.
+//
+// This program is free software: you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation, either version 3
+// of the License, or (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program. If not, see
+// <https://www.gnu.org/licenses/> or write to the Free Software
+// Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+///////////////////////////////////////////////////////////////////////////////////////////////
+package com.openeggbert.pixel.framework.math.spatial;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+class SpatialHashTest extends SpatialIndexTest {
+
+    @Override
+    protected SpatialIndex createIndex() {
+        return new SpatialHash(32f);
+    }
+
+    @Test
+    void testBucketCollisions() {
+        SpatialHash index = new SpatialHash(32f, 4, 4);
+        index.update(0, 0f, 0f, 40f, 10f);
+        for (int i = 1; i < 8; i++) {
+            index.update(i, i * 1000f, i * 700f, 10f, 10f);
+        }
+        int[] result = new int[8];
+        //the rectangle is in two cells, possibly of the same bucket, but found once
+        assertEquals(1, index.query(0f, 0f, 50f, 50f, result));
+        assertEquals(0, result[0]);
+        assertEquals(1, index.queryPoint(3005f, 2105f, result));
+        assertEquals(3, result[0]);
+        assertEquals(0, index.queryPoint(3005f, 1405f, result));
+        assertTrue(index.remove(3));
+        assertEquals(0, index.queryPoint(3005f, 2105f, result));
+        assertEquals(1, index.queryPoint(2005f, 1405f, result));
+    }
+
+    @Test
+    void testLargeRectanglesAndRegions() {
+        SpatialHash index = new SpatialHash(32f);
+        index.update(0, 0f, 0f, 100_000f, 100_000f);
+        index.update(1, 50f, 50f, 10f, 10f);
+        index.update(2, -1e30f, 40f, Float.POSITIVE_INFINITY, 1f);
+        int[] result = new int[4];
+        assertEquals(3, index.query(40f, 40f, 30f, 30f, result));
+        assertEquals(1, index.queryPoint(99_000f, 99_000f, result));
+        assertEquals(1, index.queryPoint(1e20f, 40.5f, result));
+        assertEquals(2, result[0]);
+        assertEquals(3, index.query(-1e30f, -1e30f, Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY, result));
+        assertEquals(3, index.query(-1f, -1f, 200_000f, 200_000f, result));
+
+        index.update(0, 200f, 200f, 10f, 10f);
+        assertEquals(0, index.queryPoint(99_000f, 99_000f, result));
+        assertEquals(1, index.queryPoint(205f, 205f, result));
+        index.update(1, -1e9f, -1e9f, 2e9f, 2e9f);
+        assertTrue(index.remove(2));
+        assertEquals(2, index.query(-1f, -1f, 200_000f, 200_000f, result));
+        assertEquals(1, index.queryPoint(-5e8f, 0f, result));
+        assertEquals(1, result[0]);
+    }
+}
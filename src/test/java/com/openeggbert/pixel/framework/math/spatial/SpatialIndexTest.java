@@ -0,0 +1,138 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// Pixel: Game library.
+// Copyright (C) 2024 the original author or authors.
+//
+// This program is free software: you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation, either version 3
+// of the License, or (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program. If not, see
+// <https://www.gnu.org/licenses/> or write to the Free Software
+// Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+///////////////////////////////////////////////////////////////////////////////////////////////
+package com.openeggbert.pixel.framework.math.spatial;
+
+import com.openeggbert.pixel.framework.math.Rectangle;
+import java.util.Arrays;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests shared by all {@link SpatialIndex} implementations.
+ *
+ * @author robertvokac
+ */
+abstract class SpatialIndexTest {
+
+    /**
+     * Creates an empty index. The tests use the area from -100 to 1300.
+     *
+     * @return the index
+     */
+    protected abstract SpatialIndex createIndex();
+
+    @Test
+    void testUpdateQueryRemove() {
+        SpatialIndex index = createIndex();
+        index.update(0, new Rectangle(10f, 10f, 20f, 20f));
+        index.update(1, 100f, 100f, 50f, 50f);
+        index.update(5, 500f, 10f, 300f, 40f);
+        assertEquals(3, index.size());
+        int[] result = new int[8];
+        assertEquals(1, index.query(0f, 0f, 40f, 40f, result));
+        assertEquals(0, result[0]);
+        //touching is not overlapping
+        assertEquals(0, index.query(30f, 30f, 70f, 70f, result));
+        assertEquals(1, index.query(700f, 0f, 10f, 20f, result));
+        assertEquals(5, result[0]);
+
+        index.update(0, 120f, 120f, 5f, 5f);
+        assertEquals(2, index.query(new Rectangle(110f, 110f, 20f, 20f), result));
+        Arrays.sort(result, 0, 2);
+        assertEquals(0, result[0]);
+        assertEquals(1, result[1]);
+        assertEquals(0, index.query(0f, 0f, 40f, 40f, result));
+
+        assertTrue(index.remove(1));
+        assertFalse(index.remove(1));
+        assertFalse(index.contains(1));
+        assertEquals(2, index.size());
+        assertEquals(1, index.query(110f, 110f, 20f, 20f, result));
+    }
+
+    @Test
+    void testQueryPoint() {
+        SpatialIndex index = createIndex();
+        index.update(3, 10f, 10f, 20f, 20f);
+        int[] result = new int[1];
+        assertEquals(1, index.queryPoint(10f, 10f, result));
+        assertEquals(3, result[0]);
+        assertEquals(0, index.queryPoint(30f, 20f, result));
+    }
+
+    @Test
+    void testResultCountBeyondArray() {
+        SpatialIndex index = createIndex();
+        for (int i = 0; i < 4; i++) {
+            index.update(i, 0f, 0f, 10f, 10f);
+        }
+        int[] result = new int[2];
+        assertEquals(4, index.query(0f, 0f, 5f, 5f, result));
+    }
+
+    @Test
+    void testMatchesBruteForce() {
+        Random random = new Random(7);
+        int count = 2000;
+        float[] bounds = new float[count * 4];
+        int[] ids = new int[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = i;
+            bounds[i * 4] = random.nextFloat() * 1200f - 100f;
+            bounds[i * 4 + 1] = random.nextFloat() * 1200f - 100f;
+            bounds[i * 4 + 2] = random.nextFloat() * (i % 10 == 0 ? 300f : 30f);
+            bounds[i * 4 + 3] = random.nextFloat() * 30f;
+        }
+        SpatialIndex index = createIndex();
+        index.rebuild(ids, bounds, count);
+        assertEquals(count, index.size());
+        for (int step = 0; step < 3; step++) {
+            for (int i = 0; i < count; i += 3) {
+                bounds[i * 4] += random.nextFloat() * 40f - 20f;
+                bounds[i * 4 + 1] += random.nextFloat() * 40f - 20f;
+                index.update(i, bounds[i * 4], bounds[i * 4 + 1], bounds[i * 4 + 2], bounds[i * 4 + 3]);
+            }
+        }
+        int[] result = new int[count];
+        for (int q = 0; q < 100; q++) {
+            float x = random.nextFloat() * 1100f - 50f;
+            float y = random.nextFloat() * 1100f - 50f;
+            float w = random.nextFloat() * 200f;
+            float h = random.nextFloat() * 200f;
+            int found = index.query(x, y, w, h, result);
+            int[] actual = Arrays.copyOf(result, found);
+            Arrays.sort(actual);
+            int[] expected = new int[count];
+            int expectedCount = 0;
+            for (int i = 0; i < count; i++) {
+                float bx = bounds[i * 4];
+                float by = bounds[i * 4 + 1];
+                if (bx < x + w && bx + bounds[i * 4 + 2] > x && by < y + h && by + bounds[i * 4 + 3] > y) {
+                    expected[expectedCount++] = i;
+                }
+            }
+            assertArrayEquals(Arrays.copyOf(expected, expectedCount), actual);
+        }
+        index.clear();
+        assertEquals(0, index.size());
+        assertEquals(0, index.query(-1000f, -1000f, 3000f, 3000f, result));
+    }
+}
@@ -0,0 +1,125 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// Pixel: Game library.
+// Copyright (C) 2024 the original author or authors.
+//
+// This program is free software: you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation, either version 3
+// of the License, or (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program. If not, see
+// <https://www.gnu.org/licenses/> or write to the Free Software
+// Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+///////////////////////////////////////////////////////////////////////////////////////////////
+package com.openeggbert.pixel.framework.math.spatial;
+
+import com.openeggbert.pixel.framework.math.Rectangle;
+import java.util.Arrays;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+class SweepAndPruneTest {
+
+    @Test
+    void testPairsAndEvents() {
+        SweepAndPrune broadPhase = new SweepAndPrune();
+        broadPhase.update(0, new Rectangle(0f, 0f, 10f, 10f));
+        broadPhase.update(1, 5f, 5f, 10f, 10f);
+        broadPhase.update(2, 10f, 0f, 10f, 4f);
+        assertEquals(1, broadPhase.findPairs());
+        assertEquals(SweepAndPrune.pair(0, 1), broadPhase.getPairs()[0]);
+        assertEquals(1, broadPhase.getEnteredCount());
+        assertEquals(0, broadPhase.getStayedCount());
+
+        //2 overlaps 1 now, 0 still touches 2 only
+        broadPhase.update(2, 10f, 0f, 10f, 6f);
+        assertEquals(2, broadPhase.findPairs());
+        assertEquals(1, broadPhase.getEnteredCount());
+        assertEquals(SweepAndPrune.pair(1, 2), broadPhase.getEntered()[0]);
+        assertEquals(1, broadPhase.getStayedCount());
+        assertEquals(0, broadPhase.getExitedCount());
+
+        assertTrue(broadPhase.remove(1));
+        assertEquals(0, broadPhase.findPairs());
+        assertEquals(2, broadPhase.getExitedCount());
+        assertEquals(SweepAndPrune.pair(0, 1), broadPhase.getExited()[0]);
+        assertEquals(SweepAndPrune.pair(1, 2), broadPhase.getExited()[1]);
+        assertEquals(2, broadPhase.size());
+    }
+
+    @Test
+    void testPairEncoding() {
+        long pair = SweepAndPrune.pair(7, 3);
+        assertEquals(pair, SweepAndPrune.pair(3, 7));
+        assertEquals(3, SweepAndPrune.first(pair));
+        assertEquals(7, SweepAndPrune.second(pair));
+    }
+
+    @Test
+    void testZeroWidthAndReadding() {
+        SweepAndPrune broadPhase = new SweepAndPrune(1);
+        broadPhase.update(4, 5f, 0f, 0f, 10f);
+        broadPhase.update(9, 0f, 0f, 10f, 10f);
+        assertEquals(1, broadPhase.findPairs());
+        broadPhase.remove(4);
+        broadPhase.update(4, 5f, 0f, 0f, 10f);
+        assertEquals(1, broadPhase.findPairs());
+        assertEquals(1, broadPhase.getStayedCount());
+    }
+
+    @Test
+    void testMatchesBruteForce() {
+        Random random = new Random(11);
+        int count = 1500;
+        float[] bounds = new float[count * 4];
+        SweepAndPrune broadPhase = new SweepAndPrune(16);
+        for (int i = 0; i < count; i++) {
+            bounds[i * 4] = random.nextFloat() * 2000f;
+            bounds[i * 4 + 1] = random.nextFloat() * 2000f;
+            bounds[i * 4 + 2] = random.nextFloat() * 40f;
+            bounds[i * 4 + 3] = random.nextFloat() * 40f;
+            broadPhase.update(i, bounds[i * 4], bounds[i * 4 + 1], bounds[i * 4 + 2], bounds[i * 4 + 3]);
+        }
+        long[] previous = new long[0];
+        for (int step = 0; step < 5; step++) {
+            int found = broadPhase.findPairs();
+            long[] expected = bruteForce(bounds, count);
+            assertArrayEquals(expected, Arrays.copyOf(broadPhase.getPairs(), found));
+            assertEquals(found, broadPhase.getEnteredCount() + broadPhase.getStayedCount());
+            assertEquals(previous.length, broadPhase.getExitedCount() + broadPhase.getStayedCount());
+            if (step > 0) {
+                //the movement is coherent, the sort moves only few endpoints
+                assertTrue(broadPhase.getSwapCount() < count * 4, "swaps " + broadPhase.getSwapCount());
+            }
+            previous = expected;
+            for (int i = 0; i < count; i++) {
+                bounds[i * 4] += random.nextFloat() * 4f - 2f;
+                bounds[i * 4 + 1] += random.nextFloat() * 4f - 2f;
+                broadPhase.update(i, bounds[i * 4], bounds[i * 4 + 1], bounds[i * 4 + 2], bounds[i * 4 + 3]);
+            }
+        }
+    }
+
+    private static long[] bruteForce(float[] bounds, int count) {
+        long[] pairs = new long[count * count / 2];
+        int found = 0;
+        for (int a = 0; a < count; a++) {
+            for (int b = a + 1; b < count; b++) {
+                if (bounds[a * 4] < bounds[b * 4] + bounds[b * 4 + 2] && bounds[a * 4] + bounds[a * 4 + 2] > bounds[b * 4]
+                        && bounds[a * 4 + 1] < bounds[b * 4 + 1] + bounds[b * 4 + 3] && bounds[a * 4 + 1] + bounds[a * 4 + 3] > bounds[b * 4 + 1]) {
+                    pairs[found++] = SweepAndPrune.pair(a, b);
+                }
+            }
+        }
+        long[] result = Arrays.copyOf(pairs, found);
+        Arrays.sort(result);
+        return result;
+    }
+}
@@ -0,0 +1,165 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// Pixel: Game library.
+// Copyright (C) 2024 the original author or authors.
+//
+// This program is free software: you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation, either version 3
+// of the License, or (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program. If not, see
+// <https://www.gnu.org/licenses/> or write to the Free Software
+// Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+///////////////////////////////////////////////////////////////////////////////////////////////
+package com.openeggbert.pixel.framework.utils;
+
+import com.openeggbert.pixel.framework.files.FileException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AssetsManifestTest {
+
+    private AssetsManifest manifest;
+
+    @BeforeEach
+    void setUp() {
+        byte[] data = new AssetsManifestWriter()
+                .add("readme.txt", new byte[]{1, 2, 3})
+                .add("images/b.png", new byte[]{4, 5})
+                .add("images/a.png", new byte[]{6})
+                .add("images/tiles/grass.png", new byte[0])
+                .add("sounds/jump.wav", 1000L, 42L)
+                .toByteArray();
+        manifest = new AssetsManifest(data);
+    }
+
+    @Test
+    void testCounts() {
+        assertEquals(5, manifest.getFileCount());
+        assertEquals(4, manifest.getDirectoryCount());
+    }
+
+    @Test
+    void testListRoot() {
+        assertEquals(List.of("readme.txt", "images", "sounds"), manifest.listRoot());
+        assertEquals(List.of("readme.txt"), manifest.listRoot(false, true));
+        assertEquals(List.of("images", "sounds"), manifest.listRoot(true, false));
+    }
+
+    @Test
+    void testListDirectory() {
+        assertEquals(List.of("a.png", "b.png", "tiles"), manifest.list("images"));
+        assertEquals(List.of("tiles"), manifest.listDirectories("images"));
+        assertEquals(List.of("grass.png"), manifest.listFiles("images/tiles"));
+    }
+
+    @Test
+    void testListMissingDirectory() {
+        assertThrows(FileException.class, () -> manifest.list("missing"));
+        assertThrows(FileException.class, () -> manifest.list("images", false, false));
+    }
+
+    @Test
+    void testContains() {
+        assertTrue(manifest.containsDirectory("images/tiles"));
+        assertFalse(manifest.containsDirectory("images/grass.png"));
+        assertTrue(manifest.containsFile("images/tiles/grass.png"));
+        assertTrue(manifest.containsFile("readme.txt"));
+        assertFalse(manifest.containsFile("images"));
+        assertFalse(manifest.containsFile("missing/file.txt"));
+    }
+
+    @Test
+    void testSizeAndHash() {
+        assertEquals(3, manifest.getFileSize("readme.txt"));
+        assertEquals(BinaryUtilsImpl.INSTANCE.hash64(new byte[]{4, 5}), manifest.getFileHash("images/b.png"));
+        assertEquals(1000L, manifest.getFileSize("sounds/jump.wav"));
+        assertEquals(42L, manifest.getFileHash("sounds/jump.wav"));
+        assertThrows(FileException.class, () -> manifest.getFileSize("images/c.png"));
+    }
+
+    @Test
+    void testPaths() {
+        assertEquals("images/tiles", manifest.getDirectoryPath(3));
+        assertEquals("images/tiles/grass.png", manifest.getFilePath(manifest.getFileCount() - 1));
+    }
+
+    @Test
+    void testDuplicateAsset() {
+        AssetsManifestWriter writer = new AssetsManifestWriter().add("a/b.txt", new byte[0]);
+        assertThrows(FileException.class, () -> writer.add("a/b.txt", new byte[0]));
+        assertThrows(FileException.class, () -> writer.add("a", new byte[0]));
+    }
+
+    @Test
+    void testInvalidData() {
+        assertThrows(FileException.class, () -> new AssetsManifest(new byte[]{1, 2, 3}));
+    }
+
+    @Test
+    void testCorruptedData() {
+        byte[] data = new AssetsManifestWriter()
+                .add("readme.txt", new byte[]{1, 2, 3})
+                .add("images/tiles/grass.png", new byte[0])
+                .toByteArray();
+        for (int length = 0; length < data.length; length++) {
+            byte[] truncated = Arrays.copyOf(data, length);
+            assertThrows(FileException.class, () -> new AssetsManifest(truncated), "length " + length);
+        }
+        BinaryUtils bu = BinaryUtilsImpl.INSTANCE;
+        //every int from the counts in the header on
+        for (int offset = 8; offset + 4 <= data.length; offset += 4) {
+            for (int value : new int[]{-2, -1, 1000, Integer.MAX_VALUE, Integer.MIN_VALUE}) {
+                byte[] corrupted = data.clone();
+                bu.writeInt(corrupted, offset, value);
+                try {
+                    new AssetsManifest(corrupted);
+                } catch (FileException e) {
+                    //expected for most of the values
+                } catch (RuntimeException e) {
+                    fail("Value " + value + " at " + offset + " caused " + e);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testListsSameAsAssetsTxt() {
+        String text = "readme.txt\nimages/b.png\nimages/a.png\nimages/tiles/grass.png\n"
+                + "sounds/jump.wav\nlevels/world1/stage1.dat\nlevels/world1/stage2.dat\nlevels/world2/stage1.dat";
+        AssetsTxt assetsTxt = new AssetsTxt(text);
+        AssetsManifestWriter writer = new AssetsManifestWriter();
+        for (String line : text.split("\n")) {
+            writer.add(line, new byte[0]);
+        }
+        AssetsManifest assetsManifest = new AssetsManifest(writer.toByteArray());
+
+        for (String directory : List.of(".", "images", "images/tiles", "sounds", "levels", "levels/world1", "levels/world2")) {
+            assertTrue(assetsManifest.containsDirectory(directory) || directory.equals("."), directory);
+            assertEquals(assetsTxt.containsDirectory(directory), assetsManifest.containsDirectory(directory), directory);
+            assertEquals(sorted(assetsTxt.list(directory)), sorted(assetsManifest.list(directory)), directory);
+            assertEquals(sorted(assetsTxt.listFiles(directory)), sorted(assetsManifest.listFiles(directory)), directory);
+            assertEquals(sorted(assetsTxt.listDirectories(directory)), sorted(assetsManifest.listDirectories(directory)), directory);
+        }
+        assertFalse(assetsManifest.containsDirectory("images/a.png"));
+        assertEquals(assetsTxt.containsDirectory("images/a.png"), assetsManifest.containsDirectory("images/a.png"));
+        assertThrows(FileException.class, () -> assetsTxt.list("missing"));
+        assertThrows(FileException.class, () -> assetsManifest.list("missing"));
+    }
+
+    private static List<String> sorted(List<String> list) {
+        List<String> result = new ArrayList<>(list);
+        result.sort(null);
+        return result;
+    }
+}
@@ -0,0 +1,52 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// Pixel: Game library.
+// Copyright (C) 2024 the original author or authors.
+//
+// This program is free software: you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation, either version 3
+// of the License, or (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program. If not, see
+// <https://www.gnu.org/licenses/> or write to the Free Software
+// Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+///////////////////////////////////////////////////////////////////////////////////////////////
+package com.openeggbert.pixel.framework.utils;
+
+import com.openeggbert.pixel.framework.math.Vec2;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+class PoolTest {
+
+    @Test
+    void testObtainFree() {
+        Pool<Vec2> pool = new Pool<>(Vec2::new);
+        Vec2 vector = pool.obtain().set(1f, 2f);
+        pool.free(vector);
+        assertEquals(1, pool.getFree());
+        Vec2 again = pool.obtain();
+        assertSame(vector, again);
+        assertTrue(again.isZero());
+        assertEquals(0, pool.getFree());
+        assertNotSame(again, pool.obtain());
+    }
+
+    @Test
+    void testMaxAndFill() {
+        Pool<Vec2> pool = new Pool<>(Vec2::new, 4, 2);
+        pool.fill(5);
+        assertEquals(2, pool.getFree());
+        pool.free(new Vec2());
+        assertEquals(2, pool.getFree());
+        assertEquals(2, pool.getPeak());
+        pool.clear();
+        assertEquals(0, pool.getFree());
+    }
+}